@@ -0,0 +1,148 @@
+/*
+file name:      BankrollSimulationTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea BankrollSimulationTests
+*/
+
+public class BankrollSimulationTests {
+
+    public static void bankrollSimulationTests() {
+
+        // case 1: testing the bet ramps
+        {
+            // set up
+            BetRamp flat = BetRamp.flat(2);
+            BetRamp spread = BetRamp.spread(CountingSystem.HI_LO, 1, 2, 8);
+
+            // verify
+            System.out.println(flat + ", " + spread);
+
+            // test
+            assert flat.bet(-5) == 2 && flat.bet(7) == 2 && flat.getSystem() == null : "Error in BetRamp::flat()";
+            assert spread.bet(-3.5) == 1 && spread.bet(1.9) == 1 : "Error in BetRamp::spread() - low counts";
+            assert spread.bet(2.1) == 3 && spread.bet(3) == 5 && spread.bet(4.5) == 7 : "Error in BetRamp::spread() - ramp";
+            assert spread.bet(5) == 8 && spread.bet(50) == 8 : "Error in BetRamp::spread() - maximum bet";
+            assert spread.getMinBet() == 1 && spread.spreadRatio() == 8 : "Error in BetRamp::spreadRatio()";
+            boolean thrown = false;
+            try {
+                new BetRamp(CountingSystem.KO, 1, 0);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in BetRamp() - a zero bet was accepted";
+        }
+
+        // case 2: testing BankrollResult
+        {
+            // set up
+            BankrollResult a = new BankrollResult(10);
+            BankrollResult b = new BankrollResult(10);
+            a.record(true, false, 40, 0, -1, 12);
+            a.record(false, true, 30, 20, 30, 3);
+            b.record(false, true, 10, 21, 10, 0);
+            b.record(false, false, 100, 15, 60, 8);
+            b.record(true, false, 5, -1, -1, 11);
+            a.merge(b);
+
+            // verify
+            System.out.println(a);
+
+            // test
+            assert a.trajectories() == 5 && a.getRuined() == 2 && a.getReachedGoal() == 2 && a.getUnfinished() == 1
+                    : "Error in BankrollResult::merge() - counts";
+            assert Math.abs(a.riskOfRuin() - 0.4) < 1e-12 : "Error in BankrollResult::riskOfRuin()";
+            assert Math.abs(a.doubledFraction() - 0.6) < 1e-12 : "Error in BankrollResult::doubledFraction()";
+            assert a.medianTimeToDouble() == 60 : "Error in BankrollResult::medianTimeToDouble()";
+            assert a.drawdownPercentile(50) == 8 && a.drawdownPercentile(100) == 12 && a.drawdownPercentile(0) == 0
+                    : "Error in BankrollResult::drawdownPercentile()";
+            assert Math.abs(a.getRounds().getMean() - 37) < 1e-12 : "Error in BankrollResult::getRounds()";
+            b.record(true, false, 1, 0, -1, 10);
+            b.record(true, false, 2, 0, -1, 10);
+            assert b.medianTimeToDouble() == -1 : "Error in BankrollResult::medianTimeToDouble() - under half doubled";
+        }
+
+        // case 3: testing that a seed gives identical results for any thread count
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+            BetRamp ramp = BetRamp.spread(CountingSystem.HI_LO, 1, 2, 8);
+            long trajectories = 5L * BankrollSimulation.TRAJECTORIES_PER_SHARD + 7; // Not a multiple of the shard size
+            BankrollResult one = new BankrollSimulation(1, rules, new BasicStrategy(), ramp).run(trajectories, 20, 40, 100_000, 9);
+            BankrollResult many = new BankrollSimulation(6, rules, new BasicStrategy(), ramp).run(trajectories, 20, 40, 100_000, 9);
+
+            // verify
+            System.out.println(one + " == " + many);
+
+            // test
+            assert one.trajectories() == trajectories : "Error in BankrollSimulation::run() - trajectory count";
+            assert one.toString().equals(many.toString()) : "Error in BankrollSimulation::run() - depends on thread count";
+            assert one.drawdownPercentile(90) == many.drawdownPercentile(90) : "Error in BankrollSimulation::run() - drawdowns differ";
+            assert one.medianTimeToDouble() == many.medianTimeToDouble() : "Error in BankrollSimulation::run() - doubling times differ";
+            assert one.getSeed() == 9 : "Error in BankrollResult::getSeed()";
+        }
+
+        // case 4: testing that trajectories stop as soon as they are absorbed
+        {
+            // set up
+            BankrollSimulation sim = new BankrollSimulation(2, new Rules().compile(), new BasicStrategy(), BetRamp.flat(1));
+            BankrollResult edge = sim.run(500, 1, 2, 1_000_000, 4);   // One losing round ruins, one winning round wins
+            BankrollResult capped = sim.run(500, 50, 100, 3, 4);       // Never absorbed within 3 rounds
+
+            // verify
+            System.out.println(edge + ", " + capped);
+
+            // test
+            assert edge.getUnfinished() == 0 : "Error in BankrollSimulation::run() - trajectory not absorbed";
+            assert edge.getRounds().getMean() < 3 : "Error in BankrollSimulation::run() - kept playing after absorption";
+            assert capped.getUnfinished() == 500 && capped.getRounds().getMean() == 3 : "Error in BankrollSimulation::run() - maxRounds ignored";
+            assert capped.riskOfRuin() == 0 : "Error in BankrollSimulation::run() - ruin without losing the bankroll";
+            assert capped.getFinalBankroll().getMean() > 40 && capped.getFinalBankroll().getMean() < 60 : "Error in BankrollSimulation::run() - final bankroll";
+        }
+
+        // case 5: testing that a count-keyed spread lowers the risk of ruin
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+            BankrollResult flat = new BankrollSimulation(2, rules, new BasicStrategy(), BetRamp.flat(1))
+                    .run(1000, 100, 200, 1_000_000, 17);
+            BankrollResult spread = new BankrollSimulation(2, rules, new BasicStrategy(), BetRamp.spread(CountingSystem.HI_LO, 1, 2, 8))
+                    .run(1000, 100, 200, 1_000_000, 17);
+
+            // verify
+            System.out.println("flat ruin " + flat.riskOfRuin() + ", spread ruin " + spread.riskOfRuin());
+
+            // test
+            assert flat.riskOfRuin() > 0.5 : "Error in BankrollSimulation - flat betting should usually lose";
+            assert spread.riskOfRuin() < flat.riskOfRuin() - 0.05 : "Error in BankrollSimulation - the spread should lower the risk of ruin";
+            assert flat.getUnfinished() == 0 && spread.getUnfinished() == 0 : "Error in BankrollSimulation - trajectories not absorbed";
+        }
+
+        // case 6: testing that an all-in round that doubles down cannot go below nothing
+        {
+            // set up
+            // Every round bets the whole bankroll, so a lost double or split loses more than is left
+            BankrollSimulation sim = new BankrollSimulation(2, new Rules().compile(), new BasicStrategy(), BetRamp.flat(1));
+            BankrollResult allIn = sim.run(5000, 1, 2, 1_000_000, 6);
+
+            // verify
+            System.out.println(allIn + ", deepest drawdown " + allIn.drawdownPercentile(100));
+
+            // test
+            assert allIn.getRuined() > 0 : "Error in BankrollSimulation - expected some all-in rounds to lose";
+            assert allIn.drawdownPercentile(100) == 1 : "Error in BankrollSimulation - drawdown past the starting bankroll";
+            // The ruined trajectories finish with exactly 0 and the rest with at least the goal
+            double floor = 2.0 * allIn.getReachedGoal() / allIn.trajectories();
+            assert allIn.getFinalBankroll().getMean() >= floor : "Error in BankrollSimulation - final bankroll below 0";
+        }
+
+        System.out.println("*** Done testing BankrollSimulation! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        bankrollSimulationTests();
+    }
+}
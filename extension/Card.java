@@ -3,13 +3,31 @@
  * Purpose of the class: This is a card object that holds all the information unique to a card e.g. the value of the card
  *
  * How to run: java -ea Card
+ * Cards are immutable, so one shared instance per value is enough for every deck.
+ * Card.of() hands out those canonical instances, which lets a deck be built and
+ * rebuilt without creating any new objects.
  */
 public class Card {
 
     /**
      * The value of the card.
      */
-    private int value;
+    private final int value;
+
+    /** The lowest card value a deck holds */
+    public static final int MIN_VALUE = 2;
+
+    /** The highest card value a deck holds (an Ace) */
+    public static final int MAX_VALUE = 11;
+
+    /** The canonical card for each value, indexed by the value itself */
+    private static final Card[] CANONICAL = new Card[MAX_VALUE + 1];
+
+    static {
+        for (int v = MIN_VALUE; v <= MAX_VALUE; v++) {
+            CANONICAL[v] = new Card(v);
+        }
+    }
 
     /**
      * Constructs a card with the specified value.
@@ -19,6 +37,18 @@ public class Card {
         this.value = val;
     }
 
+    /**
+     * Returns the shared card for a value instead of creating a new one.
+     * @param val the value of the card, from 2 to 11
+     * @return the canonical card with that value
+     */
+    public static Card of(int val) {
+        if (val < MIN_VALUE || val > MAX_VALUE) {
+            throw new IllegalArgumentException("No card has the value " + val);
+        }
+        return CANONICAL[val];
+    }
+
     /**
      * Returns the value of the card.
      * @return the value of the card
@@ -0,0 +1,127 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Helpers for describing a shoe by how many cards of each value it holds,
+ * instead of by the order of its cards. A composition is an int array with one count per
+ * card value, where index 0 holds the 2s and index 9 holds the Aces (value 11), matching
+ * the values Deck.build() produces.
+ */
+public class Composition {
+
+    /** The number of distinct card values (2 to 9, 10, Ace) */
+    public static final int RANKS = 10;
+
+    /** How many cards of each value one standard deck holds, by index */
+    private static final int[] PER_DECK = {4, 4, 4, 4, 4, 4, 4, 4, 16, 4};
+
+    /** Bits used to pack the count of each non-ten value (enough for 15 decks) */
+    private static final int SMALL_BITS = 6;
+
+    /** Bits used to pack the count of tens (enough for 63 decks) */
+    private static final int TEN_BITS = 10;
+
+    /** The probability of drawing each value from an infinite shoe, by index */
+    private static final double[] INFINITE = new double[RANKS];
+
+    static {
+        for (int i = 0; i < RANKS; i++) {
+            INFINITE[i] = PER_DECK[i] / (double) Deck.CARDS_PER_DECK;
+        }
+    }
+
+    /**
+     * Returns the composition index of a card value.
+     *
+     * @param value a card value from 2 to 11
+     * @return the index from 0 to 9
+     */
+    public static int index(int value) {
+        return value - Card.MIN_VALUE;
+    }
+
+    /**
+     * Returns the card value stored at a composition index.
+     *
+     * @param index an index from 0 to 9
+     * @return the card value from 2 to 11
+     */
+    public static int value(int index) {
+        return index + Card.MIN_VALUE;
+    }
+
+    /**
+     * Returns the mirror of a composition index: the value holding the same place counted from
+     * the other end, among the values a deck holds four of (2 and Ace, 3 and 9, 4 and 8, 5 and 7;
+     * 6 is its own mirror, and so are the tens, which have no partner with the same count).
+     * Swapping every card of a shoe for its mirror keeps the shoe's composition, so a shuffled
+     * shoe and its mirror are equally likely; the low cards of one are the high cards of the other.
+     *
+     * @param index an index from 0 to 9
+     * @return the index of the mirror value
+     */
+    public static int mirror(int index) {
+        if (index == index(10)) {
+            return index;
+        }
+        int place = index == index(11) ? 8 : index; // Place among the nine four-per-deck values
+        int mirrored = 8 - place;
+        return mirrored == 8 ? index(11) : mirrored;
+    }
+
+    /**
+     * Returns the composition of a freshly built shoe.
+     *
+     * @param numDecks the number of 52-card decks
+     * @return a new array with the count of each value
+     */
+    public static int[] full(int numDecks) {
+        int[] counts = new int[RANKS];
+        for (int i = 0; i < RANKS; i++) {
+            counts[i] = PER_DECK[i] * numDecks;
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the probability of drawing a value from an infinite shoe.
+     *
+     * @param index the composition index of the value
+     * @return the probability (1/13, or 4/13 for tens)
+     */
+    public static double infiniteProbability(int index) {
+        return INFINITE[index];
+    }
+
+    /**
+     * Adds up the cards in a composition.
+     *
+     * @param counts the count of each value
+     * @return the total number of cards
+     */
+    public static int total(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Packs a composition into a single long, so it can be used as a map key.
+     * The nine non-ten counts take 6 bits each and the tens take the last 10 bits,
+     * which fits any shoe of up to 15 decks.
+     *
+     * @param counts the count of each value
+     * @return the packed composition
+     */
+    public static long pack(int[] counts) {
+        long key = 0;
+        for (int i = 0; i < RANKS; i++) {
+            int bits = i == index(10) ? TEN_BITS : SMALL_BITS;
+            if (counts[i] < 0 || counts[i] >= (1 << bits)) {
+                throw new IllegalArgumentException("Count " + counts[i] + " of value " + value(i) + " is too large to pack");
+            }
+            key = (key << bits) | counts[i];
+        }
+        return key;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Keeps the running count of one CountingSystem for one Deck.
+ * The deck calls count() for every card it deals, which adds one tag from a small array,
+ * so the count costs O(1) per card and is always up to date. Rebuilding the shoe puts the
+ * count back to its initial value. The true count divides the running count by the number
+ * of decks still to be dealt.
+ *
+ * Create a Counter with Deck.addCounter(); it belongs to that deck and, like the deck, is not
+ * thread-safe.
+ */
+public class Counter {
+
+    /** The counting system being kept */
+    private final CountingSystem system;
+
+    /** The tag of each card value, by composition index */
+    private final int[] tags;
+
+    /** The running count of a fresh shoe */
+    private final int initial;
+
+    /** The deck whose cards are being counted */
+    private final Deck deck;
+
+    /** The current running count */
+    private int running;
+
+    /**
+     * Constructor — called by Deck.addCounter(). The cards the deck has already dealt are
+     * counted straight away, so the count is correct from the start.
+     *
+     * @param system the counting system to keep
+     * @param deck the deck being counted
+     */
+    Counter(CountingSystem system, Deck deck) {
+        this.system = system;
+        this.tags = system.tags();
+        this.initial = system.initialRunningCount(deck.getNumDecks());
+        this.deck = deck;
+
+        int[] full = Composition.full(deck.getNumDecks());
+        int[] left = deck.composition(new int[Composition.RANKS]);
+        running = initial;
+        for (int i = 0; i < Composition.RANKS; i++) {
+            running += tags[i] * (full[i] - left[i]);
+        }
+    }
+
+    /**
+     * Counts a card that has been dealt.
+     *
+     * @param index the composition index of the card's value
+     */
+    void count(int index) {
+        running += tags[index];
+    }
+
+    /**
+     * Takes back a card that has been put back into the deck.
+     *
+     * @param index the composition index of the card's value
+     */
+    void uncount(int index) {
+        running -= tags[index];
+    }
+
+    /**
+     * Starts counting a fresh shoe.
+     */
+    void reset() {
+        running = initial;
+    }
+
+    /** @return the current running count */
+    public int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * Returns the number of decks still to be dealt.
+     *
+     * @return the cards left in the deck divided by 52
+     */
+    public double decksRemaining() {
+        return deck.size() / (double) Deck.CARDS_PER_DECK;
+    }
+
+    /**
+     * Returns the true count: the running count per deck still to be dealt.
+     *
+     * @return the true count (the running count itself if the deck is empty)
+     */
+    public double trueCount() {
+        int left = deck.size();
+        return left == 0 ? running : running * (double) Deck.CARDS_PER_DECK / left;
+    }
+
+    /** @return the counting system being kept */
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    /**
+     * Returns the system and its running and true counts.
+     *
+     * @return a string representation of this counter
+     */
+    @Override
+    public String toString() {
+        return system + " [running " + running + ", true " + String.format("%.2f", trueCount()) + "]";
+    }
+}
@@ -75,6 +75,186 @@ public class DeckTests {
             assert d1.size() == 52 : "Error in Deck::shuffle()";
         }
 
+        // case 5: testing Deck(int numDecks) and dealing a whole shoe
+        {
+            // set up
+            Deck d1 = new Deck(8);
+
+            // verify
+            System.out.println(d1.size() + " == 416");
+
+            // test
+            assert d1.size() == 8 * 52 : "Error in Deck::Deck(int numDecks)";
+            int total = 0;
+            for (int i = 0; i < 8 * 52; i++) {
+                total += d1.deal().getValue();
+            }
+            assert d1.size() == 0 : "Error in Deck::deal()";
+            assert total == 8 * 380 : "Error in Deck::build()";
+            d1.build();
+            assert d1.size() == 8 * 52 : "Error in Deck::build()";
+        }
+
+        // case 6: testing that build() and shuffle() allocate nothing
+        {
+            // set up
+            Deck d1 = new Deck(8);
+            for (int i = 0; i < 20000; i++) { // let the JIT compile the hot paths first
+                d1.build();
+                d1.shuffle();
+            }
+
+            // verify
+            long before = Benchmarks.allocatedBytes();
+            for (int i = 0; i < 10000; i++) {
+                d1.build();
+                d1.shuffle();
+            }
+            long bytes = Benchmarks.allocatedBytes() - before;
+            System.out.println(bytes + " bytes allocated by 10000 rebuilds");
+
+            // test
+            assert bytes < 10000 : "Error in Deck::build() - rebuilding the shoe allocates";
+        }
+
+        // case 7: testing the cut card and needsShuffle()
+        {
+            // set up
+            Deck d1 = new Deck();
+            Deck d2 = new Deck(6, 0.75, new SplittableRandomSource(1));
+
+            // verify
+            System.out.println(d1.getPenetration() + " == 0.5");
+
+            // test
+            for (int i = 0; i < 26; i++) {
+                d1.deal();
+            }
+            assert !d1.needsShuffle() : "Error in Deck::needsShuffle() - 26 cards left";
+            d1.deal();
+            assert d1.needsShuffle() : "Error in Deck::needsShuffle() - 25 cards left";
+            d1.build();
+            assert !d1.needsShuffle() : "Error in Deck::build() - cut card not reset";
+
+            for (int i = 0; i < 234; i++) { // 75% of 312 cards
+                d2.deal();
+            }
+            assert !d2.needsShuffle() : "Error in Deck::needsShuffle() - at the cut card";
+            d2.deal();
+            assert d2.needsShuffle() : "Error in Deck::needsShuffle() - past the cut card";
+
+            boolean threw = false;
+            try {
+                new Deck(1, 1.0, new SplittableRandomSource(1));
+            } catch (IllegalArgumentException e) {
+                threw = true;
+            }
+            assert threw : "Error in Deck::Deck() - accepted a penetration of 100%";
+        }
+
+        // case 8: testing composition()
+        {
+            // set up
+            Deck d1 = new Deck(2);
+            d1.shuffle();
+            int[] expected = Composition.full(2);
+            for (int i = 0; i < 30; i++) {
+                expected[Composition.index(d1.deal().getValue())]--;
+            }
+
+            // verify
+            int[] counts = d1.composition(new int[Composition.RANKS]);
+            System.out.println(Composition.total(counts) + " == 74");
+
+            // test
+            for (int i = 0; i < Composition.RANKS; i++) {
+                assert counts[i] == expected[i] : "Error in Deck::composition()";
+            }
+            d1.build();
+            assert Composition.total(d1.composition(counts)) == 104 : "Error in Deck::build() - composition not reset";
+        }
+
+        // case 9: testing position() and seek() replay the same cards
+        {
+            // set up
+            Deck d1 = new Deck(1, new SplittableRandomSource(9));
+            d1.shuffle();
+            d1.deal();
+            int start = d1.position();
+            int[] first = new int[10];
+            for (int i = 0; i < first.length; i++) {
+                first[i] = d1.deal().getValue();
+            }
+            int[] before = d1.composition(new int[Composition.RANKS]);
+
+            // verify
+            d1.seek(start);
+            System.out.println(d1.position() + " == 1");
+
+            // test
+            assert Composition.total(d1.composition(new int[Composition.RANKS])) == 51 : "Error in Deck::seek() - cards not put back";
+            for (int i = 0; i < first.length; i++) {
+                assert d1.deal().getValue() == first[i] : "Error in Deck::seek() - different cards after rewinding";
+            }
+            d1.seek(start);
+            d1.seek(start + first.length); // forward again, skipping the same cards
+            int[] after = d1.composition(new int[Composition.RANKS]);
+            for (int i = 0; i < Composition.RANKS; i++) {
+                assert after[i] == before[i] : "Error in Deck::seek() - composition after skipping forward";
+            }
+        }
+
+        // case 10: testing the discards are reshuffled when the shoe runs out mid-round
+        {
+            // set up
+            Deck d1 = new Deck(1, new SplittableRandomSource(10));
+            d1.shuffle();
+            for (int i = 0; i < 40; i++) {
+                d1.deal(); // earlier rounds
+            }
+            d1.startRound();
+            int[] dealt = new int[Composition.RANKS];
+            for (int i = 0; i < 20; i++) { // 12 cards left, so the last 8 come from the discards
+                dealt[d1.deal().getValue() - Card.MIN_VALUE]++;
+            }
+
+            // verify
+            System.out.println(d1.size() + " == 32");
+
+            // test
+            assert d1.size() == 32 : "Error in Deck::deal() - wrong number of cards after reshuffling the discards";
+            int[] left = d1.composition(new int[Composition.RANKS]);
+            int[] full = Composition.full(1);
+            for (int i = 0; i < Composition.RANKS; i++) {
+                assert left[i] + dealt[i] == full[i] : "Error in Deck::deal() - table cards put back into the shoe";
+            }
+
+            // undoing the reshuffle deals the round again from the same cards
+            assert d1.reshuffledThisRound() : "Error in Deck::reshuffledThisRound()";
+            d1.undoReshuffle();
+            assert d1.position() == 40 && d1.size() == 12 && !d1.reshuffledThisRound() : "Error in Deck::undoReshuffle() - cursor";
+            int[] again = new int[Composition.RANKS];
+            for (int i = 0; i < 20; i++) {
+                again[d1.deal().getValue() - Card.MIN_VALUE]++;
+            }
+            for (int i = 0; i < Composition.RANKS; i++) {
+                assert again[i] == dealt[i] : "Error in Deck::undoReshuffle() - the round was dealt different cards";
+            }
+
+            // a deck with no round started still runs dry
+            Deck d2 = new Deck(1, new SplittableRandomSource(10));
+            for (int i = 0; i < Deck.CARDS_PER_DECK; i++) {
+                d2.deal();
+            }
+            boolean threw = false;
+            try {
+                d2.deal();
+            } catch (IllegalStateException e) {
+                threw = true;
+            }
+            assert threw : "Error in Deck::deal() - dealt from an empty deck";
+        }
+
         Deck d1 = new Deck();
    
         
@@ -82,7 +262,7 @@ public class DeckTests {
         for (int j = 2; j < 12; j++){
             int counter = 0;{
                 for (int i = 0; i< d1.size(); i++){
-                    int cardval = d1.mydeck.get(i).getValue();
+                    int cardval = d1.getCard(i).getValue();
                     if (cardval == j){
                         counter++;
     
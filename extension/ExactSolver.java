@@ -0,0 +1,537 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: ExactSolver.java
+ *
+ * Purpose:
+ * This class works out, exactly, the expected value of standing, hitting, doubling, splitting
+ * and surrendering for a player hand against a dealer upcard, drawing from a given shoe
+ * composition. Nothing is sampled: every card the player and the dealer could draw is followed,
+ * with its odds taken from the cards left. That gives ground truth to check the simulator
+ * against, and a fast answer for states that come up often.
+ *
+ * The shoe is a Composition, holding the same values Deck.build() puts in a shoe, and the dealer
+ * draws by the same rule table as Blackjack.dealerTurn(). The player's hand follows Hand.add()
+ * and RoundEngine: a hand stands on 21, split Aces take one card, and doubling after a split
+ * follows the rules.
+ *
+ * The dealer's hole card is drawn last, after the player's cards. The cards come out of a
+ * shuffled shoe in any order with the same odds, so this changes nothing, except that when the
+ * dealer peeks the hole card must not make a natural. That is handled by leaving the natural
+ * out of the dealer's distribution: every value below is then the expected value times the odds
+ * of no dealer natural, and the answers are divided by those odds at the top.
+ *
+ * Splitting is worked out for the first split hand, and the second hand is counted as playing
+ * from the same shoe. That is the usual simplification in exact solvers, and the error it leaves
+ * is a small fraction of a percent; resplits are not followed.
+ *
+ * Every composition the recursion reaches gets a memo entry, keyed by Composition.pack(), holding
+ * the dealer's distribution and the value of hitting each player total for each upcard. The memo
+ * is bounded and drops the least recently used compositions first. The top-level branches (each
+ * first card the player could draw for a hit, double or split) are shared out over a ForkJoinPool,
+ * and all of them share the memo.
+ */
+public class ExactSolver {
+
+    /** The number of dealer endings kept: 17, 18, 19, 20, 21, bust and a natural */
+    static final int OUTCOMES = 7;
+
+    /** The index of the bust probability in a dealer distribution */
+    static final int BUST = 5;
+
+    /** The index of the natural probability in a dealer distribution (0 when the dealer peeks) */
+    static final int NATURAL = 6;
+
+    /** The number of player states: every total up to 21, hard and soft */
+    private static final int STATES = 22 * 2;
+
+    /** The kinds of top-level branch */
+    private static final int HIT = 0, DOUBLE = 1, SPLIT = 2;
+
+    /** The number of worker threads used for the top-level branches */
+    private final int threads;
+
+    /** The table rules the hands are played by */
+    private final RuleTable rules;
+
+    /** Memo entries by packed composition, in access order */
+    private final LinkedHashMap<Long, Entry> memo;
+
+    /**
+     * Constructor — chooses the rules and how many compositions the memo may hold.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules
+     * @param cacheSize the most compositions to keep in the memo (at least 1)
+     */
+    public ExactSolver(int threads, RuleTable rules, int cacheSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be at least 1: " + cacheSize);
+        }
+        this.threads = threads;
+        this.rules = rules;
+        this.memo = new LinkedHashMap<Long, Entry>(16, 0.75f, true) { // access order, for LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the composition of a full shoe after the player's cards and the upcard are dealt.
+     *
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @param cards the values of the player's cards (2 to 11)
+     * @return the count of each value left
+     */
+    public static int[] afterDeal(int numDecks, int upcard, int... cards) {
+        int[] counts = Composition.full(numDecks);
+        counts[Composition.index(upcard)]--;
+        for (int card : cards) {
+            counts[Composition.index(card)]--;
+        }
+        for (int count : counts) {
+            if (count < 0) {
+                throw new IllegalArgumentException("the shoe does not hold those cards");
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Works out the value of every action for a hand.
+     *
+     * @param counts the composition of the shoe, with the upcard and the player's cards taken out (left unchanged)
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @param cards the values of the player's cards (at least two, 2 to 11)
+     * @return the value of each action
+     */
+    public HandValues solve(int[] counts, int upcard, int... cards) {
+        if (cards.length < 2) {
+            throw new IllegalArgumentException("a hand needs at least two cards: " + cards.length);
+        }
+        int total = 0;
+        int softAces = 0;
+        for (int card : cards) {
+            total += card;
+            softAces += card == 11 ? 1 : 0;
+            while (total > 21 && softAces > 0) {
+                total -= 10;
+                softAces--;
+            }
+        }
+        if (total > 21) {
+            throw new IllegalArgumentException("the hand is already bust: " + Arrays.toString(cards));
+        }
+        int[] work = counts.clone();
+        double norm = noNatural(work, upcard); // The odds the player gets to choose at all
+        boolean natural = cards.length == 2 && total == 21;
+        double stand = stand(total, natural, work, upcard) / norm;
+        if (natural) {
+            return new HandValues(stand, Double.NaN, Double.NaN, Double.NaN, Double.NaN); // A natural is paid at once
+        }
+
+        boolean canHit = total < 21;
+        boolean canDouble = canHit && cards.length == 2;
+        boolean canSplit = cards.length == 2 && cards[0] == cards[1] && rules.maxHands >= 2;
+        double[] sums = new double[3];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Branch[] branches = new Branch[3 * Composition.RANKS]; // By kind, then by first card
+            List<Branch> tasks = new ArrayList<>();
+            for (int i = 0; i < Composition.RANKS; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                if (canHit) {
+                    branches[HIT * Composition.RANKS + i] = new Branch(HIT, total, softAces, i, counts, upcard);
+                }
+                if (canDouble) {
+                    branches[DOUBLE * Composition.RANKS + i] = new Branch(DOUBLE, total, softAces, i, counts, upcard);
+                }
+                if (canSplit) {
+                    branches[SPLIT * Composition.RANKS + i] = new Branch(SPLIT, cards[0], cards[0] == 11 ? 1 : 0, i, counts, upcard);
+                }
+            }
+            for (Branch branch : branches) {
+                if (branch != null) {
+                    tasks.add(branch);
+                }
+            }
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+            double left = Composition.total(counts);
+            for (int b = 0; b < branches.length; b++) { // Added up in a fixed order, so any thread count gives the same sums
+                if (branches[b] != null) {
+                    sums[b / Composition.RANKS] += counts[b % Composition.RANKS] / left * branches[b].join();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new HandValues(stand,
+                canHit ? sums[HIT] / norm : Double.NaN,
+                canDouble ? sums[DOUBLE] / norm : Double.NaN,
+                canSplit ? 2 * sums[SPLIT] / norm : Double.NaN,
+                rules.lateSurrender && cards.length == 2 ? -0.5 : Double.NaN);
+    }
+
+    /**
+     * Returns how many compositions the memo holds.
+     *
+     * @return the number of memo entries
+     */
+    public int cacheSize() {
+        synchronized (memo) {
+            return memo.size();
+        }
+    }
+
+    /**
+     * Returns the dealer's final-total distribution, times the odds of no natural when the dealer
+     * peeks, for an upcard with the hole card and every later card drawn from the shoe.
+     *
+     * @param counts the composition of the shoe (left unchanged once this returns)
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @return the odds of ending on 17, 18, 19, 20, 21, bust and a natural (do not modify)
+     */
+    double[] dealer(int[] counts, int upcard) {
+        Entry entry = entry(counts);
+        double[] dist = entry.getDealer(upcard);
+        if (dist != null) {
+            return dist;
+        }
+        dist = new double[OUTCOMES];
+        double left = Composition.total(counts);
+        for (int i = 0; i < Composition.RANKS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            double p = counts[i] / left;
+            int value = Composition.value(i);
+            int total = upcard + value;
+            int softAces = (upcard == 11 ? 1 : 0) + (value == 11 ? 1 : 0);
+            if (total > 21) {
+                total -= 10; // Two Aces
+                softAces--;
+            }
+            if (total == 21) {
+                if (!rules.dealerPeek) {
+                    dist[NATURAL] += p; // When the dealer peeks, the player never gets this far
+                }
+                continue;
+            }
+            counts[i]--;
+            dealerSettle(total, softAces, counts, p, dist);
+            counts[i]++;
+        }
+        entry.putDealer(upcard, dist);
+        return dist;
+    }
+
+    /**
+     * Records the dealer's ending if the dealer stands, or follows every card the dealer could draw.
+     *
+     * @param total the dealer's current total
+     * @param softAces how many aces are still counted as 11
+     * @param counts the remaining shoe
+     * @param weight the probability of reaching this hand
+     * @param dist where the endings are added up
+     */
+    private void dealerSettle(int total, int softAces, int[] counts, double weight, double[] dist) {
+        if (total > 21) {
+            dist[BUST] += weight;
+            return;
+        }
+        if (!rules.dealerDraws(total, softAces > 0)) { // The same table Blackjack.dealerTurn() reads
+            dist[total - 17] += weight;
+            return;
+        }
+        double left = Composition.total(counts);
+        for (int i = 0; i < Composition.RANKS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            int value = Composition.value(i);
+            int newTotal = total + value;
+            int newSoft = softAces + (value == 11 ? 1 : 0);
+            while (newTotal > 21 && newSoft > 0) {
+                newTotal -= 10;
+                newSoft--;
+            }
+            double p = counts[i] / left;
+            counts[i]--;
+            dealerSettle(newTotal, newSoft, counts, weight * p, dist);
+            counts[i]++;
+        }
+    }
+
+    /**
+     * Returns the odds the dealer has no natural, or 1 when the dealer does not peek (the round
+     * is played out either way then, and a natural is just one of the dealer's endings).
+     *
+     * @param counts the composition of the shoe
+     * @param upcard the value of the dealer's upcard
+     * @return the odds the player gets to play the hand
+     */
+    private double noNatural(int[] counts, int upcard) {
+        if (!rules.dealerPeek || (upcard != 10 && upcard != 11)) {
+            return 1;
+        }
+        int partner = Composition.index(upcard == 10 ? 11 : 10);
+        return 1 - (double) counts[partner] / Composition.total(counts);
+    }
+
+    /**
+     * Returns the value of standing on a total.
+     *
+     * @param total the player's total (21 or less)
+     * @param natural whether the hand is a natural
+     * @param counts the remaining shoe
+     * @param upcard the value of the dealer's upcard
+     * @return the expected net profit, times the odds of no dealer natural when the dealer peeks
+     */
+    double stand(int total, boolean natural, int[] counts, int upcard) {
+        double[] dist = dealer(counts, upcard);
+        if (natural) {
+            return rules.blackjackPays * (noNatural(counts, upcard) - dist[NATURAL]); // A dealer natural pushes
+        }
+        double value = dist[BUST] - dist[NATURAL];
+        for (int t = 17; t <= 21; t++) {
+            if (total > t) {
+                value += dist[t - 17];
+            } else if (total < t) {
+                value -= dist[t - 17];
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of a hand played on perfectly: bust, stand on 21, or the better of
+     * standing and hitting.
+     *
+     * @param total the player's total
+     * @param softAces how many aces are still counted as 11 (0 or 1)
+     * @param counts the remaining shoe
+     * @param upcard the value of the dealer's upcard
+     * @return the expected net profit, times the odds of no dealer natural when the dealer peeks
+     */
+    double best(int total, int softAces, int[] counts, int upcard) {
+        if (total > 21) {
+            return -noNatural(counts, upcard);
+        }
+        double stand = stand(total, false, counts, upcard);
+        if (total == 21) {
+            return stand; // RoundEngine stands on 21
+        }
+        return Math.max(stand, hit(total, softAces, counts, upcard));
+    }
+
+    /**
+     * Returns the value of hitting a hand once and then playing on perfectly.
+     *
+     * @param total the player's total (20 or less)
+     * @param softAces how many aces are still counted as 11 (0 or 1)
+     * @param counts the remaining shoe
+     * @param upcard the value of the dealer's upcard
+     * @return the expected net profit, times the odds of no dealer natural when the dealer peeks
+     */
+    double hit(int total, int softAces, int[] counts, int upcard) {
+        Entry entry = entry(counts);
+        int state = total * 2 + softAces;
+        double value = entry.getHit(upcard, state);
+        if (!Double.isNaN(value)) {
+            return value;
+        }
+        value = 0;
+        double left = Composition.total(counts);
+        for (int i = 0; i < Composition.RANKS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            double p = counts[i] / left;
+            counts[i]--;
+            value += p * afterCard(HIT, total, softAces, i, counts, upcard);
+            counts[i]++;
+        }
+        entry.putHit(upcard, state, value);
+        return value;
+    }
+
+    /**
+     * Returns the value of a hand once it has taken one more card: played on perfectly after a
+     * hit, stood on after a double, or played as a split hand (which may double if the rules allow).
+     * The card must already be out of the shoe.
+     *
+     * @param kind HIT, DOUBLE or SPLIT
+     * @param total the hand's total before the card (for SPLIT, the value of the split card)
+     * @param softAces how many aces are still counted as 11 before the card
+     * @param index the composition index of the card
+     * @param counts the remaining shoe, with the card taken out
+     * @param upcard the value of the dealer's upcard
+     * @return the expected net profit (per bet for SPLIT, doubled for DOUBLE), times the odds of no dealer natural
+     */
+    double afterCard(int kind, int total, int softAces, int index, int[] counts, int upcard) {
+        int value = Composition.value(index);
+        int newTotal = total + value;
+        int newSoft = softAces + (value == 11 ? 1 : 0);
+        while (newTotal > 21 && newSoft > 0) { // The same as Hand.add()
+            newTotal -= 10;
+            newSoft--;
+        }
+        if (kind == HIT) {
+            return best(newTotal, newSoft, counts, upcard);
+        }
+        if (kind == DOUBLE) {
+            return 2 * (newTotal > 21 ? -noNatural(counts, upcard) : stand(newTotal, false, counts, upcard));
+        }
+        if (total == 11) {
+            return stand(newTotal, false, counts, upcard); // Split Aces take one card, and 21 is not a natural
+        }
+        double play = best(newTotal, newSoft, counts, upcard);
+        if (rules.doubleAfterSplit && newTotal < 21) {
+            play = Math.max(play, afterDouble(newTotal, newSoft, counts, upcard));
+        }
+        return play;
+    }
+
+    /**
+     * Returns the value of doubling a two-card hand.
+     *
+     * @param total the hand's total
+     * @param softAces how many aces are still counted as 11
+     * @param counts the remaining shoe
+     * @param upcard the value of the dealer's upcard
+     * @return the expected net profit on the doubled bet, times the odds of no dealer natural
+     */
+    private double afterDouble(int total, int softAces, int[] counts, int upcard) {
+        double value = 0;
+        double left = Composition.total(counts);
+        for (int i = 0; i < Composition.RANKS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            double p = counts[i] / left;
+            counts[i]--;
+            value += p * afterCard(DOUBLE, total, softAces, i, counts, upcard);
+            counts[i]++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the memo entry of a composition, making one if it is not there.
+     *
+     * @param counts the composition
+     * @return its entry
+     */
+    private Entry entry(int[] counts) {
+        long key = Composition.pack(counts);
+        synchronized (memo) {
+            Entry entry = memo.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                memo.put(key, entry);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * What the memo keeps for one composition: the dealer's distribution and the value of hitting
+     * each player state, for each upcard. Branches on different threads may reach the same entry;
+     * reads and writes hold its lock, and two threads that both work a value out get the same one.
+     */
+    private static class Entry {
+
+        /** The dealer's distribution by upcard value, or null until worked out */
+        private final double[][] dealer = new double[Card.MAX_VALUE + 1][];
+
+        /** The value of hitting each state by upcard value, NaN until worked out */
+        private final double[][] hit = new double[Card.MAX_VALUE + 1][];
+
+        synchronized double[] getDealer(int upcard) {
+            return dealer[upcard];
+        }
+
+        synchronized void putDealer(int upcard, double[] dist) {
+            dealer[upcard] = dist;
+        }
+
+        synchronized double getHit(int upcard, int state) {
+            return hit[upcard] == null ? Double.NaN : hit[upcard][state];
+        }
+
+        synchronized void putHit(int upcard, int state, double value) {
+            if (hit[upcard] == null) {
+                hit[upcard] = new double[STATES];
+                Arrays.fill(hit[upcard], Double.NaN);
+            }
+            hit[upcard][state] = value;
+        }
+    }
+
+    /**
+     * A fork/join task for one top-level branch: the hand after one particular first card, for a
+     * hit, a double or a split. Each branch works on its own copy of the shoe.
+     */
+    private class Branch extends RecursiveTask<Double> {
+
+        /** Declared because RecursiveTask is Serializable */
+        private static final long serialVersionUID = 1L;
+
+        /** HIT, DOUBLE or SPLIT */
+        private final int kind;
+
+        /** The hand's total before the card (the split card for SPLIT) */
+        private final int total;
+
+        /** How many aces are still counted as 11 before the card */
+        private final int softAces;
+
+        /** The composition index of the card */
+        private final int index;
+
+        /** The branch's own copy of the shoe, with the card taken out */
+        private final int[] counts;
+
+        /** The value of the dealer's upcard */
+        private final int upcard;
+
+        Branch(int kind, int total, int softAces, int index, int[] counts, int upcard) {
+            this.kind = kind;
+            this.total = total;
+            this.softAces = softAces;
+            this.index = index;
+            this.counts = counts.clone();
+            this.counts[index]--;
+            this.upcard = upcard;
+        }
+
+        @Override
+        protected Double compute() {
+            return afterCard(kind, total, softAces, index, counts, upcard);
+        }
+    }
+}
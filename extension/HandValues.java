@@ -0,0 +1,141 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The exact expected value of every way to play one hand, as worked out
+ * by ExactSolver for a dealer upcard and a shoe composition. Each value is the player's expected
+ * net profit in units of the original bet, playing on perfectly (for that shoe) after the first
+ * action. An action the rules or the hand do not allow has the value NaN.
+ * When the dealer peeks, the values are conditioned on the dealer not having a natural, since
+ * the player only gets to choose once the dealer has checked.
+ */
+public class HandValues {
+
+    /** The action constant for splitting a pair (the others are Strategy's) */
+    public static final int SPLIT = 5;
+
+    /** The expected value of standing */
+    private final double stand;
+
+    /** The expected value of hitting, then playing on perfectly */
+    private final double hit;
+
+    /** The expected value of doubling */
+    private final double doubleDown;
+
+    /** The expected value of splitting, then playing each hand on perfectly */
+    private final double split;
+
+    /** The expected value of surrendering */
+    private final double surrender;
+
+    /**
+     * Constructor — records the value of each action (NaN if it is not allowed).
+     *
+     * @param stand the value of standing
+     * @param hit the value of hitting
+     * @param doubleDown the value of doubling
+     * @param split the value of splitting
+     * @param surrender the value of surrendering
+     */
+    public HandValues(double stand, double hit, double doubleDown, double split, double surrender) {
+        this.stand = stand;
+        this.hit = hit;
+        this.doubleDown = doubleDown;
+        this.split = split;
+        this.surrender = surrender;
+    }
+
+    /** @return the expected value of standing */
+    public double getStand() {
+        return stand;
+    }
+
+    /** @return the expected value of hitting, or NaN on 21 */
+    public double getHit() {
+        return hit;
+    }
+
+    /** @return the expected value of doubling, or NaN if the hand may not double */
+    public double getDouble() {
+        return doubleDown;
+    }
+
+    /** @return the expected value of splitting, or NaN if the hand is not a pair that may split */
+    public double getSplit() {
+        return split;
+    }
+
+    /** @return the expected value of surrendering, or NaN if the rules do not allow it */
+    public double getSurrender() {
+        return surrender;
+    }
+
+    /**
+     * Returns the best action. Ties go to the action listed first: stand, hit, double, split, surrender.
+     *
+     * @return Strategy.STAND, HIT, DOUBLE or SURRENDER, or SPLIT
+     */
+    public int bestAction() {
+        int best = Strategy.STAND;
+        double bestValue = stand;
+        double[] values = {hit, doubleDown, split, surrender};
+        int[] actions = {Strategy.HIT, Strategy.DOUBLE, SPLIT, Strategy.SURRENDER};
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > bestValue) { // NaN is never greater, so actions that are not allowed are skipped
+                best = actions[i];
+                bestValue = values[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the value of the best action.
+     *
+     * @return the player's expected net profit playing perfectly
+     */
+    public double bestValue() {
+        return Math.max(stand, Math.max(orMinus(hit), Math.max(orMinus(doubleDown), Math.max(orMinus(split), orMinus(surrender)))));
+    }
+
+    /**
+     * @param value a value that may be NaN
+     * @return the value, or minus infinity for NaN
+     */
+    private static double orMinus(double value) {
+        return Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value;
+    }
+
+    /**
+     * Returns the name of an action.
+     *
+     * @param action an action constant, e.g. Strategy.HIT or SPLIT
+     * @return its name in lower case
+     */
+    public static String name(int action) {
+        switch (action) {
+            case Strategy.STAND:
+                return "stand";
+            case Strategy.HIT:
+                return "hit";
+            case Strategy.DOUBLE:
+                return "double";
+            case SPLIT:
+                return "split";
+            case Strategy.SURRENDER:
+                return "surrender";
+            default:
+                throw new IllegalArgumentException("unknown action: " + action);
+        }
+    }
+
+    /**
+     * Returns the value of every action and the best one.
+     *
+     * @return a string representation of these values
+     */
+    @Override
+    public String toString() {
+        return "[stand " + stand + ", hit " + hit + ", double " + doubleDown + ", split " + split
+                + ", surrender " + surrender + ", best " + name(bestAction()) + "]";
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: HistoryQuery.java
+ *
+ * Purpose:
+ * This class answers questions about recorded hand histories without replaying any rounds,
+ * e.g. "how does hard 16 against a dealer 10 do when the true count is +2 or more?".
+ * A query is a list of filters, set with chainable methods like the ones in Rules:
+ *
+ *   new HistoryQuery().initialHand(16, false).upcard(10).minTrueCount(2)
+ *
+ * Like the strategy and rule tables, the filters are kept as small lookup tables over the
+ * packed bytes of a record (one for the player's two cards, one for the dealer's cards, one
+ * for the true count, one for the first hand's action), so testing a record is four array
+ * lookups and nothing is decoded until a record matches.
+ *
+ * run() cuts the file into chunks of CHUNK_RECORDS and scans them on a ForkJoinPool,
+ * merging the matching rounds into a SimulationResult (win, loss and draw counts plus the EV).
+ * Chunks are split in halves whatever the number of threads, so the answer is always the same.
+ * With a HistoryIndex only the records whose cards can match are visited, which makes a
+ * selective query skip most of the file.
+ */
+public class HistoryQuery {
+
+    /** How many records one task scans */
+    static final int CHUNK_RECORDS = 1 << 18;
+
+    /** The player's first two cards (byte 0) that match */
+    private final boolean[] playerCards = new boolean[256];
+
+    /** The dealer's upcard and hole card (byte 1) that match */
+    private final boolean[] dealerCards = new boolean[256];
+
+    /** The true counts, in quarters as stored in byte 7, that match */
+    private final boolean[] counts = new boolean[256];
+
+    /** The first hand's actions (the low 2 bits of byte 5) that match */
+    private final boolean[] actions = new boolean[4];
+
+    /**
+     * Constructor — a query with no filters, which matches every record.
+     */
+    public HistoryQuery() {
+        Arrays.fill(playerCards, true);
+        Arrays.fill(dealerCards, true);
+        Arrays.fill(counts, true);
+        Arrays.fill(actions, true);
+    }
+
+    /**
+     * Keeps only rounds whose first two player cards make a total.
+     *
+     * @param total the two-card total (a pair of Aces is a soft 12)
+     * @param soft true for soft totals (holding an Ace), false for hard ones
+     * @return this query, for chaining
+     */
+    public HistoryQuery initialHand(int total, boolean soft) {
+        for (int b = 0; b < 256; b++) {
+            int first = Composition.value(b >>> 4);
+            int second = Composition.value(b & 0xF);
+            int sum = first + second == 22 ? 12 : first + second;
+            boolean isSoft = first == 11 || second == 11;
+            playerCards[b] &= sum == total && isSoft == soft;
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only rounds where the player was dealt a pair.
+     *
+     * @param value the value of the paired cards (2 to 11)
+     * @return this query, for chaining
+     */
+    public HistoryQuery pair(int value) {
+        for (int b = 0; b < 256; b++) {
+            playerCards[b] &= b >>> 4 == Composition.index(value) && (b & 0xF) == Composition.index(value);
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only rounds with a dealer upcard.
+     *
+     * @param value the value of the upcard (2 to 11)
+     * @return this query, for chaining
+     */
+    public HistoryQuery upcard(int value) {
+        for (int b = 0; b < 256; b++) {
+            dealerCards[b] &= b >>> 4 == Composition.index(value);
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only rounds that started at a true count of at least a value.
+     *
+     * @param trueCount the lowest true count (recorded to the nearest quarter)
+     * @return this query, for chaining
+     */
+    public HistoryQuery minTrueCount(double trueCount) {
+        for (int b = 0; b < 256; b++) {
+            counts[b] &= (byte) b / 4.0 >= trueCount;
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only rounds that started at a true count of at most a value.
+     *
+     * @param trueCount the highest true count (recorded to the nearest quarter)
+     * @return this query, for chaining
+     */
+    public HistoryQuery maxTrueCount(double trueCount) {
+        for (int b = 0; b < 256; b++) {
+            counts[b] &= (byte) b / 4.0 <= trueCount;
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only rounds where the player's first hand took an action.
+     *
+     * @param action HandRecorder.STOOD, HIT, DOUBLED or SURRENDERED
+     * @return this query, for chaining
+     */
+    public HistoryQuery firstAction(int action) {
+        for (int a = 0; a < actions.length; a++) {
+            actions[a] &= a == action;
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether a record passes every filter.
+     *
+     * @param history the hand history
+     * @param record the index of the record
+     * @return true if the record matches
+     */
+    boolean matches(HandHistory history, long record) {
+        return playerCards[history.unsigned(record, 0)]
+                && dealerCards[history.unsigned(record, 1)]
+                && counts[history.unsigned(record, 7)]
+                && actions[history.unsigned(record, 5) & 3];
+    }
+
+    /**
+     * Returns whether any record with this index key could pass the card filters.
+     *
+     * @param key a HistoryIndex key (the player's cards byte and the upcard)
+     * @return true if the key's records need to be looked at
+     */
+    boolean matchesKey(int key) {
+        if (!playerCards[HistoryIndex.playerCards(key)]) {
+            return false;
+        }
+        int up = HistoryIndex.upcardIndex(key) << 4;
+        for (int hole = 0; hole < Composition.RANKS; hole++) {
+            if (dealerCards[up | hole]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scans a whole hand history in parallel chunks and sums up the matching rounds.
+     *
+     * @param history the hand history to scan
+     * @param threads the number of worker threads
+     * @return the matching rounds' outcomes and net profit (elapsed time included)
+     */
+    public SimulationResult run(HandHistory history, int threads) {
+        return scan(history, null, history.size(), threads);
+    }
+
+    /**
+     * Scans only the records an index says can match, in parallel chunks.
+     *
+     * @param index an index of the hand history to scan
+     * @param threads the number of worker threads
+     * @return the matching rounds' outcomes and net profit (elapsed time included)
+     */
+    public SimulationResult run(HistoryIndex index, int threads) {
+        int[] selected = index.select(this);
+        return scan(index.getHistory(), selected, selected.length, threads);
+    }
+
+    /**
+     * Runs the scan on a pool.
+     *
+     * @param history the hand history
+     * @param records the record numbers to visit, or null for every record
+     * @param size how many records to visit
+     * @param threads the number of worker threads
+     * @return the merged result
+     */
+    private SimulationResult scan(HandHistory history, int[] records, long size, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationResult result;
+        try {
+            result = pool.invoke(new ChunkTask(history, records, 0, size));
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * A fork/join task that scans the records in [from, to).
+     * Ranges longer than CHUNK_RECORDS are split in half.
+     */
+    private class ChunkTask extends RecursiveTask<SimulationResult> {
+
+        /** Declared because RecursiveTask is Serializable */
+        private static final long serialVersionUID = 1L;
+
+        /** The hand history being scanned */
+        private final HandHistory history;
+
+        /** The record numbers to visit (from an index), or null to visit records in order */
+        private final int[] records;
+
+        /** The first position covered by this task */
+        private final long from;
+
+        /** One past the last position covered by this task */
+        private final long to;
+
+        ChunkTask(HandHistory history, int[] records, long from, long to) {
+            this.history = history;
+            this.records = records;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= CHUNK_RECORDS) {
+                SimulationResult result = new SimulationResult();
+                for (long i = from; i < to; i++) {
+                    long record = records == null ? i : records[(int) i];
+                    if (matches(history, record)) {
+                        double net = history.net(record);
+                        result.record((int) Math.signum(net), net);
+                    }
+                }
+                return result;
+            }
+
+            long mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(history, records, from, mid);
+            left.fork();
+            SimulationResult result = new ChunkTask(history, records, mid, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
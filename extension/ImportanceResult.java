@@ -0,0 +1,225 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The results of an ImportanceSampler run: for every trial, its
+ * likelihood-ratio weight w (how much likelier its cards were in the real game than with the
+ * tilt) and whether the event happened. The estimate of the event's probability is the mean of
+ * w * [event] over all trials, which is unbiased whatever the tilt was, and its standard error
+ * comes from the spread of those products.
+ *
+ * The effective sample size (ESS) says how many unweighted trials the weighted ones are worth:
+ * (sum of w)^2 / (sum of w^2). It is kept over all trials and over the trials that hit the event.
+ * A tilt that suits the event gives hits with similar weights, so their ESS stays close to the
+ * number of hits; a poor one lets a few heavy hits carry the whole estimate.
+ *
+ * Only sums are kept, so results from different threads merge by adding.
+ */
+public class ImportanceResult {
+
+    /** How many trials were played */
+    private long trials;
+
+    /** How many trials hit the event */
+    private long hits;
+
+    /** The sums of w and w^2 over all trials */
+    private double sumW, sumWW;
+
+    /** The sums of w and w^2 over the trials that hit the event */
+    private double hitW, hitWW;
+
+    /** How many rounds were played in all */
+    private long rounds;
+
+    /** The tilt the trials were dealt with, or null for plain trials */
+    private final double[] tilt;
+
+    /** Wall-clock time the run took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the run was played with */
+    private long seed;
+
+    /**
+     * Constructor — starts with no trials.
+     *
+     * @param tilt the weight of each value the trials are dealt with, or null for plain trials
+     */
+    public ImportanceResult(double[] tilt) {
+        this.tilt = tilt;
+    }
+
+    /**
+     * Records one trial.
+     *
+     * @param weight the trial's likelihood ratio (1 for a plain trial)
+     * @param hit whether the event happened
+     * @param rounds how many rounds the trial played
+     */
+    public void record(double weight, boolean hit, long rounds) {
+        trials++;
+        sumW += weight;
+        sumWW += weight * weight;
+        if (hit) {
+            hits++;
+            hitW += weight;
+            hitWW += weight * weight;
+        }
+        this.rounds += rounds;
+    }
+
+    /**
+     * Adds the trials of another result into this one.
+     *
+     * @param other the result to merge in
+     */
+    public void merge(ImportanceResult other) {
+        trials += other.trials;
+        hits += other.hits;
+        sumW += other.sumW;
+        sumWW += other.sumWW;
+        hitW += other.hitW;
+        hitWW += other.hitWW;
+        rounds += other.rounds;
+    }
+
+    /** @return how many trials were played */
+    public long getTrials() {
+        return trials;
+    }
+
+    /** @return how many trials hit the event */
+    public long getHits() {
+        return hits;
+    }
+
+    /** @return how many rounds were played in all */
+    public long rounds() {
+        return rounds;
+    }
+
+    /** @return the weight of each value the trials were dealt with, or null for plain trials */
+    public double[] getTilt() {
+        return tilt == null ? null : tilt.clone();
+    }
+
+    /**
+     * Returns the weighted estimate of the event's probability: the mean of w * [event].
+     *
+     * @return the probability, or 0 if there are no trials
+     */
+    public double probability() {
+        return trials == 0 ? 0 : hitW / trials;
+    }
+
+    /**
+     * Returns the standard error of probability(), from the spread of w * [event] over the trials.
+     *
+     * @return the standard error, or infinity with fewer than two trials
+     */
+    public double standardError() {
+        if (trials < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double p = probability();
+        double variance = Math.max(hitWW / trials - p * p, 0) * trials / (trials - 1);
+        return Math.sqrt(variance / trials);
+    }
+
+    /**
+     * Returns the half-width of a normal confidence interval around probability().
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return z times the standard error
+     */
+    public double halfWidth(double z) {
+        return z * standardError();
+    }
+
+    /**
+     * Returns the standard error divided by the estimate.
+     *
+     * @return the relative error, or infinity if the event was never hit
+     */
+    public double relativeError() {
+        return hits == 0 ? Double.POSITIVE_INFINITY : standardError() / probability();
+    }
+
+    /**
+     * Returns the mean weight over all trials. Its expected value is exactly 1, so a mean far
+     * from 1 means the weights are too spread out to trust.
+     *
+     * @return the mean weight, or 0 if there are no trials
+     */
+    public double meanWeight() {
+        return trials == 0 ? 0 : sumW / trials;
+    }
+
+    /**
+     * Returns the effective sample size of all the trials: (sum of w)^2 / (sum of w^2).
+     *
+     * @return the number of unweighted trials the weighted ones are worth
+     */
+    public double effectiveSampleSize() {
+        return sumWW == 0 ? 0 : sumW * sumW / sumWW;
+    }
+
+    /**
+     * Returns the effective sample size of the trials that hit the event.
+     *
+     * @return the number of equally weighted hits the weighted ones are worth
+     */
+    public double effectiveHits() {
+        return hitWW == 0 ? 0 : hitW * hitW / hitWW;
+    }
+
+    /**
+     * Returns how many plain trials it would take to reach the same standard error: the
+     * variance of one plain trial, p (1 - p), over the variance of the estimate.
+     *
+     * @return the number of plain trials this run is worth
+     */
+    public double equivalentPlainTrials() {
+        double se = standardError();
+        double p = probability();
+        return se == 0 || Double.isInfinite(se) ? trials : p * (1 - p) / (se * se);
+    }
+
+    /**
+     * Sets the wall-clock time the run took.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the wall-clock time the run took, in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Records the master seed the run was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the run was played with */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a short summary of the result.
+     *
+     * @return a string representation of this result
+     */
+    @Override
+    public String toString() {
+        return "[trials " + trials + ", hits " + hits + ", P " + probability() + " +/- " + standardError()
+                + ", ESS " + effectiveSampleSize() + ", hit ESS " + effectiveHits() + "]";
+    }
+}
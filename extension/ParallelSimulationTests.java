@@ -0,0 +1,172 @@
+/*
+file name:      ParallelSimulationTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea ParallelSimulationTests
+*/
+
+public class ParallelSimulationTests {
+
+    public static void parallelSimulationTests() {
+
+        // case 1: testing run() plays every game exactly once
+        {
+            // set up
+            ParallelSimulation sim = new ParallelSimulation(4);
+            long numGames = 3L * ParallelSimulation.SHARD_SIZE + 123; // Not a multiple of the shard size
+
+            // verify
+            SimulationResult result = sim.run(numGames);
+            System.out.println(result.games() + " == " + numGames);
+
+            // test
+            assert result.games() == numGames : "Error in ParallelSimulation::run()";
+            assert result.getElapsedNanos() > 0 : "Error in ParallelSimulation::run()";
+            assert result.handsPerSecond() > 0 : "Error in SimulationResult::handsPerSecond()";
+        }
+
+        // case 2: testing run() with a single thread and with no games
+        {
+            // set up
+            ParallelSimulation sim = new ParallelSimulation(1);
+
+            // verify
+            SimulationResult empty = sim.run(0);
+            SimulationResult small = sim.run(10);
+            System.out.println(empty.games() + " == 0");
+            System.out.println(small.games() + " == 10");
+
+            // test
+            assert empty.games() == 0 : "Error in ParallelSimulation::run()";
+            assert small.games() == 10 : "Error in ParallelSimulation::run()";
+        }
+
+        // case 3: testing merge()
+        {
+            // set up
+            SimulationResult a = new SimulationResult();
+            SimulationResult b = new SimulationResult();
+            a.record(1);
+            a.record(-1);
+            b.record(0);
+            b.record(1);
+            a.merge(b);
+
+            // verify
+            System.out.println(a + " == [player 2, dealer 1, draws 1]");
+
+            // test
+            assert a.getPlayerWins() == 2 : "Error in SimulationResult::merge()";
+            assert a.getDealerWins() == 1 : "Error in SimulationResult::merge()";
+            assert a.getDraws() == 1 : "Error in SimulationResult::merge()";
+            assert a.playerWinPercent() == 50.0 : "Error in SimulationResult::playerWinPercent()";
+        }
+
+        // case 4: testing that the parallel run gives sensible percentages
+        {
+            // set up
+            SimulationResult result = new ParallelSimulation().run(200000);
+
+            // verify
+            System.out.println("Player Wins: " + result.playerWinPercent() + "%");
+
+            // test
+            assert result.playerWinPercent() > 30 && result.playerWinPercent() < 50 : "Error in ParallelSimulation::run()";
+            assert result.dealerWinPercent() > 40 && result.dealerWinPercent() < 60 : "Error in ParallelSimulation::run()";
+        }
+
+        // case 5: testing that a seed gives identical results for any thread count
+        {
+            // set up
+            long numGames = 5L * ParallelSimulation.SHARD_SIZE + 999;
+            SimulationResult one = new ParallelSimulation(1).run(numGames, 2026);
+            SimulationResult eight = new ParallelSimulation(8).run(numGames, 2026);
+            SimulationResult many = new ParallelSimulation(64).run(numGames, 2026);
+            SimulationResult other = new ParallelSimulation(8).run(numGames, 2027);
+
+            // verify
+            System.out.println(one + " == " + eight + " == " + many);
+
+            // test
+            assert one.toString().equals(eight.toString()) : "Error in ParallelSimulation::run(numGames, seed) - 1 vs 8 threads";
+            assert one.toString().equals(many.toString()) : "Error in ParallelSimulation::run(numGames, seed) - 1 vs 64 threads";
+            assert !one.toString().equals(other.toString()) : "Error in ParallelSimulation::run(numGames, seed) - seed ignored";
+            assert one.getSeed() == 2026 : "Error in SimulationResult::getSeed()";
+        }
+
+        // case 6: testing a multi-deck shoe
+        {
+            // set up
+            SimulationResult result = new ParallelSimulation(2, 6, 0.75).run(200000, 6);
+
+            // verify
+            System.out.println("6-deck Player Wins: " + result.playerWinPercent() + "%");
+
+            // test
+            assert result.games() == 200000 : "Error in ParallelSimulation::run() with 6 decks";
+            assert Math.abs(result.playerWinPercent() - 41) < 1.5 : "Error in ParallelSimulation::run() with 6 decks";
+        }
+
+        // case 7: testing runUntil() stops once the profit's interval is narrow enough
+        {
+            // set up: with seed 77 the first batch's +1/-1/0 interval already meets 0.00184 but its profit's does not
+            ParallelSimulation sim = new ParallelSimulation(2);
+            double target = 0.00184;
+            SimulationResult result = sim.runUntil(target, 50_000_000, 77);
+            SimulationResult again = new ParallelSimulation(5).runUntil(target, 50_000_000, 77);
+            SimulationResult capped = sim.runUntil(0.0001, 100_000, 77);
+            long batch = (long) ParallelSimulation.BATCH_SHARDS * ParallelSimulation.SHARD_SIZE;
+            SimulationResult batchEarlier = sim.run(result.games() - batch, 77); // The same shards, one batch fewer
+
+            // verify
+            System.out.println(result.games() + " hands for +/-" + result.getProfit().halfWidth(ParallelSimulation.Z_95)
+                    + " (one batch earlier +/-" + batchEarlier.getProfit().halfWidth(ParallelSimulation.Z_95)
+                    + ", outcome +/-" + batchEarlier.edgeHalfWidth(ParallelSimulation.Z_95) + ")");
+
+            // test
+            assert result.getProfit().halfWidth(ParallelSimulation.Z_95) <= target : "Error in ParallelSimulation::runUntil() - target not met";
+            assert batchEarlier.getProfit().halfWidth(ParallelSimulation.Z_95) > target : "Error in ParallelSimulation::runUntil() - stopped before the profit's interval was narrow enough";
+            assert batchEarlier.edgeHalfWidth(ParallelSimulation.Z_95) <= target : "Error in ParallelSimulationTests - the outcome's interval no longer tells the two apart";
+            assert result.games() < 50_000_000 : "Error in ParallelSimulation::runUntil() - did not stop early";
+            assert result.games() % ParallelSimulation.SHARD_SIZE == 0 : "Error in ParallelSimulation::runUntil() - partial batch";
+            assert result.toString().equals(again.toString()) : "Error in ParallelSimulation::runUntil() - depends on thread count";
+            assert capped.games() == 100_000 : "Error in ParallelSimulation::runUntil() - maxGames ignored";
+            assert Math.abs(result.edge() - (result.getPlayerWins() - result.getDealerWins()) / (double) result.games()) < 1e-12
+                    : "Error in SimulationResult::edge()";
+        }
+
+        // case 8: testing the profit moments and the house edge
+        {
+            // set up
+            SimulationResult a = new SimulationResult();
+            SimulationResult b = new SimulationResult();
+            a.record(1, 1.5);
+            a.record(-1, -2);
+            b.record(-1, -0.5);
+            b.record(0, 0);
+            a.merge(b);
+            SimulationResult run = new ParallelSimulation(2, 6, 0.75, new BasicStrategy()).run(400000, 8);
+
+            // verify
+            System.out.println(a.getProfit());
+            System.out.println("House Edge: " + run.houseEdgePercent() + "% +/- " + run.houseEdgeHalfWidth(ParallelSimulation.Z_95));
+
+            // test
+            assert a.games() == 4 && a.getPlayerWins() == 1 && a.getDraws() == 1 : "Error in SimulationResult::record(result, net)";
+            assert Math.abs(a.expectedValue() - (-0.25)) < 1e-12 : "Error in SimulationResult::expectedValue()";
+            assert Math.abs(a.houseEdgePercent() - 25) < 1e-9 : "Error in SimulationResult::houseEdgePercent()";
+            assert run.getProfit().getCount() == 400000 : "Error in ParallelSimulation::run() - profit not recorded";
+            assert run.getProfit().variance() > 1 : "Error in ParallelSimulation::run() - doubles and splits should widen the variance";
+            assert Math.abs(run.houseEdgePercent()) < 2 : "Error in ParallelSimulation::run() - house edge out of range";
+        }
+
+        System.out.println("*** Done testing ParallelSimulation! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        parallelSimulationTests();
+    }
+}
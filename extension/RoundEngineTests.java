@@ -0,0 +1,213 @@
+/*
+file name:      RoundEngineTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea RoundEngineTests
+*/
+
+public class RoundEngineTests {
+
+    /**
+     * Returns a 2-deck engine playing basic strategy whose next cards are the given values.
+     * Cards are dealt player, dealer, player, dealer, and then in the order the round draws them.
+     */
+    static RoundEngine stacked(int... values) {
+        return stacked(new Rules().setDecks(2).setPenetration(0.75).compile(), values);
+    }
+
+    /**
+     * Returns an engine playing basic strategy by the given rules whose next cards are the given values.
+     */
+    static RoundEngine stacked(RuleTable rules, int... values) {
+        RoundEngine engine = new RoundEngine(rules, new SplittableRandomSource(1));
+        engine.setStrategy(new BasicStrategy());
+        engine.deck.arrange(values);
+        return engine;
+    }
+
+    public static void roundEngineTests() {
+
+        // case 1: testing a double down
+        {
+            // set up: 6 + 5 against a dealer 6 (hole card 10); the double draws a 9, the dealer draws a 10
+            RoundEngine engine = stacked(6, 6, 5, 10, 9, 10);
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.getHandCount() == 1 : "Error in RoundEngine::playRound() - hand count";
+            assert engine.getBet(0) == 2 : "Error in RoundEngine::playRound() - did not double";
+            assert engine.getHand(0).size() == 3 : "Error in RoundEngine::playRound() - a double takes one card";
+            assert engine.getOutcome(0) == RoundEngine.WIN : "Error in RoundEngine::playRound() - outcome";
+        }
+
+        // case 2: testing a split followed by a double after the split
+        {
+            // set up: 8s against a 10 (dealer 17); the first hand draws 3 (11, doubles onto 21), the second draws 10
+            RoundEngine engine = stacked(8, 10, 8, 7, 3, 10, 10);
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.getHandCount() == 2 : "Error in RoundEngine::playRound() - did not split";
+            assert engine.getBet(0) == 2 && engine.getHand(0).getTotalValue() == 21 : "Error in RoundEngine::playRound() - double after split";
+            assert engine.getBet(1) == 1 && engine.getHand(1).getTotalValue() == 18 : "Error in RoundEngine::playRound() - second split hand";
+            assert engine.getOutcome(0) == RoundEngine.WIN && engine.getOutcome(1) == RoundEngine.WIN : "Error in RoundEngine::playRound() - outcome";
+            assert engine.getHand(2).size() == 0 : "Error in RoundEngine::playRound() - unused pool hand touched";
+        }
+
+        // case 3: testing re-splitting up to the hand limit
+        {
+            // set up: 8s against a 10, and every card the player draws is another 8
+            RoundEngine engine = stacked(8, 10, 8, 7, 8, 8, 8, 10, 10, 10, 10);
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.getHandCount() == RoundEngine.MAX_HANDS : "Error in RoundEngine::playRound() - did not resplit";
+            assert engine.getHand(0).getCard(1).getValue() == 8 : "Error in RoundEngine::playRound() - split past the limit";
+            assert engine.getHand(0).getTotalValue() == 26 : "Error in RoundEngine::playRound() - hard 16 should hit";
+        }
+
+        // case 4: testing split Aces take one card each and are not split again
+        {
+            // set up: Aces against a 6 (dealer 16); the hands draw 10 and Ace, the dealer draws 10
+            RoundEngine engine = stacked(11, 6, 11, 10, 10, 11, 10);
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.getHandCount() == 2 : "Error in RoundEngine::playRound() - Aces resplit";
+            assert !engine.isPlayerBlackjack() : "Error in RoundEngine::playRound() - a split 21 is not a natural";
+            assert engine.getHand(0).size() == 2 && engine.getHand(1).size() == 2 : "Error in RoundEngine::playRound() - split Aces drew more";
+            assert engine.getHand(1).getTotalValue() == 12 : "Error in RoundEngine::playRound() - split Aces";
+            assert engine.getOutcome(0) == RoundEngine.WIN && engine.getOutcome(1) == RoundEngine.WIN : "Error in RoundEngine::playRound() - dealer bust";
+        }
+
+        // case 5: testing late surrender
+        {
+            // set up: 10 + 6 against a dealer 10 (hole card 9)
+            RoundEngine engine = stacked(10, 10, 6, 9);
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.isSurrendered() : "Error in RoundEngine::playRound() - did not surrender";
+            assert engine.getOutcome(0) == RoundEngine.LOSS : "Error in RoundEngine::playRound() - surrender outcome";
+            assert engine.dealer.size() == 2 : "Error in RoundEngine::playRound() - dealer drew after a surrender";
+
+            RoundEngine noSurrender = stacked(new Rules().setDecks(2).setLateSurrender(false).compile(), 10, 10, 6, 9, 2);
+            noSurrender.playRound();
+            assert !noSurrender.isSurrendered() && noSurrender.getHand(0).getTotalValue() == 18 : "Error in RoundEngine::playRound() - surrender fallback";
+        }
+
+        // case 6: testing dealer peek and insurance
+        {
+            // set up: 10 + 9 against a dealer Ace with a 10 in the hole, with a strategy that insures
+            RoundEngine engine = stacked(10, 11, 9, 10);
+            engine.setStrategy(new BasicStrategy() {
+                @Override
+                public boolean insurance() {
+                    return true;
+                }
+            });
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.isDealerBlackjack() && engine.isInsured() : "Error in RoundEngine::playRound() - peek / insurance";
+            assert engine.getHand(0).size() == 2 : "Error in RoundEngine::playRound() - player acted into a dealer natural";
+            assert engine.getOutcome(0) == RoundEngine.LOSS : "Error in RoundEngine::playRound() - dealer natural";
+        }
+
+        // case 7: testing a player natural
+        {
+            // set up
+            RoundEngine engine = stacked(11, 9, 10, 7);
+
+            // verify
+            engine.playRound();
+            System.out.println(engine);
+
+            // test
+            assert engine.isPlayerBlackjack() : "Error in RoundEngine::playRound() - natural";
+            assert engine.getOutcome(0) == RoundEngine.WIN : "Error in RoundEngine::playRound() - natural outcome";
+            assert engine.dealer.size() == 2 : "Error in RoundEngine::playRound() - dealer drew against a natural";
+        }
+
+        // case 8: testing that rounds allocate nothing once warmed up
+        {
+            // set up
+            RoundEngine engine = new RoundEngine(6, 0.75, new SplittableRandomSource(8));
+            engine.setStrategy(new BasicStrategy());
+            long splits = 0;
+            for (int i = 0; i < 200000; i++) { // let the JIT compile the hot paths first
+                splits += engine.playRound() - 1;
+            }
+
+            // verify
+            long before = Benchmarks.allocatedBytes();
+            for (int i = 0; i < 100000; i++) {
+                engine.playRound();
+            }
+            long bytes = Benchmarks.allocatedBytes() - before;
+            System.out.println(bytes + " bytes allocated by 100000 rounds, " + splits + " splits");
+
+            // test
+            assert bytes < 10000 : "Error in RoundEngine::playRound() - allocates";
+            assert splits > 0 : "Error in RoundEngine::playRound() - never split";
+        }
+
+        // case 9: testing the payouts returned by play()
+        {
+            // set up: the same rounds as the cases above
+            RoundEngine doubled = stacked(6, 6, 5, 10, 9, 10);
+            RoundEngine split = stacked(8, 10, 8, 7, 3, 10, 10);
+            RoundEngine surrender = stacked(10, 10, 6, 9);
+            RoundEngine natural = stacked(11, 9, 10, 7);
+            RoundEngine insured = stacked(10, 11, 9, 10);
+            insured.setStrategy(new BasicStrategy() {
+                @Override
+                public boolean insurance() {
+                    return true;
+                }
+            });
+            RoundEngine evenMoney = stacked(11, 11, 10, 10); // both naturals, insured
+            evenMoney.setStrategy(insured.getStrategy());
+
+            // verify
+            double[] nets = {doubled.play(), split.play(), surrender.play(), natural.play(), insured.play(), evenMoney.play()};
+            System.out.println(java.util.Arrays.toString(nets) + " == [2.0, 3.0, -0.5, 1.5, 0.0, 1.0]");
+
+            // test
+            assert nets[0] == 2 : "Error in RoundEngine::play() - doubled win";
+            assert nets[1] == 3 : "Error in RoundEngine::play() - split hands";
+            assert nets[2] == -0.5 : "Error in RoundEngine::play() - surrender";
+            assert nets[3] == 1.5 : "Error in RoundEngine::play() - natural pays 3:2";
+            assert nets[4] == 0 : "Error in RoundEngine::play() - insurance pays 2:1";
+            assert nets[5] == 1 : "Error in RoundEngine::play() - insured natural against a natural";
+            assert natural.game(false) == 1 : "Error in RoundEngine::game()";
+        }
+
+        System.out.println("*** Done testing RoundEngine! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        roundEngineTests();
+    }
+}
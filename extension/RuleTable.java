@@ -0,0 +1,145 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A set of Rules, checked and compiled into final fields and a lookup
+ * table. The game reads these every hand; the dealer's draw decision, for example, is one
+ * load from a table indexed by the dealer's total and soft flag, so H17 and S17 cost exactly
+ * the same. The table never changes, so one instance can be shared by all threads.
+ * Create one with Rules.compile().
+ */
+public final class RuleTable {
+
+    /** The number of 52-card decks in the shoe */
+    final int decks;
+
+    /** The share of the shoe dealt before it is reshuffled */
+    final double penetration;
+
+    /** Whether the dealer draws on a soft 17 */
+    final boolean hitSoft17;
+
+    /** What a natural wins, per unit bet */
+    final double blackjackPays;
+
+    /** Whether a hand made by splitting can be doubled */
+    final boolean doubleAfterSplit;
+
+    /** The most hands splitting can make */
+    final int maxHands;
+
+    /** Whether split Aces that draw another Ace can be split again */
+    final boolean resplitAces;
+
+    /** Whether late surrender is offered */
+    final boolean lateSurrender;
+
+    /** Whether the dealer checks for blackjack before the player acts */
+    final boolean dealerPeek;
+
+    /** Whether the dealer draws, at index (total * 2) + soft, for every total the dealer can hold */
+    private final boolean[] dealerDraws = new boolean[32 * 2];
+
+    /**
+     * Constructor — called by Rules.compile() once the settings have been checked.
+     */
+    RuleTable(int decks, double penetration, boolean hitSoft17, double blackjackPays, boolean doubleAfterSplit,
+              int maxHands, boolean resplitAces, boolean lateSurrender, boolean dealerPeek) {
+        this.decks = decks;
+        this.penetration = penetration;
+        this.hitSoft17 = hitSoft17;
+        this.blackjackPays = blackjackPays;
+        this.doubleAfterSplit = doubleAfterSplit;
+        this.maxHands = maxHands;
+        this.resplitAces = resplitAces;
+        this.lateSurrender = lateSurrender;
+        this.dealerPeek = dealerPeek;
+
+        // The dealer draws on 16 or less, and on a soft 17 under H17
+        for (int total = 0; total < 32; total++) {
+            dealerDraws[total << 1] = total < 17;
+            dealerDraws[(total << 1) | 1] = total < 17 || (total == 17 && hitSoft17);
+        }
+    }
+
+    /**
+     * Looks up whether the dealer draws on a hand.
+     *
+     * @param total the dealer's total
+     * @param soft whether the dealer's hand is soft
+     * @return true if the dealer must draw
+     */
+    public boolean dealerDraws(int total, boolean soft) {
+        return dealerDraws[(total << 1) | (soft ? 1 : 0)];
+    }
+
+    /** @return the number of 52-card decks in the shoe */
+    public int getDecks() {
+        return decks;
+    }
+
+    /** @return the share of the shoe dealt before it is reshuffled */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    /** @return whether the dealer draws on a soft 17 */
+    public boolean isHitSoft17() {
+        return hitSoft17;
+    }
+
+    /** @return what a natural wins, per unit bet */
+    public double getBlackjackPays() {
+        return blackjackPays;
+    }
+
+    /** @return whether a hand made by splitting can be doubled */
+    public boolean isDoubleAfterSplit() {
+        return doubleAfterSplit;
+    }
+
+    /** @return the most hands splitting can make */
+    public int getMaxHands() {
+        return maxHands;
+    }
+
+    /** @return whether split Aces can be split again */
+    public boolean isResplitAces() {
+        return resplitAces;
+    }
+
+    /** @return whether late surrender is offered */
+    public boolean isLateSurrender() {
+        return lateSurrender;
+    }
+
+    /** @return whether the dealer peeks for blackjack */
+    public boolean isDealerPeek() {
+        return dealerPeek;
+    }
+
+    /**
+     * Returns the rules in the usual short notation, e.g. "6D 75% S17 3:2 DAS SP4 LS".
+     *
+     * @return a string representation of these rules
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(decks).append("D ").append(Math.round(penetration * 100)).append("% ");
+        text.append(hitSoft17 ? "H17" : "S17");
+        text.append(blackjackPays == 1.5 ? " 3:2" : blackjackPays == 1.2 ? " 6:5" : " BJ " + blackjackPays);
+        if (doubleAfterSplit) {
+            text.append(" DAS");
+        }
+        text.append(" SP").append(maxHands);
+        if (resplitAces) {
+            text.append(" RSA");
+        }
+        if (lateSurrender) {
+            text.append(" LS");
+        }
+        if (!dealerPeek) {
+            text.append(" ENHC");
+        }
+        return text.toString();
+    }
+}
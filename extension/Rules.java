@@ -0,0 +1,176 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The table rules a game is played by: the shoe (decks and penetration),
+ * how the dealer plays a soft 17, what a natural pays, and which player options are offered
+ * (double after split, how many hands splitting can make, resplitting Aces, late surrender,
+ * and whether the dealer peeks for blackjack).
+ *
+ * A Rules object is only a description that is easy to change; the setters can be chained,
+ * e.g. new Rules().setDecks(6).setHitSoft17(true). Before playing, compile() checks the
+ * settings and turns them into a RuleTable, which is what the game reads every hand.
+ * The defaults are the rules the simulation has always used: one deck reshuffled at the
+ * halfway point, dealer stands on soft 17, naturals pay 3:2, double after split, up to
+ * four hands, no resplitting Aces, late surrender, and the dealer peeks.
+ */
+public class Rules {
+
+    /** The most decks a shoe can hold (Composition.pack() fits up to 15) */
+    public static final int MAX_DECKS = 15;
+
+    /** The number of 52-card decks in the shoe */
+    private int decks = 1;
+
+    /** The share of the shoe dealt before it is reshuffled */
+    private double penetration = 0.5;
+
+    /** Whether the dealer draws on a soft 17 */
+    private boolean hitSoft17 = false;
+
+    /** What a natural wins, per unit bet */
+    private double blackjackPays = 1.5;
+
+    /** Whether a hand made by splitting can be doubled */
+    private boolean doubleAfterSplit = true;
+
+    /** The most hands splitting can make (1 means no splitting) */
+    private int maxHands = RoundEngine.MAX_HANDS;
+
+    /** Whether split Aces that draw another Ace can be split again */
+    private boolean resplitAces = false;
+
+    /** Whether late surrender is offered */
+    private boolean lateSurrender = true;
+
+    /** Whether the dealer checks for blackjack before the player acts */
+    private boolean dealerPeek = true;
+
+    /**
+     * Constructor — starts from the default rules.
+     */
+    public Rules() {
+    }
+
+    /**
+     * Sets the number of decks in the shoe.
+     *
+     * @param decks the number of 52-card decks (1 to MAX_DECKS)
+     * @return these rules, for chaining
+     */
+    public Rules setDecks(int decks) {
+        this.decks = decks;
+        return this;
+    }
+
+    /**
+     * Sets the share of the shoe dealt before it is reshuffled. The cut card is only checked between
+     * rounds, so any penetration short of 1 is fine: a round that outlasts the shoe is finished
+     * from the reshuffled discards (see Deck.startRound()).
+     *
+     * @param penetration the penetration (between 0 and 1, exclusive)
+     * @return these rules, for chaining
+     */
+    public Rules setPenetration(double penetration) {
+        this.penetration = penetration;
+        return this;
+    }
+
+    /**
+     * Sets whether the dealer draws on a soft 17 (H17) or stands (S17).
+     *
+     * @param hitSoft17 true for H17
+     * @return these rules, for chaining
+     */
+    public Rules setHitSoft17(boolean hitSoft17) {
+        this.hitSoft17 = hitSoft17;
+        return this;
+    }
+
+    /**
+     * Sets what a natural wins, per unit bet (1.5 for 3:2, 1.2 for 6:5).
+     *
+     * @param blackjackPays the payout of a natural (more than 0)
+     * @return these rules, for chaining
+     */
+    public Rules setBlackjackPays(double blackjackPays) {
+        this.blackjackPays = blackjackPays;
+        return this;
+    }
+
+    /**
+     * Sets whether a hand made by splitting can be doubled.
+     *
+     * @param doubleAfterSplit true to allow doubling after a split
+     * @return these rules, for chaining
+     */
+    public Rules setDoubleAfterSplit(boolean doubleAfterSplit) {
+        this.doubleAfterSplit = doubleAfterSplit;
+        return this;
+    }
+
+    /**
+     * Sets the most hands splitting (and resplitting) can make.
+     *
+     * @param maxHands the hand limit (1 for no splitting, up to RoundEngine.MAX_HANDS)
+     * @return these rules, for chaining
+     */
+    public Rules setMaxHands(int maxHands) {
+        this.maxHands = maxHands;
+        return this;
+    }
+
+    /**
+     * Sets whether split Aces that draw another Ace can be split again.
+     *
+     * @param resplitAces true to allow resplitting Aces
+     * @return these rules, for chaining
+     */
+    public Rules setResplitAces(boolean resplitAces) {
+        this.resplitAces = resplitAces;
+        return this;
+    }
+
+    /**
+     * Sets whether late surrender is offered.
+     *
+     * @param lateSurrender true to offer surrender
+     * @return these rules, for chaining
+     */
+    public Rules setLateSurrender(boolean lateSurrender) {
+        this.lateSurrender = lateSurrender;
+        return this;
+    }
+
+    /**
+     * Sets whether the dealer peeks for blackjack under an Ace or a ten.
+     *
+     * @param dealerPeek true if the dealer peeks
+     * @return these rules, for chaining
+     */
+    public Rules setDealerPeek(boolean dealerPeek) {
+        this.dealerPeek = dealerPeek;
+        return this;
+    }
+
+    /**
+     * Checks the rules and compiles them into the table the game reads every hand.
+     *
+     * @return the compiled rules
+     * @throws IllegalArgumentException if a setting is out of range
+     */
+    public RuleTable compile() {
+        if (decks < 1 || decks > MAX_DECKS) {
+            throw new IllegalArgumentException("decks must be between 1 and " + MAX_DECKS + ": " + decks);
+        }
+        if (!(penetration > 0 && penetration < 1)) {
+            throw new IllegalArgumentException("penetration must be between 0 and 1: " + penetration);
+        }
+        if (!(blackjackPays > 0)) {
+            throw new IllegalArgumentException("blackjackPays must be positive: " + blackjackPays);
+        }
+        if (maxHands < 1 || maxHands > RoundEngine.MAX_HANDS) {
+            throw new IllegalArgumentException("maxHands must be between 1 and " + RoundEngine.MAX_HANDS + ": " + maxHands);
+        }
+        return new RuleTable(decks, penetration, hitSoft17, blackjackPays, doubleAfterSplit,
+                maxHands, resplitAces, lateSurrender, dealerPeek);
+    }
+}
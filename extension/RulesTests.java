@@ -0,0 +1,144 @@
+/*
+file name:      RulesTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea RulesTests
+*/
+
+public class RulesTests {
+
+    public static void rulesTests() {
+
+        // case 1: testing the default rules
+        {
+            // set up
+            RuleTable rules = new Rules().compile();
+
+            // verify
+            System.out.println(rules + " == 1D 50% S17 3:2 DAS SP4 LS");
+
+            // test
+            assert rules.toString().equals("1D 50% S17 3:2 DAS SP4 LS") : "Error in Rules::compile() - defaults";
+            assert rules.getDecks() == 1 && rules.getPenetration() == 0.5 : "Error in Rules::compile() - shoe";
+            assert rules.getBlackjackPays() == 1.5 : "Error in Rules::compile() - payout";
+            assert rules.getMaxHands() == RoundEngine.MAX_HANDS : "Error in Rules::compile() - hand limit";
+        }
+
+        // case 2: testing the dealer's draw table for S17 and H17
+        {
+            // set up
+            RuleTable s17 = new Rules().compile();
+            RuleTable h17 = new Rules().setHitSoft17(true).compile();
+
+            // verify
+            System.out.println(h17 + " hits soft 17: " + h17.dealerDraws(17, true));
+
+            // test
+            for (int total = 4; total <= 26; total++) {
+                for (boolean soft : new boolean[] {false, true}) {
+                    boolean expected = total < 17 || (total == 17 && soft && h17.isHitSoft17());
+                    assert h17.dealerDraws(total, soft) == expected : "Error in RuleTable::dealerDraws() - H17 " + total;
+                    assert s17.dealerDraws(total, soft) == total < 17 : "Error in RuleTable::dealerDraws() - S17 " + total;
+                }
+            }
+        }
+
+        // case 3: testing that bad settings are rejected
+        {
+            // set up
+            Rules[] bad = {
+                new Rules().setDecks(0),
+                new Rules().setDecks(Rules.MAX_DECKS + 1),
+                new Rules().setPenetration(1.0),
+                new Rules().setBlackjackPays(0),
+                new Rules().setMaxHands(0),
+                new Rules().setMaxHands(RoundEngine.MAX_HANDS + 1),
+            };
+            int rejected = 0;
+
+            // verify
+            for (Rules rules : bad) {
+                try {
+                    rules.compile();
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                }
+            }
+            System.out.println(rejected + " == " + bad.length);
+
+            // test
+            assert rejected == bad.length : "Error in Rules::compile() - accepted bad settings";
+        }
+
+        // case 4: testing that the engine follows the compiled rules
+        {
+            // set up: a pair of 8s against a 10 that may not be split, and a natural paid 6:5
+            RuleTable noSplit = new Rules().setDecks(2).setMaxHands(1).compile();
+            RuleTable sixFive = new Rules().setDecks(2).setBlackjackPays(1.2).compile();
+            RoundEngine pair = RoundEngineTests.stacked(noSplit, 8, 10, 8, 7, 10);
+            RoundEngine natural = RoundEngineTests.stacked(sixFive, 11, 9, 10, 7);
+
+            // verify
+            pair.playRound();
+            double paid = natural.play();
+            System.out.println(pair.getHandCount() + " == 1, " + paid + " == 1.2");
+
+            // test
+            assert pair.getHandCount() == 1 : "Error in RoundEngine - split with maxHands 1";
+            assert paid == 1.2 : "Error in RoundEngine - blackjack payout";
+        }
+
+        // case 5: testing rule variants on the same cards
+        {
+            // set up
+            RuleTable s17 = new Rules().setDecks(6).setPenetration(0.75).compile();
+            RuleTable h17 = new Rules().setDecks(6).setPenetration(0.75).setHitSoft17(true).compile();
+            RuleTable sixFive = new Rules().setDecks(6).setPenetration(0.75).setBlackjackPays(1.2).compile();
+            Strategy basic = new BasicStrategy();
+            SweepResult sweep = new StrategySweep(2, new RuleTable[] {s17, h17, sixFive}, new Strategy[] {basic, basic, basic})
+                    .run(10L * ParallelSimulation.SHARD_SIZE, 15);
+
+            // verify
+            RunningStats h17Cost = sweep.difference(0, 1);
+            RunningStats sixFiveCost = sweep.difference(0, 2);
+            System.out.println(sweep.getName(1) + " costs " + h17Cost.getMean() + ", 6:5 costs " + sixFiveCost.getMean());
+
+            // test
+            assert h17Cost.getMean() > 0 : "Error in StrategySweep - H17 should cost the player";
+            // A natural comes about 4.5% of the time and pays 0.3 less at 6:5
+            assert Math.abs(sixFiveCost.getMean() - 0.3 * 0.045) < 0.002 : "Error in StrategySweep - 6:5 should cost about 1.4%";
+            boolean threw = false;
+            try {
+                new StrategySweep(1, new RuleTable[] {s17, new Rules().compile()}, new Strategy[] {basic, basic});
+            } catch (IllegalArgumentException e) {
+                threw = true;
+            }
+            assert threw : "Error in StrategySweep - accepted variants with different shoes";
+        }
+
+        // case 6: testing a single-deck shoe dealt almost to the end
+        {
+            // set up
+            RuleTable deep = new Rules().setDecks(1).setPenetration(0.99).compile();
+            RuleTable deepSplits = new Rules().setDecks(1).setPenetration(0.9).setResplitAces(true).compile();
+
+            // verify
+            SimulationResult result = new ParallelSimulation(1, deep, new BasicStrategy()).run(1_000_000, 7);
+            new ParallelSimulation(1, deepSplits, new BasicStrategy()).run(1_000_000, 7);
+            System.out.println(result.games() + " == 1000000");
+
+            // test
+            // reaching here means no round ran the shoe dry
+            assert result.games() == 1_000_000 : "Error in Rules - lost rounds at a high penetration";
+        }
+
+        System.out.println("*** Done testing Rules! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        rulesTests();
+    }
+}
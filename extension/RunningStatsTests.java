@@ -0,0 +1,110 @@
+/*
+file name:      RunningStatsTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea RunningStatsTests
+*/
+
+public class RunningStatsTests {
+
+    public static void runningStatsTests() {
+
+        // case 1: testing add(), getMean() and variance() against a direct computation
+        {
+            // set up
+            double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+            RunningStats stats = new RunningStats();
+            for (double v : values) {
+                stats.add(v);
+            }
+
+            // verify
+            System.out.println(stats.getMean() + " == 5.0");
+            System.out.println(stats.variance() + " == " + (32.0 / 7));
+
+            // test
+            assert stats.getCount() == 8 : "Error in RunningStats::add()";
+            assert Math.abs(stats.getMean() - 5) < 1e-12 : "Error in RunningStats::getMean()";
+            assert Math.abs(stats.variance() - 32.0 / 7) < 1e-12 : "Error in RunningStats::variance()";
+            assert Math.abs(stats.standardError() - Math.sqrt(32.0 / 7 / 8)) < 1e-12 : "Error in RunningStats::standardError()";
+        }
+
+        // case 2: testing merge() gives the same answer as one stream
+        {
+            // set up
+            RunningStats all = new RunningStats();
+            RunningStats left = new RunningStats();
+            RunningStats right = new RunningStats();
+            RunningStats empty = new RunningStats();
+            for (int i = 0; i < 1000; i++) {
+                double v = Math.sin(i) * 3 + (i % 7);
+                all.add(v);
+                if (i < 300) {
+                    left.add(v);
+                } else {
+                    right.add(v);
+                }
+            }
+            left.merge(right);
+            left.merge(empty);
+            empty.merge(all);
+
+            // verify
+            System.out.println(left + " == " + all);
+
+            // test
+            assert left.getCount() == all.getCount() : "Error in RunningStats::merge()";
+            assert Math.abs(left.getMean() - all.getMean()) < 1e-12 : "Error in RunningStats::merge()";
+            assert Math.abs(left.variance() - all.variance()) < 1e-9 : "Error in RunningStats::merge()";
+            assert empty.getCount() == 1000 && empty.getMean() == all.getMean() : "Error in RunningStats::merge() into an empty stream";
+            assert Math.abs(left.skewness() - all.skewness()) < 1e-9 : "Error in RunningStats::merge() - skewness";
+            assert Math.abs(left.kurtosis() - all.kurtosis()) < 1e-9 : "Error in RunningStats::merge() - kurtosis";
+        }
+
+        // case 3: testing skewness() and kurtosis() against a direct computation
+        {
+            // set up
+            double[] values = {1, 2, 2, 3, 3, 3, 4, 10, -6, 0.5, 7, 7};
+            RunningStats stats = new RunningStats();
+            double mean = 0;
+            for (double v : values) {
+                stats.add(v);
+                mean += v / values.length;
+            }
+            double m2 = 0;
+            double m3 = 0;
+            double m4 = 0;
+            for (double v : values) {
+                double d = v - mean;
+                m2 += d * d / values.length;
+                m3 += d * d * d / values.length;
+                m4 += d * d * d * d / values.length;
+            }
+            double skewness = m3 / Math.pow(m2, 1.5);
+            double kurtosis = m4 / (m2 * m2) - 3;
+
+            // verify
+            System.out.println(stats.skewness() + " == " + skewness);
+            System.out.println(stats.kurtosis() + " == " + kurtosis);
+
+            // test
+            assert Math.abs(stats.skewness() - skewness) < 1e-12 : "Error in RunningStats::skewness()";
+            assert Math.abs(stats.kurtosis() - kurtosis) < 1e-12 : "Error in RunningStats::kurtosis()";
+            assert Math.abs(stats.negate().skewness() + skewness) < 1e-12 : "Error in RunningStats::negate()";
+
+            RunningStats constant = new RunningStats();
+            constant.add(3);
+            constant.add(3);
+            assert constant.skewness() == 0 && constant.kurtosis() == 0 : "Error in RunningStats - constant values";
+        }
+
+        System.out.println("*** Done testing RunningStats! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        runningStatsTests();
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Deals shoes recorded by ShoeRecorder back, in the same order. Attach it
+ * with Deck.setReplay(); every full-shoe shuffle then lays out the next recorded shoe instead of
+ * calling the random generator, and after the last shoe the file starts over. A round that
+ * runs a shoe dry reshuffles the discards with a generator seeded from the shoe itself, so a
+ * replayed shoe's discards come back in the same order as when it was recorded.
+ *
+ * The file is memory-mapped, so shoes are decoded straight from the mapped pages into the
+ * deck's card array (a table lookup per card) without reading the file into the heap first.
+ * Replaying takes the generator and its variance out of engine benchmarks, and it lets a new
+ * build be checked against an old one on identical cards. The mapping is read-only, so one
+ * ShoeReplay can be shared by many decks on many threads; each deck keeps its own position.
+ */
+public class ShoeReplay {
+
+    /** The shared card for each composition index */
+    private static final Card[] BY_INDEX = new Card[16];
+
+    static {
+        for (int i = 0; i < Composition.RANKS; i++) {
+            BY_INDEX[i] = Card.of(Composition.value(i));
+        }
+    }
+
+    /** The mapped shoes (after the header) */
+    private final MappedByteBuffer shoes;
+
+    /** The number of decks in every shoe of the file */
+    private final int numDecks;
+
+    /** How many bytes one shoe takes */
+    private final int shoeBytes;
+
+    /** How many shoes the file holds */
+    private final int count;
+
+    /**
+     * Constructor — maps a shoe file.
+     *
+     * @param file the file written by a ShoeRecorder
+     * @throws IOException if the file cannot be read, is not a shoe file, has a number of decks
+     *                     outside 1 to Rules.MAX_DECKS, or holds no shoes
+     */
+    public ShoeReplay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes < ShoeRecorder.HEADER_SIZE) {
+                throw new IOException("not a shoe file (too short): " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ShoeRecorder.HEADER_SIZE);
+            if (header.getInt() != ShoeRecorder.MAGIC || header.getShort() != ShoeRecorder.VERSION) {
+                throw new IOException("not a shoe file (bad magic number or version): " + file);
+            }
+            numDecks = header.getShort();
+            if (numDecks < 1 || numDecks > Rules.MAX_DECKS) {
+                throw new IOException("not a shoe file (bad number of decks " + numDecks + "): " + file);
+            }
+            shoeBytes = ShoeRecorder.shoeBytes(numDecks);
+            long total = (bytes - ShoeRecorder.HEADER_SIZE) / shoeBytes;
+            if (total == 0) {
+                throw new IOException("no shoes recorded in " + file);
+            }
+            count = (int) Math.min(total, Integer.MAX_VALUE / shoeBytes);
+            shoes = channel.map(FileChannel.MapMode.READ_ONLY, ShoeRecorder.HEADER_SIZE, (long) count * shoeBytes);
+        }
+    }
+
+    /**
+     * Lays out one recorded shoe in a card array, in dealing order.
+     *
+     * @param shoe the index of the shoe (taken modulo the number of shoes)
+     * @param cards the array to fill, with room for the whole shoe
+     * @return the index of the shoe to load next
+     */
+    int load(int shoe, Card[] cards) {
+        shoe %= count;
+        int base = shoe * shoeBytes;
+        for (int i = 0; i < shoeBytes; i++) {
+            int b = shoes.get(base + i);
+            cards[2 * i] = BY_INDEX[(b >>> 4) & 0xF];
+            cards[2 * i + 1] = BY_INDEX[b & 0xF];
+        }
+        return shoe + 1 == count ? 0 : shoe + 1;
+    }
+
+    /** @return how many shoes the file holds */
+    public int shoes() {
+        return count;
+    }
+
+    /** @return the number of decks in every shoe of the file */
+    public int getNumDecks() {
+        return numDecks;
+    }
+}
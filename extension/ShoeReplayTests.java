@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/*
+file name:      ShoeReplayTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea ShoeReplayTests
+*/
+
+public class ShoeReplayTests {
+
+    /**
+     * Returns a basic-strategy engine that starts a fresh shoe after the recorder or replay is attached.
+     */
+    static RoundEngine engine(long seed, ShoeRecorder recorder, ShoeReplay replay) {
+        return engine(new Rules().setDecks(6).setPenetration(0.75).compile(), seed, recorder, replay);
+    }
+
+    static RoundEngine engine(RuleTable rules, long seed, ShoeRecorder recorder, ShoeReplay replay) {
+        RoundEngine engine = new RoundEngine(rules, new SplittableRandomSource(seed));
+        engine.setStrategy(new BasicStrategy());
+        engine.deck.setRecorder(recorder);
+        engine.deck.setReplay(replay);
+        engine.deck.build();
+        engine.deck.shuffle();
+        return engine;
+    }
+
+    public static void shoeReplayTests() throws IOException {
+
+        // case 1: testing that replayed shoes play exactly the same rounds
+        {
+            // set up
+            Path file = Files.createTempFile("shoes", ".bjs");
+            int rounds = 20_000;
+            double[] nets = new double[rounds];
+            long shoes;
+            try (ShoeRecorder recorder = new ShoeRecorder(file, 6)) {
+                RoundEngine original = engine(5, recorder, null);
+                for (int i = 0; i < rounds; i++) {
+                    nets[i] = original.play();
+                }
+                shoes = recorder.shoes();
+            }
+            ShoeReplay replay = new ShoeReplay(file);
+            RoundEngine replayed = engine(999, null, replay); // A different seed: the generator must not matter
+
+            // verify
+            boolean same = true;
+            for (int i = 0; i < rounds; i++) {
+                same &= replayed.play() == nets[i];
+            }
+            System.out.println(shoes + " shoes in " + Files.size(file) + " bytes");
+
+            // test
+            assert same : "Error in ShoeReplay - replayed rounds differ";
+            assert replay.shoes() == shoes && replay.getNumDecks() == 6 : "Error in ShoeReplay - header";
+            assert Files.size(file) == ShoeRecorder.HEADER_SIZE + shoes * 156 : "Error in ShoeRecorder - 4 bits per card";
+            Files.delete(file);
+        }
+
+        // case 2: testing that each replayed shoe is a whole shoe, and that the file starts over at the end
+        {
+            // set up
+            Path file = Files.createTempFile("shoes", ".bjs");
+            Deck deck = new Deck(2, 0.75, new SplittableRandomSource(8));
+            String[] recorded = new String[3];
+            try (ShoeRecorder recorder = new ShoeRecorder(file, 2)) {
+                deck.setRecorder(recorder);
+                for (int s = 0; s < 3; s++) {
+                    deck.build();
+                    deck.shuffle();
+                    recorded[s] = deck.toString();
+                }
+            }
+            Deck other = new Deck(2, 0.75, new SplittableRandomSource(9));
+            other.setReplay(new ShoeReplay(file));
+
+            // verify
+            boolean same = true;
+            boolean whole = true;
+            for (int s = 0; s < 4; s++) {
+                other.build();
+                other.shuffle();
+                same &= other.toString().equals(recorded[s % 3]);
+                int[] counts = new int[Composition.RANKS];
+                for (int i = 0; i < other.size(); i++) {
+                    counts[Composition.index(other.getCard(i).getValue())]++;
+                }
+                whole &= Arrays.equals(counts, Composition.full(2));
+            }
+            System.out.println(other);
+
+            // test
+            assert same : "Error in ShoeReplay - shoe order or wrap-around";
+            assert whole : "Error in ShoeReplay - a replayed shoe is missing cards";
+            Files.delete(file);
+        }
+
+        // case 3: testing mismatched and invalid files
+        {
+            // set up
+            Path file = Files.createTempFile("shoes", ".bjs");
+            try (ShoeRecorder recorder = new ShoeRecorder(file, 1)) {
+                Deck deck = new Deck(1);
+                deck.setRecorder(recorder);
+                deck.shuffle();
+            }
+            Path empty = Files.createTempFile("shoes", ".bjs");
+            new ShoeRecorder(empty, 1).close();
+            Path noDecks = Files.createTempFile("shoes", ".bjs");
+            Path tooManyDecks = Files.createTempFile("shoes", ".bjs");
+            for (Path bad : new Path[] {noDecks, tooManyDecks}) {
+                // A header and room for one shoe of the largest bad size, so only the decks are wrong
+                ByteBuffer bytes = ByteBuffer.allocate(ShoeRecorder.HEADER_SIZE + ShoeRecorder.shoeBytes(Rules.MAX_DECKS + 1));
+                bytes.putInt(ShoeRecorder.MAGIC).putShort(ShoeRecorder.VERSION)
+                        .putShort((short) (bad == noDecks ? 0 : Rules.MAX_DECKS + 1));
+                Files.write(bad, bytes.array());
+            }
+
+            // verify
+            boolean wrongDecks = false;
+            try {
+                new Deck(6).setReplay(new ShoeReplay(file));
+            } catch (IllegalArgumentException e) {
+                wrongDecks = true;
+            }
+            boolean noShoes = false;
+            try {
+                new ShoeReplay(empty);
+            } catch (IOException e) {
+                noShoes = true;
+                System.out.println(e.getMessage());
+            }
+
+            int badDecks = 0;
+            for (Path bad : new Path[] {noDecks, tooManyDecks}) {
+                try {
+                    new ShoeReplay(bad);
+                } catch (IOException e) {
+                    badDecks++;
+                    System.out.println(e.getMessage());
+                }
+            }
+
+            // test
+            assert wrongDecks : "Error in Deck::setReplay() - accepted shoes of the wrong size";
+            assert noShoes : "Error in ShoeReplay() - accepted a file with no shoes";
+            assert badDecks == 2 : "Error in ShoeReplay() - accepted a header with a bad number of decks";
+            Files.delete(file);
+            Files.delete(empty);
+            Files.delete(noDecks);
+            Files.delete(tooManyDecks);
+        }
+
+        // case 4: testing replay when rounds run the shoe dry and reshuffle the discards
+        {
+            // set up
+            RuleTable deep = new Rules().setDecks(1).setPenetration(0.9).compile();
+            Path file = Files.createTempFile("shoes", ".bjs");
+            int rounds = 20_000;
+            double[] nets = new double[rounds];
+            try (ShoeRecorder recorder = new ShoeRecorder(file, 1)) {
+                RoundEngine original = engine(deep, 42, recorder, null);
+                for (int i = 0; i < rounds; i++) {
+                    nets[i] = original.play();
+                }
+            }
+            RoundEngine replayed = engine(deep, 999, null, new ShoeReplay(file));
+
+            // verify
+            int differ = 0;
+            for (int i = 0; i < rounds; i++) {
+                if (replayed.play() != nets[i]) {
+                    differ++;
+                }
+            }
+            System.out.println(differ + " == 0 rounds differ at 0.9 penetration");
+
+            // test
+            assert differ == 0 : "Error in ShoeReplay - a mid-round reshuffle dealt different cards on replay";
+            Files.delete(file);
+        }
+
+        System.out.println("*** Done testing ShoeReplay! ***\n");
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        shoeReplayTests();
+    }
+}
@@ -8,10 +8,13 @@
  * 1. Allows the user to play an interactive game of Blackjack through the terminal.
  * 2. Runs automatic simulations of Blackjack games (100, 1000, or 10,000 rounds) to determine 
  *    the player's win rate, dealer's win rate, and draw frequency using Monte Carlo simulation.
+ * 3. Runs games until the player's edge is known to within a chosen margin, and reports
+ *    how many hands that took.
  * 
  * Menu Options:
  * - "Play Interactive Game": Play one round at a time, inputting "hit" or "stand" as the player.
  * - "Run Simulations": Automatically simulates many rounds and prints win percentages.
+ * - "Run Until Converged": Simulates until the 95% confidence interval is narrow enough.
  * - "Exit": Closes the program.
  * 
  * This program builds on the Blackjack class, which handles game mechanics, turns, and scoring.
@@ -36,7 +39,8 @@
              System.out.println("----------------------");
              System.out.println("1. Play Interactive Game");
              System.out.println("2. Run Simulations");
-             System.out.println("3. Exit");
+             System.out.println("3. Run Until Converged");
+             System.out.println("4. Exit");
              System.out.print("Enter your choice: ");
  
              int choice = scanner.nextInt();   // Get the user’s menu selection
@@ -46,13 +50,18 @@
              if (choice == 1) {
                  playInteractiveGame(game, scanner); // Run the interactive game
              } else if (choice == 2) {
-                 runSimulations(game);              // Run simulations of many games
+                 runSimulations();                  // Run simulations of many games
              } else if (choice == 3) {
+                 System.out.print("Target margin for the edge per hand (e.g. 0.002): ");
+                 double margin = scanner.nextDouble(); // Half-width of the 95% interval
+                 scanner.nextLine();                   // Consume leftover newline character
+                 runUntilConverged(margin);
+             } else if (choice == 4) {
                  System.out.println("Exiting the program. Goodbye!"); // Exit message
                  break; // End the loop and terminate the program
              } else {
                  // If input is invalid (not 1–3), prompt the user again
-                 System.out.println("Invalid choice! Please enter 1, 2, or 3.");
+                 System.out.println("Invalid choice! Please enter 1, 2, 3, or 4.");
              }
          }
  
@@ -94,48 +103,54 @@
  
      /**
       * Runs a set of automatic Blackjack simulations (non-interactive).
-      * It prints out the win percentages for player, dealer, and draws.
-      *
-      * @param game the Blackjack object that handles game logic
+      * The games are spread across every core by ParallelSimulation, and the
+      * win percentages for player, dealer, and draws are printed with the throughput.
       */
-     private static void runSimulations(Blackjack game) {
+     private static void runSimulations() {
          int[] simulationCounts = {100, 1000, 10000}; // Define how many games to simulate
+         ParallelSimulation simulation = new ParallelSimulation(); // One worker per core
  
          System.out.println("\nBLACKJACK SIMULATION RESULTS");
          System.out.println("------------------------------------------------");
  
          // Run a simulation for each game count (e.g., 100 games, 1000 games, etc.)
          for (int numGames : simulationCounts) {
-             int playerWins = 0; // Count how many games the player wins
-             int dealerWins = 0; // Count how many games the dealer wins
-             int draws = 0;      // Count how many games end in a tie
- 
-             // Simulate numGames rounds of Blackjack
-             for (int i = 0; i < numGames; i++) {
-                 int result = game.game(false); // Play in non-interactive mode
- 
-                 // Update the appropriate counter based on game result
-                 if (result == 1) {
-                     playerWins++;
-                 } else if (result == -1) {
-                     dealerWins++;
-                 } else {
-                     draws++;
-                 }
-             }
- 
-             // Convert raw counts into percentages
-             double playerWinPercent = (double) playerWins / numGames * 100;
-             double dealerWinPercent = (double) dealerWins / numGames * 100;
-             double drawPercent = (double) draws / numGames * 100;
+             SimulationResult result = simulation.run(numGames); // Play in non-interactive mode
  
              // Print the results for this batch
              System.out.println("Simulation for " + numGames + " games:");
-             System.out.printf("  Player Wins:  %d (%.2f%%)%n", playerWins, playerWinPercent);
-             System.out.printf("  Dealer Wins:  %d (%.2f%%)%n", dealerWins, dealerWinPercent);
-             System.out.printf("  Draws:        %d (%.2f%%)%n", draws, drawPercent);
+             System.out.printf("  Player Wins:  %d (%.2f%%)%n", result.getPlayerWins(), result.playerWinPercent());
+             System.out.printf("  Dealer Wins:  %d (%.2f%%)%n", result.getDealerWins(), result.dealerWinPercent());
+             System.out.printf("  Draws:        %d (%.2f%%)%n", result.getDraws(), result.drawPercent());
+             System.out.printf("  House Edge:   %.3f%% +/- %.3f%% (95%%)%n",
+                     result.houseEdgePercent(), result.houseEdgeHalfWidth(ParallelSimulation.Z_95));
+             System.out.printf("  Throughput:   %.0f hands/sec%n", result.handsPerSecond());
              System.out.println("------------------------------------------------");
          }
      }
+
+     /**
+      * Runs games until the 95% confidence interval around the player's expected profit per
+      * round is no wider than the given margin, and prints the result along with the number
+      * of hands needed.
+      *
+      * @param margin the target half-width of the interval, in bets per hand
+      */
+     private static void runUntilConverged(double margin) {
+         SimulationResult result = new ParallelSimulation().runUntil(margin, 1_000_000_000L);
+ 
+         System.out.println("\nBLACKJACK SIMULATION - RUN UNTIL CONVERGED");
+         System.out.println("------------------------------------------------");
+         System.out.println("Hands needed: " + result.games());
+         System.out.printf("  Player Wins:  %.3f%% +/- %.3f%%%n",
+                 result.playerWinPercent(), result.playerWinHalfWidth(ParallelSimulation.Z_95));
+         System.out.printf("  Dealer Wins:  %.3f%%%n", result.dealerWinPercent());
+         System.out.printf("  Draws:        %.3f%%%n", result.drawPercent());
+         System.out.printf("  Profit:       %.5f +/- %.5f bets per hand (the interval targeted)%n",
+                 result.expectedValue(), result.getProfit().halfWidth(ParallelSimulation.Z_95));
+         System.out.printf("  Win - Loss:   %.5f +/- %.5f per hand%n",
+                 result.edge(), result.edgeHalfWidth(ParallelSimulation.Z_95));
+         System.out.println("------------------------------------------------");
+     }
  }
  
\ No newline at end of file
@@ -0,0 +1,62 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the interface: A player's playing strategy. Given the player's total, whether the
+ * hand is soft, and the dealer's upcard, a strategy picks what the player does next.
+ * Separate questions decide whether to split a pair and whether to take insurance.
+ *
+ * Any strategy can be turned into a StrategyTable with StrategyTable.compile(), which asks it
+ * about every possible hand once and stores the answers in a flat array. The game only ever
+ * reads from that table, so even a slow or complicated strategy costs one array load per decision.
+ *
+ * Doubling and surrendering are only allowed on some hands, so each of those actions says
+ * what to do instead when it is not allowed: DOUBLE and SURRENDER fall back to hitting,
+ * DOUBLE_OR_STAND falls back to standing. A game that only supports hitting and standing
+ * (Blackjack.game()) always uses the fallback.
+ */
+public interface Strategy {
+
+    /** Take no more cards */
+    byte STAND = 0;
+
+    /** Take another card */
+    byte HIT = 1;
+
+    /** Double the bet and take exactly one more card; hit if doubling is not allowed */
+    byte DOUBLE = 2;
+
+    /** Double the bet and take exactly one more card; stand if doubling is not allowed */
+    byte DOUBLE_OR_STAND = 3;
+
+    /** Give up half the bet and end the hand; hit if surrendering is not allowed */
+    byte SURRENDER = 4;
+
+    /**
+     * Picks the player's next action.
+     *
+     * @param total the player's current total (4 to 21)
+     * @param soft whether an ace in the hand is still counted as 11
+     * @param dealerUpcard the value of the dealer's upcard (2 to 11)
+     * @return one of the action constants, e.g. HIT or STAND
+     */
+    int decide(int total, boolean soft, int dealerUpcard);
+
+    /**
+     * Decides whether to split a pair. By default pairs are never split.
+     *
+     * @param pairValue the value of each card of the pair (2 to 11)
+     * @param dealerUpcard the value of the dealer's upcard (2 to 11)
+     * @return true to split the pair into two hands
+     */
+    default boolean split(int pairValue, int dealerUpcard) {
+        return false;
+    }
+
+    /**
+     * Decides whether to take insurance when the dealer shows an Ace. By default it is declined.
+     *
+     * @return true to take insurance
+     */
+    default boolean insurance() {
+        return false;
+    }
+}
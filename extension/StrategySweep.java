@@ -0,0 +1,238 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: StrategySweep.java
+ *
+ * Purpose:
+ * This class compares several player strategies in one parallel run, for example every
+ * stand threshold from 12 to 20, or the same strategy under different table rules
+ * (H17 against S17, 3:2 against 6:5, with or without surrender, ...). The work is cut into
+ * the same fixed-size shards as ParallelSimulation uses, with the same per-shard seeds, and
+ * the shards are played with ParallelSimulation.playShards().
+ *
+ * Inside a shard every variant plays from one shared shoe, using common random numbers:
+ * each round starts at the same card for every variant, the variants play it one after the
+ * other (the shoe is rewound in between), and the shoe then moves on past the most cards any
+ * variant used. A variant that runs the shoe dry mid-round reshuffles the discards; the shoe is
+ * then put back as it was for the variants after it, and the next round starts a new shoe.
+ * So every variant is dealt the same starting hands against the same dealer
+ * cards, and the differences between variants come from the strategies alone, not from luck.
+ * Every variant plays full RoundEngine rounds, so the comparison is in net profit per round.
+ * SweepResult keeps those paired differences, whose standard errors are far smaller than
+ * comparing separate runs would give.
+ */
+public class StrategySweep {
+
+    /** The number of worker threads used to play the shards */
+    private final int threads;
+
+    /** The compiled rules of each variant; all of them share one shoe size and penetration */
+    private final RuleTable[] rules;
+
+    /** The compiled strategy of each variant */
+    private final StrategyTable[] variants;
+
+    /** The name of each variant */
+    private final String[] names;
+
+    /** Plays the shards of run() */
+    private final ShardPlayer<SweepResult> rounds = new ShardPlayer<SweepResult>() {
+        @Override
+        public SweepResult play(long games, long seed) {
+            return playShard(games, seed);
+        }
+
+        @Override
+        public SweepResult empty() {
+            return emptyResult();
+        }
+
+        @Override
+        public void merge(SweepResult into, SweepResult other) {
+            into.merge(other);
+        }
+    };
+
+    /**
+     * Constructor for a sweep over the given strategies.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param penetration the share of the shoe dealt before it is reshuffled (between 0 and 1)
+     * @param strategies the variants to compare (at least one)
+     */
+    public StrategySweep(int threads, int numDecks, double penetration, Strategy... strategies) {
+        this(threads, new Rules().setDecks(numDecks).setPenetration(penetration).compile(), strategies);
+    }
+
+    /**
+     * Constructor for a sweep over the given strategies, all played by the same rules.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules, including the shoe
+     * @param strategies the variants to compare (at least one)
+     */
+    public StrategySweep(int threads, RuleTable rules, Strategy... strategies) {
+        this(threads, sameRules(rules, strategies.length), strategies);
+    }
+
+    /**
+     * Constructor for a sweep where variant i plays strategies[i] by rules[i]. Every variant
+     * deals from the same shoe, so all the rules must agree on the decks and penetration.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules of each variant
+     * @param strategies the strategy of each variant
+     */
+    public StrategySweep(int threads, RuleTable[] rules, Strategy[] strategies) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        if (strategies.length == 0) {
+            throw new IllegalArgumentException("a sweep needs at least one strategy");
+        }
+        if (rules.length != strategies.length) {
+            throw new IllegalArgumentException("need one set of rules per strategy: " + rules.length + " != " + strategies.length);
+        }
+        boolean mixedRules = false;
+        for (RuleTable r : rules) {
+            if (r.decks != rules[0].decks || r.penetration != rules[0].penetration) {
+                throw new IllegalArgumentException("every variant must use the same shoe: " + r + " vs " + rules[0]);
+            }
+            mixedRules |= r != rules[0];
+        }
+        this.threads = threads;
+        this.rules = rules.clone();
+        this.variants = new StrategyTable[strategies.length];
+        this.names = new String[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+            variants[i] = StrategyTable.compile(strategies[i]);
+            names[i] = mixedRules ? variants[i] + " / " + rules[i] : variants[i].toString();
+        }
+    }
+
+    /**
+     * Returns an array holding the same rules for every variant.
+     *
+     * @param rules the rules
+     * @param count the number of variants
+     * @return the filled array
+     */
+    private static RuleTable[] sameRules(RuleTable rules, int count) {
+        RuleTable[] all = new RuleTable[count];
+        Arrays.fill(all, rules);
+        return all;
+    }
+
+    /**
+     * Returns a ThresholdStrategy for every stand total in a range.
+     *
+     * @param from the lowest stand total
+     * @param to the highest stand total
+     * @return the strategies, in order
+     */
+    public static Strategy[] thresholds(int from, int to) {
+        Strategy[] strategies = new Strategy[to - from + 1];
+        for (int i = 0; i < strategies.length; i++) {
+            strategies[i] = new ThresholdStrategy(from + i);
+        }
+        return strategies;
+    }
+
+    /**
+     * Plays the sweep with a fresh, random master seed (stored in the result).
+     *
+     * @param numGames the number of rounds every variant plays
+     * @return the results of every variant and their paired differences
+     */
+    public SweepResult run(long numGames) {
+        return run(numGames, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays the same rounds with every variant across all worker threads.
+     * The same seed gives the same result on any number of threads.
+     *
+     * @param numGames the number of rounds every variant plays
+     * @param seed the master seed every shard's generator is derived from
+     * @return the results of every variant and their paired differences
+     */
+    public SweepResult run(long numGames, long seed) {
+        if (numGames < 0) {
+            throw new IllegalArgumentException("numGames must not be negative: " + numGames);
+        }
+        long shards = (numGames + ParallelSimulation.SHARD_SIZE - 1) / ParallelSimulation.SHARD_SIZE;
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SweepResult result;
+        try {
+            result = ParallelSimulation.playShards(pool, rounds, numGames, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Returns an empty result with a name for every variant.
+     *
+     * @return the empty result
+     */
+    private SweepResult emptyResult() {
+        return new SweepResult(names);
+    }
+
+    /**
+     * Plays one shard of full rounds, with every variant playing each round from the same cards.
+     *
+     * @param games the number of rounds in the shard
+     * @param seed the seed for this shard's generator
+     * @return the results for this shard
+     */
+    SweepResult playShard(long games, long seed) {
+        Deck deck = new Deck(rules[0].decks, rules[0].penetration, new SplittableRandomSource(seed));
+        deck.shuffle();
+        RoundEngine[] players = new RoundEngine[variants.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new RoundEngine(deck, rules[i]); // All variants deal from the one shoe
+            players[i].setStrategy(variants[i]);
+        }
+
+        SweepResult result = emptyResult();
+        double[] nets = new double[variants.length];
+        for (long g = 0; g < games; g++) {
+            if (deck.needsShuffle()) { // Reshuffle here, so no variant's reset() does it on its own
+                deck.build();
+                deck.shuffle();
+            }
+            int start = deck.position();
+            int end = start;
+            boolean ranDry = false;
+            for (int i = 0; i < players.length; i++) {
+                deck.seek(start);                 // Every variant starts from the same card
+                nets[i] = players[i].play();
+                if (deck.reshuffledThisRound()) {
+                    deck.undoReshuffle();         // This variant ran the shoe dry: put it back for the others
+                    ranDry = true;
+                } else {
+                    end = Math.max(end, deck.position());
+                }
+            }
+            if (ranDry) { // The shoe is used up for at least one variant, so every variant moves on to a new one
+                deck.build();
+                deck.shuffle();
+            } else {
+                deck.seek(end); // Move on past every card any variant saw
+            }
+            result.record(nets);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+file name:      StrategySweepTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea StrategySweepTests
+*/
+
+public class StrategySweepTests {
+
+    public static void strategySweepTests() {
+
+        // case 1: testing that a one-variant sweep plays exactly like ParallelSimulation
+        {
+            // set up
+            long numGames = 3L * ParallelSimulation.SHARD_SIZE + 17;
+            SweepResult sweep = new StrategySweep(2, 2, 0.75, new BasicStrategy()).run(numGames, 42);
+            SimulationResult plain = new ParallelSimulation(2, 2, 0.75, new BasicStrategy()).run(numGames, 42);
+
+            // verify
+            System.out.println(sweep.getResult(0) + " == " + plain);
+
+            // test
+            assert sweep.games() == numGames : "Error in StrategySweep::run() - game count";
+            assert sweep.getResult(0).toString().equals(plain.toString()) : "Error in StrategySweep::run() - different cards";
+        }
+
+        // case 2: testing that the same seed gives the same sweep on any number of threads
+        {
+            // set up
+            long numGames = 4L * ParallelSimulation.SHARD_SIZE;
+            SweepResult one = new StrategySweep(1, 1, 0.5, StrategySweep.thresholds(15, 18)).run(numGames, 7);
+            SweepResult many = new StrategySweep(6, 1, 0.5, StrategySweep.thresholds(15, 18)).run(numGames, 7);
+
+            // verify
+            System.out.println(one.getResult(3) + " == " + many.getResult(3));
+
+            // test
+            for (int i = 0; i < one.variants(); i++) {
+                assert one.getResult(i).toString().equals(many.getResult(i).toString()) : "Error in StrategySweep::run() - depends on thread count";
+            }
+            assert one.difference(0, 3).getMean() == many.difference(0, 3).getMean() : "Error in StrategySweep::run() - depends on thread count";
+            assert one.getName(0).equals("stand on 15") : "Error in SweepResult::getName()";
+        }
+
+        // case 3: testing that identical variants see identical hands
+        {
+            // set up
+            SweepResult sweep = new StrategySweep(2, 6, 0.75, new BasicStrategy(), new BasicStrategy()).run(100000, 3);
+
+            // verify
+            System.out.println(sweep.difference(0, 1));
+
+            // test
+            assert sweep.difference(0, 1).getMean() == 0 : "Error in StrategySweep - variants saw different cards";
+            assert sweep.difference(0, 1).variance() == 0 : "Error in StrategySweep - variants saw different cards";
+            assert sweep.getResult(0).toString().equals(sweep.getResult(1).toString()) : "Error in StrategySweep";
+        }
+
+        // case 4: testing that common random numbers shrink the error of a difference
+        {
+            // set up
+            SweepResult sweep = new StrategySweep(2, 6, 0.75, new ThresholdStrategy(16), new ThresholdStrategy(17)).run(400000, 4);
+            RunningStats paired = sweep.difference(0, 1);
+            double se0 = sweep.getResult(0).getProfit().standardError();
+            double se1 = sweep.getResult(1).getProfit().standardError();
+            double unpaired = Math.sqrt(se0 * se0 + se1 * se1);
+
+            // verify
+            System.out.println("paired SE " + paired.standardError() + " < unpaired SE " + unpaired);
+
+            // test
+            assert paired.standardError() < unpaired / 2 : "Error in StrategySweep - no variance reduction";
+            assert Math.abs(paired.getMean() - (sweep.getResult(0).expectedValue() - sweep.getResult(1).expectedValue())) < 1e-9
+                    : "Error in SweepResult::difference()";
+            assert sweep.difference(1, 0).getMean() == -paired.getMean() : "Error in SweepResult::difference() - sign";
+        }
+
+        // case 5: testing the ranking of stand thresholds 12 to 20
+        {
+            // set up
+            SweepResult sweep = new StrategySweep(2, 6, 0.75, StrategySweep.thresholds(12, 20)).run(20L * ParallelSimulation.SHARD_SIZE, 5);
+            int[] ranking = sweep.ranking();
+
+            // verify
+            System.out.println("best: " + sweep.getName(ranking[0]) + ", worst: " + sweep.getName(ranking[ranking.length - 1]));
+
+            // test
+            assert ranking.length == 9 : "Error in SweepResult::ranking()";
+            for (int i = 1; i < ranking.length; i++) {
+                assert sweep.getResult(ranking[i - 1]).expectedValue() >= sweep.getResult(ranking[i]).expectedValue() : "Error in SweepResult::ranking()";
+            }
+            assert ranking[ranking.length - 1] == 8 : "Error in StrategySweep - stand on 20 should be worst";
+        }
+
+        // case 6: testing identical variants on a shoe dealt almost to the end
+        {
+            // set up: at 0.9 penetration some rounds run a single deck dry and reshuffle the discards
+            RuleTable deep = new Rules().setDecks(1).setPenetration(0.9).compile();
+            SweepResult sweep = new StrategySweep(2, deep, new BasicStrategy(), new BasicStrategy()).run(200000, 3);
+
+            // verify
+            System.out.println(sweep.difference(0, 1));
+
+            // test
+            assert sweep.difference(0, 1).getMean() == 0 : "Error in StrategySweep - variants saw different cards after running the shoe dry";
+            assert sweep.difference(0, 1).variance() == 0 : "Error in StrategySweep - variants saw different cards after running the shoe dry";
+        }
+
+        System.out.println("*** Done testing StrategySweep! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        strategySweepTests();
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The results of a StratifiedSimulation run: the rounds played in each
+ * stratum (a player pair against a dealer upcard), together with each stratum's exact
+ * probability. The overall edge is the probability-weighted sum of the strata means, which is
+ * unbiased whatever number of rounds each stratum was given. Its variance only has the spread
+ * inside each stratum in it, not the spread between strata that a plain run also pays for.
+ * Every stratum's mean is also the expected value of its starting hand against its upcard, so
+ * the result doubles as a decision table.
+ */
+public class StratifiedResult {
+
+    /** The exact probability of each stratum being dealt */
+    private final double[] probabilities;
+
+    /** The net profit of the rounds played in each stratum */
+    private final RunningStats[] strata;
+
+    /** Wall-clock time the run took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the run was played with */
+    private long seed;
+
+    /**
+     * Constructor — starts with no rounds in any stratum.
+     *
+     * @param probabilities the exact probability of each stratum (see StratifiedSimulation.probabilities())
+     */
+    public StratifiedResult(double[] probabilities) {
+        this.probabilities = probabilities;
+        this.strata = new RunningStats[probabilities.length];
+        for (int s = 0; s < strata.length; s++) {
+            strata[s] = new RunningStats();
+        }
+    }
+
+    /**
+     * Records one round played in a stratum.
+     *
+     * @param stratum the index of the stratum
+     * @param net the player's net profit for the round
+     */
+    public void record(int stratum, double net) {
+        strata[stratum].add(net);
+    }
+
+    /** @return how many strata there are */
+    public int size() {
+        return strata.length;
+    }
+
+    /** @return how many rounds were played in all */
+    public long games() {
+        long games = 0;
+        for (RunningStats stratum : strata) {
+            games += stratum.getCount();
+        }
+        return games;
+    }
+
+    /**
+     * Returns the rounds played in one stratum.
+     *
+     * @param stratum the index of the stratum
+     * @return the statistics of the stratum's net profit
+     */
+    public RunningStats getStratum(int stratum) {
+        return strata[stratum];
+    }
+
+    /**
+     * Returns the rounds played with a starting hand against an upcard.
+     *
+     * @param card1 the value of one of the player's cards (2 to 11)
+     * @param card2 the value of the player's other card (2 to 11)
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @return the statistics of the stratum's net profit
+     */
+    public RunningStats getStratum(int card1, int card2, int upcard) {
+        return strata[StratifiedSimulation.stratum(card1, card2, upcard)];
+    }
+
+    /**
+     * Returns the exact probability of a stratum being dealt.
+     *
+     * @param stratum the index of the stratum
+     * @return the probability
+     */
+    public double probability(int stratum) {
+        return probabilities[stratum];
+    }
+
+    /**
+     * Returns the player's expected net profit per round: the strata means weighted by their
+     * probabilities.
+     *
+     * @return the edge in units of the original bet
+     */
+    public double expectedValue() {
+        double ev = 0;
+        for (int s = 0; s < strata.length; s++) {
+            ev += probabilities[s] * strata[s].getMean();
+        }
+        return ev;
+    }
+
+    /**
+     * Returns the standard error of expectedValue(): the square root of the sum over the strata
+     * of probability^2 * variance / rounds.
+     *
+     * @return the standard error, or infinity if some stratum has fewer than two rounds
+     */
+    public double standardError() {
+        double variance = 0;
+        for (int s = 0; s < strata.length; s++) {
+            long n = strata[s].getCount();
+            if (n < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            variance += probabilities[s] * probabilities[s] * strata[s].variance() / n;
+        }
+        return Math.sqrt(variance);
+    }
+
+    /**
+     * Returns the half-width of a normal confidence interval around expectedValue().
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return z times the standard error
+     */
+    public double halfWidth(double z) {
+        return z * standardError();
+    }
+
+    /**
+     * Returns the standard error a plain run of as many rounds would have had: the variance of
+     * one round (the spread inside the strata plus the spread between their means) over the
+     * number of rounds.
+     *
+     * @return the plain standard error
+     */
+    public double plainStandardError() {
+        double ev = expectedValue();
+        double variance = 0;
+        for (int s = 0; s < strata.length; s++) {
+            double gap = strata[s].getMean() - ev;
+            variance += probabilities[s] * (strata[s].variance() + gap * gap);
+        }
+        return Math.sqrt(variance / games());
+    }
+
+    /**
+     * Returns how many times smaller the variance of the stratified estimate is than that of a
+     * plain run of as many rounds.
+     *
+     * @return the variance reduction factor (1 means no gain)
+     */
+    public double varianceReductionFactor() {
+        double stratified = standardError();
+        double plain = plainStandardError();
+        return Double.isInfinite(stratified) || stratified == 0 ? 1 : plain * plain / (stratified * stratified);
+    }
+
+    /**
+     * Sets the wall-clock time the run took.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the wall-clock time the run took, in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Records the master seed the run was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the run was played with */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a short summary of the result.
+     *
+     * @return a string representation of this result
+     */
+    @Override
+    public String toString() {
+        return "[rounds " + games() + ", strata " + strata.length + ", EV " + expectedValue()
+                + " +/- " + standardError() + ", VRF " + varianceReductionFactor() + "]";
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Simulation results split up by the true count at the start of each
+ * round. Each whole true count from MIN_COUNT to MAX_COUNT has its own SimulationResult (true
+ * counts are rounded down, and anything beyond the ends goes into the end buckets), so the
+ * player's expected value can be read off for every count, e.g. to size bets.
+ * Bucketing happens as the rounds are played, so no hand log has to be stored or re-read.
+ */
+public class TrueCountResult {
+
+    /** The lowest true-count bucket (lower counts are added to it) */
+    public static final int MIN_COUNT = -10;
+
+    /** The highest true-count bucket (higher counts are added to it) */
+    public static final int MAX_COUNT = 10;
+
+    /** The counting system the true counts come from */
+    private final CountingSystem system;
+
+    /** The results of each bucket, from MIN_COUNT to MAX_COUNT */
+    private final SimulationResult[] buckets = new SimulationResult[MAX_COUNT - MIN_COUNT + 1];
+
+    /** Wall-clock time the run took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the run was played with */
+    private long seed;
+
+    /**
+     * Constructor — creates empty buckets.
+     *
+     * @param system the counting system the true counts come from
+     */
+    public TrueCountResult(CountingSystem system) {
+        this.system = system;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new SimulationResult();
+        }
+    }
+
+    /**
+     * Returns the bucket a true count falls into.
+     *
+     * @param trueCount the true count
+     * @return the bucket, from MIN_COUNT to MAX_COUNT
+     */
+    public static int bucket(double trueCount) {
+        double floor = Math.floor(trueCount);
+        if (floor < MIN_COUNT) {
+            return MIN_COUNT;
+        }
+        if (floor > MAX_COUNT) {
+            return MAX_COUNT;
+        }
+        return (int) floor;
+    }
+
+    /**
+     * Records one round under the true count it started at.
+     *
+     * @param trueCount the true count before the round was dealt
+     * @param net the player's net profit in units of the original bet
+     */
+    public void record(double trueCount, double net) {
+        buckets[bucket(trueCount) - MIN_COUNT].record((int) Math.signum(net), net);
+    }
+
+    /**
+     * Adds the buckets of another result into this one.
+     *
+     * @param other the result to merge into this one
+     */
+    public void merge(TrueCountResult other) {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i].merge(other.buckets[i]);
+        }
+    }
+
+    /**
+     * Returns the results of the rounds that started at a true count.
+     *
+     * @param trueCount a whole true count from MIN_COUNT to MAX_COUNT
+     * @return the results of that bucket
+     */
+    public SimulationResult getBucket(int trueCount) {
+        return buckets[trueCount - MIN_COUNT];
+    }
+
+    /**
+     * Returns the results of every round, whatever the count.
+     *
+     * @return a new result with all the buckets merged
+     */
+    public SimulationResult total() {
+        SimulationResult total = new SimulationResult();
+        for (SimulationResult bucket : buckets) {
+            total.merge(bucket);
+        }
+        return total;
+    }
+
+    /** @return the total number of rounds recorded */
+    public long games() {
+        long games = 0;
+        for (SimulationResult bucket : buckets) {
+            games += bucket.games();
+        }
+        return games;
+    }
+
+    /** @return the counting system the true counts come from */
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    /**
+     * Sets the wall-clock time the run took.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the wall-clock time the run took, in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Records the master seed the run was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the run was played with */
+    public long getSeed() {
+        return seed;
+    }
+}
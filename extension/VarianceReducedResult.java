@@ -0,0 +1,198 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The results of a VarianceReducedSimulation run. Every shoe's rounds are
+ * kept as one cluster, and every pair of shoes (a shoe and its mirror when antithetic shoes
+ * are on) as another, each with the shoe's control variate when that is on. From the same
+ * rounds the class can then give the edge four ways:
+ * - plain: independent shoes, no control (what an ordinary run of as many rounds would give),
+ * - antithetic: pairs of shoes as the units,
+ * - control: independent shoes, corrected by the control variate,
+ * - both together.
+ * The variance reduction factor is the plain estimate's variance divided by the variance of
+ * the estimate with the chosen estimators: the factor by which they cut the number of rounds
+ * needed for the same precision. Results from different threads can be merged into one.
+ */
+public class VarianceReducedResult {
+
+    /** Whether the second shoe of each pair mirrors the first */
+    private final boolean antithetic;
+
+    /** Whether the dealer-bust control variate was kept */
+    private final boolean control;
+
+    /** Every shoe as its own cluster */
+    private final ClusterStats shoes = new ClusterStats();
+
+    /** Every pair of shoes as one cluster */
+    private final ClusterStats pairs = new ClusterStats();
+
+    /** Wall-clock time the run took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the run was played with */
+    private long seed;
+
+    /**
+     * Constructor — starts with no shoes.
+     *
+     * @param antithetic whether the second shoe of each pair mirrors the first
+     * @param control whether the dealer-bust control variate is kept
+     */
+    public VarianceReducedResult(boolean antithetic, boolean control) {
+        this.antithetic = antithetic;
+        this.control = control;
+    }
+
+    /**
+     * Records one pair of shoes.
+     *
+     * @param profit1 the player's total net profit over the first shoe
+     * @param rounds1 how many rounds the first shoe dealt
+     * @param control1 the first shoe's control variate
+     * @param profit2 the player's total net profit over the second shoe
+     * @param rounds2 how many rounds the second shoe dealt
+     * @param control2 the second shoe's control variate
+     */
+    public void record(double profit1, long rounds1, double control1, double profit2, long rounds2, double control2) {
+        shoes.add(profit1, rounds1, control1);
+        shoes.add(profit2, rounds2, control2);
+        pairs.add(profit1 + profit2, rounds1 + rounds2, control1 + control2);
+    }
+
+    /**
+     * Adds the shoes of another result into this one.
+     *
+     * @param other the result to merge into this one
+     */
+    public void merge(VarianceReducedResult other) {
+        shoes.merge(other.shoes);
+        pairs.merge(other.pairs);
+    }
+
+    /** @return whether the second shoe of each pair mirrors the first */
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+
+    /** @return whether the dealer-bust control variate was kept */
+    public boolean isControl() {
+        return control;
+    }
+
+    /** @return how many rounds were played */
+    public long games() {
+        return shoes.rounds();
+    }
+
+    /** @return every shoe as its own cluster */
+    public ClusterStats getShoes() {
+        return shoes;
+    }
+
+    /** @return every pair of shoes as one cluster */
+    public ClusterStats getPairs() {
+        return pairs;
+    }
+
+    /**
+     * Returns the player's expected net profit per round, from the chosen estimators.
+     *
+     * @return the edge in units of the original bet
+     */
+    public double expectedValue() {
+        return (antithetic ? pairs : shoes).estimate(control);
+    }
+
+    /** @return the standard error of expectedValue() */
+    public double standardError() {
+        return (antithetic ? pairs : shoes).standardError(control);
+    }
+
+    /**
+     * Returns the half-width of a normal confidence interval around expectedValue().
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return z times the standard error
+     */
+    public double halfWidth(double z) {
+        return z * standardError();
+    }
+
+    /** @return the standard error the same rounds would give as independent shoes with no control */
+    public double plainStandardError() {
+        return shoes.standardError(false);
+    }
+
+    /**
+     * Returns how many times smaller the variance of the estimate is than that of a plain run of
+     * as many rounds; a plain run needs this many times more rounds for the same precision.
+     *
+     * @return the variance reduction factor (1 means no gain)
+     */
+    public double varianceReductionFactor() {
+        return ratio(plainStandardError(), standardError());
+    }
+
+    /** @return the variance reduction factor of antithetic pairs alone */
+    public double antitheticFactor() {
+        return ratio(plainStandardError(), pairs.standardError(false));
+    }
+
+    /** @return the variance reduction factor of the control variate alone */
+    public double controlFactor() {
+        return ratio(plainStandardError(), shoes.standardError(true));
+    }
+
+    /**
+     * Returns the ratio of two variances from their standard errors.
+     *
+     * @param plain the plain standard error
+     * @param reduced the reduced standard error
+     * @return plain^2 / reduced^2, or 1 if either is not known yet
+     */
+    private static double ratio(double plain, double reduced) {
+        if (Double.isInfinite(plain) || Double.isInfinite(reduced) || reduced == 0) {
+            return 1;
+        }
+        return plain * plain / (reduced * reduced);
+    }
+
+    /**
+     * Sets the wall-clock time the run took.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the wall-clock time the run took, in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Records the master seed the run was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the run was played with */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a short summary of the result.
+     *
+     * @return a string representation of this result
+     */
+    @Override
+    public String toString() {
+        return "[rounds " + games() + ", shoes " + shoes.getClusters() + ", EV " + expectedValue()
+                + " +/- " + standardError() + ", VRF " + varianceReductionFactor() + "]";
+    }
+}
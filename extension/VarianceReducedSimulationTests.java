@@ -0,0 +1,187 @@
+/*
+file name:      VarianceReducedSimulationTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea VarianceReducedSimulationTests
+*/
+
+public class VarianceReducedSimulationTests {
+
+    public static void varianceReducedSimulationTests() {
+
+        // case 1: testing Composition.mirror() and Deck.mirror()
+        {
+            // set up
+            Deck deck = new Deck(2, new SplittableRandomSource(3));
+            deck.shuffle();
+            int[] before = new int[deck.size()];
+            for (int i = 0; i < before.length; i++) {
+                before[i] = deck.getCard(i).getValue();
+            }
+            deck.mirror();
+
+            // verify
+            System.out.println(Composition.mirror(Composition.index(2)) + " " + Composition.mirror(Composition.index(6))
+                    + " " + Composition.mirror(Composition.index(10)));
+
+            // test
+            assert Composition.mirror(Composition.index(2)) == Composition.index(11) : "Error in Composition::mirror() - 2 and Ace";
+            assert Composition.mirror(Composition.index(5)) == Composition.index(7) : "Error in Composition::mirror() - 5 and 7";
+            assert Composition.mirror(Composition.index(6)) == Composition.index(6) : "Error in Composition::mirror() - 6";
+            assert Composition.mirror(Composition.index(10)) == Composition.index(10) : "Error in Composition::mirror() - tens";
+            int[] full = Composition.full(1);
+            for (int i = 0; i < Composition.RANKS; i++) {
+                assert Composition.mirror(Composition.mirror(i)) == i : "Error in Composition::mirror() - not its own inverse";
+                assert full[Composition.mirror(i)] == full[i] : "Error in Composition::mirror() - changes the composition";
+            }
+            int[] counts = new int[Composition.RANKS];
+            for (int i = 0; i < before.length; i++) {
+                int value = deck.getCard(i).getValue();
+                assert Composition.index(value) == Composition.mirror(Composition.index(before[i])) : "Error in Deck::mirror() - card " + i;
+                counts[Composition.index(value)]++;
+            }
+            assert java.util.Arrays.equals(counts, Composition.full(2)) : "Error in Deck::mirror() - composition";
+
+            deck.deal();
+            boolean thrown = false;
+            try {
+                deck.mirror();
+            } catch (IllegalStateException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in Deck::mirror() - a dealt shoe was mirrored";
+        }
+
+        // case 2: testing ClusterStats against sums worked out by hand
+        {
+            // set up: three clusters with a control that explains y - n exactly
+            ClusterStats stats = new ClusterStats();
+            stats.add(3, 2, 1);
+            stats.add(-1, 2, -3);
+            stats.add(4, 4, 0);
+            ClusterStats merged = new ClusterStats();
+            ClusterStats part = new ClusterStats();
+            merged.add(3, 2, 1);
+            part.add(-1, 2, -3);
+            part.add(4, 4, 0);
+            merged.merge(part);
+
+            // verify
+            System.out.println(stats + " se " + stats.standardError(false) + " / " + stats.standardError(true));
+
+            // test
+            // r = 6 / 8; residuals y - r n are 1.5, -2.5 and 1, so the variance is 9.5 / 2 / 3 / (8/3)^2
+            assert stats.rounds() == 8 && stats.mean() == 0.75 : "Error in ClusterStats::mean()";
+            assert Math.abs(stats.standardError(false) - Math.sqrt(9.5 / 2 / 3) / (8 / 3.0)) < 1e-12 : "Error in ClusterStats::standardError()";
+            // beta = (1.5 + 7.5 + 0) / 10 = 0.9, and the estimate subtracts beta times the sum of the controls (-2)
+            assert Math.abs(stats.beta() - 0.9) < 1e-12 : "Error in ClusterStats::beta()";
+            assert Math.abs(stats.estimate(true) - (6 + 0.9 * 2) / 8) < 1e-12 : "Error in ClusterStats::estimate()";
+            assert stats.standardError(true) < stats.standardError(false) : "Error in ClusterStats - the control did not help";
+            assert merged.mean() == stats.mean() && merged.beta() == stats.beta()
+                    && merged.standardError(true) == stats.standardError(true) : "Error in ClusterStats::merge()";
+            assert new ClusterStats().standardError(false) == Double.POSITIVE_INFINITY : "Error in ClusterStats - empty";
+        }
+
+        // case 3: testing the dealer-bust control on a stacked deck
+        {
+            // set up: the player stands on 20, and the dealer's 16 draws a ten
+            RuleTable rules = new Rules().setDecks(1).compile();
+            RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(4));
+            game.setStrategy(new BasicStrategy());
+            game.deck.build();
+            game.deck.arrange(10, 10, 10, 6, 10);
+            VarianceReducedSimulation.ShoePlayer shoe = new VarianceReducedSimulation.ShoePlayer(game, true);
+
+            // verify
+            double net = game.play();
+            double control = shoe.bustControl();
+            System.out.println("net " + net + ", control " + control);
+
+            // test
+            // Before the hit 48 cards were left, and 3 sixes, 4 each of 7, 8 and 9, and 13 tens bust a 16
+            assert net == 1 : "Error in the stacked round";
+            assert Math.abs(control - (1 - 28.0 / 48)) < 1e-12 : "Error in VarianceReducedSimulation::bustControl()";
+
+            // A dealer who stands on two cards adds nothing
+            game.deck.build();
+            game.deck.arrange(10, 10, 10, 9);
+            game.play();
+            assert shoe.bustControl() == 0 : "Error in VarianceReducedSimulation::bustControl() - the dealer stood";
+        }
+
+        // case 4: testing that the control variate cuts the variance without moving the estimate
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(1).compile();
+            VarianceReducedResult plain = new VarianceReducedSimulation(2, rules, new BasicStrategy()).run(10000, 21);
+            VarianceReducedResult reduced = new VarianceReducedSimulation(2, rules, new BasicStrategy())
+                    .setControlVariate(true).run(10000, 21);
+
+            // verify
+            System.out.println("plain " + plain);
+            System.out.println("reduced " + reduced);
+
+            // test
+            assert plain.games() == reduced.games() && plain.getShoes().getClusters() == 20000 : "Error in VarianceReducedSimulation - rounds";
+            assert plain.varianceReductionFactor() == 1 : "Error in VarianceReducedResult - a plain run has no reduction";
+            assert reduced.getShoes().estimate(false) == plain.expectedValue() : "Error in VarianceReducedSimulation - the control changed the rounds";
+            assert Math.abs(reduced.getShoes().controlPerRound()) < 0.005 : "Error in VarianceReducedSimulation - the control's mean is not 0";
+            assert reduced.controlFactor() > 1.1 : "Error in VarianceReducedSimulation - the control should cut the variance";
+            assert reduced.varianceReductionFactor() == reduced.controlFactor() : "Error in VarianceReducedResult::varianceReductionFactor()";
+            assert Math.abs(reduced.expectedValue() - plain.expectedValue()) < 2 * plain.standardError()
+                    : "Error in VarianceReducedSimulation - the control moved the estimate";
+        }
+
+        // case 5: testing antithetic pairs and repeatability across thread counts
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+            VarianceReducedResult one = new VarianceReducedSimulation(1, rules, new BasicStrategy())
+                    .setAntithetic(true).setControlVariate(true).run(700, 5);
+            VarianceReducedResult four = new VarianceReducedSimulation(4, rules, new BasicStrategy())
+                    .setAntithetic(true).setControlVariate(true).run(700, 5);
+            VarianceReducedResult plain = new VarianceReducedSimulation(4, rules, new BasicStrategy()).run(700, 5);
+
+            // verify
+            System.out.println("antithetic " + one + ", antithetic factor " + one.antitheticFactor());
+
+            // test
+            assert one.expectedValue() == four.expectedValue() && one.standardError() == four.standardError()
+                    : "Error in VarianceReducedSimulation - results depend on the number of threads";
+            assert one.getPairs().getClusters() == 700 && one.getShoes().getClusters() == 1400 : "Error in VarianceReducedSimulation - pairs";
+            assert one.games() != plain.games() : "Error in VarianceReducedSimulation - the second shoes were not mirrored";
+            assert one.antitheticFactor() > 0.7 && one.antitheticFactor() < 1.5 : "Error in VarianceReducedResult::antitheticFactor()";
+            assert Math.abs(one.expectedValue() - plain.expectedValue()) < 4 * plain.standardError()
+                    : "Error in VarianceReducedSimulation - antithetic pairs are biased";
+        }
+
+        // case 6: testing that the control still has a mean of 0 when rounds run the shoe dry
+        {
+            // set up: at 0.97 penetration many single-deck shoes end with a round that reshuffles the discards
+            RuleTable deep = new Rules().setDecks(1).setPenetration(0.97).compile();
+            VarianceReducedResult result = new VarianceReducedSimulation(2, deep, new BasicStrategy())
+                    .setAntithetic(true).setControlVariate(true).run(100000, 11);
+            ClusterStats shoes = result.getShoes();
+
+            // verify
+            System.out.println("control per round " + shoes.controlPerRound() + ", estimate " + shoes.estimate(false)
+                    + " -> " + shoes.estimate(true) + " +/- " + shoes.standardError(false));
+
+            // test
+            // About 2.4 standard errors of the control; before mirroring the saved shoe and following
+            // the composition across the reshuffle it was about -1e-3
+            assert Math.abs(shoes.controlPerRound()) < 4e-4 : "Error in VarianceReducedSimulation - the control's mean is not 0 at a high penetration";
+            assert Math.abs(shoes.estimate(true) - shoes.estimate(false)) < shoes.standardError(false)
+                    : "Error in VarianceReducedSimulation - the control moved the estimate at a high penetration";
+        }
+
+        System.out.println("*** Done testing VarianceReducedSimulation! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        varianceReducedSimulationTests();
+    }
+}
@@ -102,6 +102,17 @@ public class ArrayList<T> {
         return out;         // Return the item that was removed
     }
 
+    /**
+     * Removes every element from the list, keeping its current capacity
+     */
+    public void clear() {
+        // Drop the references so the removed items can be garbage collected
+        for (int i = 0; i < size; i++) {
+            arr[i] = null;
+        }
+        size = 0; // The list is now empty
+    }
+
     /**
      * Changes the capacity of the internal array
      *
@@ -82,6 +82,25 @@ public class ArrayListTests {
             assert al.get(4) == 7 : "Error in ArrayList::set(int index, T item) or ArrayList::get(int index)";
         }
 
+        // case 5: testing clear()
+        {
+            // setup
+            ArrayList<Integer> al = new ArrayList<Integer>();
+            for (int i = 0; i < 5; i++) {
+                al.add(i);
+            }
+            al.clear();
+
+            // verify
+            System.out.println(al + " == []");
+
+            // test
+            assert al.size() == 0 : "Error in ArrayList::clear()";
+            al.add(3);
+            assert al.size() == 1 : "Error in ArrayList::clear() or ArrayList::add(T item)";
+            assert al.get(0) == 3 : "Error in ArrayList::clear() or ArrayList::add(T item)";
+        }
+
     }
 
 
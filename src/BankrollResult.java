@@ -0,0 +1,243 @@
+import java.util.Arrays;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The results of a BankrollSimulation run. Each trajectory ends in one of
+ * three ways: ruin (the bankroll can no longer cover the smallest bet), reaching the win goal,
+ * or running out of rounds. Besides those counts, the class keeps the round on which each
+ * trajectory first doubled its starting bankroll and the deepest drawdown (largest fall from
+ * a peak) of every trajectory, so medians and percentiles can be read off at the end.
+ * Results from different threads can be merged into one.
+ */
+public class BankrollResult {
+
+    /** The bankroll every trajectory started with, in units */
+    private final double bankroll;
+
+    /** How many trajectories were played */
+    private long trajectories;
+
+    /** How many trajectories were ruined */
+    private long ruined;
+
+    /** How many trajectories reached the win goal */
+    private long reachedGoal;
+
+    /** The rounds each trajectory played before it stopped */
+    private final RunningStats rounds = new RunningStats();
+
+    /** The bankroll each trajectory finished with, in units */
+    private final RunningStats finalBankroll = new RunningStats();
+
+    /** The round on which each doubling trajectory first reached twice its bankroll */
+    private long[] doubleTimes = new long[16];
+
+    /** How many entries of doubleTimes are used */
+    private int doubled;
+
+    /** The deepest drawdown of every trajectory, in units */
+    private double[] drawdowns = new double[16];
+
+    /** Wall-clock time the run took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the run was played with */
+    private long seed;
+
+    /**
+     * Constructor — starts with no trajectories.
+     *
+     * @param bankroll the bankroll every trajectory starts with, in units
+     */
+    public BankrollResult(double bankroll) {
+        this.bankroll = bankroll;
+    }
+
+    /**
+     * Records one finished trajectory.
+     *
+     * @param ruin whether the trajectory ended in ruin
+     * @param goal whether the trajectory ended at the win goal
+     * @param roundsPlayed how many rounds it played
+     * @param finalUnits the bankroll it finished with
+     * @param doubledAt the round on which it first doubled its bankroll, or -1 if it never did
+     * @param maxDrawdown its deepest fall from a peak, in units
+     */
+    public void record(boolean ruin, boolean goal, long roundsPlayed, double finalUnits, long doubledAt, double maxDrawdown) {
+        if (ruin) {
+            ruined++;
+        } else if (goal) {
+            reachedGoal++;
+        }
+        rounds.add(roundsPlayed);
+        finalBankroll.add(finalUnits);
+        if (doubledAt >= 0) {
+            if (doubled == doubleTimes.length) {
+                doubleTimes = Arrays.copyOf(doubleTimes, doubled * 2);
+            }
+            doubleTimes[doubled++] = doubledAt;
+        }
+        if (trajectories == drawdowns.length) {
+            drawdowns = Arrays.copyOf(drawdowns, drawdowns.length * 2);
+        }
+        drawdowns[(int) trajectories] = maxDrawdown;
+        trajectories++;
+    }
+
+    /**
+     * Adds the trajectories of another result into this one.
+     *
+     * @param other the result to merge into this one
+     */
+    public void merge(BankrollResult other) {
+        if (doubled + other.doubled > doubleTimes.length) {
+            doubleTimes = Arrays.copyOf(doubleTimes, doubled + other.doubled);
+        }
+        System.arraycopy(other.doubleTimes, 0, doubleTimes, doubled, other.doubled);
+        doubled += other.doubled;
+
+        int n = (int) trajectories;
+        int m = (int) other.trajectories;
+        if (n + m > drawdowns.length) {
+            drawdowns = Arrays.copyOf(drawdowns, n + m);
+        }
+        System.arraycopy(other.drawdowns, 0, drawdowns, n, m);
+
+        trajectories += other.trajectories;
+        ruined += other.ruined;
+        reachedGoal += other.reachedGoal;
+        rounds.merge(other.rounds);
+        finalBankroll.merge(other.finalBankroll);
+    }
+
+    /** @return the bankroll every trajectory started with, in units */
+    public double getBankroll() {
+        return bankroll;
+    }
+
+    /** @return how many trajectories were played */
+    public long trajectories() {
+        return trajectories;
+    }
+
+    /** @return how many trajectories were ruined */
+    public long getRuined() {
+        return ruined;
+    }
+
+    /** @return how many trajectories reached the win goal */
+    public long getReachedGoal() {
+        return reachedGoal;
+    }
+
+    /** @return how many trajectories ran out of rounds before ruin or the goal */
+    public long getUnfinished() {
+        return trajectories - ruined - reachedGoal;
+    }
+
+    /**
+     * Returns the risk of ruin: the share of trajectories that were ruined.
+     *
+     * @return the risk of ruin, from 0 to 1
+     */
+    public double riskOfRuin() {
+        return trajectories == 0 ? 0 : (double) ruined / trajectories;
+    }
+
+    /**
+     * Returns the half-width of a normal confidence interval around the risk of ruin.
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return z times the standard error of the ruin proportion
+     */
+    public double ruinHalfWidth(double z) {
+        double p = riskOfRuin();
+        return trajectories == 0 ? Double.POSITIVE_INFINITY : z * Math.sqrt(p * (1 - p) / trajectories);
+    }
+
+    /** @return the share of trajectories that doubled their bankroll at some point */
+    public double doubledFraction() {
+        return trajectories == 0 ? 0 : (double) doubled / trajectories;
+    }
+
+    /**
+     * Returns the median number of rounds it took to double the bankroll, counting the
+     * trajectories that never doubled as taking forever.
+     *
+     * @return the median time to double, or -1 if fewer than half the trajectories doubled
+     */
+    public long medianTimeToDouble() {
+        long rank = (trajectories + 1) / 2; // the middle trajectory, counting from 1
+        if (rank == 0 || rank > doubled) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(doubleTimes, doubled);
+        Arrays.sort(sorted);
+        return sorted[(int) rank - 1];
+    }
+
+    /**
+     * Returns a percentile of the deepest drawdowns of the trajectories.
+     *
+     * @param percent the percentile, from 0 to 100 (50 is the median drawdown)
+     * @return the drawdown, in units, that this share of trajectories did not exceed
+     */
+    public double drawdownPercentile(double percent) {
+        if (trajectories == 0) {
+            return 0;
+        }
+        double[] sorted = Arrays.copyOf(drawdowns, (int) trajectories);
+        Arrays.sort(sorted);
+        int i = (int) Math.ceil(percent / 100 * sorted.length) - 1; // nearest-rank percentile
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+    }
+
+    /** @return the statistics of the rounds each trajectory played */
+    public RunningStats getRounds() {
+        return rounds;
+    }
+
+    /** @return the statistics of the bankroll each trajectory finished with */
+    public RunningStats getFinalBankroll() {
+        return finalBankroll;
+    }
+
+    /**
+     * Sets the wall-clock time the run took.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the wall-clock time the run took, in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Records the master seed the run was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the run was played with */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a short summary of the result.
+     *
+     * @return a string representation of this result
+     */
+    @Override
+    public String toString() {
+        return "[trajectories " + trajectories + ", ruined " + ruined + ", goal " + reachedGoal
+                + ", unfinished " + getUnfinished() + ", mean rounds " + rounds.getMean() + "]";
+    }
+}
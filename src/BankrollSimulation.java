@@ -0,0 +1,196 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: BankrollSimulation.java
+ *
+ * Purpose:
+ * This class follows a player's bankroll from round to round, instead of only counting how
+ * hands end. Every trajectory starts with the same bankroll and a fresh shoe, bets what its
+ * BetRamp says (keyed on the true count, or flat), and stops as soon as it reaches an
+ * absorbing state:
+ * - ruin: the bankroll can no longer cover the ramp's smallest bet, or
+ * - the goal: the bankroll has reached the win goal.
+ * A trajectory that reaches neither within maxRounds is stopped there. Because a trajectory
+ * ends the moment it is absorbed, configurations that ruin quickly cost little to simulate.
+ *
+ * The bet is capped at what is left, but the strategy still doubles and splits as it likes,
+ * so a round can lose several times the bet. The model is that the player never owes the
+ * table: a round that loses more than the bankroll is ruin with nothing left, so the final
+ * bankroll never goes below 0 and the drawdown never goes past the peak.
+ *
+ * Trajectories are independent, so they are played in parallel the same way
+ * ParallelSimulation plays rounds: cut into fixed shards of TRAJECTORIES_PER_SHARD, each with
+ * its own seed derived from the master seed, so a seed gives the same answer on any number of
+ * threads. The run reports the risk of ruin, the median number of rounds needed to double the
+ * bankroll and the distribution of the deepest drawdowns.
+ */
+public class BankrollSimulation {
+
+    /** How many trajectories one shard plays */
+    static final int TRAJECTORIES_PER_SHARD = 64;
+
+    /** The number of worker threads used to play the shards */
+    private final int threads;
+
+    /** The table rules every trajectory plays by, including the shoe */
+    private final RuleTable rules;
+
+    /** The player's compiled strategy, shared by every shard */
+    private final StrategyTable strategy;
+
+    /** How much the player bets on each round */
+    private final BetRamp ramp;
+
+    /**
+     * Constructor — chooses the rules, the playing strategy and the bet ramp.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules, including the shoe
+     * @param strategy the player's strategy (compiled once, here)
+     * @param ramp how much the player bets on each round
+     */
+    public BankrollSimulation(int threads, RuleTable rules, Strategy strategy, BetRamp ramp) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.rules = rules;
+        this.strategy = StrategyTable.compile(strategy);
+        this.ramp = ramp;
+    }
+
+    /** @return the table rules every trajectory plays by */
+    public RuleTable getRules() {
+        return rules;
+    }
+
+    /** @return the bet ramp every trajectory follows */
+    public BetRamp getRamp() {
+        return ramp;
+    }
+
+    /**
+     * Plays the trajectories with a fresh, random master seed (stored in the result).
+     *
+     * @param trajectories the number of bankroll trajectories to follow
+     * @param bankroll the starting bankroll, in units
+     * @param goal the bankroll at which a trajectory stops as a win
+     * @param maxRounds the most rounds a trajectory plays if it is never absorbed
+     * @return the merged result of every trajectory
+     */
+    public BankrollResult run(long trajectories, double bankroll, double goal, long maxRounds) {
+        return run(trajectories, bankroll, goal, maxRounds, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays the trajectories across all worker threads and merges their results.
+     *
+     * @param trajectories the number of bankroll trajectories to follow
+     * @param bankroll the starting bankroll, in units
+     * @param goal the bankroll at which a trajectory stops as a win (use POSITIVE_INFINITY for none)
+     * @param maxRounds the most rounds a trajectory plays if it is never absorbed
+     * @param seed the master seed every shard's generator is derived from
+     * @return the merged result of every trajectory
+     */
+    public BankrollResult run(long trajectories, double bankroll, double goal, long maxRounds, long seed) {
+        if (trajectories < 0) {
+            throw new IllegalArgumentException("trajectories must not be negative: " + trajectories);
+        }
+        if (!(bankroll >= ramp.getMinBet())) {
+            throw new IllegalArgumentException("the bankroll must cover the smallest bet: " + bankroll);
+        }
+        if (!(goal > bankroll)) {
+            throw new IllegalArgumentException("the goal must be above the bankroll: " + goal);
+        }
+        if (maxRounds < 1) {
+            throw new IllegalArgumentException("maxRounds must be at least 1: " + maxRounds);
+        }
+
+        ShardPlayer<BankrollResult> player = new ShardPlayer<BankrollResult>() {
+            @Override
+            public BankrollResult play(long count, long shardSeed) {
+                return playShard(count, shardSeed, bankroll, goal, maxRounds);
+            }
+
+            @Override
+            public BankrollResult empty() {
+                return new BankrollResult(bankroll);
+            }
+
+            @Override
+            public void merge(BankrollResult into, BankrollResult other) {
+                into.merge(other);
+            }
+        };
+
+        long shards = (trajectories + TRAJECTORIES_PER_SHARD - 1) / TRAJECTORIES_PER_SHARD;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        BankrollResult result;
+        try {
+            result = ParallelSimulation.playShards(pool, player, TRAJECTORIES_PER_SHARD, trajectories, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Plays one shard of trajectories on a single RoundEngine. Each trajectory starts from a
+     * freshly shuffled shoe and stops at ruin, at the goal or after maxRounds rounds.
+     *
+     * @param count the number of trajectories in the shard
+     * @param seed the seed for this shard's generator
+     * @param bankroll the starting bankroll, in units
+     * @param goal the bankroll at which a trajectory stops as a win
+     * @param maxRounds the most rounds a trajectory plays
+     * @return the results of this shard's trajectories
+     */
+    BankrollResult playShard(long count, long seed, double bankroll, double goal, long maxRounds) {
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        Counter counter = ramp.getSystem() == null ? null : game.deck.addCounter(ramp.getSystem());
+        double minBet = ramp.getMinBet();
+        double twice = 2 * bankroll;
+        BankrollResult result = new BankrollResult(bankroll);
+
+        for (long t = 0; t < count; t++) {
+            game.deck.build(); // Every trajectory starts from a new shoe
+            game.deck.shuffle();
+            double money = bankroll;
+            double peak = bankroll;
+            double maxDrawdown = 0;
+            long doubledAt = -1;
+            long round = 0;
+            while (round < maxRounds && money >= minBet && money < goal) {
+                if (game.deck.needsShuffle()) { // Reshuffle first, so the bet is sized on the shoe the round is dealt from
+                    game.deck.build();
+                    game.deck.shuffle();
+                }
+                double bet = counter == null ? minBet : ramp.bet(counter.trueCount());
+                bet = Math.min(bet, money); // Never bet more than is left
+                money += bet * game.play();
+                if (money < 0) {
+                    money = 0; // Lost more than was left by doubling or splitting: ruin, not debt
+                }
+                round++;
+
+                if (money > peak) {
+                    peak = money;
+                    if (doubledAt < 0 && money >= twice) {
+                        doubledAt = round;
+                    }
+                } else if (peak - money > maxDrawdown) {
+                    maxDrawdown = peak - money;
+                }
+            }
+            result.record(money < minBet, money >= goal, round, money, doubledAt, maxDrawdown);
+        }
+        return result;
+    }
+}
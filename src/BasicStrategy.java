@@ -0,0 +1,126 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The standard multi-deck basic strategy (dealer stands on soft 17,
+ * doubling after a split allowed, late surrender offered):
+ *
+ * Hard totals:
+ * - 8 or less: hit.
+ * - 9: double against 3 to 6; otherwise hit.
+ * - 10: double against 2 to 9; otherwise hit.
+ * - 11: double against 2 to 10; hit against an Ace.
+ * - 12: stand against a 4, 5 or 6; otherwise hit.
+ * - 13 to 16: stand against 2 to 6; otherwise hit.
+ *   Surrender 15 against a 10, and 16 against a 9, 10 or Ace.
+ * - 17 or more: stand.
+ *
+ * Soft totals:
+ * - 13 and 14: double against 5 and 6; otherwise hit.
+ * - 15 and 16: double against 4 to 6; otherwise hit.
+ * - 17: double against 3 to 6; otherwise hit.
+ * - 18: double against 3 to 6 (stand if doubling is not allowed), stand against 2, 7 and 8,
+ *   hit against 9, 10 or an Ace.
+ * - 19 or more: stand.
+ *
+ * Pairs: always split Aces and 8s; split 2s, 3s and 7s against 2 to 7; 4s against 5 and 6;
+ * 6s against 2 to 6; 9s against 2 to 6, 8 and 9; never split 5s or 10s. Never take insurance.
+ */
+public class BasicStrategy implements Strategy {
+
+    @Override
+    public int decide(int total, boolean soft, int dealerUpcard) {
+        if (soft) {
+            return soft(total, dealerUpcard);
+        }
+        return hard(total, dealerUpcard);
+    }
+
+    /**
+     * Picks the action for a hard total.
+     *
+     * @param total the player's total
+     * @param up the value of the dealer's upcard
+     * @return the action
+     */
+    private static int hard(int total, int up) {
+        if (total <= 8) {
+            return HIT;
+        }
+        if (total == 9) {
+            return up >= 3 && up <= 6 ? DOUBLE : HIT;
+        }
+        if (total == 10) {
+            return up <= 9 ? DOUBLE : HIT;
+        }
+        if (total == 11) {
+            return up <= 10 ? DOUBLE : HIT;
+        }
+        if (total == 12) {
+            return up >= 4 && up <= 6 ? STAND : HIT;
+        }
+        if (total <= 16) {
+            if (up <= 6) {
+                return STAND;
+            }
+            if ((total == 15 && up == 10) || (total == 16 && up >= 9)) {
+                return SURRENDER;
+            }
+            return HIT;
+        }
+        return STAND;
+    }
+
+    /**
+     * Picks the action for a soft total.
+     *
+     * @param total the player's total (ace counted as 11)
+     * @param up the value of the dealer's upcard
+     * @return the action
+     */
+    private static int soft(int total, int up) {
+        if (total <= 12) {
+            return HIT; // two aces that could not be split
+        }
+        if (total <= 14) {
+            return up == 5 || up == 6 ? DOUBLE : HIT;
+        }
+        if (total <= 16) {
+            return up >= 4 && up <= 6 ? DOUBLE : HIT;
+        }
+        if (total == 17) {
+            return up >= 3 && up <= 6 ? DOUBLE : HIT;
+        }
+        if (total == 18) {
+            if (up >= 3 && up <= 6) {
+                return DOUBLE_OR_STAND;
+            }
+            return up >= 9 ? HIT : STAND;
+        }
+        return STAND;
+    }
+
+    @Override
+    public boolean split(int pairValue, int up) {
+        switch (pairValue) {
+            case 11:
+            case 8:
+                return true;
+            case 2:
+            case 3:
+            case 7:
+                return up <= 7;
+            case 4:
+                return up == 5 || up == 6;
+            case 6:
+                return up <= 6;
+            case 9:
+                return up <= 6 || up == 8 || up == 9;
+            default:
+                return false; // 5s and 10s
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "basic strategy";
+    }
+}
@@ -0,0 +1,559 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: Benchmarks.java
+ *
+ * Purpose:
+ * This class is the benchmark suite for the simulation's hot paths: building, shuffling
+ * and dealing the Deck, adding to and scoring a Hand, the custom ArrayList, the random
+ * number generators, player strategies, whole Blackjack.game() hands, and full
+ * RoundEngine rounds with doubling, splitting and surrender, with and without a HandRecorder,
+ * and on shuffled or replayed shoes, and the array-based Deck against the rank-count RankShoe.
+ *
+ * Every benchmark runs a few untimed warmup iterations so the JIT can compile it, and then
+ * several measured iterations. For each one the suite reports:
+ * - the mean time per operation and its standard deviation across iterations
+ * - the throughput in operations per second
+ * - the bytes allocated per operation and the allocation rate in MB/s
+ *   (read from the thread's allocation counter, like a GC profiler would)
+ * These numbers are the baseline every later optimization is measured against.
+ *
+ * How to run:
+ *   javac Benchmarks.java
+ *   java Benchmarks            (runs every benchmark)
+ *   java Benchmarks deal       (runs only the benchmarks whose name contains "deal")
+ */
+public class Benchmarks {
+
+    /** How many untimed iterations run before measuring */
+    static final int WARMUP_ITERATIONS = 5;
+
+    /** How many timed iterations are measured */
+    static final int MEASURED_ITERATIONS = 5;
+
+    /** How many back-to-back pairs of runs a paired comparison takes */
+    static final int PAIRS = 9;
+
+    /** Written by the benchmarks so the JIT cannot throw their work away */
+    static long sink;
+
+    /** Only benchmarks whose name contains this text are run */
+    static String filter = "";
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            filter = args[0];
+        }
+
+        System.out.println("BLACKJACK BENCHMARKS");
+        System.out.printf("%-44s %22s %14s %12s %10s%n", "benchmark", "time", "throughput", "alloc", "alloc rate");
+        System.out.println("------------------------------------------------------------------------------------------------------------");
+        deckBenchmarks();
+        handBenchmarks();
+        arrayListBenchmarks();
+        gameBenchmarks();
+        randomBenchmarks();
+        dealComparison();
+        shoeComparison();
+        strategyBenchmarks();
+        roundBenchmarks();
+        recorderBenchmarks();
+        replayBenchmarks();
+    }
+
+    /**
+     * Benchmarks Deck.build(), Deck.shuffle() and Deck.deal() on 1-deck and 8-deck shoes.
+     */
+    static void deckBenchmarks() {
+        for (int numDecks : new int[] {1, 8}) {
+            Deck deck = new Deck(numDecks);
+            int shoeSize = deck.size();
+            int reps = 20_000;
+
+            bench("Deck.build " + numDecks + "-deck", "build", reps, () -> {
+                for (int i = 0; i < reps; i++) {
+                    deck.build();
+                }
+            });
+            bench("Deck.shuffle " + numDecks + "-deck", "shuffle", reps, () -> {
+                for (int i = 0; i < reps; i++) {
+                    deck.shuffle();
+                }
+            });
+            bench("Deck.deal " + numDecks + "-deck", "card", (long) reps * shoeSize, () -> {
+                for (int i = 0; i < reps; i++) {
+                    deck.build();
+                    for (int c = 0; c < shoeSize; c++) {
+                        sink += deck.deal().getValue();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Benchmarks Hand.add() and Hand.getTotalValue() on typical 2 to 5 card hands.
+     */
+    static void handBenchmarks() {
+        Hand hand = new Hand();
+        Card[] cards = {Card.of(11), Card.of(6), Card.of(3), Card.of(10), Card.of(2)};
+        int reps = 5_000_000;
+
+        bench("Hand.add", "card", (long) reps * cards.length, () -> {
+            for (int i = 0; i < reps; i++) {
+                hand.reset();
+                for (Card card : cards) {
+                    hand.add(card);
+                }
+            }
+            sink += hand.size();
+        });
+        bench("Hand.getTotalValue", "call", reps, () -> {
+            for (int i = 0; i < reps; i++) {
+                sink += hand.getTotalValue();
+            }
+        });
+    }
+
+    /**
+     * Benchmarks the custom ArrayList: add(), get(), remove() from the end and remove(0).
+     */
+    static void arrayListBenchmarks() {
+        ArrayList<Card> list = new ArrayList<Card>();
+        Card card = Card.of(7);
+        int n = 1_000;
+        int reps = 5_000;
+
+        bench("ArrayList.add", "add", (long) reps * n, () -> {
+            for (int r = 0; r < reps; r++) {
+                list.clear();
+                for (int i = 0; i < n; i++) {
+                    list.add(card);
+                }
+            }
+        });
+        bench("ArrayList.get", "get", (long) reps * n, () -> {
+            for (int r = 0; r < reps; r++) {
+                for (int i = 0; i < n; i++) {
+                    sink += list.get(i).getValue();
+                }
+            }
+        });
+        list.clear();
+        bench("ArrayList.remove (last)", "remove", (long) reps * n, () -> {
+            for (int r = 0; r < reps; r++) {
+                for (int i = 0; i < n; i++) {
+                    list.add(card);
+                }
+                for (int i = n - 1; i >= 0; i--) {
+                    sink += list.remove(i).getValue();
+                }
+            }
+        });
+        bench("ArrayList.remove (first, 52 items)", "remove", (long) reps * 52, () -> {
+            for (int r = 0; r < reps; r++) {
+                for (int i = 0; i < 52; i++) {
+                    list.add(card);
+                }
+                for (int i = 0; i < 52; i++) {
+                    sink += list.remove(0).getValue();
+                }
+            }
+        });
+    }
+
+    /**
+     * Benchmarks whole hands of Blackjack.game(false), the number that matters most,
+     * for a single deck and for shoes of 2, 6 and 8 decks cut at 75% penetration.
+     * Bigger shoes spread the cost of each shuffle over more hands.
+     */
+    static void gameBenchmarks() {
+        int[] deckCounts = {1, 2, 6, 8};
+        double[] penetrations = {0.5, 0.75, 0.75, 0.75};
+        for (int i = 0; i < deckCounts.length; i++) {
+            Blackjack game = new Blackjack(deckCounts[i], penetrations[i], new SplittableRandomSource(1));
+            int hands = 2_000_000;
+            bench("Blackjack.game " + deckCounts[i] + "-deck", "hand", hands, () -> {
+                for (int h = 0; h < hands; h++) {
+                    sink += game.game(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Compares the throughput of the random number generators, both on their own and
+     * driving a Fisher–Yates shuffle of an 8-deck shoe. java.util.Random (what the old
+     * shuffle created on every call) is included as the baseline.
+     */
+    static void randomBenchmarks() {
+        int draws = 10_000_000;
+        java.util.Random legacy = new java.util.Random();
+        bench("nextInt(52) java.util.Random", "call", draws, () -> {
+            for (int i = 0; i < draws; i++) {
+                sink += legacy.nextInt(52);
+            }
+        });
+
+        RandomSource[] sources = {new SplittableRandomSource(), new ThreadLocalRandomSource(), new XoshiroRandom()};
+        for (RandomSource source : sources) {
+            String name = source.getClass().getName();
+            bench("nextInt(52) " + name, "call", draws, () -> {
+                for (int i = 0; i < draws; i++) {
+                    sink += source.nextInt(52);
+                }
+            });
+
+            Deck deck = new Deck(8, source);
+            int shuffles = 10_000;
+            bench("shuffle 8-deck " + name, "shuffle", shuffles, () -> {
+                for (int i = 0; i < shuffles; i++) {
+                    deck.shuffle();
+                }
+            });
+        }
+    }
+
+    /**
+     * Compares dealing a whole shoe with the cursor-based Deck against the old approach of
+     * removing the first element of an ArrayList, for 1-deck and 8-deck shoes.
+     */
+    static void dealComparison() {
+        for (int numDecks : new int[] {1, 8}) {
+            int shoeSize = numDecks * Deck.CARDS_PER_DECK;
+            int shoes = 2_000_000 / shoeSize; // Deal roughly the same number of cards for every shoe size
+
+            Deck deck = new Deck(numDecks);
+            double cursor = bench("deal " + numDecks + "-deck shoe (cursor)", "card", (long) shoes * shoeSize, () -> {
+                for (int s = 0; s < shoes; s++) {
+                    deck.build();
+                    for (int c = 0; c < shoeSize; c++) {
+                        sink += deck.deal().getValue();
+                    }
+                }
+            });
+
+            deck.build();
+            Card[] shoe = new Card[shoeSize]; // The same cards, to refill the list with
+            for (int c = 0; c < shoeSize; c++) {
+                shoe[c] = deck.deal();
+            }
+            ArrayList<Card> list = new ArrayList<Card>(shoeSize);
+            double removeFirst = bench("deal " + numDecks + "-deck shoe (remove(0))", "card", (long) shoes * shoeSize, () -> {
+                for (int s = 0; s < shoes; s++) {
+                    for (int c = 0; c < shoeSize; c++) {
+                        list.add(shoe[c]);
+                    }
+                    for (int c = 0; c < shoeSize; c++) {
+                        sink += list.remove(0).getValue(); // The old Deck.deal()
+                    }
+                }
+            });
+
+            if (!Double.isNaN(cursor) && !Double.isNaN(removeFirst)) {
+                System.out.printf("  speedup: %.1fx%n", removeFirst / cursor);
+            }
+        }
+    }
+
+    /**
+     * Compares a shuffled Deck against a RankShoe when a shoe only lives for a few cards (one
+     * round is about five), and when it is dealt all the way through. The Deck pays for laying
+     * out and shuffling the whole shoe up front; the RankShoe pays a tree walk per card.
+     */
+    static void shoeComparison() {
+        for (int numDecks : new int[] {1, 6}) {
+            int shoeSize = numDecks * Deck.CARDS_PER_DECK;
+            for (int cards : new int[] {5, shoeSize}) {
+                int shoes = 4_000_000 / (cards + 100); // Roughly the same time per benchmark
+                String label = numDecks + "-deck shoe, " + (cards == shoeSize ? "all" : String.valueOf(cards)) + " cards";
+
+                Deck deck = new Deck(numDecks, new SplittableRandomSource(1));
+                double shuffled = bench("deal " + label + " (Deck)", "card", (long) shoes * cards, () -> {
+                    for (int s = 0; s < shoes; s++) {
+                        deck.build();
+                        deck.shuffle();
+                        for (int c = 0; c < cards; c++) {
+                            sink += deck.deal().getValue();
+                        }
+                    }
+                });
+
+                RankShoe shoe = new RankShoe(numDecks, new SplittableRandomSource(1));
+                double counted = bench("deal " + label + " (RankShoe)", "card", (long) shoes * cards, () -> {
+                    for (int s = 0; s < shoes; s++) {
+                        shoe.build();
+                        for (int c = 0; c < cards; c++) {
+                            sink += shoe.draw();
+                        }
+                    }
+                });
+
+                if (!Double.isNaN(shuffled) && !Double.isNaN(counted)) {
+                    System.out.printf("  speedup: %.1fx%n", shuffled / counted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares asking three different Strategy objects through the interface (a call site
+     * the JIT cannot inline) against looking the same decisions up in compiled tables,
+     * and then plays whole hands under basic strategy.
+     */
+    static void strategyBenchmarks() {
+        Strategy[] strategies = {new ThresholdStrategy(17), new ThresholdStrategy(15), new BasicStrategy()};
+        StrategyTable[] tables = new StrategyTable[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+            tables[i] = StrategyTable.compile(strategies[i]);
+        }
+        int reps = 20_000;
+        long decisions = (long) reps * strategies.length * 18 * 10;
+
+        bench("Strategy.decide (virtual)", "call", decisions, () -> {
+            for (int r = 0; r < reps; r++) {
+                for (Strategy s : strategies) {
+                    for (int total = 4; total <= 21; total++) {
+                        for (int up = 2; up <= 11; up++) {
+                            sink += s.decide(total, total >= 12 && (up & 1) == 0, up);
+                        }
+                    }
+                }
+            }
+        });
+        bench("Strategy.decide (table)", "call", decisions, () -> {
+            for (int r = 0; r < reps; r++) {
+                for (StrategyTable t : tables) {
+                    for (int total = 4; total <= 21; total++) {
+                        for (int up = 2; up <= 11; up++) {
+                            sink += t.decide(total, total >= 12 && (up & 1) == 0, up);
+                        }
+                    }
+                }
+            }
+        });
+
+        Blackjack game = new Blackjack(6, 0.75, new SplittableRandomSource(1));
+        game.setStrategy(new BasicStrategy());
+        int hands = 2_000_000;
+        bench("Blackjack.game 6-deck basic strategy", "hand", hands, () -> {
+            for (int h = 0; h < hands; h++) {
+                sink += game.game(false);
+            }
+        });
+    }
+
+    /**
+     * Compares hit/stand-only Blackjack.game() hands against full RoundEngine rounds (doubling,
+     * splitting and surrender) on the same 6-deck shoe with basic strategy, and prints how much
+     * the extra rules cost per hand. A different rule set is timed too, to show that rule
+     * variants add no cost of their own.
+     */
+    static void roundBenchmarks() {
+        int hands = 2_000_000;
+
+        Blackjack game = new Blackjack(6, 0.75, new SplittableRandomSource(1));
+        game.setStrategy(new BasicStrategy());
+        double hitStand = bench("round 6-deck hit/stand (Blackjack)", "hand", hands, () -> {
+            for (int h = 0; h < hands; h++) {
+                sink += game.game(false);
+            }
+        });
+
+        RoundEngine engine = new RoundEngine(6, 0.75, new SplittableRandomSource(1));
+        engine.setStrategy(new BasicStrategy());
+        double full = bench("round 6-deck all rules (RoundEngine)", "hand", hands, () -> {
+            for (int h = 0; h < hands; h++) {
+                sink += engine.playRound();
+            }
+        });
+
+        if (!Double.isNaN(hitStand) && !Double.isNaN(full)) {
+            System.out.printf("  overhead of the full rules: %+.1f%%%n", (full / hitStand - 1) * 100);
+        }
+
+        // Rule variants are compiled into tables, so H17 and 6:5 should cost nothing extra
+        RuleTable h17 = new Rules().setDecks(6).setPenetration(0.75).setHitSoft17(true).setBlackjackPays(1.2).compile();
+        RoundEngine variant = new RoundEngine(h17, new SplittableRandomSource(1));
+        variant.setStrategy(new BasicStrategy());
+        bench("round 6-deck H17 6:5 (RoundEngine)", "hand", hands, () -> {
+            for (int h = 0; h < hands; h++) {
+                sink += variant.playRound();
+            }
+        });
+    }
+
+    /**
+     * Benchmarks a single-threaded run with and without a HandRecorder writing every round
+     * to a hand history, and prints the recording overhead (the budget is 5%; README.md has the
+     * numbers measured so far). On a busy host the spread of either run alone is wider than
+     * the overhead, so it is also measured on PAIRS runs taken back to back, one of each, and
+     * the median ratio is reported. pack() is timed on its own too: with a spare core for the
+     * writer thread, it is the part of recording the simulation thread pays for.
+     */
+    static void recorderBenchmarks() {
+        int hands = 2 * ParallelSimulation.SHARD_SIZE;
+        ParallelSimulation sim = new ParallelSimulation(1, new Rules().setDecks(6).setPenetration(0.75).compile(), new BasicStrategy());
+        Runnable plainRun = () -> sink += sim.run(hands, 1).getPlayerWins();
+        Runnable recordedRun = () -> {
+            try {
+                Path file = Files.createTempFile("bench", ".bjh");
+                try (HandRecorder recorder = new HandRecorder(file, 1, CountingSystem.HI_LO)) {
+                    sink += sim.run(hands, 1, recorder).getPlayerWins();
+                }
+                Files.delete(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        double plain = bench("record 6-deck run, no recorder", "hand", hands, plainRun);
+        double recorded = bench("record 6-deck run, hand history", "hand", hands, recordedRun);
+
+        RoundEngine engine = new RoundEngine(new SplittableRandomSource(1));
+        engine.playRound();
+        ByteBuffer buffer = ByteBuffer.allocate(HandRecorder.BUFFER_RECORDS * HandRecorder.RECORD_SIZE);
+        double pack = bench("record pack() one round", "record", HandRecorder.BUFFER_RECORDS, () -> {
+            buffer.clear();
+            for (int i = 0; i < HandRecorder.BUFFER_RECORDS; i++) {
+                HandRecorder.pack(buffer, engine, 1.5, 1);
+            }
+            sink += buffer.get(7);
+        });
+
+        if (!Double.isNaN(plain) && !Double.isNaN(recorded)) {
+            double[] ratios = new double[PAIRS];
+            for (int i = 0; i < PAIRS; i++) {
+                long start = System.nanoTime();
+                plainRun.run();
+                long plainNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                recordedRun.run();
+                ratios[i] = (double) (System.nanoTime() - start) / plainNanos;
+            }
+            Arrays.sort(ratios);
+            System.out.printf("  overhead of recording (%d bytes/hand): %+.1f%% (means), %+.1f%% (median of %d pairs)%n",
+                    HandRecorder.RECORD_SIZE, (recorded / plain - 1) * 100, (ratios[PAIRS / 2] - 1) * 100, PAIRS);
+            if (!Double.isNaN(pack)) {
+                System.out.printf("  pack() is %.1f%% of a round%n", pack / plain * 100);
+            }
+        }
+    }
+
+    /**
+     * Benchmarks full rounds on freshly shuffled shoes against the same rounds on shoes replayed
+     * from a memory-mapped ShoeReplay file, which takes the generator out of the measurement.
+     */
+    static void replayBenchmarks() {
+        int hands = 2_000_000;
+        RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+        Path file;
+        try {
+            file = Files.createTempFile("bench", ".bjs");
+            try (ShoeRecorder recorder = new ShoeRecorder(file, 6)) {
+                RoundEngine capture = new RoundEngine(rules, new SplittableRandomSource(1));
+                capture.setStrategy(new BasicStrategy());
+                capture.deck.setRecorder(recorder);
+                for (int h = 0; h < hands; h++) {
+                    capture.playRound();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        RoundEngine shuffled = new RoundEngine(rules, new SplittableRandomSource(1));
+        shuffled.setStrategy(new BasicStrategy());
+        double random = bench("replay off: rounds on shuffled shoes", "hand", hands, () -> {
+            for (int h = 0; h < hands; h++) {
+                sink += shuffled.playRound();
+            }
+        });
+
+        RoundEngine replayed = new RoundEngine(rules, new SplittableRandomSource(1));
+        replayed.setStrategy(new BasicStrategy());
+        try {
+            replayed.deck.setReplay(new ShoeReplay(file));
+            Files.delete(file); // The mapping stays readable after the file is gone
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        double fixed = bench("replay on: rounds on recorded shoes", "hand", hands, () -> {
+            for (int h = 0; h < hands; h++) {
+                sink += replayed.playRound();
+            }
+        });
+
+        if (!Double.isNaN(random) && !Double.isNaN(fixed)) {
+            System.out.printf("  share of a round spent shuffling: %.1f%%%n", (1 - fixed / random) * 100);
+        }
+    }
+
+    /**
+     * Runs one benchmark through its warmup and measured iterations and prints a result line.
+     *
+     * @param name the name of the benchmark (matched against the command-line filter)
+     * @param unit what one operation is (e.g. "card" or "hand")
+     * @param ops the number of operations performed by one run of the body
+     * @param body the work to measure
+     * @return the mean time per operation in nanoseconds, or NaN if the benchmark was filtered out
+     */
+    static double bench(String name, String unit, long ops, Runnable body) {
+        if (!name.contains(filter)) {
+            return Double.NaN;
+        }
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            body.run();
+        }
+
+        double[] nanosPerOp = new double[MEASURED_ITERATIONS];
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            body.run();
+            long elapsed = System.nanoTime() - start;
+            totalBytes += allocatedBytes() - bytesBefore;
+            totalNanos += elapsed;
+            nanosPerOp[i] = (double) elapsed / ops;
+        }
+
+        // Mean and standard deviation of the time per operation across the measured iterations
+        double mean = 0;
+        for (double t : nanosPerOp) {
+            mean += t;
+        }
+        mean /= MEASURED_ITERATIONS;
+        double variance = 0;
+        for (double t : nanosPerOp) {
+            variance += (t - mean) * (t - mean);
+        }
+        double stdDev = Math.sqrt(variance / (MEASURED_ITERATIONS - 1));
+
+        double bytesPerOp = (double) totalBytes / (ops * MEASURED_ITERATIONS);
+        double megabytesPerSecond = totalBytes / (totalNanos / 1e9) / (1024 * 1024);
+        System.out.printf("%-44s %10.2f +/- %6.2f ns/%-7s %12.0f/s %8.2f B/op %7.1f MB/s%n",
+                name, mean, stdDev, unit, 1e9 / mean, bytesPerOp, megabytesPerSecond);
+        return mean;
+    }
+
+    /**
+     * Returns how many bytes the current thread has allocated so far.
+     *
+     * @return the running total of bytes allocated by this thread
+     */
+    static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: How much the player bets on each round, in units (one unit is the
+ * table minimum). A ramp is either flat, the same bet every round, or keyed on the true count
+ * of a CountingSystem, with one bet for every TrueCountResult bucket. Either way the bets are
+ * worked out once in the constructor and kept in a small array, so choosing a bet during a
+ * simulation is a single lookup.
+ */
+public class BetRamp {
+
+    /** The counting system the bets are keyed on, or null for a flat ramp */
+    private final CountingSystem system;
+
+    /** The bet for each true-count bucket, from TrueCountResult.MIN_COUNT to MAX_COUNT */
+    private final double[] bets = new double[TrueCountResult.MAX_COUNT - TrueCountResult.MIN_COUNT + 1];
+
+    /** The smallest bet the ramp ever places */
+    private final double minBet;
+
+    /**
+     * Constructor — keys the bets on the true count.
+     *
+     * @param system the counting system whose true count picks the bet, or null for a flat ramp
+     * @param betsByCount the bet at true counts 0, 1, 2, ...; lower counts bet the first entry and
+     *                    higher counts bet the last one
+     */
+    public BetRamp(CountingSystem system, double... betsByCount) {
+        if (betsByCount.length == 0) {
+            throw new IllegalArgumentException("a bet ramp needs at least one bet");
+        }
+        double min = Double.POSITIVE_INFINITY;
+        for (double bet : betsByCount) {
+            if (!(bet > 0)) {
+                throw new IllegalArgumentException("bets must be positive: " + bet);
+            }
+            min = Math.min(min, bet);
+        }
+        this.system = system;
+        this.minBet = min;
+        for (int tc = TrueCountResult.MIN_COUNT; tc <= TrueCountResult.MAX_COUNT; tc++) {
+            int i = Math.max(0, Math.min(tc, betsByCount.length - 1));
+            bets[tc - TrueCountResult.MIN_COUNT] = betsByCount[i];
+        }
+    }
+
+    /**
+     * Returns a ramp that bets the same amount on every round, so no count has to be kept.
+     *
+     * @param units the bet, in units
+     * @return the flat ramp
+     */
+    public static BetRamp flat(double units) {
+        return new BetRamp(null, units);
+    }
+
+    /**
+     * Returns a count-keyed ramp that bets minBet up to a true count of 1 and then adds
+     * step units for every extra point of count, up to maxBet.
+     *
+     * @param system the counting system whose true count picks the bet
+     * @param minBet the bet at a true count of 1 or less
+     * @param step the extra bet for each point of true count above 1
+     * @param maxBet the largest bet
+     * @return the ramp
+     */
+    public static BetRamp spread(CountingSystem system, double minBet, double step, double maxBet) {
+        double[] byCount = new double[TrueCountResult.MAX_COUNT + 1];
+        for (int tc = 0; tc < byCount.length; tc++) {
+            byCount[tc] = Math.min(maxBet, minBet + step * Math.max(0, tc - 1));
+        }
+        return new BetRamp(system, byCount);
+    }
+
+    /**
+     * Returns the bet for a true count.
+     *
+     * @param trueCount the true count before the round (ignored by a flat ramp)
+     * @return the bet, in units
+     */
+    public double bet(double trueCount) {
+        return bets[TrueCountResult.bucket(trueCount) - TrueCountResult.MIN_COUNT];
+    }
+
+    /** @return the counting system the bets are keyed on, or null for a flat ramp */
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    /** @return the smallest bet the ramp ever places */
+    public double getMinBet() {
+        return minBet;
+    }
+
+    /** @return the largest bet divided by the smallest one (1 for a flat ramp) */
+    public double spreadRatio() {
+        double max = 0;
+        for (double bet : bets) {
+            max = Math.max(max, bet);
+        }
+        return max / minBet;
+    }
+
+    /**
+     * Returns a short description of the ramp.
+     *
+     * @return e.g. "flat 1.0" or "Hi-Lo 1-8"
+     */
+    @Override
+    public String toString() {
+        if (system == null) {
+            return "flat " + minBet;
+        }
+        return system + " " + minBet + "-" + minBet * spreadRatio();
+    }
+}
@@ -10,18 +10,27 @@
  * 
  * The game logic uses supporting classes: Deck, Hand, and Card.
  * A fresh deck is used, and players draw cards one at a time according to Blackjack rules:
- * - Players hit (draw) until they reach 17 or more
+ * - Players hit (draw) until they reach 17 or more, unless another Strategy is plugged in
  * - If a player exceeds 21, they bust and lose
  * - The highest score ≤ 21 wins; ties are allowed
+ * The table rules (shoe size, cut card, how the dealer plays a soft 17, ...) come from a
+ * compiled RuleTable, so no rule is written into the game as a literal.
  */
 
  public class Blackjack {
 
-    // These three lines create the core components of the game:
-    Deck deck = new Deck();         // The full 52-card deck that will be used
+    // These lines create the core components of the game:
+    final RuleTable rules;          // The table rules, compiled once
+    Deck deck;                      // The shoe (one or more 52-card decks) that will be used
     Hand player = new Hand();       // The player's hand (list of cards)
     Hand dealer = new Hand();       // The dealer's hand (another list of cards)
 
+    /** The strategy the simulation has always used: hit on 16 or less, stand on 17 or more */
+    static final StrategyTable DEFAULT_STRATEGY = StrategyTable.compile(new ThresholdStrategy(17));
+
+    /** The player's strategy, compiled so each decision is one table lookup */
+    StrategyTable strategy = DEFAULT_STRATEGY;
+
     /**
      * Main method — where the game begins.
      * It creates a Blackjack game object, deals the cards, handles turns, and prints the results.
@@ -56,20 +65,95 @@
      * Constructor — when a Blackjack object is created, it builds and shuffles the deck.
      */
     public Blackjack() {
-        deck.build();     // Fills the deck with 52 cards
+        this(new SplittableRandomSource()); // Shuffle with a fresh, unpredictable seed
+    }
+
+    /**
+     * Constructor that shuffles the deck with the given generator.
+     * Two games created with identically seeded generators deal exactly the same cards.
+     *
+     * @param random the generator used every time the deck is shuffled
+     */
+    public Blackjack(RandomSource random) {
+        this(1, 0.5, random); // A single deck, reshuffled once half of it has been dealt
+    }
+
+    /**
+     * Constructor for a game dealt from a shoe of several decks with a cut card.
+     *
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param penetration the share of the shoe dealt before it is reshuffled (between 0 and 1)
+     * @param random the generator used every time the shoe is shuffled
+     */
+    public Blackjack(int numDecks, double penetration, RandomSource random) {
+        this(new Rules().setDecks(numDecks).setPenetration(penetration).compile(), random);
+    }
+
+    /**
+     * Constructor for a game played by the given rules.
+     *
+     * @param rules the compiled table rules, including the shoe size and penetration
+     * @param random the generator used every time the shoe is shuffled
+     */
+    public Blackjack(RuleTable rules, RandomSource random) {
+        this.rules = rules;
+        deck = new Deck(rules.decks, rules.penetration, random);
+        deck.build();     // Fills the deck with 52 cards per deck
         deck.shuffle();   // Randomizes the order of the cards in the deck
     }
 
+    /**
+     * Constructor for a game dealt from a shoe it does not own. The shoe is used as it is,
+     * so several games can take turns playing from the same cards.
+     *
+     * @param deck the shoe to deal from
+     * @param rules the compiled table rules
+     */
+    Blackjack(Deck deck, RuleTable rules) {
+        this.deck = deck;
+        this.rules = rules;
+    }
+
+    /**
+     * Sets the strategy the player follows. It is compiled into a lookup table once, here,
+     * so the game never calls back into the strategy while playing.
+     *
+     * @param strategy the player's strategy
+     */
+    public void setStrategy(Strategy strategy) {
+        this.strategy = StrategyTable.compile(strategy);
+    }
+
+    /**
+     * Returns the rules this game is played by.
+     *
+     * @return the compiled table rules
+     */
+    public RuleTable getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the compiled strategy the player follows.
+     *
+     * @return the player's strategy table
+     */
+    public StrategyTable getStrategy() {
+        return strategy;
+    }
+
     /**
      * Resets the game state before a new round:
-     * - Rebuilds the deck if fewer than 26 cards are left
+     * - Rebuilds the shoe once the cut card has come out (for one deck: fewer than 26 cards left)
+     * - Marks the start of the round, so the shoe can reshuffle the discards if it runs out mid-round
      * - Clears the player’s and dealer’s hands
      */
     public void reset() {
-        if (deck.size() < 26) {     // If half or more of the deck has been used
-            deck.build();           // Rebuild a full deck
-            deck.shuffle();         // Shuffle the new deck
+        if (deck.needsShuffle()) {  // If the cut card has been reached
+            deck.build();           // Rebuild a full shoe
+            deck.shuffle();         // Shuffle the new shoe
         }
+        deck.startRound();          // Cards dealt before now are discards
 
         player.reset();  // Remove all cards from the player's hand
         dealer.reset();  // Remove all cards from the dealer's hand
@@ -91,12 +175,17 @@
 
     /**
      * Handles the player's turn: 
-     * - The player keeps drawing cards while their total is 16 or less
+     * - The player keeps drawing cards while the strategy says to hit (by default,
+     *   while their total is 16 or less); doubling and surrender are not offered here,
+     *   so those actions fall back to hitting or standing
+     * - The player never draws to a 21
      * 
      * @return true if player stays under or equal to 21 (safe), false if busted
      */
     public boolean playerTurn() {
-        while (player.getTotalValue() <= 16) {   // While the hand is too low
+        int upcard = dealer.getCard(0).getValue();  // The dealer's face-up card
+        while (player.getTotalValue() < 21
+                && strategy.hits(player.getTotalValue(), player.isSoft(), upcard)) {
             player.add(deck.deal());             // Draw a card and add it to the hand
         }
         return player.getTotalValue() <= 21;     // Return whether player is still in the game
@@ -104,12 +193,12 @@
 
     /**
      * Handles the dealer's turn:
-     * - Dealer must draw while under 17
+     * - Dealer must draw while under 17 (and on a soft 17 if the rules say so)
      * 
      * @return true if dealer is still in the game (≤ 21), false if bust
      */
     public boolean dealerTurn() {
-        while (dealer.getTotalValue() < 17) {    // Dealer draws until reaching 17 or more
+        while (rules.dealerDraws(dealer.getTotalValue(), dealer.isSoft())) { // Looked up in the rule table
             dealer.add(deck.deal());             // Draw one card
         }
         return dealer.getTotalValue() <= 21;     // Return whether dealer is still in the game
@@ -56,6 +56,30 @@ public class CardTests {
             assert c2.toString().equals("10") : "Error in Card::toString()";
         }
 
+        // case 4: testing of()
+        {
+            // set up
+            Card c1 = Card.of(5);
+            Card c2 = Card.of(5);
+            Card c3 = Card.of(11);
+
+            // verify
+            System.out.println(c1 + " == 5");
+            System.out.println(c3 + " == 11");
+
+            // test
+            assert c1 == c2 : "Error in Card::of() - cards are not shared";
+            assert c1.getValue() == 5 : "Error in Card::of()";
+            assert c3.getValue() == 11 : "Error in Card::of()";
+            boolean threw = false;
+            try {
+                Card.of(12);
+            } catch (IllegalArgumentException e) {
+                threw = true;
+            }
+            assert threw : "Error in Card::of() - accepted a value with no card";
+        }
+
         System.out.println("*** Done testing Card! ***\n");
     }
 
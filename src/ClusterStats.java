@@ -0,0 +1,169 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Keeps the sums needed to estimate the player's edge per round from
+ * clusters of rounds, such as every round dealt from one shoe (or from a pair of shoes).
+ * Rounds from the same shoe are not independent, and a cluster holds a varying number of rounds,
+ * so the edge is the ratio of the total profit to the total rounds, and its standard error comes
+ * from how much the clusters differ (the ratio estimator's delta-method variance).
+ *
+ * Each cluster can also carry a control variate: a sum whose expected value is known to be zero.
+ * Subtracting beta times the control, with beta fitted by least squares, keeps the estimate
+ * unbiased (up to the usual O(1/n) from fitting beta) and removes the part of the spread that
+ * the control explains.
+ *
+ * Only sums of products are kept, so two ClusterStats from different threads merge by adding.
+ */
+public class ClusterStats {
+
+    /** How many clusters have been added */
+    private long clusters;
+
+    /** The sums of the profit y, the rounds n and the control c over the clusters */
+    private double sumY, sumN, sumC;
+
+    /** The sums of the products of y, n and c over the clusters */
+    private double sumYY, sumYN, sumNN, sumYC, sumNC, sumCC;
+
+    /**
+     * Constructor — starts with no clusters.
+     */
+    public ClusterStats() {
+    }
+
+    /**
+     * Adds one cluster of rounds.
+     *
+     * @param profit the player's total net profit over the cluster's rounds
+     * @param rounds how many rounds the cluster holds
+     * @param control the cluster's control variate (0 if none is kept)
+     */
+    public void add(double profit, long rounds, double control) {
+        clusters++;
+        sumY += profit;
+        sumN += rounds;
+        sumC += control;
+        sumYY += profit * profit;
+        sumYN += profit * rounds;
+        sumNN += (double) rounds * rounds;
+        sumYC += profit * control;
+        sumNC += rounds * control;
+        sumCC += control * control;
+    }
+
+    /**
+     * Adds the clusters of another ClusterStats into this one.
+     *
+     * @param other the statistics to merge in
+     */
+    public void merge(ClusterStats other) {
+        clusters += other.clusters;
+        sumY += other.sumY;
+        sumN += other.sumN;
+        sumC += other.sumC;
+        sumYY += other.sumYY;
+        sumYN += other.sumYN;
+        sumNN += other.sumNN;
+        sumYC += other.sumYC;
+        sumNC += other.sumNC;
+        sumCC += other.sumCC;
+    }
+
+    /** @return how many clusters have been added */
+    public long getClusters() {
+        return clusters;
+    }
+
+    /** @return how many rounds the clusters hold in all */
+    public long rounds() {
+        return (long) sumN;
+    }
+
+    /**
+     * Returns the plain ratio estimate of the edge: total profit over total rounds.
+     *
+     * @return the mean net profit per round, or 0 if there are no rounds
+     */
+    public double mean() {
+        return sumN == 0 ? 0 : sumY / sumN;
+    }
+
+    /**
+     * Returns the average control per round. A control is built to have a mean of zero, so this
+     * should only differ from 0 by sampling noise.
+     *
+     * @return the sum of the controls over the total rounds, or 0 if there are no rounds
+     */
+    public double controlPerRound() {
+        return sumN == 0 ? 0 : sumC / sumN;
+    }
+
+    /**
+     * Returns the least-squares coefficient of the control: how much of each cluster's deviation
+     * from the plain estimate moves with its control.
+     *
+     * @return beta, or 0 if the controls are all 0
+     */
+    public double beta() {
+        if (sumCC == 0) {
+            return 0;
+        }
+        double r = mean();
+        return (sumYC - r * sumNC) / sumCC; // The control's mean is known to be 0, so it is not centered
+    }
+
+    /**
+     * Returns the estimate of the edge, with or without the control's correction.
+     *
+     * @param control whether to subtract beta times the control
+     * @return the net profit per round
+     */
+    public double estimate(boolean control) {
+        if (sumN == 0) {
+            return 0;
+        }
+        return control ? (sumY - beta() * sumC) / sumN : sumY / sumN;
+    }
+
+    /**
+     * Returns the standard error of the estimate, from the spread of the clusters' residuals
+     * y - r n (minus beta c with the control).
+     *
+     * @param control whether the control's correction is applied
+     * @return the standard error, or infinity with fewer than two clusters
+     */
+    public double standardError(boolean control) {
+        if (clusters < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double r = mean();
+        double residual = sumYY - 2 * r * sumYN + r * r * sumNN; // The sum of (y - r n)^2
+        if (control) {
+            double b = beta();
+            residual -= b * b * sumCC; // What the fitted control explains
+        }
+        residual = Math.max(residual, 0);
+        double meanRounds = sumN / clusters;
+        return Math.sqrt(residual / (clusters - 1) / clusters) / meanRounds;
+    }
+
+    /**
+     * Returns the half-width of a normal confidence interval around the estimate.
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @param control whether the control's correction is applied
+     * @return z times the standard error
+     */
+    public double halfWidth(double z, boolean control) {
+        return z * standardError(control);
+    }
+
+    /**
+     * Returns a short summary of the statistics.
+     *
+     * @return a string representation of these statistics
+     */
+    @Override
+    public String toString() {
+        return "[clusters " + clusters + ", rounds " + rounds() + ", mean " + mean() + ", beta " + beta() + "]";
+    }
+}
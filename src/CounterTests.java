@@ -0,0 +1,133 @@
+/*
+file name:      CounterTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea CounterTests
+*/
+
+public class CounterTests {
+
+    public static void counterTests() {
+
+        // case 1: testing the built-in systems
+        {
+            // set up
+            CountingSystem hiLo = CountingSystem.HI_LO;
+            CountingSystem ko = CountingSystem.KO;
+            CountingSystem omega = CountingSystem.OMEGA_II;
+
+            // verify
+            System.out.println(hiLo + " balanced: " + hiLo.isBalanced() + ", " + ko + " balanced: " + ko.isBalanced());
+
+            // test
+            assert hiLo.isBalanced() && omega.isBalanced() && !ko.isBalanced() : "Error in CountingSystem::isBalanced()";
+            assert hiLo.tag(5) == 1 && hiLo.tag(8) == 0 && hiLo.tag(10) == -1 && hiLo.tag(11) == -1 : "Error in CountingSystem::tag() - Hi-Lo";
+            assert ko.tag(7) == 1 : "Error in CountingSystem::tag() - KO";
+            assert omega.tag(5) == 2 && omega.tag(9) == -1 && omega.tag(10) == -2 && omega.tag(11) == 0 : "Error in CountingSystem::tag() - Omega II";
+            assert hiLo.initialRunningCount(6) == 0 : "Error in CountingSystem::initialRunningCount() - balanced";
+            assert ko.initialRunningCount(6) == -20 && ko.initialRunningCount(1) == 0 : "Error in CountingSystem::initialRunningCount() - KO";
+
+            // A system needs exactly one tag per card value
+            boolean thrown = false;
+            try {
+                new CountingSystem("short", new int[] {1, 1, 1});
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in CountingSystem() - wrong number of tags accepted";
+        }
+
+        // case 2: testing that the running count follows every dealt card
+        {
+            // set up
+            Deck deck = new Deck(6, 0.75, new SplittableRandomSource(16));
+            deck.shuffle();
+            Counter hiLo = deck.addCounter(CountingSystem.HI_LO);
+            Counter ko = deck.addCounter(CountingSystem.KO);
+            int expectedHiLo = 0;
+            int expectedKo = CountingSystem.KO.initialRunningCount(6);
+
+            // verify
+            for (int i = 0; i < 200; i++) {
+                Card card = deck.deal();
+                expectedHiLo += CountingSystem.HI_LO.tag(card.getValue());
+                expectedKo += CountingSystem.KO.tag(card.getValue());
+            }
+            System.out.println(hiLo + ", " + ko);
+
+            // test
+            assert hiLo.getRunningCount() == expectedHiLo : "Error in Counter - Hi-Lo running count";
+            assert ko.getRunningCount() == expectedKo : "Error in Counter - KO running count";
+            assert Math.abs(hiLo.trueCount() - expectedHiLo / ((6 * 52 - 200) / 52.0)) < 1e-12 : "Error in Counter::trueCount()";
+            assert Math.abs(hiLo.decksRemaining() - 112 / 52.0) < 1e-12 : "Error in Counter::decksRemaining()";
+
+            // A counter added late counts the cards already dealt
+            Counter late = deck.addCounter(CountingSystem.HI_LO);
+            assert late.getRunningCount() == expectedHiLo : "Error in Deck::addCounter() - cards already dealt";
+
+            // Rewinding takes cards back out of the count
+            int before = deck.position();
+            int count = hiLo.getRunningCount();
+            deck.deal();
+            deck.deal();
+            deck.seek(before);
+            assert hiLo.getRunningCount() == count : "Error in Deck::seek() - counter not rewound";
+        }
+
+        // case 3: testing that a balanced count ends a full shoe at zero, KO at +4, and restarts on build()
+        {
+            // set up
+            Deck deck = new Deck(2, 0.75, new SplittableRandomSource(3));
+            deck.shuffle();
+            Counter hiLo = deck.addCounter(CountingSystem.HI_LO);
+            Counter ko = deck.addCounter(CountingSystem.KO);
+            Counter omega = deck.addCounter(CountingSystem.OMEGA_II);
+            Counter custom = deck.addCounter(new CountingSystem("aces", new int[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 1}));
+
+            // verify
+            while (deck.size() > 0) {
+                deck.deal();
+            }
+            System.out.println(hiLo.getRunningCount() + " == 0, " + ko.getRunningCount() + " == 4");
+
+            // test
+            assert hiLo.getRunningCount() == 0 && omega.getRunningCount() == 0 : "Error in Counter - balanced count did not end at 0";
+            assert ko.getRunningCount() == 4 : "Error in Counter - KO should end a shoe at +4";
+            assert custom.getRunningCount() == 4 : "Error in Counter - custom tags";
+            deck.build();
+            assert hiLo.getRunningCount() == 0 && ko.getRunningCount() == -4 && custom.getRunningCount() == -4 : "Error in Deck::build() - counters not reset";
+        }
+
+        // case 4: testing results bucketed by true count
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+            ParallelSimulation sim = new ParallelSimulation(2, rules, new BasicStrategy());
+            long numGames = 20L * ParallelSimulation.SHARD_SIZE;
+            TrueCountResult byCount = sim.runByCount(numGames, 21, CountingSystem.HI_LO);
+            SimulationResult plain = sim.run(numGames, 21);
+            TrueCountResult again = new ParallelSimulation(5, rules, new BasicStrategy()).runByCount(numGames, 21, CountingSystem.HI_LO);
+
+            // verify
+            System.out.println("TC -1: " + byCount.getBucket(-1).expectedValue() + ", TC +3: " + byCount.getBucket(3).expectedValue());
+
+            // test
+            assert byCount.games() == numGames : "Error in ParallelSimulation::runByCount() - game count";
+            assert byCount.total().toString().equals(plain.toString()) : "Error in ParallelSimulation::runByCount() - different rounds";
+            assert Math.abs(byCount.total().expectedValue() - plain.expectedValue()) < 1e-9 : "Error in TrueCountResult::total()";
+            assert byCount.getBucket(3).expectedValue() > byCount.getBucket(-1).expectedValue() : "Error in runByCount() - a high count should favour the player";
+            assert byCount.getBucket(0).games() > byCount.getBucket(5).games() : "Error in runByCount() - counts near 0 should be most common";
+            assert again.getBucket(2).toString().equals(byCount.getBucket(2).toString()) : "Error in runByCount() - depends on thread count";
+            assert TrueCountResult.bucket(-0.5) == -1 && TrueCountResult.bucket(99) == TrueCountResult.MAX_COUNT : "Error in TrueCountResult::bucket()";
+        }
+
+        System.out.println("*** Done testing Counter! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        counterTests();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A card-counting system: the tag added to the running count for each
+ * card value that is dealt. Hi-Lo, KO and Omega II are built in, and any other system can be
+ * made from its own tags.
+ *
+ * A system whose tags add up to zero over a full deck is "balanced": its running count ends a
+ * shoe where it started. An unbalanced system (like KO) starts from a negative initial running
+ * count that grows with the number of decks, so that counting through a whole shoe ends on
+ * one deck's worth of tags (+4 for KO) whatever the shoe size.
+ */
+public final class CountingSystem {
+
+    /** Hi-Lo: 2 to 6 count +1, 7 to 9 count 0, tens and Aces count -1 (balanced) */
+    public static final CountingSystem HI_LO = new CountingSystem("Hi-Lo", new int[] {1, 1, 1, 1, 1, 0, 0, 0, -1, -1});
+
+    /** Knock-Out: like Hi-Lo, but 7s count +1 too (unbalanced, +4 per deck) */
+    public static final CountingSystem KO = new CountingSystem("KO", new int[] {1, 1, 1, 1, 1, 1, 0, 0, -1, -1});
+
+    /** Omega II: a level-two system that counts Aces as 0 (balanced) */
+    public static final CountingSystem OMEGA_II = new CountingSystem("Omega II", new int[] {1, 1, 2, 2, 2, 1, 0, -1, -2, 0});
+
+    /** The name of the system */
+    private final String name;
+
+    /** The tag of each card value, by composition index (index 0 is the 2s, index 9 the Aces) */
+    private final int[] tags;
+
+    /** What the tags of one full deck add up to (0 for a balanced system) */
+    private final int deckSum;
+
+    /**
+     * Constructor for a system with the given tags.
+     *
+     * @param name the name of the system
+     * @param tags the tag of each card value, from the 2s (index 0) to the Aces (index 9)
+     */
+    public CountingSystem(String name, int[] tags) {
+        if (tags.length != Composition.RANKS) {
+            throw new IllegalArgumentException("need one tag per card value: " + tags.length + " != " + Composition.RANKS);
+        }
+        this.name = name;
+        this.tags = tags.clone();
+        int[] oneDeck = Composition.full(1);
+        int sum = 0;
+        for (int i = 0; i < Composition.RANKS; i++) {
+            sum += tags[i] * oneDeck[i];
+        }
+        this.deckSum = sum;
+    }
+
+    /**
+     * Returns the tag of a card value.
+     *
+     * @param value the card value (2 to 11)
+     * @return the amount the running count changes by when such a card is dealt
+     */
+    public int tag(int value) {
+        return tags[Composition.index(value)];
+    }
+
+    /**
+     * Returns a copy of the tags, by composition index.
+     *
+     * @return the tags
+     */
+    int[] tags() {
+        return tags.clone();
+    }
+
+    /** @return whether the tags of a full deck add up to zero */
+    public boolean isBalanced() {
+        return deckSum == 0;
+    }
+
+    /**
+     * Returns the running count at the start of a fresh shoe.
+     *
+     * @param decks the number of decks in the shoe
+     * @return 0 for a balanced system, otherwise minus the tags of all but one deck
+     */
+    public int initialRunningCount(int decks) {
+        return -deckSum * (decks - 1);
+    }
+
+    /** @return the name of the system */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
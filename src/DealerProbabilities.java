@@ -0,0 +1,185 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: DealerProbabilities.java
+ *
+ * Purpose:
+ * This class computes, exactly, how the dealer's hand ends for each upcard: the probability
+ * of finishing on 17, 18, 19, 20 or 21, or of busting. The dealer has no choices to make, so
+ * the whole distribution can be worked out by following every card the dealer could draw,
+ * instead of simulating dealerTurn() millions of times.
+ *
+ * Two kinds of shoe are supported:
+ * - An infinite shoe, where every draw has the same odds (1/13 per value, 4/13 for tens).
+ *   These six-number tables are computed once in the constructor.
+ * - A specific finite shoe, given as a Composition. The odds change as cards are drawn,
+ *   so each composition is worked out on first use and then kept in a bounded cache
+ *   (least recently used entries are dropped first).
+ * Either way, a repeated question is answered in O(1).
+ *
+ * The dealer draws on 16 or less and stands on 17 or more; with hitSoft17 the dealer also
+ * draws on a soft 17. A two-card 21 counts as a 21. Instances are not thread-safe, so each
+ * worker thread should use its own.
+ */
+public class DealerProbabilities {
+
+    /** The number of possible endings: 17, 18, 19, 20, 21 and bust */
+    public static final int OUTCOMES = 6;
+
+    /** The index of the bust probability in a distribution */
+    public static final int BUST = 5;
+
+    /** Whether the dealer draws on a soft 17 */
+    private final boolean hitSoft17;
+
+    /** The infinite-shoe distribution for each upcard value (indexed by the value, 2 to 11) */
+    private final double[][] infinite = new double[Card.MAX_VALUE + 1][];
+
+    /** Finite-shoe distributions by packed composition; each entry holds one row per upcard value */
+    private final LinkedHashMap<Long, double[][]> cache;
+
+    /**
+     * Constructor — builds the infinite-shoe tables and an empty cache.
+     *
+     * @param hitSoft17 whether the dealer draws on a soft 17
+     * @param cacheSize the most compositions to keep in the cache
+     */
+    public DealerProbabilities(boolean hitSoft17, int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be at least 1: " + cacheSize);
+        }
+        this.hitSoft17 = hitSoft17;
+        this.cache = new LinkedHashMap<Long, double[][]>(16, 0.75f, true) { // access order, for LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, double[][]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        for (int up = Card.MIN_VALUE; up <= Card.MAX_VALUE; up++) {
+            double[] dist = new double[OUTCOMES];
+            startHand(up, null, 1.0, dist);
+            infinite[up] = dist;
+        }
+    }
+
+    /**
+     * Returns the dealer's final-total distribution for an upcard when drawing from an infinite shoe.
+     *
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @return probabilities of ending on 17, 18, 19, 20, 21 and bust (do not modify)
+     */
+    public double[] infiniteDeck(int upcard) {
+        return infinite[upcard];
+    }
+
+    /**
+     * Returns the dealer's final-total distribution for an upcard when the hole card and every
+     * later card are drawn from the given shoe. The upcard must already have been taken out.
+     *
+     * @param counts the composition of the remaining shoe (left unchanged)
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @return probabilities of ending on 17, 18, 19, 20, 21 and bust (do not modify)
+     */
+    public double[] forShoe(int[] counts, int upcard) {
+        long key = Composition.pack(counts);
+        double[][] rows = cache.get(key);
+        if (rows == null) {
+            rows = new double[Card.MAX_VALUE + 1][];
+            cache.put(key, rows);
+        }
+        if (rows[upcard] == null) {
+            double[] dist = new double[OUTCOMES];
+            int[] work = counts.clone(); // drawn cards are taken out of this copy as we go
+            startHand(upcard, work, 1.0, dist);
+            rows[upcard] = dist;
+        }
+        return rows[upcard];
+    }
+
+    /**
+     * Returns how many compositions are currently cached.
+     *
+     * @return the number of cache entries
+     */
+    public int cacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Starts the dealer's hand from the upcard and adds its weighted endings to the distribution.
+     *
+     * @param upcard the value of the upcard
+     * @param counts the remaining shoe, or null for an infinite shoe
+     * @param weight the probability of reaching this hand
+     * @param dist where the endings are added up
+     */
+    private void startHand(int upcard, int[] counts, double weight, double[] dist) {
+        int total = upcard;
+        int softAces = upcard == 11 ? 1 : 0;
+        draw(total, softAces, counts, weight, dist);
+    }
+
+    /**
+     * Follows every card the dealer could draw from the current hand.
+     *
+     * @param total the dealer's current total (soft aces counted as 11)
+     * @param softAces how many aces are still counted as 11
+     * @param counts the remaining shoe, or null for an infinite shoe
+     * @param weight the probability of reaching this hand
+     * @param dist where the endings are added up
+     */
+    private void draw(int total, int softAces, int[] counts, double weight, double[] dist) {
+        int left = counts == null ? 0 : Composition.total(counts);
+        for (int i = 0; i < Composition.RANKS; i++) {
+            double p;
+            if (counts == null) {
+                p = Composition.infiniteProbability(i);
+            } else {
+                if (counts[i] == 0) {
+                    continue; // no card of this value left to draw
+                }
+                p = (double) counts[i] / left;
+            }
+
+            // Add the card the same way Hand.add() does
+            int value = Composition.value(i);
+            int newTotal = total + value;
+            int newSoft = softAces + (value == 11 ? 1 : 0);
+            while (newTotal > 21 && newSoft > 0) {
+                newTotal -= 10;
+                newSoft--;
+            }
+
+            if (counts != null) {
+                counts[i]--;
+            }
+            settle(newTotal, newSoft, counts, weight * p, dist);
+            if (counts != null) {
+                counts[i]++;
+            }
+        }
+    }
+
+    /**
+     * Records the ending if the dealer stands on this hand, or keeps drawing otherwise.
+     *
+     * @param total the dealer's current total
+     * @param softAces how many aces are still counted as 11
+     * @param counts the remaining shoe, or null for an infinite shoe
+     * @param weight the probability of reaching this hand
+     * @param dist where the endings are added up
+     */
+    private void settle(int total, int softAces, int[] counts, double weight, double[] dist) {
+        if (total > 21) {
+            dist[BUST] += weight;
+        } else if (total > 17 || (total == 17 && !(hitSoft17 && softAces > 0))) {
+            dist[total - 17] += weight; // the dealer stands
+        } else {
+            draw(total, softAces, counts, weight, dist);
+        }
+    }
+}
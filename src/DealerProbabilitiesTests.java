@@ -0,0 +1,131 @@
+/*
+file name:      DealerProbabilitiesTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea DealerProbabilitiesTests
+*/
+
+public class DealerProbabilitiesTests {
+
+    public static void dealerProbabilitiesTests() {
+
+        // case 1: testing infiniteDeck() against published infinite-deck bust rates
+        {
+            // set up
+            DealerProbabilities dp = new DealerProbabilities(false, 16);
+
+            // verify
+            System.out.println(dp.infiniteDeck(6)[DealerProbabilities.BUST] + " == 0.4232");
+            System.out.println(dp.infiniteDeck(2)[DealerProbabilities.BUST] + " == 0.3536");
+            System.out.println(dp.infiniteDeck(7)[DealerProbabilities.BUST] + " == 0.2623");
+
+            // test
+            assert Math.abs(dp.infiniteDeck(6)[DealerProbabilities.BUST] - 0.4232) < 0.0005 : "Error in DealerProbabilities::infiniteDeck()";
+            assert Math.abs(dp.infiniteDeck(2)[DealerProbabilities.BUST] - 0.3536) < 0.0005 : "Error in DealerProbabilities::infiniteDeck()";
+            assert Math.abs(dp.infiniteDeck(7)[DealerProbabilities.BUST] - 0.2623) < 0.0005 : "Error in DealerProbabilities::infiniteDeck()";
+            for (int up = 2; up <= 11; up++) {
+                double sum = 0;
+                for (double p : dp.infiniteDeck(up)) {
+                    sum += p;
+                }
+                assert Math.abs(sum - 1) < 1e-12 : "Error in DealerProbabilities::infiniteDeck() - does not add up to 1";
+            }
+
+            // A dealer who hits soft 17 busts more often with an Ace up and never ends on a soft 17
+            DealerProbabilities h17 = new DealerProbabilities(true, 16);
+            assert h17.infiniteDeck(11)[DealerProbabilities.BUST] > dp.infiniteDeck(11)[DealerProbabilities.BUST] : "Error in DealerProbabilities - hitSoft17 ignored";
+        }
+
+        // case 2: testing forShoe() on a big shoe comes close to the infinite shoe
+        {
+            // set up
+            DealerProbabilities dp = new DealerProbabilities(false, 16);
+            int[] counts = Composition.full(8);
+            counts[Composition.index(10)]--; // the upcard has been dealt
+
+            // verify
+            double[] finite = dp.forShoe(counts, 10);
+            double[] infinite = dp.infiniteDeck(10);
+            System.out.println(finite[DealerProbabilities.BUST] + " ~= " + infinite[DealerProbabilities.BUST]);
+
+            // test
+            for (int i = 0; i < DealerProbabilities.OUTCOMES; i++) {
+                assert Math.abs(finite[i] - infinite[i]) < 0.005 : "Error in DealerProbabilities::forShoe() - 8 decks";
+            }
+        }
+
+        // case 3: testing forShoe() on a single deck against a brute-force simulation
+        {
+            // set up
+            DealerProbabilities dp = new DealerProbabilities(false, 16);
+            Deck deck = new Deck(1, new SplittableRandomSource(9));
+            Card[] rest = new Card[51];
+            int n = 0;
+            boolean upcardTaken = false;
+            for (int i = 0; i < 52; i++) {
+                Card card = deck.deal();
+                if (card.getValue() == 6 && !upcardTaken) {
+                    upcardTaken = true; // the dealer's upcard
+                } else {
+                    rest[n++] = card;
+                }
+            }
+            int[] counts = Composition.full(1);
+            counts[Composition.index(6)]--;
+
+            int trials = 200000;
+            int busts = 0;
+            Hand dealer = new Hand();
+            RandomSource random = new SplittableRandomSource(10);
+            for (int t = 0; t < trials; t++) {
+                Deck.shuffle(rest, 0, rest.length, random);
+                dealer.reset();
+                dealer.add(Card.of(6));
+                int next = 0;
+                while (dealer.getTotalValue() < 17) {
+                    dealer.add(rest[next++]);
+                }
+                if (dealer.getTotalValue() > 21) {
+                    busts++;
+                }
+            }
+
+            // verify
+            double exact = dp.forShoe(counts, 6)[DealerProbabilities.BUST];
+            double simulated = (double) busts / trials;
+            System.out.println(exact + " ~= " + simulated);
+
+            // test
+            assert Math.abs(exact - simulated) < 0.005 : "Error in DealerProbabilities::forShoe() - 1 deck";
+        }
+
+        // case 4: testing the cache returns stored results and stays bounded
+        {
+            // set up
+            DealerProbabilities dp = new DealerProbabilities(false, 2);
+            int[] a = Composition.full(1);
+            int[] b = Composition.full(2);
+            int[] c = Composition.full(3);
+
+            // verify
+            double[] first = dp.forShoe(a, 5);
+            double[] again = dp.forShoe(a, 5);
+            dp.forShoe(b, 5);
+            dp.forShoe(c, 5);
+            System.out.println(dp.cacheSize() + " == 2");
+
+            // test
+            assert first == again : "Error in DealerProbabilities::forShoe() - result not cached";
+            assert dp.cacheSize() == 2 : "Error in DealerProbabilities - cache not bounded";
+        }
+
+        System.out.println("*** Done testing DealerProbabilities! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        dealerProbabilitiesTests();
+    }
+}
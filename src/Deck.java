@@ -1,118 +1,657 @@
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * Author: Azeem Gbolahan
- * Purpose of the class: This class represents a full deck of cards.
- * It handles creating a 52-card deck, shuffling, and dealing cards—using
- * an ArrayList to store and manage the cards.
+ * Purpose of the class: This class represents a full deck (or a shoe of several decks) of cards.
+ * It handles creating the cards, shuffling, and dealing cards—using a plain array
+ * to hold the cards and a cursor that points at the next card to deal.
+ *
+ * Dealing only moves the cursor forward, so no cards are shifted around and each
+ * deal costs the same no matter how many cards are left in the shoe.
+ * Shuffling is an in-place Fisher–Yates shuffle driven by a pluggable RandomSource.
+ *
+ * Like a casino shoe, the deck has a cut card placed at a given penetration (the share
+ * of the shoe that is dealt before reshuffling). Once the cut card has come out,
+ * needsShuffle() tells the game to rebuild and reshuffle before the next round.
+ * A round that starts just before the cut card can still need more cards than are left,
+ * so the game calls startRound() at the start of each round: if the shoe then runs out
+ * mid-round, the cards dealt in earlier rounds are shuffled and dealt on, while the cards
+ * on the table stay out, as a dealer would do.
+ *
+ * Card counters can be attached with addCounter(); every deal updates them in O(1),
+ * and rebuilding the shoe starts them counting again from the beginning.
+ *
+ * A ShoeRecorder attached with setRecorder() captures every full shoe the deck shuffles,
+ * and a ShoeReplay attached with setReplay() deals those shoes again instead of shuffling.
+ *
+ * For importance sampling, setTilt() gives every value a weight: each card dealt is then drawn
+ * from the cards left with odds in proportion to count * weight instead of coming off the top,
+ * and likelihoodRatio() keeps the product of true odds over tilted odds for every card since
+ * resetLikelihood(), so results can be weighted back to the real game.
  */
 public class Deck {
 
-    /** The list that holds all the cards currently in the deck */
-    ArrayList<Card> mydeck;
+    /** The number of cards in a single standard deck */
+    public static final int CARDS_PER_DECK = 52;
+
+    /** The array that holds every card of the shoe, dealt or not */
+    private final Card[] cards;
+
+    /** The position of the next card to deal; cards before it have already been dealt */
+    private int top;
+
+    /** How many cards of each value are still in the deck (see Composition) */
+    private final int[] remaining = new int[Composition.RANKS];
+
+    /** How many cards of each value a freshly built shoe holds */
+    private final int[] fullComposition;
+
+    /** The number of standard 52-card decks in this shoe */
+    private final int numDecks;
+
+    /** The share of the shoe that is dealt before the cut card comes out (between 0 and 1) */
+    private final double penetration;
+
+    /** The number of cards in front of the cut card */
+    private final int cutCard;
+
+    /** The random number generator used to shuffle the cards */
+    private RandomSource random;
+
+    /** The counters kept up to date as cards are dealt (none unless addCounter() is called) */
+    private Counter[] counters = new Counter[0];
+
+    /** Where shuffled shoes are captured, or null */
+    private ShoeRecorder recorder;
+
+    /** Where shoes are replayed from instead of shuffling, or null */
+    private ShoeReplay replay;
+
+    /** The next recorded shoe to replay */
+    private int nextShoe;
+
+    /** The weight of each value when dealing with a tilt, or null to deal from the top */
+    private double[] tilt;
+
+    /** The product of true over tilted odds of every card dealt since resetLikelihood() */
+    private double likelihood = 1;
+
+    /** Where the round being dealt started: the cards before it are discards, the rest are on the table */
+    private int roundStart;
+
+    /** The shoe as it was before this round reshuffled the discards, kept so the round can be dealt again */
+    private Card[] beforeReshuffle;
+
+    /** Where this round started in beforeReshuffle, or -1 if this round has not reshuffled the discards */
+    private int reshuffledFrom = -1;
+
+    /** How many of this round's cards were on the table when it reshuffled the discards */
+    private int onTableAtReshuffle;
 
     /**
-     * Constructor — sets up the deck by first creating an empty list
-     * and then filling it with cards using the build() method.
+     * Constructor — sets up a single 52-card deck using the build() method.
      */
     public Deck() {
-        this.mydeck = new ArrayList<Card>(); // Creates an empty list to represent the deck
-        build(); // Fills the list with a standard 52-card setup
+        this(1);
     }
 
     /**
-     * Builds a standard 52-card deck by:
-     * 1. Clearing any existing cards.
-     * 2. Adding 4 of each card from 2 to 9.
-     * 3. Adding 16 cards of value 10 (for 10, J, Q, K).
-     * 4. Adding 4 cards of value 11 (for Aces).
+     * Constructor that sets up a shoe made of several standard decks.
+     *
+     * @param numDecks the number of 52-card decks in the shoe (at least 1)
      */
-    public void build() {
-        // Step 1: Remove any existing cards from the deck (just in case)
-        for (int i = mydeck.size() - 1; i >= 0; i--) {
-            mydeck.remove(i); // Remove cards from last to first
-        }
+    public Deck(int numDecks) {
+        this(numDecks, new SplittableRandomSource());
+    }
 
-        // Step 2: Add 4 cards each for values 2 to 9 (representing four suits)
-        for (int i = 2; i <= 9; i++) {
-            for (int y = 0; y < 4; y++) {
-                Card card = new Card(i); // Create a card with value i
-                mydeck.add(card);        // Add it to the deck
-            }
+    /**
+     * Constructor that sets up a shoe of several decks shuffled by the given generator.
+     *
+     * @param numDecks the number of 52-card decks in the shoe (at least 1)
+     * @param random the generator used by shuffle()
+     */
+    public Deck(int numDecks, RandomSource random) {
+        this(numDecks, 0.5, random);
+    }
+
+    /**
+     * Constructor that sets up a shoe of several decks with the cut card at a given penetration.
+     *
+     * @param numDecks the number of 52-card decks in the shoe (at least 1)
+     * @param penetration the share of the shoe dealt before reshuffling (between 0 and 1, exclusive)
+     * @param random the generator used by shuffle()
+     */
+    public Deck(int numDecks, double penetration, RandomSource random) {
+        if (numDecks < 1) {
+            throw new IllegalArgumentException("numDecks must be at least 1: " + numDecks);
+        }
+        if (!(penetration > 0 && penetration < 1)) {
+            throw new IllegalArgumentException("penetration must be between 0 and 1: " + penetration);
         }
+        this.numDecks = numDecks;
+        this.penetration = penetration;
+        this.cutCard = (int) Math.round(numDecks * CARDS_PER_DECK * penetration);
+        this.random = random;
+        this.cards = new Card[numDecks * CARDS_PER_DECK]; // Room for every card of the shoe
+        this.fullComposition = Composition.full(numDecks);
+        build(); // Fills the array with the standard setup
+    }
 
-        // Step 3: Add 16 cards of value 10 (represents 10, Jack, Queen, King across 4 suits)
-        for (int y = 0; y < 16; y++) {
-            Card card = new Card(10); // All face cards have a value of 10
-            mydeck.add(card);         // Add each to the deck
+    /**
+     * Builds the shoe by putting back every card, deck by deck, in the layout of one
+     * standard deck (see Composition): 4 cards of each value from 2 to 9, 16 cards of
+     * value 10 (for 10, J, Q, K) and 4 Aces of value 11.
+     * The cursor is moved back to the start, so every card can be dealt again.
+     * Only references to the shared Card objects are stored, so nothing is allocated.
+     */
+    public void build() {
+        int n = 0; // Next free position in the array
+
+        for (int d = 0; d < numDecks; d++) {
+            for (int i = 0; i < Composition.RANKS; i++) {
+                Card card = Card.of(Composition.value(i)); // The shared card with this value
+                for (int c = fullComposition[i] / numDecks; c > 0; c--) {
+                    cards[n++] = card;
+                }
+            }
         }
 
-        // Step 4: Add 4 Aces, each with a value of 11
-        for (int v = 0; v < 4; v++) {
-            Card card = new Card(11); // Aces represented with value 11
-            mydeck.add(card);         // Add Ace to the deck
+        top = 0; // Nothing has been dealt yet
+        roundStart = 0;
+        reshuffledFrom = -1;
+        System.arraycopy(fullComposition, 0, remaining, 0, Composition.RANKS);
+        for (Counter counter : counters) {
+            counter.reset(); // A fresh shoe starts a fresh count
         }
     }
 
     /**
      * Returns the number of cards left in the deck.
-     * 
+     *
      * @return the size of the deck (number of remaining cards)
      */
     public int size() {
-        return mydeck.size(); // Returns how many cards are in the deck right now
+        return cards.length - top; // Everything from the cursor to the end is still in the deck
+    }
+
+    /**
+     * Returns the number of standard decks in this shoe.
+     *
+     * @return the number of 52-card decks
+     */
+    public int getNumDecks() {
+        return numDecks;
+    }
+
+    /**
+     * Returns the share of the shoe that is dealt before the cut card comes out.
+     *
+     * @return the penetration, between 0 and 1
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    /**
+     * Returns whether the cut card has come out, meaning the shoe should be
+     * rebuilt and reshuffled before the next round starts.
+     * With one deck and a penetration of 0.5 this is true once fewer than 26 cards are left.
+     *
+     * @return true if more cards than the cut card allows have been dealt
+     */
+    public boolean needsShuffle() {
+        return top > cutCard;
+    }
+
+    /**
+     * Returns a card that is still in the deck without dealing it.
+     *
+     * @param index the position among the remaining cards (0 is the top card)
+     * @return the card at that position
+     */
+    public Card getCard(int index) {
+        return cards[top + index];
     }
 
     /**
      * Deals (removes and returns) the top card of the deck.
-     * 
+     *
      * @return the first card from the deck
      */
     public Card deal() {
-        return mydeck.remove(0); // Remove and return the first card (top of the deck)
+        if (top == cards.length) {
+            if (roundStart == 0) {
+                throw new IllegalStateException("Cannot deal from an empty deck");
+            }
+            reshuffleDiscards(); // Ran out mid-round: deal on from the earlier rounds' cards
+        }
+        if (tilt != null) {
+            drawTilted(); // Bring a card of a tilted-random value to the cursor
+        }
+        Card card = cards[top++]; // Hand out the card under the cursor and move the cursor on
+        int index = card.getValue() - Card.MIN_VALUE;
+        remaining[index]--;
+        for (Counter counter : counters) {
+            counter.count(index);
+        }
+        return card;
     }
 
     /**
-     * Shuffles the deck using random swaps between cards.
-     * This ensures that cards are in random order before dealing.
+     * Marks the start of a round. Every card dealt before this point is a discard that can be
+     * reshuffled if the shoe runs out before the round is over.
      */
-    public void shuffle() {
-        Random randomizer = new Random(); // Create a random number generator
+    public void startRound() {
+        roundStart = top;
+        reshuffledFrom = -1;
+    }
+
+    /**
+     * Returns whether the round being dealt ran the shoe dry and reshuffled the discards.
+     *
+     * @return true if the discards were reshuffled since startRound()
+     */
+    boolean reshuffledThisRound() {
+        return reshuffledFrom >= 0;
+    }
+
+    /**
+     * Returns how many cards the round being dealt has taken from the reshuffled discards: the
+     * cards it was dealt before those came from the end of the old shoe.
+     *
+     * @return the cards dealt since the discards were reshuffled, or 0 if they were not this round
+     */
+    int dealtSinceReshuffle() {
+        return reshuffledFrom < 0 ? 0 : top - onTableAtReshuffle;
+    }
+
+    /**
+     * Puts the shoe back as it was when the round being dealt started, before it ran dry, with
+     * the cursor at the round's first card, so the round can be dealt again from the same cards.
+     */
+    void undoReshuffle() {
+        if (reshuffledFrom < 0) {
+            throw new IllegalStateException("this round has not reshuffled the discards");
+        }
+        restore(beforeReshuffle, reshuffledFrom);
+    }
 
-        // Go through each card in the deck
-        for (int i = 0; i < mydeck.size(); i++) {
-            // Pick two random indices (positions) in the deck
-            int randomindex = randomizer.nextInt(mydeck.size() - i);
-            int randomindex2 = randomizer.nextInt(mydeck.size() - i);
+    /**
+     * Copies the whole shoe in order, dealt cards included, so restore() can lay it out again.
+     *
+     * @param into an array with room for every card of the shoe
+     */
+    void save(Card[] into) {
+        System.arraycopy(cards, 0, into, 0, cards.length);
+    }
 
-            // Get the cards at those random positions
-            Card mycard = mydeck.get(randomindex);
-            Card mycard2 = mydeck.get(randomindex2);
+    /**
+     * Lays out a shoe copied by save() and moves the cursor to a position. The cards left and
+     * the counters are counted again from the saved order: the cards before the position are
+     * the ones the counters have seen.
+     *
+     * @param saved a shoe copied by save()
+     * @param position the new cursor position (0 to the shoe size)
+     */
+    void restore(Card[] saved, int position) {
+        System.arraycopy(saved, 0, cards, 0, cards.length);
+        for (int i = 0; i < Composition.RANKS; i++) {
+            remaining[i] = 0;
+        }
+        for (int i = position; i < cards.length; i++) {
+            remaining[cards[i].getValue() - Card.MIN_VALUE]++;
+        }
+        for (Counter counter : counters) {
+            counter.reset();
+            for (int i = 0; i < position; i++) {
+                counter.count(cards[i].getValue() - Card.MIN_VALUE);
+            }
+        }
+        top = position;
+        roundStart = position;
+        reshuffledFrom = -1;
+    }
 
-            // Swap the two cards
-            mydeck.set(randomindex, mycard2);
-            mydeck.set(randomindex2, mycard);
+    /**
+     * Shuffles the discards back in when the shoe runs out mid-round. The cards dealt this round
+     * are still on the table, so they move to the front of the array and stay dealt; the discards
+     * behind them are shuffled and dealing carries on from there. The counters start a fresh count
+     * with the table cards, which are the only ones the new shoe has shown.
+     *
+     * The discards are not shuffled with the deck's generator but with one seeded from the shoe
+     * itself (see discardSeed()). A replayed shoe is laid out without touching the generator, so
+     * the generator would be in a different state than when the shoe was recorded; the shoe's
+     * own order is the same in both runs, so the discards come back in the same order too.
+     */
+    private void reshuffleDiscards() {
+        RandomSource discardRandom = new SplittableRandomSource(discardSeed());
+        if (beforeReshuffle == null) {
+            beforeReshuffle = new Card[cards.length];
+        }
+        save(beforeReshuffle); // So undoReshuffle() can deal the round again
+        reshuffledFrom = roundStart;
+        int onTable = cards.length - roundStart;
+        for (int i = 0; i < onTable; i++) { // Swap the table cards to the front, one at a time
+            Card tmp = cards[i];
+            cards[i] = cards[roundStart + i];
+            cards[roundStart + i] = tmp;
+        }
+        System.arraycopy(fullComposition, 0, remaining, 0, Composition.RANKS);
+        for (Counter counter : counters) {
+            counter.reset();
+        }
+        for (int i = 0; i < onTable; i++) {
+            int index = cards[i].getValue() - Card.MIN_VALUE;
+            remaining[index]--;
+            for (Counter counter : counters) {
+                counter.count(index);
+            }
+        }
+        top = onTable;
+        roundStart = 0;
+        onTableAtReshuffle = onTable;
+        shuffle(cards, top, cards.length, discardRandom);
+    }
+
+    /**
+     * Returns a seed made from the order of every card in the shoe and where the round started,
+     * so the same shoe run dry the same way always reshuffles its discards the same way.
+     *
+     * @return the seed for the discard shuffle
+     */
+    private long discardSeed() {
+        long seed = roundStart;
+        for (Card card : cards) {
+            seed = seed * 0x9E3779B97F4A7C15L + card.getValue(); // A multiplier with well-mixed bits
+        }
+        return seed;
+    }
+
+    /**
+     * Picks the value of the next card with odds in proportion to (cards left of that value) *
+     * (its weight), swaps a card of that value to the cursor, and multiplies the likelihood ratio
+     * by the card's true odds (count / cards left) over its tilted odds.
+     * The card swapped in is a random one of that value, not the first, so the cards behind the
+     * cursor stay in a uniformly random order for anything dealt from the top afterwards.
+     */
+    private void drawTilted() {
+        double sum = 0;
+        for (int i = 0; i < Composition.RANKS; i++) {
+            sum += remaining[i] * tilt[i];
+        }
+        double u = (random.nextLong() >>> 11) * 0x1.0p-53 * sum; // Uniform in [0, sum)
+        int index = -1;
+        for (int i = 0; i < Composition.RANKS; i++) {
+            if (remaining[i] > 0) {
+                index = i; // The last value with cards left also catches rounding at the top end
+                u -= remaining[i] * tilt[i];
+                if (u < 0) {
+                    break;
+                }
+            }
+        }
+        likelihood *= sum / (size() * tilt[index]);
+
+        int value = Composition.value(index);
+        int skip = random.nextInt(remaining[index]); // How many cards of that value to pass over
+        int j = top;
+        while (cards[j].getValue() != value || skip-- > 0) {
+            j++;
+        }
+        Card tmp = cards[top];
+        cards[top] = cards[j];
+        cards[j] = tmp;
+    }
+
+    /**
+     * Returns the position of the next card to deal, counted from the start of the shoe.
+     *
+     * @return how many cards have been dealt since the shoe was built
+     */
+    int position() {
+        return top;
+    }
+
+    /**
+     * Moves the cursor to a position, as if exactly that many cards had been dealt since the
+     * shoe was built. Moving it back puts the cards after the position back into the deck, in
+     * the same order, so the same cards can be dealt again (used to replay a round).
+     *
+     * @param position the new cursor position (0 to the shoe size)
+     */
+    void seek(int position) {
+        if (position < 0 || position > cards.length) {
+            throw new IllegalArgumentException("position must be between 0 and " + cards.length + ": " + position);
+        }
+        for (int i = position; i < top; i++) {
+            int index = cards[i].getValue() - Card.MIN_VALUE;
+            remaining[index]++;   // Put the card back
+            for (Counter counter : counters) {
+                counter.uncount(index);
+            }
+        }
+        for (int i = top; i < position; i++) {
+            int index = cards[i].getValue() - Card.MIN_VALUE;
+            remaining[index]--;   // Take the card out
+            for (Counter counter : counters) {
+                counter.count(index);
+            }
+        }
+        top = position;
+        roundStart = Math.min(roundStart, position);
+    }
+
+    /**
+     * Stacks the deck: moves cards of the given values to the top, in order, by swapping them
+     * with the cards already there. The cards left in the deck stay the same, only their order
+     * changes. Used to set up exact situations in tests.
+     *
+     * @param values the values of the next cards to deal, in dealing order
+     */
+    void arrange(int... values) {
+        for (int k = 0; k < values.length; k++) {
+            int pos = top + k;
+            int j = pos;
+            while (j < cards.length && cards[j].getValue() != values[k]) {
+                j++; // Look further down for a card of this value
+            }
+            if (j == cards.length) {
+                throw new IllegalArgumentException("No card of value " + values[k] + " left to stack");
+            }
+            Card tmp = cards[pos];
+            cards[pos] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    /**
+     * Swaps every card of a full shoe for its mirror (see Composition.mirror()), keeping the
+     * order: the antithetic partner of the shoe just shuffled. The composition does not change.
+     */
+    void mirror() {
+        if (top != 0) {
+            throw new IllegalStateException("only a full shoe can be mirrored: " + top + " cards dealt");
+        }
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = Card.of(Composition.value(Composition.mirror(cards[i].getValue() - Card.MIN_VALUE)));
+        }
+    }
+
+    /**
+     * Copies how many cards of each value are still in the deck.
+     *
+     * @param out an array of Composition.RANKS counts to fill (index 0 is the 2s, index 9 the Aces)
+     * @return the same array, for convenience
+     */
+    public int[] composition(int[] out) {
+        System.arraycopy(remaining, 0, out, 0, Composition.RANKS);
+        return out;
+    }
+
+    /**
+     * Attaches a counter for a counting system to this deck. From now on every card dealt
+     * updates it; cards dealt before this call are counted straight away.
+     *
+     * @param system the counting system to keep
+     * @return the new counter
+     */
+    public Counter addCounter(CountingSystem system) {
+        Counter counter = new Counter(system, this);
+        Counter[] more = new Counter[counters.length + 1];
+        System.arraycopy(counters, 0, more, 0, counters.length);
+        more[counters.length] = counter;
+        counters = more;
+        return counter;
+    }
+
+    /**
+     * Replaces the generator used to shuffle the deck.
+     *
+     * @param random the new generator
+     */
+    public void setRandom(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Returns the generator used to shuffle the deck.
+     *
+     * @return the current generator
+     */
+    public RandomSource getRandom() {
+        return random;
+    }
+
+    /**
+     * Captures every full shoe this deck shuffles from now on.
+     *
+     * @param recorder where to write the shoes, or null to stop recording
+     */
+    public void setRecorder(ShoeRecorder recorder) {
+        if (recorder != null && recorder.getNumDecks() != numDecks) {
+            throw new IllegalArgumentException("the recorder expects " + recorder.getNumDecks() + "-deck shoes, not " + numDecks);
+        }
+        this.recorder = recorder;
+    }
+
+    /**
+     * Deals recorded shoes from now on: each full-shoe shuffle lays out the next one.
+     *
+     * @param replay the shoes to deal, or null to go back to shuffling
+     */
+    public void setReplay(ShoeReplay replay) {
+        if (replay != null && replay.getNumDecks() != numDecks) {
+            throw new IllegalArgumentException("the replay holds " + replay.getNumDecks() + "-deck shoes, not " + numDecks);
+        }
+        this.replay = replay;
+        this.nextShoe = 0;
+    }
+
+    /**
+     * Deals every card from now on with tilted odds, for importance sampling (see drawTilted()).
+     *
+     * @param weights the weight of each value by composition index (all positive), or null to deal from the top again
+     */
+    public void setTilt(double[] weights) {
+        checkTilt(weights);
+        this.tilt = weights == null ? null : weights.clone();
+    }
+
+    /**
+     * Checks that a tilt has one positive weight per value, as setTilt() needs.
+     *
+     * @param weights the weight of each value by composition index, or null for no tilt
+     * @throws IllegalArgumentException if there are not Composition.RANKS weights or one is not positive
+     */
+    public static void checkTilt(double[] weights) {
+        if (weights == null) {
+            return;
+        }
+        if (weights.length != Composition.RANKS) {
+            throw new IllegalArgumentException("a tilt needs " + Composition.RANKS + " weights, not " + weights.length);
+        }
+        for (double w : weights) {
+            if (!(w > 0)) {
+                throw new IllegalArgumentException("tilt weights must be positive: " + w);
+            }
+        }
+    }
+
+    /**
+     * Returns the likelihood ratio of the cards dealt since resetLikelihood(): how much more (or
+     * less) likely they were to come out in the real game than with the tilt.
+     *
+     * @return the product of true odds over tilted odds (1 when no tilt is set)
+     */
+    public double likelihoodRatio() {
+        return likelihood;
+    }
+
+    /**
+     * Starts a new likelihood ratio, e.g. at the start of each importance-sampling trial.
+     */
+    public void resetLikelihood() {
+        likelihood = 1;
+    }
+
+    /**
+     * Shuffles the remaining cards with a Fisher–Yates shuffle.
+     * Every ordering of the remaining cards is equally likely.
+     * A full shoe is replaced by the next recorded shoe when replaying, and captured when recording.
+     */
+    public void shuffle() {
+        if (top == 0 && replay != null) {
+            nextShoe = replay.load(nextShoe, cards); // A full shoe holds the same cards, so remaining is unchanged
+            return;
+        }
+        shuffle(cards, top, cards.length, random);
+        if (top == 0 && recorder != null) {
+            try {
+                recorder.record(cards);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Shuffles the range [from, to) of an array in place with a Fisher–Yates shuffle:
+     * walking down from the end, each position is swapped with a uniformly chosen
+     * position at or before it, so every permutation of the range is equally likely.
+     *
+     * @param items the array to shuffle
+     * @param from the first index of the range
+     * @param to one past the last index of the range
+     * @param random the generator that picks the swap positions
+     */
+    static void shuffle(Object[] items, int from, int to, RandomSource random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1); // Any position from 'from' up to i
+            Object tmp = items[i];
+            items[i] = items[j];
+            items[j] = tmp;
         }
     }
 
     /**
      * Returns a string showing all the card values in the deck and their total value.
      * Example: [2, 3, 10, 11] : 26
-     * 
+     *
      * @return a string representation of the current deck
      */
     public String toString() {
         int total = 0; // Will store the sum of all card values in the deck
         StringBuilder handString = new StringBuilder("["); // Use StringBuilder for efficient string building
 
-        // Go through each card in the deck
-        for (int i = 0; i < mydeck.size(); i++) {
-            int val = mydeck.get(i).getValue(); // Get the card's value
+        // Go through each card still in the deck
+        for (int i = top; i < cards.length; i++) {
+            int val = cards[i].getValue();      // Get the card's value
             total += val;                       // Add it to the running total
             handString.append(val);             // Append value to the string
 
             // Add a comma after every card except the last one
-            if (i < mydeck.size() - 1) {
+            if (i < cards.length - 1) {
                 handString.append(", ");
             }
         }
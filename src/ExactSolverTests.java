@@ -0,0 +1,193 @@
+/*
+file name:      ExactSolverTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea ExactSolverTests
+*/
+
+public class ExactSolverTests {
+
+    /**
+     * Plays rounds that always start with the same three cards (player, upcard, player) and the
+     * rest of the shoe shuffled, and returns the player's mean net profit and its standard error.
+     */
+    static RunningStats simulate(RuleTable rules, Strategy strategy, int rounds, long seed, int card1, int upcard, int card2) {
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        game.deck.build();
+        game.deck.arrange(card1, upcard, card2);
+        RunningStats stats = new RunningStats();
+        for (int r = 0; r < rounds; r++) {
+            game.deck.seek(3);
+            game.deck.shuffle();
+            game.deck.seek(0);
+            stats.add(game.play());
+        }
+        return stats;
+    }
+
+    public static void exactSolverTests() {
+
+        // case 1: testing the dealer's distribution against DealerProbabilities
+        {
+            // set up
+            RuleTable peek = new Rules().setDecks(1).compile();
+            RuleTable noPeek = new Rules().setDecks(1).setDealerPeek(false).compile();
+            int[] counts = ExactSolver.afterDeal(1, 6, 10, 7);
+            double[] solver = new ExactSolver(1, peek, 100).dealer(counts, 6);
+            double[] reference = new DealerProbabilities(false, 10).forShoe(counts, 6);
+            int[] againstTen = ExactSolver.afterDeal(1, 10, 10, 7);
+            double[] peeked = new ExactSolver(1, peek, 100).dealer(againstTen, 10);
+            double[] played = new ExactSolver(1, noPeek, 100).dealer(againstTen, 10);
+
+            // verify
+            System.out.println("dealer 6: bust " + solver[ExactSolver.BUST] + ", reference " + reference[DealerProbabilities.BUST]);
+
+            // test
+            for (int i = 0; i < DealerProbabilities.OUTCOMES; i++) {
+                assert Math.abs(solver[i] - reference[i]) < 1e-12 : "Error in ExactSolver::dealer() - ending " + i;
+            }
+            assert solver[ExactSolver.NATURAL] == 0 : "Error in ExactSolver::dealer() - a natural with a 6 up";
+            double sumPeeked = 0;
+            double sumPlayed = 0;
+            for (int i = 0; i < ExactSolver.OUTCOMES; i++) {
+                sumPeeked += peeked[i];
+                sumPlayed += played[i];
+            }
+            // 49 cards are left, 4 of them Aces
+            assert Math.abs(sumPeeked - 45.0 / 49) < 1e-12 && peeked[ExactSolver.NATURAL] == 0 : "Error in ExactSolver::dealer() - a peeked natural";
+            assert Math.abs(sumPlayed - 1) < 1e-12 && Math.abs(played[ExactSolver.NATURAL] - 4.0 / 49) < 1e-12 : "Error in ExactSolver::dealer() - no peek";
+        }
+
+        // case 2: testing well-known composition-dependent answers from a six-deck shoe
+        {
+            // set up
+            ExactSolver solver = new ExactSolver(2, new Rules().setDecks(6).compile(), 1 << 16);
+            HandValues sixteen = solver.solve(ExactSolver.afterDeal(6, 10, 10, 6), 10, 10, 6);
+            HandValues eleven = solver.solve(ExactSolver.afterDeal(6, 10, 5, 6), 10, 5, 6);
+            HandValues twelve = solver.solve(ExactSolver.afterDeal(6, 4, 10, 2), 4, 10, 2);
+            HandValues aces = solver.solve(ExactSolver.afterDeal(6, 6, 11, 11), 6, 11, 11);
+            HandValues natural = solver.solve(ExactSolver.afterDeal(6, 10, 11, 10), 10, 11, 10);
+
+            // verify
+            System.out.println("16 v 10 " + sixteen);
+            System.out.println("10,2 v 4 " + twelve);
+
+            // test
+            assert Math.abs(sixteen.getStand() + 0.540) < 0.005 && Math.abs(sixteen.getHit() + 0.535) < 0.005 : "Error in ExactSolver - 16 against a 10";
+            assert sixteen.bestAction() == Strategy.SURRENDER : "Error in HandValues::bestAction() - surrender 16 against a 10";
+            assert eleven.bestAction() == Strategy.DOUBLE && Math.abs(eleven.getDouble() - 0.18) < 0.01 : "Error in ExactSolver - 11 against a 10";
+            assert twelve.getHit() > twelve.getStand() : "Error in ExactSolver - 10,2 hits a 4 (the two is gone from the shoe)";
+            assert aces.bestAction() == HandValues.SPLIT : "Error in ExactSolver - Aces are split";
+            assert Double.isNaN(sixteen.getSplit()) : "Error in ExactSolver - 10,6 is not a pair";
+            assert natural.getStand() == 1.5 && Double.isNaN(natural.getHit()) : "Error in ExactSolver - a natural is paid 3:2";
+        }
+
+        // case 3: testing exact values against the simulator
+        {
+            // set up
+            RuleTable single = new Rules().setDecks(1).compile();
+            ExactSolver solver = new ExactSolver(1, single, 1 << 16);
+            Strategy stand = (total, soft, up) -> Strategy.STAND;
+            Strategy doubler = (total, soft, up) -> Strategy.DOUBLE;
+            Strategy hitTwenty = (total, soft, up) -> total == 20 && !soft ? Strategy.HIT : Strategy.STAND;
+
+            double standSixteen = solver.solve(ExactSolver.afterDeal(1, 9, 10, 6), 9, 10, 6).getStand();
+            double doubleEleven = solver.solve(ExactSolver.afterDeal(1, 6, 5, 6), 6, 5, 6).getDouble();
+            double hitTwentyValue = solver.solve(ExactSolver.afterDeal(1, 7, 10, 10), 7, 10, 10).getHit();
+            int[] againstTen = ExactSolver.afterDeal(1, 10, 10, 7);
+            double noNatural = 1 - againstTen[Composition.index(11)] / (double) Composition.total(againstTen);
+            double standSeventeen = solver.solve(againstTen, 10, 10, 7).getStand(); // Given the dealer has no natural
+
+            RunningStats s1 = simulate(single, stand, 100_000, 1, 10, 9, 6);
+            RunningStats s2 = simulate(single, doubler, 100_000, 2, 5, 6, 6);
+            RunningStats s3 = simulate(single, hitTwenty, 100_000, 3, 10, 7, 10);
+            RunningStats s4 = simulate(single, stand, 100_000, 4, 10, 10, 7);
+
+            // verify
+            System.out.println("stand 16 v 9:  exact " + standSixteen + ", simulated " + s1.getMean() + " +/- " + s1.standardError());
+            System.out.println("double 11 v 6: exact " + doubleEleven + ", simulated " + s2.getMean() + " +/- " + s2.standardError());
+            System.out.println("hit 20 v 7:    exact " + hitTwentyValue + ", simulated " + s3.getMean() + " +/- " + s3.standardError());
+            System.out.println("stand 17 v 10: exact " + standSeventeen + ", simulated " + s4.getMean() + " +/- " + s4.standardError());
+
+            // test
+            assert Math.abs(standSixteen - s1.getMean()) < 4 * s1.standardError() : "Error in ExactSolver - standing on 16";
+            assert Math.abs(doubleEleven - s2.getMean()) < 4 * s2.standardError() : "Error in ExactSolver - doubling 11";
+            assert Math.abs(hitTwentyValue - s3.getMean()) < 4 * s3.standardError() : "Error in ExactSolver - hitting 20";
+            // The simulator also plays the rounds where the dealer peeks and finds a natural
+            double unconditional = noNatural * standSeventeen - (1 - noNatural);
+            assert Math.abs(unconditional - s4.getMean()) < 4 * s4.standardError() : "Error in ExactSolver - the dealer's peek";
+        }
+
+        // case 4: testing split Aces against the simulator
+        {
+            // set up: no resplits, so the simulator plays the same split as the solver
+            RuleTable rules = new Rules().setDecks(6).setMaxHands(2).compile();
+            Strategy splitter = new Strategy() {
+                @Override
+                public int decide(int total, boolean soft, int up) {
+                    return Strategy.STAND;
+                }
+
+                @Override
+                public boolean split(int pairValue, int up) {
+                    return true;
+                }
+            };
+            double exact = new ExactSolver(1, rules, 1 << 16).solve(ExactSolver.afterDeal(6, 6, 11, 11), 6, 11, 11).getSplit();
+            RunningStats simulated = simulate(rules, splitter, 100_000, 5, 11, 6, 11);
+
+            // verify
+            System.out.println("split A,A v 6: exact " + exact + ", simulated " + simulated.getMean() + " +/- " + simulated.standardError());
+
+            // test
+            assert Math.abs(exact - simulated.getMean()) < 4 * simulated.standardError() + 0.002 : "Error in ExactSolver - splitting Aces";
+        }
+
+        // case 5: testing threads, the memo bound and bad input
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(2).compile();
+            int[] counts = ExactSolver.afterDeal(2, 6, 8, 8);
+            ExactSolver big = new ExactSolver(1, rules, 1 << 16);
+            ExactSolver small = new ExactSolver(4, rules, 50);
+            HandValues one = big.solve(counts, 6, 8, 8);
+            HandValues four = small.solve(counts, 6, 8, 8);
+            HandValues again = big.solve(counts, 6, 8, 8);
+
+            // verify
+            System.out.println("8,8 v 6 " + one + ", memo " + big.cacheSize() + " / " + small.cacheSize());
+
+            // test
+            assert one.getHit() == four.getHit() && one.getDouble() == four.getDouble() && one.getSplit() == four.getSplit()
+                    && one.getStand() == four.getStand() : "Error in ExactSolver - results depend on the threads or the memo";
+            assert again.getSplit() == one.getSplit() : "Error in ExactSolver - a memo hit changed the answer";
+            assert small.cacheSize() == 50 && big.cacheSize() > 50 : "Error in ExactSolver - the memo bound";
+            assert java.util.Arrays.equals(counts, ExactSolver.afterDeal(2, 6, 8, 8)) : "Error in ExactSolver::solve() - changed the shoe";
+
+            boolean thrown = false;
+            try {
+                big.solve(counts, 6, 10, 8, 8);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in ExactSolver::solve() - a bust hand";
+            thrown = false;
+            try {
+                new ExactSolver(1, rules, 0);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in ExactSolver - an empty memo";
+        }
+
+        System.out.println("*** Done testing ExactSolver! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        exactSolverTests();
+    }
+}
@@ -2,12 +2,23 @@
  * Author: Azeem Gbolahan
  * Purpose of the class: This class represents a hand of cards in a card game. 
  * It uses a custom ArrayList to manage the collection of Card objects in the hand.
+ *
+ * The Blackjack total is kept up to date as cards are added, so reading it is free.
+ * Aces count as 11 while that keeps the hand at 21 or under, and fall back to 1
+ * (one ace at a time) when the hand would otherwise bust. A hand that still counts
+ * an ace as 11 is "soft".
  */
 public class Hand {
 
     /** An ArrayList that holds all the cards currently in the hand */
     private ArrayList<Card> mycards;
 
+    /** The Blackjack total of the hand, with soft aces counted as 11 */
+    private int total;
+
+    /** How many aces are still counted as 11 (never more than 1 once the hand settles) */
+    private int softAces;
+
     /**
      * Constructor — creates an empty hand using an ArrayList of Cards.
      * When a Hand object is created, it starts off with no cards.
@@ -21,9 +32,9 @@ public class Hand {
      * This is useful when starting a new round or resetting the game state.
      */
     public void reset() {
-        while (mycards.size() > 0) { // as long as there are cards in the hand
-            mycards.remove(mycards.size() - 1); // remove the last card one by one until the hand is empty
-        }
+        mycards.clear(); // empty the list in one go
+        total = 0;       // an empty hand is worth nothing
+        softAces = 0;    // and holds no aces
     }
 
     /**
@@ -33,6 +44,19 @@ public class Hand {
      */
     public void add(Card card) {
         mycards.add(card); // insert the new card at the end of the hand
+        if (card == null) {
+            return; // a missing card contributes nothing to the total
+        }
+
+        int value = card.getValue();
+        total += value;
+        if (value == 11) {
+            softAces++; // a new ace starts out counted as 11
+        }
+        while (total > 21 && softAces > 0) {
+            total -= 10; // count one ace as 1 instead of 11
+            softAces--;
+        }
     }
 
     /**
@@ -55,24 +79,22 @@ public class Hand {
     }
 
     /**
-     * Calculates and returns the total value of all cards in the hand.
-     * Useful for scoring purposes in games like Blackjack.
-     * 
+     * Returns the Blackjack total of the hand.
+     * Aces count as 11 unless that would take the hand over 21, in which case they count as 1.
+     *
      * @return the total value of the hand
      */
     public int getTotalValue() {
-        int total = 0; // this will hold the sum of all card values
-
-        for (int i = 0; i < mycards.size(); i++) { // go through every card in the hand
-            Card card = mycards.get(i); // get the card at position i
-            if (card != null) { // only if the card actually exists (not null)
-                total += card.getValue(); // add the card's value to the running total
-            } else {
-                total += 0; // if the card is null, it contributes nothing to the total
-            }
-        }
+        return total; // kept up to date by add() and reset()
+    }
 
-        return total; // return the final computed value of the hand
+    /**
+     * Returns whether the hand is soft, i.e. holds an ace that is still counted as 11.
+     *
+     * @return true if the hand is soft
+     */
+    public boolean isSoft() {
+        return softAces > 0;
     }
 
     /**
@@ -85,12 +107,10 @@ public class Hand {
      */
     @Override
     public String toString() {
-        int total = 0; // total value of the hand
         StringBuilder handString = new StringBuilder("["); // using StringBuilder for efficient string building
 
         for (int i = 0; i < mycards.size(); i++) {
             int val = mycards.get(i).getValue(); // get the value of the current card
-            total += val; // add the value to the total
             handString.append(val); // add the value to the string
 
             // add a comma if this is not the last card
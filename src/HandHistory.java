@@ -0,0 +1,214 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Reads a hand history written by HandRecorder. The file is memory-mapped,
+ * so opening it reads nothing and each field is decoded straight from the mapped pages when it
+ * is asked for (record i, no copying). A file bigger than one mapping allows is mapped in
+ * segments of SEGMENT_RECORDS records. The record layout is described in HandRecorder.
+ * The mapping is read-only, so one HandHistory can be read by many threads at once.
+ */
+public class HandHistory {
+
+    /** How many records one mapped segment holds (about 800 MB) */
+    static final int SEGMENT_RECORDS = 1 << 26;
+
+    /** The mapped segments of the file, in order */
+    private final MappedByteBuffer[] segments;
+
+    /** How many records the file holds */
+    private final long size;
+
+    /**
+     * Constructor — maps the records of a file.
+     *
+     * @param file the hand-history file to read
+     * @throws IOException if the file cannot be read or is not a hand history
+     */
+    public HandHistory(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes < HandRecorder.HEADER_SIZE) {
+                throw new IOException("not a hand history (too short): " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HandRecorder.HEADER_SIZE);
+            if (header.getInt() != HandRecorder.MAGIC) {
+                throw new IOException("not a hand history (bad magic number): " + file);
+            }
+            short version = header.getShort();
+            short recordSize = header.getShort();
+            if (version != HandRecorder.VERSION || recordSize != HandRecorder.RECORD_SIZE) {
+                throw new IOException("unsupported hand history version " + version + " with " + recordSize + "-byte records: " + file);
+            }
+
+            size = (bytes - HandRecorder.HEADER_SIZE) / HandRecorder.RECORD_SIZE; // A torn last record is ignored
+            int count = (int) ((size + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long first = (long) i * SEGMENT_RECORDS;
+                long records = Math.min(SEGMENT_RECORDS, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HandRecorder.HEADER_SIZE + first * HandRecorder.RECORD_SIZE, records * HandRecorder.RECORD_SIZE);
+            }
+        } // The mappings stay valid after the channel is closed
+    }
+
+    /**
+     * Returns one byte of a record, still packed (see HandRecorder for the layout).
+     * HistoryQuery filters on these raw bytes with lookup tables instead of decoding them.
+     *
+     * @param record the index of the record
+     * @param offset the byte within the record
+     * @return the byte, as an unsigned value from 0 to 255
+     */
+    int unsigned(long record, int offset) {
+        return segments[(int) (record / SEGMENT_RECORDS)]
+                .get((int) (record % SEGMENT_RECORDS) * HandRecorder.RECORD_SIZE + offset) & 0xFF;
+    }
+
+    /**
+     * Returns a two-byte field of a record.
+     *
+     * @param record the index of the record
+     * @param offset the first byte of the field within the record
+     * @return the field, as a signed value
+     */
+    private short getShort(long record, int offset) {
+        return segments[(int) (record / SEGMENT_RECORDS)]
+                .getShort((int) (record % SEGMENT_RECORDS) * HandRecorder.RECORD_SIZE + offset);
+    }
+
+    /** @return how many records the file holds */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the value (2 to 11) of the player's first card
+     */
+    public int playerCard1(long record) {
+        return Composition.value(unsigned(record, 0) >>> 4);
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the value (2 to 11) of the player's second card
+     */
+    public int playerCard2(long record) {
+        return Composition.value(unsigned(record, 0) & 0xF);
+    }
+
+    /**
+     * Returns the total of the player's first two cards, as the strategy saw it.
+     *
+     * @param record the index of the record
+     * @return the total (two Aces make 12)
+     */
+    public int initialTotal(long record) {
+        int total = playerCard1(record) + playerCard2(record);
+        return total == 22 ? 12 : total;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return whether the player's first two cards held an Ace counted as 11
+     */
+    public boolean initialSoft(long record) {
+        return playerCard1(record) == 11 || playerCard2(record) == 11;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the value (2 to 11) of the dealer's upcard
+     */
+    public int dealerUpcard(long record) {
+        return Composition.value(unsigned(record, 1) >>> 4);
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the value (2 to 11) of the dealer's hole card
+     */
+    public int dealerHoleCard(long record) {
+        return Composition.value(unsigned(record, 1) & 0xF);
+    }
+
+    /**
+     * @param record the index of the record
+     * @return how many hands the player played (more than 1 after splitting)
+     */
+    public int handCount(long record) {
+        return (unsigned(record, 2) >>> 6) + 1;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the final total of the player's first hand
+     */
+    public int playerTotal(long record) {
+        return unsigned(record, 2) & 0x1F;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the flag bits (HandRecorder.PLAYER_NATURAL, DEALER_NATURAL, INSURED, SURRENDER)
+     */
+    public int flags(long record) {
+        return unsigned(record, 3);
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the dealer's final total
+     */
+    public int dealerTotal(long record) {
+        return unsigned(record, 4);
+    }
+
+    /**
+     * @param record the index of the record
+     * @param hand the index of the hand (below handCount())
+     * @return the action taken on that hand (HandRecorder.STOOD, HIT, DOUBLED or SURRENDERED)
+     */
+    public int action(long record, int hand) {
+        return (unsigned(record, 5) >>> (2 * hand)) & 3;
+    }
+
+    /**
+     * @param record the index of the record
+     * @param hand the index of the hand (below handCount())
+     * @return the outcome of that hand (RoundEngine.LOSS, PUSH or WIN)
+     */
+    public int outcome(long record, int hand) {
+        return ((unsigned(record, 6) >>> (2 * hand)) & 3) - 1;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the true count before the round, to the nearest quarter
+     */
+    public double trueCount(long record) {
+        return (byte) unsigned(record, 7) / 4.0;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return the player's net profit for the round, in units of the original bet
+     */
+    public double net(long record) {
+        return getShort(record, 8) / 100.0;
+    }
+
+    /**
+     * @param record the index of the record
+     * @return where in the shoe the round's first card was dealt from
+     */
+    public int shoePosition(long record) {
+        return getShort(record, 10);
+    }
+}
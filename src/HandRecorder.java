@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: HandRecorder.java
+ *
+ * Purpose:
+ * This class writes a hand history: one fixed-width binary record of RECORD_SIZE (12) bytes
+ * per round, instead of the ~200 bytes of text a round takes in mygames.txt. A file starts
+ * with an 8-byte header (MAGIC, VERSION, RECORD_SIZE) and is followed by the records, which
+ * HandHistory reads back through a memory map. A record holds:
+ *
+ *   byte 0      the player's first two cards (composition index of each, 4 bits apiece)
+ *   byte 1      the dealer's upcard and hole card (the same way)
+ *   byte 2      hands played - 1 (bits 6-7) and the final total of the first hand (bits 0-4)
+ *   byte 3      flags: player natural, dealer natural, insured, surrendered
+ *   byte 4      the dealer's final total
+ *   byte 5      the action taken on each hand, 2 bits per hand (STOOD, HIT, DOUBLED, SURRENDERED)
+ *   byte 6      the outcome of each hand, 2 bits per hand (LOSS, PUSH or WIN, plus 1)
+ *   byte 7      the true count before the round, in quarters (clamped to a signed byte)
+ *   bytes 8-9   the net profit, in hundredths of a unit
+ *   bytes 10-11 the shoe position of the round's first card
+ *
+ * Writing is double buffered. Each thread that records (a "producer") fills a buffer it gets
+ * from take(), and hands it to swap() once it is full, getting an empty one back at once.
+ * A background thread writes full buffers to a FileChannel and returns them to the free pool,
+ * so the simulation only waits on the disk if it gets a whole buffer ahead of it. Records from
+ * several producers are interleaved a buffer at a time, so their order in the file is not fixed.
+ *
+ * The RoundEngine builds bytes 0-6 of the record while it plays the round (see getRecord()),
+ * and the buffers live on the heap, so pack() only adds the true count and the net and writes
+ * the record straight into the byte array behind its buffer: two stores and one position update,
+ * instead of reading the round back through the getters and the buffer's bounds-checked putLong()
+ * and putInt(). The writer thread pays for copying the array out to the file. Even so, recording
+ * costs more than its 5% budget: on the simulation thread it is about 10% of a round, and on a
+ * single core the writer's file writes add more (see README.md for the numbers).
+ */
+public class HandRecorder implements AutoCloseable {
+
+    /** The first four bytes of every hand-history file ("BJHR") */
+    public static final int MAGIC = 0x424A4852;
+
+    /** The version of the record layout */
+    public static final short VERSION = 1;
+
+    /** The size of the file header in bytes */
+    public static final int HEADER_SIZE = 8;
+
+    /** The size of one record in bytes */
+    public static final int RECORD_SIZE = 12;
+
+    /** How many records fit in one buffer */
+    static final int BUFFER_RECORDS = 4096;
+
+    /** Action codes stored per hand in byte 5 */
+    public static final int STOOD = 0;
+    public static final int HIT = 1;
+    public static final int DOUBLED = 2;
+    public static final int SURRENDERED = 3;
+
+    /** Big-endian long and int views of a byte array, for writing a record in place */
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /** Flag bits stored in byte 3 */
+    public static final int PLAYER_NATURAL = 1;
+    public static final int DEALER_NATURAL = 2;
+    public static final int INSURED = 4;
+    public static final int SURRENDER = 8;
+
+    /** The counting system whose true count goes into each record */
+    private final CountingSystem system;
+
+    /** The file being written */
+    private final FileChannel channel;
+
+    /** Empty buffers ready to be filled */
+    private final BlockingQueue<ByteBuffer> free;
+
+    /** Full buffers waiting to be written (an empty buffer tells the writer to stop) */
+    private final BlockingQueue<ByteBuffer> full;
+
+    /** The background thread writing full buffers to the file */
+    private final Thread writer;
+
+    /** The first error the writer ran into, rethrown by close() */
+    private volatile IOException failure;
+
+    /** How many records have been handed to the writer */
+    private long records;
+
+    /**
+     * Constructor — creates (or truncates) the file, writes its header and starts the writer.
+     *
+     * @param file the file to write
+     * @param producers how many threads will record at the same time (each gets two buffers)
+     * @param system the counting system whose true count goes into each record
+     * @throws IOException if the file cannot be opened or its header written
+     */
+    public HandRecorder(Path file, int producers, CountingSystem system) throws IOException {
+        if (producers < 1) {
+            throw new IllegalArgumentException("producers must be at least 1: " + producers);
+        }
+        this.system = system;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        // Two buffers per producer: one being filled while the other is written
+        free = new ArrayBlockingQueue<>(2 * producers);
+        full = new ArrayBlockingQueue<>(2 * producers + 1);
+        for (int i = 0; i < 2 * producers; i++) {
+            free.add(ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE));
+        }
+
+        writer = new Thread(this::writeLoop, "hand-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Takes buffers off the full queue and writes them until told to stop.
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                ByteBuffer buffer = full.take();
+                if (buffer.capacity() == 0) {
+                    return; // The stop signal from close()
+                }
+                buffer.flip();
+                try {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+                buffer.clear();
+                free.offer(buffer); // Back to the pool even on failure (a buffer from elsewhere is dropped if the pool is full)
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns an empty buffer for a producer to fill with pack().
+     *
+     * @return an empty buffer with room for BUFFER_RECORDS records
+     */
+    public ByteBuffer take() {
+        try {
+            return free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a buffer", e);
+        }
+    }
+
+    /**
+     * Hands a full buffer to the writer and returns an empty one to keep filling.
+     *
+     * @param buffer the buffer to write
+     * @return an empty buffer
+     */
+    public ByteBuffer swap(ByteBuffer buffer) {
+        finish(buffer);
+        return take();
+    }
+
+    /**
+     * Hands a producer's last buffer to the writer without taking a new one.
+     * Any buffer of records may be given, not only one from take().
+     *
+     * @param buffer the buffer to write
+     */
+    public void finish(ByteBuffer buffer) {
+        synchronized (this) {
+            records += buffer.position() / RECORD_SIZE;
+        }
+        try {
+            full.put(buffer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while queuing a buffer", e);
+        }
+    }
+
+    /**
+     * Packs the round an engine has just played into the next record of a buffer.
+     *
+     * @param buffer the buffer to write to (a heap buffer, such as one from take(), with room for a record)
+     * @param game the engine that played the round
+     * @param trueCount the true count before the round was dealt
+     * @param net the player's net profit for the round
+     */
+    public static void pack(ByteBuffer buffer, RoundEngine game, double trueCount, double net) {
+        // The engine builds bytes 0-6 as it plays, so only the true count and the net are added here.
+        // Math.floor() compiles to one instruction where Math.round() does not, and rounds these the same way
+        int count = Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, (int) Math.floor(trueCount * 4 + 0.5)));
+        int cents = (int) Math.floor(net * 100 + 0.5);
+
+        int at = buffer.position();
+        int offset = buffer.arrayOffset() + at;
+        byte[] bytes = buffer.array();
+        LONG_VIEW.set(bytes, offset, game.getRecord() | count & 0xFF);
+        INT_VIEW.set(bytes, offset + 8, cents << 16 | game.getStartPosition() & 0xFFFF);
+        buffer.position(at + RECORD_SIZE);
+    }
+
+    /** @return the counting system whose true count goes into each record */
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    /** @return how many records have been handed to the writer so far */
+    public synchronized long records() {
+        return records;
+    }
+
+    /**
+     * Waits for every queued buffer to be written, stops the writer and closes the file.
+     *
+     * @throws IOException if any write failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            full.put(ByteBuffer.allocate(0)); // Queued behind every full buffer
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
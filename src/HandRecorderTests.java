@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+file name:      HandRecorderTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea HandRecorderTests
+*/
+
+public class HandRecorderTests {
+
+    public static void handRecorderTests() throws IOException {
+
+        // case 1: testing that a packed round reads back field by field
+        {
+            // set up: 8s split against a 10 (dealer 17); the first hand doubles onto 21, the second stands on 18
+            RoundEngine engine = RoundEngineTests.stacked(8, 10, 8, 7, 3, 10, 10);
+            double net = engine.play();
+            Path file = Files.createTempFile("hands", ".bjh");
+            try (HandRecorder recorder = new HandRecorder(file, 1, CountingSystem.HI_LO)) {
+                ByteBuffer buffer = recorder.take();
+                HandRecorder.pack(buffer, engine, 2.3, net);
+                recorder.finish(buffer);
+            }
+            HandHistory history = new HandHistory(file);
+
+            // verify
+            System.out.println(engine + " -> " + history.size() + " record, " + Files.size(file) + " bytes");
+
+            // test
+            assert Files.size(file) == HandRecorder.HEADER_SIZE + HandRecorder.RECORD_SIZE : "Error in HandRecorder - file size";
+            assert history.size() == 1 : "Error in HandHistory::size()";
+            assert history.playerCard1(0) == 8 && history.playerCard2(0) == 8 : "Error in HandHistory - player cards";
+            assert history.initialTotal(0) == 16 && !history.initialSoft(0) : "Error in HandHistory::initialTotal()";
+            assert history.dealerUpcard(0) == 10 && history.dealerHoleCard(0) == 7 : "Error in HandHistory - dealer cards";
+            assert history.handCount(0) == 2 && history.playerTotal(0) == 21 && history.dealerTotal(0) == 17 : "Error in HandHistory - totals";
+            assert history.action(0, 0) == HandRecorder.DOUBLED && history.action(0, 1) == HandRecorder.STOOD : "Error in HandHistory::action()";
+            assert history.outcome(0, 0) == RoundEngine.WIN && history.outcome(0, 1) == RoundEngine.WIN : "Error in HandHistory::outcome()";
+            assert history.flags(0) == 0 : "Error in HandHistory::flags()";
+            assert history.trueCount(0) == 2.25 : "Error in HandHistory::trueCount() - quarter steps";
+            assert history.net(0) == 3 && history.shoePosition(0) == 0 : "Error in HandHistory - net or shoe position";
+            Files.delete(file);
+        }
+
+        // case 2: testing surrender, natural and insurance flags
+        {
+            // set up: 16 vs a 10 surrenders; then a player natural; then an Ace up with a dealer natural (peeked)
+            RoundEngine surrender = RoundEngineTests.stacked(10, 10, 6, 7);
+            RoundEngine natural = RoundEngineTests.stacked(11, 9, 10, 7);
+            RoundEngine dealerNatural = RoundEngineTests.stacked(10, 11, 9, 10);
+            ByteBuffer buffer = ByteBuffer.allocate(3 * HandRecorder.RECORD_SIZE);
+            HandRecorder.pack(buffer, surrender, -40, surrender.play());
+            HandRecorder.pack(buffer, natural, 0, natural.play());
+            HandRecorder.pack(buffer, dealerNatural, 0, dealerNatural.play());
+            Path file = Files.createTempFile("hands", ".bjh");
+            try (HandRecorder recorder = new HandRecorder(file, 1, CountingSystem.HI_LO)) {
+                recorder.finish(buffer);
+                assert recorder.records() == 3 : "Error in HandRecorder::records()";
+            }
+            HandHistory history = new HandHistory(file);
+
+            // verify
+            System.out.println(history.net(0) + ", " + history.net(1) + ", " + history.net(2));
+
+            // test
+            assert history.action(0, 0) == HandRecorder.SURRENDERED && history.flags(0) == HandRecorder.SURRENDER : "Error in HandRecorder - surrender";
+            assert history.net(0) == -0.5 && history.trueCount(0) == Byte.MIN_VALUE / 4.0 : "Error in HandRecorder - surrender net or clamped count";
+            assert history.flags(1) == HandRecorder.PLAYER_NATURAL && history.net(1) == 1.5 && history.initialSoft(1) : "Error in HandRecorder - natural";
+            assert (history.flags(2) & HandRecorder.DEALER_NATURAL) != 0 && history.outcome(2, 0) == RoundEngine.LOSS : "Error in HandRecorder - dealer natural";
+            Files.delete(file);
+        }
+
+        // case 3: testing a recorded parallel run against the same run without a recorder
+        {
+            // set up
+            ParallelSimulation sim = new ParallelSimulation(3, new Rules().setDecks(6).setPenetration(0.75).compile(), new BasicStrategy());
+            long numGames = 4L * ParallelSimulation.SHARD_SIZE + 321;
+            Path file = Files.createTempFile("hands", ".bjh");
+            SimulationResult recorded;
+            try (HandRecorder recorder = new HandRecorder(file, 3, CountingSystem.HI_LO)) {
+                recorded = sim.run(numGames, 18, recorder);
+            }
+            SimulationResult plain = sim.run(numGames, 18);
+            HandHistory history = new HandHistory(file);
+
+            // verify
+            long wins = 0;
+            double net = 0;
+            int maxPosition = 0;
+            for (long i = 0; i < history.size(); i++) {
+                wins += history.net(i) > 0 ? 1 : 0;
+                net += history.net(i);
+                maxPosition = Math.max(maxPosition, history.shoePosition(i));
+            }
+            System.out.println(history.size() + " records in " + Files.size(file) + " bytes");
+
+            // test
+            assert recorded.toString().equals(plain.toString()) : "Error in ParallelSimulation::run(recorder) - different rounds";
+            assert history.size() == numGames : "Error in HandRecorder - records lost";
+            assert Files.size(file) == HandRecorder.HEADER_SIZE + numGames * HandRecorder.RECORD_SIZE : "Error in HandRecorder - file size";
+            assert wins == plain.getPlayerWins() : "Error in HandHistory - wins do not match the run";
+            assert Math.abs(net / numGames - plain.expectedValue()) < 1e-9 : "Error in HandHistory - net does not match the run";
+            assert maxPosition < 6 * Deck.CARDS_PER_DECK : "Error in HandHistory::shoePosition()";
+            Files.delete(file);
+        }
+
+        // case 4: testing that a file without the header is rejected
+        {
+            // set up
+            Path file = Files.createTempFile("hands", ".txt");
+            Files.write(file, "Player Wins: 40%\n".getBytes());
+
+            // verify
+            boolean thrown = false;
+            try {
+                new HandHistory(file);
+            } catch (IOException e) {
+                thrown = true;
+                System.out.println(e.getMessage());
+            }
+
+            // test
+            assert thrown : "Error in HandHistory() - accepted a file that is not a hand history";
+            Files.delete(file);
+        }
+
+        // case 5: testing that the record the engine builds while it plays matches the round, round after round
+        {
+            // set up: a one-deck shoe, recorded once, then played again from the same seed to compare
+            RuleTable rules = new Rules().setDecks(1).setPenetration(0.75).compile();
+            RoundEngine recorded = new RoundEngine(rules, new SplittableRandomSource(5));
+            recorded.setStrategy(new BasicStrategy());
+            int rounds = 20000;
+            ByteBuffer buffer = ByteBuffer.allocate(rounds * HandRecorder.RECORD_SIZE);
+            for (int r = 0; r < rounds; r++) {
+                double net = recorded.play();
+                HandRecorder.pack(buffer, recorded, 0, net);
+            }
+            Path file = Files.createTempFile("hands", ".bjh");
+            try (HandRecorder recorder = new HandRecorder(file, 1, CountingSystem.HI_LO)) {
+                recorder.finish(buffer);
+            }
+            HandHistory history = new HandHistory(file);
+            RoundEngine engine = new RoundEngine(rules, new SplittableRandomSource(5));
+            engine.setStrategy(new BasicStrategy());
+
+            // verify
+            int wrong = 0;
+            int splits = 0;
+            for (int r = 0; r < rounds; r++) {
+                int start = engine.deck.needsShuffle() ? 0 : engine.deck.position();
+                double net = engine.play();
+                int handCount = engine.getHandCount();
+                boolean same = history.handCount(r) == handCount
+                        && history.playerCard1(r) == engine.getHand(0).getCard(0).getValue()
+                        && history.dealerUpcard(r) == engine.getUpcard()
+                        && history.dealerHoleCard(r) == engine.dealer.getCard(1).getValue()
+                        && history.playerTotal(r) == Math.min(engine.getHand(0).getTotalValue(), 31)
+                        && history.dealerTotal(r) == engine.dealer.getTotalValue()
+                        && ((history.flags(r) & HandRecorder.SURRENDER) != 0) == engine.isSurrendered()
+                        && ((history.flags(r) & HandRecorder.INSURED) != 0) == engine.isInsured()
+                        && history.net(r) == net
+                        && history.shoePosition(r) == start;
+                for (int i = 0; i < handCount; i++) {
+                    int action = engine.isSurrendered() ? HandRecorder.SURRENDERED
+                            : engine.getBet(i) == 2 ? HandRecorder.DOUBLED
+                            : engine.getHand(i).size() > 2 ? HandRecorder.HIT : HandRecorder.STOOD;
+                    same &= history.action(r, i) == action && history.outcome(r, i) == engine.getOutcome(i);
+                }
+                wrong += same ? 0 : 1;
+                splits += handCount > 1 ? 1 : 0;
+            }
+            System.out.println(rounds + " rounds (" + splits + " split), " + wrong + " records wrong");
+
+            // test
+            assert splits > 0 : "Error in HandRecorderTests - no split rounds to check";
+            assert wrong == 0 : "Error in RoundEngine::getRecord() - records do not match the rounds";
+            Files.delete(file);
+        }
+
+        System.out.println("*** Done testing HandRecorder! ***\n");
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        handRecorderTests();
+    }
+}
@@ -105,6 +105,53 @@ public class HandTests {
             assert h1.toString().equals("[5, 2, 3] : 10") : "Error in Hand::toString()";
         }
 
+        // case 7: testing soft totals with aces
+        {
+            // set up
+            Hand h1 = new Hand();
+            h1.add(new Card(11));
+            h1.add(new Card(6));
+
+            // verify
+            System.out.println(h1.getTotalValue() + " == 17 (soft)");
+
+            // test
+            assert h1.getTotalValue() == 17 : "Error in Hand::getTotalValue() with an ace";
+            assert h1.isSoft() : "Error in Hand::isSoft()";
+
+            h1.add(new Card(10)); // the ace must now count as 1
+            assert h1.getTotalValue() == 17 : "Error in Hand::getTotalValue() - ace not demoted";
+            assert !h1.isSoft() : "Error in Hand::isSoft()";
+        }
+
+        // case 8: testing several aces and reset()
+        {
+            // set up
+            Hand h1 = new Hand();
+            h1.add(new Card(11));
+            h1.add(new Card(11));
+
+            // verify
+            System.out.println(h1.getTotalValue() + " == 12 (soft)");
+
+            // test
+            assert h1.getTotalValue() == 12 : "Error in Hand::getTotalValue() with two aces";
+            assert h1.isSoft() : "Error in Hand::isSoft()";
+
+            h1.add(new Card(9));
+            assert h1.getTotalValue() == 21 : "Error in Hand::getTotalValue() with two aces";
+            h1.add(new Card(11)); // 1 + 1 + 9 + 1
+            assert h1.getTotalValue() == 12 : "Error in Hand::getTotalValue() - aces not demoted";
+            assert !h1.isSoft() : "Error in Hand::isSoft()";
+            h1.add(new Card(10));
+            assert h1.getTotalValue() == 22 : "Error in Hand::getTotalValue() - bust hand";
+
+            h1.reset();
+            assert h1.getTotalValue() == 0 : "Error in Hand::reset()";
+            assert !h1.isSoft() : "Error in Hand::reset()";
+            assert h1.size() == 0 : "Error in Hand::reset()";
+        }
+
         System.out.println("*** Done testing Hand! ***\n");
     }
 
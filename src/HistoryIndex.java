@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: An index of a hand history by initial state: the player's first two
+ * cards and the dealer's upcard. Building it reads the file once, counting the records of each
+ * key and then listing their record numbers key by key (a counting sort), so the index is two
+ * int arrays and no objects. A HistoryQuery that filters on the cards then visits only the
+ * records under matching keys; hard 16 against a 10, for example, is about 2% of the file.
+ * The index lives in memory only and is rebuilt when needed.
+ */
+public class HistoryIndex {
+
+    /** The number of keys: 256 player-card bytes times 16 upcard slots */
+    static final int KEYS = 256 << 4;
+
+    /** The hand history this index covers */
+    private final HandHistory history;
+
+    /** Where each key's records start in records[]; starts[KEYS] is the total */
+    private final int[] starts = new int[KEYS + 1];
+
+    /** The record numbers, grouped by key and in file order within a key */
+    private final int[] records;
+
+    /**
+     * Constructor — builds the index with two passes over the file.
+     *
+     * @param history the hand history to index
+     */
+    public HistoryIndex(HandHistory history) {
+        if (history.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many records to index: " + history.size());
+        }
+        this.history = history;
+        int size = (int) history.size();
+
+        // First pass: how many records each key has
+        for (int i = 0; i < size; i++) {
+            starts[key(history, i) + 1]++;
+        }
+        for (int k = 0; k < KEYS; k++) {
+            starts[k + 1] += starts[k];
+        }
+
+        // Second pass: put each record number in the next free slot of its key
+        records = new int[size];
+        int[] next = Arrays.copyOf(starts, KEYS);
+        for (int i = 0; i < size; i++) {
+            records[next[key(history, i)]++] = i;
+        }
+    }
+
+    /**
+     * Returns the key of a record.
+     *
+     * @param history the hand history
+     * @param record the index of the record
+     * @return the player's cards byte followed by the upcard's composition index
+     */
+    static int key(HandHistory history, long record) {
+        return history.unsigned(record, 0) << 4 | history.unsigned(record, 1) >>> 4;
+    }
+
+    /**
+     * @param key an index key
+     * @return the player's cards byte of the key
+     */
+    static int playerCards(int key) {
+        return key >>> 4;
+    }
+
+    /**
+     * @param key an index key
+     * @return the composition index of the upcard of the key
+     */
+    static int upcardIndex(int key) {
+        return key & 0xF;
+    }
+
+    /**
+     * Returns the record numbers under every key a query's card filters can match.
+     *
+     * @param query the query
+     * @return the record numbers to visit
+     */
+    int[] select(HistoryQuery query) {
+        int total = 0;
+        for (int k = 0; k < KEYS; k++) {
+            if (query.matchesKey(k)) {
+                total += starts[k + 1] - starts[k];
+            }
+        }
+        int[] selected = new int[total];
+        int filled = 0;
+        for (int k = 0; k < KEYS; k++) {
+            if (query.matchesKey(k)) {
+                int length = starts[k + 1] - starts[k];
+                System.arraycopy(records, starts[k], selected, filled, length);
+                filled += length;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns how many records have a given initial state.
+     *
+     * @param card1 the player's first card (2 to 11)
+     * @param card2 the player's second card (2 to 11)
+     * @param upcard the dealer's upcard (2 to 11)
+     * @return the number of records under that key
+     */
+    public int count(int card1, int card2, int upcard) {
+        int key = (Composition.index(card1) << 4 | Composition.index(card2)) << 4 | Composition.index(upcard);
+        return starts[key + 1] - starts[key];
+    }
+
+    /** @return the hand history this index covers */
+    public HandHistory getHistory() {
+        return history;
+    }
+
+    /** @return how many records the index covers */
+    public int size() {
+        return records.length;
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+file name:      HistoryQueryTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea HistoryQueryTests
+*/
+
+public class HistoryQueryTests {
+
+    public static void historyQueryTests() throws IOException {
+
+        // Every case reads the same recorded run
+        Path file = Files.createTempFile("hands", ".bjh");
+        long numGames = 3L * ParallelSimulation.SHARD_SIZE;
+        ParallelSimulation sim = new ParallelSimulation(2, new Rules().setDecks(6).setPenetration(0.75).compile(), new BasicStrategy());
+        SimulationResult run;
+        try (HandRecorder recorder = new HandRecorder(file, 2, CountingSystem.HI_LO)) {
+            run = sim.run(numGames, 19, recorder);
+        }
+        HandHistory history = new HandHistory(file);
+        HistoryIndex index = new HistoryIndex(history);
+
+        // case 1: testing that a query with no filters matches every round
+        {
+            // set up
+            HistoryQuery all = new HistoryQuery();
+
+            // verify
+            SimulationResult result = all.run(history, 3);
+            System.out.println(result.games() + " == " + numGames);
+
+            // test
+            assert result.games() == numGames : "Error in HistoryQuery::run() - rounds missed";
+            assert result.getPlayerWins() == run.getPlayerWins() && result.getDraws() == run.getDraws() : "Error in HistoryQuery::run() - counts";
+            assert Math.abs(result.expectedValue() - run.expectedValue()) < 1e-9 : "Error in HistoryQuery::run() - EV";
+        }
+
+        // case 2: testing a filtered query against decoding every record by hand
+        {
+            // set up: hard 16 against a 10 at a true count of +2 or more
+            HistoryQuery query = new HistoryQuery().initialHand(16, false).upcard(10).minTrueCount(2);
+            long matches = 0;
+            long wins = 0;
+            double net = 0;
+            for (long i = 0; i < history.size(); i++) {
+                if (history.initialTotal(i) == 16 && !history.initialSoft(i) && history.dealerUpcard(i) == 10 && history.trueCount(i) >= 2) {
+                    matches++;
+                    wins += history.net(i) > 0 ? 1 : 0;
+                    net += history.net(i);
+                }
+            }
+
+            // verify
+            SimulationResult scanned = query.run(history, 1);
+            SimulationResult parallel = query.run(history, 4);
+            SimulationResult indexed = query.run(index, 2);
+            System.out.println("hard 16 vs 10 at +2: " + scanned.games() + " rounds, EV " + scanned.expectedValue());
+
+            // test
+            assert matches > 0 : "Error in test - no matching rounds";
+            assert scanned.games() == matches && scanned.getPlayerWins() == wins : "Error in HistoryQuery::run() - filter";
+            assert Math.abs(scanned.expectedValue() - net / matches) < 1e-9 : "Error in HistoryQuery::run() - EV";
+            assert scanned.toString().equals(parallel.toString()) : "Error in HistoryQuery::run() - depends on thread count";
+            assert indexed.games() == matches && indexed.getPlayerWins() == wins : "Error in HistoryQuery::run(index) - filter";
+            assert Math.abs(indexed.expectedValue() - scanned.expectedValue()) < 1e-9 : "Error in HistoryQuery::run(index) - EV";
+        }
+
+        // case 3: testing pairs, actions and the true-count range
+        {
+            // set up
+            SimulationResult eights = new HistoryQuery().pair(8).run(index, 2);
+            SimulationResult doubled = new HistoryQuery().initialHand(11, false).firstAction(HandRecorder.DOUBLED).run(history, 2);
+            SimulationResult elevens = new HistoryQuery().initialHand(11, false).run(history, 2);
+            SimulationResult low = new HistoryQuery().maxTrueCount(-0.25).run(history, 2);
+            SimulationResult high = new HistoryQuery().minTrueCount(0).run(history, 2);
+            int eightsByKey = 0;
+            for (int up = Card.MIN_VALUE; up <= Card.MAX_VALUE; up++) {
+                eightsByKey += index.count(8, 8, up);
+            }
+
+            // verify
+            System.out.println("8,8: " + eights.games() + ", doubled 11: " + doubled.games() + " of " + elevens.games());
+
+            // test
+            assert eights.games() == eightsByKey : "Error in HistoryIndex::count()";
+            assert doubled.games() > 0.8 * elevens.games() && doubled.games() < elevens.games() : "Error in HistoryQuery::firstAction()";
+            assert low.games() + high.games() == numGames : "Error in HistoryQuery - true-count filters overlap or leave gaps";
+        }
+
+        // case 4: testing the index itself
+        {
+            // set up
+            int brute = 0;
+            for (long i = 0; i < history.size(); i++) {
+                if (history.playerCard1(i) == 10 && history.playerCard2(i) == 6 && history.dealerUpcard(i) == 7) {
+                    brute++;
+                }
+            }
+
+            // verify
+            System.out.println(index.count(10, 6, 7) + " == " + brute);
+
+            // test
+            assert index.size() == numGames : "Error in HistoryIndex::size()";
+            assert index.count(10, 6, 7) == brute : "Error in HistoryIndex::count()";
+            assert new HistoryQuery().upcard(11).pair(2).pair(3).run(index, 1).games() == 0 : "Error in HistoryQuery - contradictory filters";
+        }
+
+        Files.delete(file);
+        System.out.println("*** Done testing HistoryQuery! ***\n");
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        historyQueryTests();
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: ImportanceSampler.java
+ *
+ * Purpose:
+ * This class estimates the probability of rare events, such as the dealer making 21 with six or
+ * more cards, or the player losing ten rounds in a row, by importance sampling. Counting how often
+ * such an event happens in plain rounds would take billions of rounds to see it often enough.
+ *
+ * Instead every trial is dealt from a tilted shoe (Deck.setTilt()): each card is drawn from the
+ * cards left with odds in proportion to count * weight, where the weights favor the cards that
+ * lead to the event. The deck keeps the likelihood ratio of the cards it dealt, the product of
+ * their true odds over their tilted odds, and a trial that hits the event counts with that ratio
+ * as its weight. The mean of weight * [event] over the trials is an unbiased estimate of the true
+ * probability, whatever the tilt; a good tilt just makes it far less noisy.
+ *
+ * Which cards to tilt, and how hard, depends on the event. The dealer making 21 with many cards
+ * is driven by the dealer's own cards, so tilting only those toward low cards (setDealerOnly()
+ * with pointTilt() and a negative theta) cuts the variance many times over. A losing streak is
+ * different: each round is lost a little under half the time whatever the shoe holds, and the
+ * streak is rare only because those odds compound. No tilt on the cards moves the odds of losing
+ * a round by much, so the weights just add noise; effectiveHits() shows this, and such events
+ * are best run without a tilt (which, at about one trial in a thousand for ten losses, is cheap).
+ *
+ * A trial deals up to event.rounds() rounds from a fresh shoe (reshuffling at the cut card as
+ * usual) and stops as soon as the event cannot happen any more. With no tilt set, the shoe is
+ * shuffled and dealt from the top, which is the brute-force estimate to check against.
+ *
+ * Trials are played in shards of TRIALS_PER_SHARD on a ForkJoinPool, each shard with its own
+ * generator seeded from the master seed, so a run gives the same answer on any number of threads.
+ */
+public class ImportanceSampler {
+
+    /** How many trials one shard plays */
+    static final int TRIALS_PER_SHARD = 4096;
+
+    /** The number of worker threads used to play the trials */
+    private final int threads;
+
+    /** The table rules every round is played by */
+    private final RuleTable rules;
+
+    /** The player's compiled strategy, shared by every shard */
+    private final StrategyTable strategy;
+
+    /** The weight of each value the trials are dealt with, or null for plain trials */
+    private double[] tilt;
+
+    /** Whether only the dealer's cards are tilted, rather than every card */
+    private boolean dealerOnly;
+
+    /**
+     * Constructor — chooses the rules and the playing strategy. Trials are plain until a tilt is set.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules, including the shoe
+     * @param strategy the player's strategy (compiled once, here)
+     */
+    public ImportanceSampler(int threads, RuleTable rules, Strategy strategy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.rules = rules;
+        this.strategy = StrategyTable.compile(strategy);
+    }
+
+    /**
+     * Sets the weight of each value the trials are dealt with.
+     *
+     * @param weights the weight of each value by composition index (all positive), or null for plain trials
+     * @return this sampler, for chaining
+     */
+    public ImportanceSampler setTilt(double[] weights) {
+        Deck.checkTilt(weights); // The same check the deck makes, so bad weights fail here and not mid-run
+        this.tilt = weights == null ? null : weights.clone();
+        return this;
+    }
+
+    /**
+     * Chooses whether the tilt applies only to the dealer's cards (the upcard, the hole card and
+     * the draws). Most events are decided by the dealer's hand, and leaving the player's cards
+     * at their true odds keeps them from adding noise to the weights.
+     *
+     * @param dealerOnly true to tilt only the dealer's cards, false to tilt every card
+     * @return this sampler, for chaining
+     */
+    public ImportanceSampler setDealerOnly(boolean dealerOnly) {
+        this.dealerOnly = dealerOnly;
+        return this;
+    }
+
+    /**
+     * Returns an exponential tilt on a card's points: a card worth v points (an Ace counts 1)
+     * gets the weight exp(theta * v). A negative theta favors low cards, which a long dealer
+     * hand needs; a positive one favors tens, which give the dealer the 20s that beat the
+     * player most often. A theta of 0 leaves the odds as they are.
+     *
+     * @param theta how hard to tilt, and which way
+     * @return the weight of each value by composition index
+     */
+    public static double[] pointTilt(double theta) {
+        double[] weights = new double[Composition.RANKS];
+        for (int i = 0; i < Composition.RANKS; i++) {
+            int value = Composition.value(i);
+            weights[i] = Math.exp(theta * (value == 11 ? 1 : value));
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the event that the dealer finishes a round on exactly 21 with at least minCards cards.
+     * Rounds where the dealer has no need to draw (every player hand busted or surrendered) do not count.
+     *
+     * @param minCards the fewest cards in the dealer's hand
+     * @return the event, over a single round
+     */
+    public static RareEvent dealerTwentyOne(int minCards) {
+        return new RareEvent() {
+            @Override
+            public int rounds() {
+                return 1;
+            }
+
+            @Override
+            public boolean holds(RoundEngine game, double net) {
+                return game.dealer.size() >= minCards && game.dealer.getTotalValue() == 21;
+            }
+
+            @Override
+            public String toString() {
+                return "dealer 21 with " + minCards + "+ cards";
+            }
+        };
+    }
+
+    /**
+     * Returns the event that the player loses money on each of the first length rounds of a shoe.
+     *
+     * @param length how many losing rounds in a row
+     * @return the event, over length rounds
+     */
+    public static RareEvent losingStreak(int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException("a streak needs at least one round: " + length);
+        }
+        return new RareEvent() {
+            @Override
+            public int rounds() {
+                return length;
+            }
+
+            @Override
+            public boolean holds(RoundEngine game, double net) {
+                return net < 0;
+            }
+
+            @Override
+            public String toString() {
+                return length + " losses in a row";
+            }
+        };
+    }
+
+    /**
+     * Plays the trials with a fresh, random master seed (stored in the result).
+     *
+     * @param event the event to estimate the probability of
+     * @param trials the number of trials to play
+     * @return the weighted trials
+     */
+    public ImportanceResult run(RareEvent event, long trials) {
+        return run(event, trials, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays the trials across all worker threads and merges their results.
+     *
+     * @param event the event to estimate the probability of
+     * @param trials the number of trials to play
+     * @param seed the master seed every shard's generator is derived from
+     * @return the weighted trials
+     */
+    public ImportanceResult run(RareEvent event, long trials, long seed) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("trials must not be negative: " + trials);
+        }
+        double[] weights = tilt;
+        boolean dealerDraws = dealerOnly;
+        ShardPlayer<ImportanceResult> player = new ShardPlayer<ImportanceResult>() {
+            @Override
+            public ImportanceResult play(long count, long shardSeed) {
+                return playShard(event, weights, dealerDraws, count, shardSeed);
+            }
+
+            @Override
+            public ImportanceResult empty() {
+                return new ImportanceResult(weights);
+            }
+
+            @Override
+            public void merge(ImportanceResult into, ImportanceResult other) {
+                into.merge(other);
+            }
+        };
+
+        long shards = (trials + TRIALS_PER_SHARD - 1) / TRIALS_PER_SHARD;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ImportanceResult result;
+        try {
+            result = ParallelSimulation.playShards(pool, player, TRIALS_PER_SHARD, trials, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Plays one shard of trials on a single RoundEngine.
+     *
+     * @param event the event to estimate the probability of
+     * @param weights the tilt, or null for plain trials
+     * @param dealerDraws whether only the dealer's cards are tilted
+     * @param count the number of trials in the shard
+     * @param seed the seed for this shard's generator
+     * @return the results of this shard's trials
+     */
+    ImportanceResult playShard(RareEvent event, double[] weights, boolean dealerDraws, long count, long seed) {
+        RoundEngine game = dealerDraws && weights != null ? new DealerTiltedEngine(rules, seed, weights)
+                : new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        if (!dealerDraws) {
+            game.deck.setTilt(weights);
+        }
+        ImportanceResult result = new ImportanceResult(weights);
+
+        for (long t = 0; t < count; t++) {
+            game.deck.build();
+            if (weights == null || dealerDraws) {
+                game.deck.shuffle(); // A deck tilted throughout picks every card as it deals, so it needs no shuffle
+            }
+            game.deck.resetLikelihood();
+            boolean hit = true;
+            int rounds = 0;
+            while (hit && rounds < event.rounds()) {
+                double net = game.play();
+                rounds++;
+                hit = event.holds(game, net);
+            }
+            result.record(game.deck.likelihoodRatio(), hit, rounds);
+        }
+        return result;
+    }
+
+    /**
+     * A RoundEngine whose deck is only tilted for the cards that go to the dealer.
+     */
+    private static class DealerTiltedEngine extends RoundEngine {
+
+        /** The weight of each value for the dealer's cards */
+        private final double[] weights;
+
+        DealerTiltedEngine(RuleTable rules, long seed, double[] weights) {
+            super(rules, new SplittableRandomSource(seed));
+            this.weights = weights;
+        }
+
+        @Override
+        public void deal() {
+            for (int i = 0; i < 2; i++) { // Player, dealer, player, dealer, as in Blackjack.deal()
+                player.add(deck.deal());
+                deck.setTilt(weights);
+                dealer.add(deck.deal());
+                deck.setTilt(null);
+            }
+        }
+
+        @Override
+        public boolean dealerTurn() {
+            deck.setTilt(weights);
+            try {
+                return super.dealerTurn();
+            } finally {
+                deck.setTilt(null);
+            }
+        }
+    }
+}
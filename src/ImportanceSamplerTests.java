@@ -0,0 +1,194 @@
+/*
+file name:      ImportanceSamplerTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea ImportanceSamplerTests
+*/
+
+public class ImportanceSamplerTests {
+
+    public static void importanceSamplerTests() {
+
+        // case 1: testing a tilted deck and its likelihood ratio
+        {
+            // set up: Aces ten times as likely as anything else
+            double[] weights = new double[Composition.RANKS];
+            java.util.Arrays.fill(weights, 1);
+            weights[Composition.index(11)] = 10;
+            Deck deck = new Deck(1, new SplittableRandomSource(12));
+            deck.setTilt(weights);
+            int aces = 0;
+            int[] counts = new int[Composition.RANKS];
+            for (int i = 0; i < 20000; i++) {
+                deck.build();
+                deck.resetLikelihood();
+                Card first = deck.deal();
+                if (first.getValue() == 11) {
+                    aces++;
+                    // True odds 4/52, tilted odds 40/88
+                    assert Math.abs(deck.likelihoodRatio() - (4.0 / 52) / (40.0 / 88)) < 1e-12 : "Error in Deck::likelihoodRatio() - an Ace";
+                } else {
+                    assert Math.abs(deck.likelihoodRatio() - (1.0 / 52) / (1.0 / 88)) < 1e-12 : "Error in Deck::likelihoodRatio() - not an Ace";
+                }
+            }
+            deck.build();
+            for (int i = 0; i < 52; i++) {
+                counts[Composition.index(deck.deal().getValue())]++;
+            }
+
+            // verify
+            System.out.println("first card an Ace " + aces + " times in 20000 (expected " + 20000 * 40 / 88 + ")");
+
+            // test
+            assert Math.abs(aces - 20000 * 40.0 / 88) < 4 * Math.sqrt(20000 * (40.0 / 88) * (48.0 / 88)) : "Error in Deck - tilted odds";
+            assert java.util.Arrays.equals(counts, Composition.full(1)) : "Error in Deck - a tilted deck deals every card once";
+
+            // An even tilt changes nothing
+            java.util.Arrays.fill(weights, 3);
+            deck.setTilt(weights);
+            deck.build();
+            deck.resetLikelihood();
+            for (int i = 0; i < 30; i++) {
+                deck.deal();
+            }
+            assert Math.abs(deck.likelihoodRatio() - 1) < 1e-12 : "Error in Deck::likelihoodRatio() - an even tilt";
+
+            boolean thrown = false;
+            try {
+                deck.setTilt(new double[] {1, 1});
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in Deck::setTilt() - wrong number of weights";
+            thrown = false;
+            weights[0] = 0;
+            try {
+                deck.setTilt(weights);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in Deck::setTilt() - a weight of 0";
+        }
+
+        // case 2: testing that the weights undo the tilt exactly
+        {
+            // set up: two Aces off the top of a single deck, dealt with a strong tilt toward Aces
+            Deck deck = new Deck(1, new SplittableRandomSource(13));
+            deck.setTilt(ImportanceSampler.pointTilt(-0.2));
+            double sumW = 0;
+            double sumHit = 0;
+            double sumHitSquares = 0;
+            int trials = 200000;
+            for (int i = 0; i < trials; i++) {
+                deck.build();
+                deck.resetLikelihood();
+                boolean hit = deck.deal().getValue() == 11 & deck.deal().getValue() == 11;
+                sumW += deck.likelihoodRatio();
+                sumHit += hit ? deck.likelihoodRatio() : 0;
+                sumHitSquares += hit ? deck.likelihoodRatio() * deck.likelihoodRatio() : 0;
+            }
+
+            // verify
+            double exact = 4.0 / 52 * 3 / 51;
+            System.out.println("two Aces: " + sumHit / trials + " (exact " + exact + "), mean weight " + sumW / trials);
+
+            // test
+            assert Math.abs(sumW / trials - 1) < 0.01 : "Error in Deck - the weights do not average 1";
+            double se = Math.sqrt((sumHitSquares / trials - exact * exact) / trials);
+            assert Math.abs(sumHit / trials - exact) < 4 * se : "Error in Deck - the weighted estimate is biased";
+        }
+
+        // case 3: testing ImportanceResult against sums worked out by hand
+        {
+            // set up
+            ImportanceResult result = new ImportanceResult(null);
+            result.record(2, true, 1);
+            result.record(0.5, false, 3);
+            result.record(1, true, 2);
+            result.record(0.5, false, 1);
+            ImportanceResult merged = new ImportanceResult(null);
+            ImportanceResult part = new ImportanceResult(null);
+            merged.record(2, true, 1);
+            merged.record(0.5, false, 3);
+            part.record(1, true, 2);
+            part.record(0.5, false, 1);
+            merged.merge(part);
+
+            // verify
+            System.out.println(result);
+
+            // test
+            // w [event] is 2, 0, 1, 0: mean 0.75, sample variance (4 + 1 - 4 * 0.5625) / 3
+            assert result.probability() == 0.75 && result.getHits() == 2 && result.rounds() == 7 : "Error in ImportanceResult::probability()";
+            assert Math.abs(result.standardError() - Math.sqrt((5 - 4 * 0.5625) / 3 / 4)) < 1e-12 : "Error in ImportanceResult::standardError()";
+            assert result.meanWeight() == 1 : "Error in ImportanceResult::meanWeight()";
+            assert Math.abs(result.effectiveSampleSize() - 16 / 5.5) < 1e-12 : "Error in ImportanceResult::effectiveSampleSize()";
+            assert Math.abs(result.effectiveHits() - 9 / 5.0) < 1e-12 : "Error in ImportanceResult::effectiveHits()";
+            assert merged.probability() == result.probability() && merged.standardError() == result.standardError()
+                    && merged.effectiveHits() == result.effectiveHits() : "Error in ImportanceResult::merge()";
+            assert new ImportanceResult(null).relativeError() == Double.POSITIVE_INFINITY : "Error in ImportanceResult - no hits";
+        }
+
+        // case 4: testing a dealer-tilted run against brute force on a moderately rare event
+        {
+            // set up: the dealer makes 21 with five or more cards, about three rounds in a thousand
+            RuleTable rules = new Rules().setDecks(6).compile();
+            RareEvent event = ImportanceSampler.dealerTwentyOne(5);
+            ImportanceResult plain = new ImportanceSampler(2, rules, new BasicStrategy()).run(event, 200_000, 31);
+            ImportanceResult one = new ImportanceSampler(1, rules, new BasicStrategy())
+                    .setTilt(ImportanceSampler.pointTilt(-0.2)).setDealerOnly(true).run(event, 100_000, 32);
+            ImportanceResult four = new ImportanceSampler(4, rules, new BasicStrategy())
+                    .setTilt(ImportanceSampler.pointTilt(-0.2)).setDealerOnly(true).run(event, 100_000, 32);
+
+            // verify
+            System.out.println("plain  " + plain);
+            System.out.println("tilted " + one + ", worth " + Math.round(one.equivalentPlainTrials()) + " plain trials");
+
+            // test
+            assert one.probability() == four.probability() && one.getHits() == four.getHits() : "Error in ImportanceSampler - results depend on the number of threads";
+            assert plain.meanWeight() == 1 && plain.effectiveHits() == plain.getHits() : "Error in ImportanceSampler - plain trials are weighted";
+            assert Math.abs(one.meanWeight() - 1) < 0.02 : "Error in ImportanceSampler - the weights do not average 1";
+            double error = Math.hypot(one.standardError(), plain.standardError());
+            assert Math.abs(one.probability() - plain.probability()) < 4 * error : "Error in ImportanceSampler - the estimate is biased";
+            assert one.getHits() > plain.getHits() : "Error in ImportanceSampler - the tilt should hit the event more often";
+            assert one.equivalentPlainTrials() > 3 * one.getTrials() : "Error in ImportanceSampler - the tilt should cut the variance";
+        }
+
+        // case 5: testing losing streaks with every card tilted, against brute force
+        {
+            // set up: four losses to start a single deck, about one shoe in twenty
+            RuleTable rules = new Rules().setDecks(1).compile();
+            RareEvent event = ImportanceSampler.losingStreak(4);
+            ImportanceResult plain = new ImportanceSampler(2, rules, new BasicStrategy()).run(event, 100_000, 41);
+            ImportanceResult tilted = new ImportanceSampler(2, rules, new BasicStrategy())
+                    .setTilt(ImportanceSampler.pointTilt(0.05)).run(event, 100_000, 42);
+
+            // verify
+            System.out.println("plain  " + plain);
+            System.out.println("tilted " + tilted);
+
+            // test
+            assert plain.rounds() < 4 * plain.getTrials() / 2 : "Error in ImportanceSampler - trials should stop at the first round won";
+            double error = Math.hypot(tilted.standardError(), plain.standardError());
+            assert Math.abs(tilted.probability() - plain.probability()) < 4 * error : "Error in ImportanceSampler - a tilted streak is biased";
+            assert Math.abs(plain.probability() - Math.pow(0.49, 4)) < 0.01 : "Error in ImportanceSampler - four losses in a row";
+
+            boolean thrown = false;
+            try {
+                ImportanceSampler.losingStreak(0);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in ImportanceSampler::losingStreak() - an empty streak";
+        }
+
+        System.out.println("*** Done testing ImportanceSampler! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        importanceSamplerTests();
+    }
+}
@@ -0,0 +1,523 @@
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: ParallelSimulation.java
+ *
+ * Purpose:
+ * This class runs the Monte Carlo simulation on every core of the machine.
+ * The requested number of games is cut into fixed-size shards, and the shards are
+ * played on a ForkJoinPool. Every shard creates its own RoundEngine (and with it
+ * its own Deck and Hands), so the workers never share any game state.
+ * When all the shards are finished, their counters are merged into a single result.
+ * Every round's net profit is folded into the result's streaming moments as it is played,
+ * so the house edge and its standard error come out of the same single pass.
+ *
+ * The shard size does not depend on the number of threads, so the same number of games
+ * is always cut into the same shards — only the number of workers playing them changes.
+ * Each shard shuffles with its own generator, seeded from the run's master seed and the
+ * shard's index. The same master seed therefore deals exactly the same cards in every shard,
+ * and gives bit-identical results whether the run uses 1, 8 or 64 threads.
+ *
+ * runByCount() plays the same rounds while keeping a card count in every shard's shoe,
+ * and splits the results up by the true count at the start of each round.
+ *
+ * run() with a HandRecorder plays the same rounds again and also writes every one of them
+ * to a compact binary hand history.
+ *
+ * runUntil() plays batches of shards until the confidence interval around the player's
+ * expected profit per round (the house edge, with its sign flipped) is narrower than a target,
+ * so easy questions stop early and hard ones keep going.
+ */
+public class ParallelSimulation {
+
+    /** How many games one shard plays before its result is handed back */
+    static final int SHARD_SIZE = 1 << 16;
+
+    /** How many shards runUntil() plays between convergence checks */
+    static final int BATCH_SHARDS = 16;
+
+    /** The z-value of a 95% confidence interval */
+    public static final double Z_95 = 1.96;
+
+    /** The golden-ratio increment SplittableRandom adds to its seed for every value */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** The number of worker threads used to play the shards */
+    private final int threads;
+
+    /** The table rules every shard plays by, including the shoe */
+    private final RuleTable rules;
+
+    /** The player's compiled strategy; tables never change, so every shard shares this one */
+    private final StrategyTable strategy;
+
+    /** Plays the shards of run() and runUntil() */
+    private final ShardPlayer<SimulationResult> rounds = new ShardPlayer<SimulationResult>() {
+        @Override
+        public SimulationResult play(long games, long seed) {
+            return playShard(games, seed);
+        }
+
+        @Override
+        public SimulationResult empty() {
+            return new SimulationResult();
+        }
+
+        @Override
+        public void merge(SimulationResult into, SimulationResult other) {
+            into.merge(other);
+        }
+    };
+
+    /**
+     * Constructor — uses one worker thread per available core.
+     */
+    public ParallelSimulation() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor that uses a given number of worker threads.
+     *
+     * @param threads the number of worker threads (at least 1)
+     */
+    public ParallelSimulation(int threads) {
+        this(threads, 1, 0.5); // A single deck, reshuffled once half of it has been dealt
+    }
+
+    /**
+     * Constructor that plays every shard from a shoe of several decks with a cut card.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param penetration the share of the shoe dealt before it is reshuffled (between 0 and 1)
+     */
+    public ParallelSimulation(int threads, int numDecks, double penetration) {
+        this(threads, numDecks, penetration, Blackjack.DEFAULT_STRATEGY);
+    }
+
+    /**
+     * Constructor that also chooses the strategy the player follows in every shard.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param penetration the share of the shoe dealt before it is reshuffled (between 0 and 1)
+     * @param strategy the player's strategy (compiled once, here)
+     */
+    public ParallelSimulation(int threads, int numDecks, double penetration, Strategy strategy) {
+        this(threads, new Rules().setDecks(numDecks).setPenetration(penetration).compile(), strategy);
+    }
+
+    /**
+     * Constructor that chooses the table rules and the player's strategy for every shard.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules, including the shoe
+     * @param strategy the player's strategy (compiled once, here)
+     */
+    public ParallelSimulation(int threads, RuleTable rules, Strategy strategy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.rules = rules;
+        this.strategy = StrategyTable.compile(strategy);
+    }
+
+    /**
+     * Returns the number of worker threads used by this simulation.
+     *
+     * @return the number of worker threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the table rules every shard plays by.
+     *
+     * @return the compiled rules
+     */
+    public RuleTable getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the compiled strategy the player follows in every shard.
+     *
+     * @return the player's strategy table
+     */
+    public StrategyTable getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Plays the given number of games across all worker threads with a fresh, random master seed.
+     * The seed is stored in the result, so the run can be repeated with run(numGames, seed).
+     *
+     * @param numGames the total number of games to play
+     * @return the merged counters together with the elapsed time of the run
+     */
+    public SimulationResult run(long numGames) {
+        return run(numGames, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays the given number of games across all worker threads and merges the outcomes.
+     *
+     * @param numGames the total number of games to play
+     * @param seed the master seed every shard's generator is derived from
+     * @return the merged counters together with the elapsed time of the run
+     */
+    public SimulationResult run(long numGames, long seed) {
+        if (numGames < 0) {
+            throw new IllegalArgumentException("numGames must not be negative: " + numGames);
+        }
+        long shards = (numGames + SHARD_SIZE - 1) / SHARD_SIZE; // Round up so no game is lost
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationResult result;
+        try {
+            result = playShards(pool, rounds, numGames, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Plays the given number of games like run(numGames, seed), and also writes every round to
+     * a hand history. The recorder should have been made with at least one producer per thread.
+     *
+     * @param numGames the total number of games to play
+     * @param seed the master seed every shard's generator is derived from
+     * @param recorder where the rounds are written (its counting system fills in the true count)
+     * @return the merged counters together with the elapsed time of the run
+     */
+    public SimulationResult run(long numGames, long seed, HandRecorder recorder) {
+        if (numGames < 0) {
+            throw new IllegalArgumentException("numGames must not be negative: " + numGames);
+        }
+        long shards = (numGames + SHARD_SIZE - 1) / SHARD_SIZE;
+        ShardPlayer<SimulationResult> recorded = new ShardPlayer<SimulationResult>() {
+            @Override
+            public SimulationResult play(long games, long shardSeed) {
+                return playRecordedShard(games, shardSeed, recorder);
+            }
+
+            @Override
+            public SimulationResult empty() {
+                return new SimulationResult();
+            }
+
+            @Override
+            public void merge(SimulationResult into, SimulationResult other) {
+                into.merge(other);
+            }
+        };
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationResult result;
+        try {
+            result = playShards(pool, recorded, numGames, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Plays the given number of rounds with a card counter in every shard's shoe, and records
+     * each round under the true count it started at.
+     *
+     * @param numGames the total number of rounds to play
+     * @param seed the master seed every shard's generator is derived from
+     * @param system the counting system to keep
+     * @return the results bucketed by true count, with the elapsed time of the run
+     */
+    public TrueCountResult runByCount(long numGames, long seed, CountingSystem system) {
+        if (numGames < 0) {
+            throw new IllegalArgumentException("numGames must not be negative: " + numGames);
+        }
+        long shards = (numGames + SHARD_SIZE - 1) / SHARD_SIZE;
+        ShardPlayer<TrueCountResult> counted = new ShardPlayer<TrueCountResult>() {
+            @Override
+            public TrueCountResult play(long games, long shardSeed) {
+                return playCountedShard(games, shardSeed, system);
+            }
+
+            @Override
+            public TrueCountResult empty() {
+                return new TrueCountResult(system);
+            }
+
+            @Override
+            public void merge(TrueCountResult into, TrueCountResult other) {
+                into.merge(other);
+            }
+        };
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        TrueCountResult result;
+        try {
+            result = playShards(pool, counted, numGames, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Plays batches of games until the interval around the expected profit per round is narrow
+     * enough, using a fresh, random master seed (stored in the result).
+     *
+     * @param targetHalfWidth the widest acceptable half-width of the profit's interval, in bets per round
+     * @param maxGames the most games to play, even if the target has not been reached
+     * @return the merged result; games() tells how many hands were needed
+     */
+    public SimulationResult runUntil(double targetHalfWidth, long maxGames) {
+        return runUntil(targetHalfWidth, maxGames, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays batches of games until the 95% confidence interval around the player's expected
+     * profit per round is at most the target half-width, or until maxGames have been played.
+     * The profit counts what each round paid (naturals at 3:2, doubles, splits, surrender and
+     * insurance), so its interval is the one the house edge is quoted with, not the narrower
+     * one around the +1/-1/0 outcome of each round.
+     * The batches are cut into the same shards as run() would use, so the same seed gives
+     * the same answer (and the same number of games) on any number of threads.
+     *
+     * @param targetHalfWidth the widest acceptable half-width of the profit's interval, in bets per round (e.g. 0.001)
+     * @param maxGames the most games to play, even if the target has not been reached
+     * @param seed the master seed every shard's generator is derived from
+     * @return the merged result; games() tells how many hands were needed
+     */
+    public SimulationResult runUntil(double targetHalfWidth, long maxGames, long seed) {
+        if (!(targetHalfWidth > 0)) {
+            throw new IllegalArgumentException("targetHalfWidth must be positive: " + targetHalfWidth);
+        }
+        if (maxGames < 1) {
+            throw new IllegalArgumentException("maxGames must be at least 1: " + maxGames);
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationResult result = new SimulationResult();
+        try {
+            long nextShard = 0;
+            while (result.games() < maxGames) {
+                // Every batch but the last is a whole number of shards, so shard i always covers the same games
+                long endGame = Math.min(result.games() + (long) BATCH_SHARDS * SHARD_SIZE, maxGames);
+                long shards = (endGame - nextShard * SHARD_SIZE + SHARD_SIZE - 1) / SHARD_SIZE;
+                result.merge(playShards(pool, rounds, endGame, seed, nextShard, nextShard + shards));
+                nextShard += shards;
+
+                if (result.getProfit().halfWidth(Z_95) <= targetHalfWidth) {
+                    break; // the estimate is precise enough
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Derives the seed of one shard from the master seed.
+     * This is the value a SplittableRandom seeded with the master seed would return as its
+     * (shard + 1)-th nextLong(), computed directly so no shard depends on any other.
+     *
+     * @param seed the master seed of the run
+     * @param shard the index of the shard
+     * @return the seed for that shard's generator
+     */
+    static long shardSeed(long seed, long shard) {
+        return XoshiroRandom.splitMix(seed + (shard + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Plays one shard of full rounds (with payouts) on a fresh RoundEngine.
+     *
+     * @param games the number of games in the shard
+     * @param seed the seed for this shard's generator
+     * @return the counters for this shard
+     */
+    SimulationResult playShard(long games, long seed) {
+        // Each shard gets its own shoe and hands
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        SimulationResult result = new SimulationResult();
+        for (long i = 0; i < games; i++) {
+            double net = game.play();
+            result.record((int) Math.signum(net), net);
+        }
+        return result;
+    }
+
+    /**
+     * Plays one shard of full rounds with a counter on the shoe, recording every round under
+     * the true count before its cards were dealt. The rounds are exactly those playShard() plays.
+     *
+     * @param games the number of rounds in the shard
+     * @param seed the seed for this shard's generator
+     * @param system the counting system to keep
+     * @return the bucketed results for this shard
+     */
+    TrueCountResult playCountedShard(long games, long seed, CountingSystem system) {
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        Counter counter = game.deck.addCounter(system);
+        TrueCountResult result = new TrueCountResult(system);
+        for (long i = 0; i < games; i++) {
+            if (game.deck.needsShuffle()) { // Reshuffle now, so the count is read from the shoe the round is dealt from
+                game.deck.build();
+                game.deck.shuffle();
+            }
+            double trueCount = counter.trueCount();
+            result.record(trueCount, game.play());
+        }
+        return result;
+    }
+
+    /**
+     * Plays one shard of full rounds and packs every round into the recorder's buffers.
+     * The rounds are exactly those playShard() plays; the shoe is only reshuffled a moment
+     * earlier, so the true count can be read from the shoe each round is dealt from.
+     *
+     * @param games the number of rounds in the shard
+     * @param seed the seed for this shard's generator
+     * @param recorder where the rounds are written
+     * @return the counters for this shard
+     */
+    SimulationResult playRecordedShard(long games, long seed, HandRecorder recorder) {
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        Counter counter = game.deck.addCounter(recorder.getSystem());
+        SimulationResult result = new SimulationResult();
+        ByteBuffer buffer = recorder.take();
+        for (long i = 0; i < games; i++) {
+            if (game.deck.needsShuffle()) {
+                game.deck.build();
+                game.deck.shuffle();
+            }
+            double trueCount = counter.trueCount();
+            double net = game.play();
+            result.record((int) Math.signum(net), net);
+            HandRecorder.pack(buffer, game, trueCount, net);
+            if (!buffer.hasRemaining()) {
+                buffer = recorder.swap(buffer); // The writer takes the full buffer; keep going in the other
+            }
+        }
+        recorder.finish(buffer);
+        return result;
+    }
+
+    /**
+     * Plays the shards in [from, to) on a pool and merges their results. Ranges are split in
+     * half until each task plays a single shard, so the merge order depends only on the number
+     * of shards, never on which thread played what.
+     *
+     * @param pool the pool to play on
+     * @param player plays one shard and merges results
+     * @param endGame one past the last game of the run (used to size the last shard)
+     * @param seed the master seed of the run
+     * @param from the first shard to play
+     * @param to one past the last shard to play
+     * @param <R> the type of result a shard produces
+     * @return the merged result of the shards
+     */
+    static <R> R playShards(ForkJoinPool pool, ShardPlayer<R> player, long endGame, long seed, long from, long to) {
+        return playShards(pool, player, SHARD_SIZE, endGame, seed, from, to);
+    }
+
+    /**
+     * Plays the shards in [from, to) on a pool and merges their results, like the method above,
+     * but with shards of a different size (e.g. a few bankroll trajectories instead of 65536 rounds).
+     *
+     * @param pool the pool to play on
+     * @param player plays one shard and merges results
+     * @param shardSize how many items (rounds, trajectories, ...) one shard holds
+     * @param end one past the last item of the run (used to size the last shard)
+     * @param seed the master seed of the run
+     * @param from the first shard to play
+     * @param to one past the last shard to play
+     * @param <R> the type of result a shard produces
+     * @return the merged result of the shards
+     */
+    static <R> R playShards(ForkJoinPool pool, ShardPlayer<R> player, int shardSize, long end, long seed, long from, long to) {
+        return pool.invoke(new ShardTask<R>(player, shardSize, end, seed, from, to));
+    }
+
+    /**
+     * A fork/join task that covers the shards in [from, to).
+     * Ranges of more than one shard are split in half until each task plays a single shard.
+     */
+    private static class ShardTask<R> extends RecursiveTask<R> {
+
+        /** Fork/join tasks are Serializable, though these are never written out */
+        private static final long serialVersionUID = 1L;
+
+        /** Plays one shard and merges results */
+        private final ShardPlayer<R> player;
+
+        /** How many items one shard holds */
+        private final int shardSize;
+
+        /** One past the last game of the run (used to size the last shard) */
+        private final long endGame;
+
+        /** The master seed of the run */
+        private final long seed;
+
+        /** The first shard covered by this task */
+        private final long from;
+
+        /** One past the last shard covered by this task */
+        private final long to;
+
+        ShardTask(ShardPlayer<R> player, int shardSize, long endGame, long seed, long from, long to) {
+            this.player = player;
+            this.shardSize = shardSize;
+            this.endGame = endGame;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= 1) {
+                if (to == from) {
+                    return player.empty(); // Nothing to play
+                }
+                long first = from * shardSize;
+                return player.play(Math.min(shardSize, endGame - first), shardSeed(seed, from));
+            }
+
+            // Split the range in half: fork the left half and play the right half here
+            long mid = (from + to) >>> 1;
+            ShardTask<R> left = new ShardTask<R>(player, shardSize, endGame, seed, from, mid);
+            left.fork();
+            R result = new ShardTask<R>(player, shardSize, endGame, seed, mid, to).compute();
+            player.merge(result, left.join());
+            return result;
+        }
+    }
+}
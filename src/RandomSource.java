@@ -0,0 +1,23 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the interface: A source of random numbers used to shuffle the deck.
+ * Different generators can be plugged into a Deck, so the shuffle can be driven by
+ * whichever generator is fastest (or reproducible) for the job at hand.
+ */
+public interface RandomSource {
+
+    /**
+     * Returns a uniformly distributed integer between 0 (inclusive) and bound (exclusive).
+     *
+     * @param bound the upper bound (must be positive)
+     * @return a random integer in [0, bound)
+     */
+    int nextInt(int bound);
+
+    /**
+     * Returns a uniformly distributed 64-bit value.
+     *
+     * @return a random long
+     */
+    long nextLong();
+}
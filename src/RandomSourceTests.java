@@ -0,0 +1,132 @@
+/*
+file name:      RandomSourceTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea RandomSourceTests
+*/
+
+public class RandomSourceTests {
+
+    /** Chi-square critical value for 23 degrees of freedom at p = 0.001 */
+    static final double CHI_SQUARE_23 = 49.73;
+
+    /** Chi-square critical value for 51 degrees of freedom at p = 0.001 */
+    static final double CHI_SQUARE_51 = 86.66;
+
+    public static void randomSourceTests() {
+
+        RandomSource[] sources = {
+            new SplittableRandomSource(42),
+            new ThreadLocalRandomSource(),
+            new XoshiroRandom(42)
+        };
+
+        // case 1: testing nextInt(bound) stays within [0, bound) and is uniform
+        for (RandomSource source : sources) {
+            // set up
+            int[] counts = new int[52];
+            int draws = 52 * 2000;
+            for (int i = 0; i < draws; i++) {
+                int value = source.nextInt(52);
+                assert value >= 0 && value < 52 : "Error in RandomSource::nextInt()";
+                counts[value]++;
+            }
+
+            // verify
+            double chi = chiSquare(counts, draws / 52.0);
+            System.out.println(source.getClass().getName() + " nextInt chi-square: " + chi + " < " + CHI_SQUARE_51);
+
+            // test
+            assert chi < CHI_SQUARE_51 : "Error in RandomSource::nextInt() - not uniform";
+        }
+
+        // case 2: testing the Fisher–Yates shuffle gives every permutation equally often
+        for (RandomSource source : sources) {
+            // set up
+            int[] counts = new int[24]; // 4! orderings of four distinct cards
+            int shuffles = 24 * 2000;
+            Card[] cards = new Card[4];
+            for (int i = 0; i < shuffles; i++) {
+                for (int c = 0; c < 4; c++) {
+                    cards[c] = new Card(c + 2);
+                }
+                Deck.shuffle(cards, 0, 4, source);
+                counts[permutationIndex(cards)]++;
+            }
+
+            // verify
+            double chi = chiSquare(counts, shuffles / 24.0);
+            System.out.println(source.getClass().getName() + " shuffle chi-square: " + chi + " < " + CHI_SQUARE_23);
+
+            // test
+            assert chi < CHI_SQUARE_23 : "Error in Deck::shuffle() - permutations not uniform";
+        }
+
+        // case 3: testing that a seeded generator repeats the same shuffle
+        {
+            // set up
+            Deck d1 = new Deck(1, new XoshiroRandom(7));
+            Deck d2 = new Deck(1, new XoshiroRandom(7));
+            Deck d3 = new Deck(1, new SplittableRandomSource(7));
+            Deck d4 = new Deck(1, new SplittableRandomSource(7));
+            d1.shuffle();
+            d2.shuffle();
+            d3.shuffle();
+            d4.shuffle();
+
+            // verify
+            System.out.println(d1);
+            System.out.println(d2);
+
+            // test
+            assert d1.toString().equals(d2.toString()) : "Error in XoshiroRandom - seed not repeatable";
+            assert d3.toString().equals(d4.toString()) : "Error in SplittableRandomSource - seed not repeatable";
+            assert d1.size() == 52 : "Error in Deck::shuffle()";
+        }
+
+        System.out.println("*** Done testing RandomSource! ***\n");
+    }
+
+    /**
+     * Computes the chi-square statistic of observed counts against a flat expectation.
+     *
+     * @param counts the observed count in each bin
+     * @param expected the expected count in every bin
+     * @return the chi-square statistic
+     */
+    static double chiSquare(int[] counts, double expected) {
+        double chi = 0;
+        for (int count : counts) {
+            double diff = count - expected;
+            chi += diff * diff / expected;
+        }
+        return chi;
+    }
+
+    /**
+     * Maps an ordering of the cards 2, 3, 4, 5 to a number between 0 and 23 (its Lehmer code).
+     *
+     * @param cards four cards holding the values 2 to 5 in some order
+     * @return the index of the ordering
+     */
+    static int permutationIndex(Card[] cards) {
+        int index = 0;
+        for (int i = 0; i < cards.length; i++) {
+            int smallerAfter = 0;
+            for (int j = i + 1; j < cards.length; j++) {
+                if (cards[j].getValue() < cards[i].getValue()) {
+                    smallerAfter++;
+                }
+            }
+            index = index * (cards.length - i) + smallerAfter;
+        }
+        return index;
+    }
+
+
+    public static void main(String[] args) {
+
+        randomSourceTests();
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A shoe that only keeps how many cards of each value are left, instead
+ * of the cards themselves in shuffled order. When only the value of the next card matters, a
+ * Deck still has to lay out and shuffle every card of the shoe before the first one is dealt,
+ * which is mostly wasted for a shoe that only deals a few rounds. This shoe skips all of that:
+ * build() just resets ten counts, and deal() picks a value at random with odds in proportion to
+ * the cards of that value left, which is exactly the odds of the top card of a shuffled shoe.
+ *
+ * The counts are kept in a Fenwick tree (binary indexed tree) over the ten values, so both
+ * picking a value by its cumulative count and taking a card out cost O(log 10): four steps each.
+ *
+ * Like a Deck, the shoe has a cut card at a given penetration, and needsShuffle() says when the
+ * cut card has come out.
+ */
+public class RankShoe {
+
+    /** The largest power of two no bigger than the number of values: the first step of a search */
+    private static final int TOP_STEP = Integer.highestOneBit(Composition.RANKS);
+
+    /** The count of each value in a full shoe */
+    private final int[] fullComposition;
+
+    /** The count of each value still in the shoe */
+    private final int[] remaining = new int[Composition.RANKS];
+
+    /** The Fenwick tree over the remaining counts; tree[i] covers the values (i - (i & -i), i] (1-based) */
+    private final int[] tree = new int[Composition.RANKS + 1];
+
+    /** The number of cards in a full shoe */
+    private final int shoeSize;
+
+    /** The number of cards dealt before the cut card comes out */
+    private final int cutCard;
+
+    /** The generator that picks each card */
+    private final RandomSource random;
+
+    /** The number of cards still in the shoe */
+    private int left;
+
+    /**
+     * Constructor for a shoe of several decks with the cut card halfway through.
+     *
+     * @param numDecks the number of 52-card decks in the shoe (at least 1)
+     * @param random the generator that picks each card
+     */
+    public RankShoe(int numDecks, RandomSource random) {
+        this(numDecks, 0.5, random);
+    }
+
+    /**
+     * Constructor for a shoe of several decks with the cut card at a given penetration.
+     *
+     * @param numDecks the number of 52-card decks in the shoe (at least 1)
+     * @param penetration the share of the shoe dealt before reshuffling (between 0 and 1, exclusive)
+     * @param random the generator that picks each card
+     */
+    public RankShoe(int numDecks, double penetration, RandomSource random) {
+        if (numDecks < 1) {
+            throw new IllegalArgumentException("numDecks must be at least 1: " + numDecks);
+        }
+        if (!(penetration > 0 && penetration < 1)) {
+            throw new IllegalArgumentException("penetration must be between 0 and 1: " + penetration);
+        }
+        this.fullComposition = Composition.full(numDecks);
+        this.shoeSize = numDecks * Deck.CARDS_PER_DECK;
+        this.cutCard = (int) Math.round(shoeSize * penetration);
+        this.random = random;
+        build();
+    }
+
+    /**
+     * Puts every card back: the same values, in the same numbers, as Deck.build().
+     * The Fenwick tree is rebuilt in O(10) by adding each node into its parent.
+     */
+    public void build() {
+        System.arraycopy(fullComposition, 0, remaining, 0, Composition.RANKS);
+        tree[0] = 0;
+        System.arraycopy(fullComposition, 0, tree, 1, Composition.RANKS);
+        for (int i = 1; i <= Composition.RANKS; i++) {
+            int parent = i + (i & -i);
+            if (parent <= Composition.RANKS) {
+                tree[parent] += tree[i];
+            }
+        }
+        left = shoeSize;
+    }
+
+    /**
+     * Deals the next card: a value picked with odds (cards of that value left) / (cards left).
+     *
+     * @return the shared Card of that value
+     */
+    public Card deal() {
+        return Card.of(draw());
+    }
+
+    /**
+     * Picks the value of the next card and takes one card of that value out of the shoe.
+     *
+     * @return the value of the card (2 to 11)
+     */
+    public int draw() {
+        if (left == 0) {
+            throw new IllegalStateException("Cannot deal from an empty shoe");
+        }
+        int target = random.nextInt(left); // The position of the card among those left, counted by value
+
+        // Walk down the tree: find the last value whose cumulative count is at most target
+        int pos = 0;
+        for (int step = TOP_STEP; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= Composition.RANKS && tree[next] <= target) {
+                pos = next;
+                target -= tree[next];
+            }
+        }
+        // pos values have cumulative counts <= target, so the card is the value at index pos
+
+        for (int i = pos + 1; i <= Composition.RANKS; i += i & -i) {
+            tree[i]--;
+        }
+        remaining[pos]--;
+        left--;
+        return Composition.value(pos);
+    }
+
+    /**
+     * Returns the number of cards left in the shoe.
+     *
+     * @return the number of cards not yet dealt
+     */
+    public int size() {
+        return left;
+    }
+
+    /**
+     * Returns whether the cut card has come out, meaning the shoe should be rebuilt before the
+     * next round starts.
+     *
+     * @return true if more cards than the cut card allows have been dealt
+     */
+    public boolean needsShuffle() {
+        return shoeSize - left > cutCard;
+    }
+
+    /**
+     * Copies the count of each value left in the shoe into an array.
+     *
+     * @param out an array of Composition.RANKS counts to fill
+     * @return out, for chaining
+     */
+    public int[] composition(int[] out) {
+        System.arraycopy(remaining, 0, out, 0, Composition.RANKS);
+        return out;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+file name:      RankShoeTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea RankShoeTests
+*/
+
+public class RankShoeTests {
+
+    /** The chi-square value with 99 degrees of freedom exceeded one time in a thousand */
+    static final double CHI_SQUARE_99 = 148.2;
+
+    /** The chi-square value with 9 degrees of freedom exceeded one time in a thousand */
+    static final double CHI_SQUARE_9 = 27.88;
+
+    /**
+     * Returns Pearson's chi-square statistic of observed counts against expected probabilities.
+     */
+    static double chiSquare(long[] observed, double[] probabilities, long n) {
+        double chi = 0;
+        for (int i = 0; i < observed.length; i++) {
+            double expected = n * probabilities[i];
+            chi += (observed[i] - expected) * (observed[i] - expected) / expected;
+        }
+        return chi;
+    }
+
+    public static void rankShoeTests() {
+
+        // case 1: testing that a shoe deals every card of Deck.build() once
+        {
+            // set up
+            RankShoe shoe = new RankShoe(2, new SplittableRandomSource(1));
+            int[] dealt = new int[Composition.RANKS];
+            int[] left = new int[Composition.RANKS];
+            for (int c = 0; c < 40; c++) {
+                dealt[Composition.index(shoe.draw())]++;
+            }
+            shoe.composition(left);
+
+            // verify
+            System.out.println(shoe.size() + " cards left after 40, needs shuffle " + shoe.needsShuffle());
+
+            // test
+            assert shoe.size() == 64 && !shoe.needsShuffle() : "Error in RankShoe - 40 cards of 104 dealt";
+            int[] full = Composition.full(2);
+            for (int i = 0; i < Composition.RANKS; i++) {
+                assert dealt[i] + left[i] == full[i] : "Error in RankShoe::composition() - value " + Composition.value(i);
+            }
+            for (int c = 0; c < 64; c++) {
+                dealt[Composition.index(shoe.deal().getValue())]++;
+            }
+            assert java.util.Arrays.equals(dealt, full) : "Error in RankShoe - the whole shoe was not dealt";
+            assert shoe.size() == 0 && shoe.needsShuffle() : "Error in RankShoe - an empty shoe";
+
+            boolean thrown = false;
+            try {
+                shoe.draw();
+            } catch (IllegalStateException e) {
+                thrown = true;
+            }
+            assert thrown : "Error in RankShoe::draw() - dealt from an empty shoe";
+
+            shoe.build();
+            assert shoe.size() == 104 && java.util.Arrays.equals(shoe.composition(left), full) : "Error in RankShoe::build()";
+        }
+
+        // case 2: testing the first two cards against their exact odds, for both kinds of shoe
+        {
+            // set up
+            int n = 200_000;
+            double[] exact = new double[Composition.RANKS * Composition.RANKS];
+            int[] full = Composition.full(1);
+            for (int a = 0; a < Composition.RANKS; a++) {
+                for (int b = 0; b < Composition.RANKS; b++) {
+                    exact[a * Composition.RANKS + b] = full[a] / 52.0 * (full[b] - (a == b ? 1 : 0)) / 51.0;
+                }
+            }
+            RankShoe shoe = new RankShoe(1, new SplittableRandomSource(2));
+            Deck deck = new Deck(1, new SplittableRandomSource(2));
+            long[] counted = new long[exact.length];
+            long[] shuffled = new long[exact.length];
+            for (int i = 0; i < n; i++) {
+                shoe.build();
+                counted[Composition.index(shoe.draw()) * Composition.RANKS + Composition.index(shoe.draw())]++;
+                deck.build();
+                deck.shuffle();
+                shuffled[Composition.index(deck.deal().getValue()) * Composition.RANKS + Composition.index(deck.deal().getValue())]++;
+            }
+
+            // verify
+            double chiCounted = chiSquare(counted, exact, n);
+            double chiShuffled = chiSquare(shuffled, exact, n);
+            System.out.println("first two cards: chi-square " + chiCounted + " (RankShoe), " + chiShuffled + " (Deck), 99 df");
+
+            // test
+            assert chiCounted < CHI_SQUARE_99 : "Error in RankShoe - the first two cards";
+            assert chiShuffled < CHI_SQUARE_99 : "Error in Deck - the first two cards";
+        }
+
+        // case 3: testing a card deep in the shoe, and the two shoes against each other
+        {
+            // set up: the 40th card of a single deck has the same odds as the first
+            int n = 100_000;
+            double[] odds = new double[Composition.RANKS];
+            int[] full = Composition.full(1);
+            for (int i = 0; i < Composition.RANKS; i++) {
+                odds[i] = full[i] / 52.0;
+            }
+            RankShoe shoe = new RankShoe(1, new SplittableRandomSource(3));
+            Deck deck = new Deck(1, new SplittableRandomSource(3));
+            long[] counted = new long[Composition.RANKS];
+            long[] shuffled = new long[Composition.RANKS];
+            for (int i = 0; i < n; i++) {
+                shoe.build();
+                deck.build();
+                deck.shuffle();
+                for (int c = 0; c < 39; c++) {
+                    shoe.draw();
+                    deck.deal();
+                }
+                counted[Composition.index(shoe.draw())]++;
+                shuffled[Composition.index(deck.deal().getValue())]++;
+            }
+
+            // verify
+            double chiCounted = chiSquare(counted, odds, n);
+            double twoSample = 0; // Pearson's statistic for two samples of the same size
+            for (int i = 0; i < Composition.RANKS; i++) {
+                double sum = counted[i] + shuffled[i];
+                twoSample += (counted[i] - shuffled[i]) * (double) (counted[i] - shuffled[i]) / sum;
+            }
+            System.out.println("40th card: chi-square " + chiCounted + " against the odds, " + twoSample + " against Deck, 9 df");
+
+            // test
+            assert chiCounted < CHI_SQUARE_9 : "Error in RankShoe - the 40th card";
+            assert twoSample < CHI_SQUARE_9 : "Error in RankShoe - differs from shuffle-then-deal";
+        }
+
+        System.out.println("*** Done testing RankShoe! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        rankShoeTests();
+    }
+}
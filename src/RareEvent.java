@@ -0,0 +1,24 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the interface: An event that ImportanceSampler estimates the probability of. A
+ * trial deals up to rounds() rounds from a fresh shoe and asks holds() after each one; the event
+ * happened if it still holds after the last round. A trial stops at the first round after which
+ * the event can no longer happen, so short-lived trials cost little.
+ * ImportanceSampler.dealerTwentyOne() and ImportanceSampler.losingStreak() build the two usual ones.
+ */
+public interface RareEvent {
+
+    /**
+     * @return how many rounds a trial deals when the event keeps holding
+     */
+    int rounds();
+
+    /**
+     * Checks the round just played.
+     *
+     * @param game the engine, with the round's hands still on the table
+     * @param net the player's net profit for the round
+     * @return whether the event is still on course after this round
+     */
+    boolean holds(RoundEngine game, double net);
+}
@@ -0,0 +1,494 @@
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: RoundEngine.java
+ *
+ * Purpose:
+ * This class plays full rounds of Blackjack with every player option a real table offers,
+ * on top of the Deck, Hands and strategy of the basic Blackjack game:
+ * - Doubling: the bet is doubled and the hand takes exactly one more card.
+ * - Splitting: a pair is split into two hands, and a hand can be split again, up to
+ *   MAX_HANDS hands. Split Aces take one card each.
+ * - Late surrender: on the first two cards, after the dealer has checked for blackjack,
+ *   the player can give up half the bet.
+ * - Insurance: when the dealer shows an Ace, the player can insure against a dealer blackjack.
+ * - Dealer peek: when the dealer shows an Ace or a ten, a dealer blackjack ends the round
+ *   before the player acts.
+ *
+ * Which of these are offered (and what a natural pays) comes from the game's RuleTable.
+ *
+ * play() returns the player's net profit for the round in units of the original bet:
+ * a natural pays 3:2 (or as the rules say), a doubled hand wins or loses twice the bet, a surrender loses half,
+ * and insurance costs half a bet and pays 2:1 when the dealer has a natural.
+ *
+ * A round runs as a small state machine: deal, insurance and peek, naturals, each player
+ * hand in turn (split hands are added to the end of the list and played when reached),
+ * the dealer, and then settling every hand. The split hands come from a pool of Hand objects
+ * made once in the constructor, and all per-hand state lives in fixed-size arrays, so playing
+ * a round allocates nothing. As the round is played it also builds the packed hand-history
+ * record HandRecorder writes, so recording a round does not have to read it back afterwards.
+ */
+public class RoundEngine extends Blackjack {
+
+    /** The most hands a player can hold after splitting (the first hand split three times) */
+    public static final int MAX_HANDS = 4;
+
+    /** Outcome of a hand the player lost (including a surrendered hand) */
+    public static final int LOSS = -1;
+
+    /** Outcome of a hand that tied with the dealer */
+    public static final int PUSH = 0;
+
+    /** Outcome of a hand the player won (including a natural) */
+    public static final int WIN = 1;
+
+    /** The insurance bet, as a share of the original bet */
+    static final double INSURANCE_BET = 0.5;
+
+    /** What an insurance bet wins when the dealer has a natural, per unit insured */
+    static final double INSURANCE_PAYS = 2;
+
+    /** The player's hands; hands[0] is the player's hand from Blackjack, the rest are the split pool */
+    final Hand[] hands = new Hand[MAX_HANDS];
+
+    /** How many of the hands are in play this round */
+    private int handCount;
+
+    /** The bet on each hand, in units of the original bet (2 once doubled) */
+    private final int[] bets = new int[MAX_HANDS];
+
+    /** The outcome of each hand (LOSS, PUSH or WIN), filled in when the round is settled */
+    private final int[] outcomes = new int[MAX_HANDS];
+
+    /** Whether each hand was made by splitting Aces */
+    private final boolean[] splitAces = new boolean[MAX_HANDS];
+
+    /** The value of the dealer's upcard this round */
+    private int upcard;
+
+    /** Whether the player surrendered this round */
+    private boolean surrendered;
+
+    /** Whether the player took insurance this round */
+    private boolean insured;
+
+    /** Whether the player was dealt a natural (a two-card 21 before any split) */
+    private boolean playerBlackjack;
+
+    /** Whether the dealer was dealt a natural */
+    private boolean dealerBlackjack;
+
+    /** Bytes 0-6 of this round's hand-history record (see HandRecorder), in bits 8-63, built up as the round is played */
+    private long record;
+
+    /** Where this round's first card was in the shoe */
+    private int startPosition;
+
+    /**
+     * Main method — plays one round with basic strategy and prints it.
+     */
+    public static void main(String[] args) {
+        RoundEngine engine = new RoundEngine();
+        engine.setStrategy(new BasicStrategy());
+        engine.playRound();
+        System.out.println(engine);
+    }
+
+    /**
+     * Constructor — a single deck shuffled with a fresh, unpredictable seed.
+     */
+    public RoundEngine() {
+        this(new SplittableRandomSource());
+    }
+
+    /**
+     * Constructor that shuffles a single deck with the given generator.
+     *
+     * @param random the generator used every time the deck is shuffled
+     */
+    public RoundEngine(RandomSource random) {
+        this(1, 0.5, random);
+    }
+
+    /**
+     * Constructor for rounds dealt from a shoe of several decks with a cut card.
+     *
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param penetration the share of the shoe dealt before it is reshuffled (between 0 and 1)
+     * @param random the generator used every time the shoe is shuffled
+     */
+    public RoundEngine(int numDecks, double penetration, RandomSource random) {
+        super(numDecks, penetration, random);
+        fillPool();
+    }
+
+    /**
+     * Constructor for rounds played by the given rules.
+     *
+     * @param rules the compiled table rules, including the shoe size and penetration
+     * @param random the generator used every time the shoe is shuffled
+     */
+    public RoundEngine(RuleTable rules, RandomSource random) {
+        super(rules, random);
+        fillPool();
+    }
+
+    /**
+     * Constructor for rounds dealt from a shoe the engine does not own, used as it is,
+     * so several engines can take turns playing from the same cards.
+     *
+     * @param deck the shoe to deal from
+     * @param rules the compiled table rules
+     */
+    RoundEngine(Deck deck, RuleTable rules) {
+        super(deck, rules);
+        fillPool();
+    }
+
+    /**
+     * Makes the split pool: the player's own hand, followed by spare hands reused every round.
+     */
+    private void fillPool() {
+        hands[0] = player;
+        for (int i = 1; i < MAX_HANDS; i++) {
+            hands[i] = new Hand();
+        }
+    }
+
+    /**
+     * Resets the shoe (if the cut card has come out) and every hand before a new round.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        for (int i = 1; i < handCount; i++) {
+            hands[i].reset(); // Only the split hands used last round hold cards
+        }
+        handCount = 1;
+        bets[0] = 1;
+        outcomes[0] = PUSH;
+        splitAces[0] = false;
+        surrendered = false;
+        insured = false;
+        playerBlackjack = false;
+        dealerBlackjack = false;
+    }
+
+    /**
+     * Plays one complete round: deal, insurance, dealer peek, the player's hands, the dealer,
+     * and settling every hand. The results can be read with the getters afterwards.
+     *
+     * @return the number of hands the player ended up playing
+     */
+    public int playRound() {
+        reset();
+        startPosition = deck.position();
+        deal(); // Player, dealer, player, dealer
+        upcard = dealer.getCard(0).getValue();
+        playerBlackjack = player.getTotalValue() == 21;
+        dealerBlackjack = dealer.getTotalValue() == 21;
+
+        // Insurance is offered before the dealer checks for blackjack
+        insured = upcard == 11 && strategy.insurance();
+
+        // The record starts with the two cards each side was dealt, one composition index per 4 bits
+        record = (long) (Composition.index(player.getCard(0).getValue()) << 12 | Composition.index(player.getCard(1).getValue()) << 8
+                | Composition.index(upcard) << 4 | Composition.index(dealer.getCard(1).getValue())) << 48;
+
+        // A dealer natural ends the round at once when the dealer peeks, and a player
+        // natural is paid at once; either way nobody draws
+        if ((dealerBlackjack && rules.dealerPeek) || playerBlackjack) {
+            outcomes[0] = playerBlackjack == dealerBlackjack ? PUSH : (playerBlackjack ? WIN : LOSS);
+            record |= (long) (outcomes[0] + 1) << 8; // The hand stood on its first two cards
+            finishRecord();
+            return handCount;
+        }
+
+        // Play each hand in turn; splitting adds hands to the end, so handCount can grow here.
+        // A hand is finished once playHand() returns, so its action goes into the record then
+        for (int i = 0; i < handCount; i++) {
+            playHand(i);
+            int action = surrendered ? HandRecorder.SURRENDERED
+                    : bets[i] == 2 ? HandRecorder.DOUBLED
+                    : hands[i].size() > 2 ? HandRecorder.HIT : HandRecorder.STOOD;
+            record |= (long) action << (16 + 2 * i);
+        }
+
+        // The dealer only draws if some hand is still waiting to be compared
+        boolean anyLive = false;
+        for (int i = 0; i < handCount; i++) {
+            anyLive |= hands[i].getTotalValue() <= 21;
+        }
+        if (anyLive && !surrendered) {
+            dealerTurn();
+        }
+
+        settle();
+        finishRecord();
+        return handCount;
+    }
+
+    /**
+     * Adds what is only known once the round is over to the record: the hands played,
+     * the first hand's and the dealer's final totals, and the flags.
+     */
+    private void finishRecord() {
+        int flags = (playerBlackjack ? HandRecorder.PLAYER_NATURAL : 0) | (dealerBlackjack ? HandRecorder.DEALER_NATURAL : 0)
+                | (insured ? HandRecorder.INSURED : 0) | (surrendered ? HandRecorder.SURRENDER : 0);
+        record |= (long) ((handCount - 1) << 6 | Math.min(player.getTotalValue(), 31)) << 40
+                | (long) flags << 32
+                | (long) dealer.getTotalValue() << 24;
+    }
+
+    /**
+     * Plays one of the player's hands until it stands, busts, doubles or surrenders.
+     *
+     * @param i the index of the hand
+     */
+    private void playHand(int i) {
+        Hand hand = hands[i];
+        if (hand.size() == 1) {
+            hand.add(deck.deal()); // A split hand gets its second card when its turn comes
+        }
+
+        while (hand.getTotalValue() < 21) {
+            if (canSplit(i) && strategy.split(hand.getCard(0).getValue(), upcard)) {
+                split(i);
+                continue; // Keep playing this hand with its new second card
+            }
+            if (splitAces[i]) {
+                return; // Split Aces take one card only
+            }
+
+            int action = strategy.decide(hand.getTotalValue(), hand.isSoft(), upcard);
+            if (action == Strategy.SURRENDER) {
+                if (rules.lateSurrender && handCount == 1 && hand.size() == 2) {
+                    surrendered = true;
+                    return;
+                }
+                action = Strategy.HIT;
+            } else if (action == Strategy.DOUBLE || action == Strategy.DOUBLE_OR_STAND) {
+                if (canDouble(i)) {
+                    bets[i] = 2;
+                    hand.add(deck.deal()); // Exactly one card on a double
+                    return;
+                }
+                action = StrategyTable.fallback(action);
+            }
+
+            if (action != Strategy.HIT) {
+                return; // Stand
+            }
+            hand.add(deck.deal());
+        }
+    }
+
+    /**
+     * Returns whether a hand may be split right now.
+     *
+     * @param i the index of the hand
+     * @return true if it is a pair and another hand is available
+     */
+    private boolean canSplit(int i) {
+        Hand hand = hands[i];
+        return hand.size() == 2
+                && handCount < rules.maxHands
+                && hand.getCard(0).getValue() == hand.getCard(1).getValue()
+                && (!splitAces[i] || rules.resplitAces);
+    }
+
+    /**
+     * Returns whether a hand may be doubled right now.
+     *
+     * @param i the index of the hand
+     * @return true if the hand holds its first two cards and the rules allow it
+     */
+    private boolean canDouble(int i) {
+        return hands[i].size() == 2 && !splitAces[i] && (handCount == 1 || rules.doubleAfterSplit);
+    }
+
+    /**
+     * Splits a pair: the second card moves to a fresh hand from the pool, and the first
+     * hand is dealt a new second card.
+     *
+     * @param i the index of the hand to split
+     */
+    private void split(int i) {
+        Hand hand = hands[i];
+        Hand other = hands[handCount];
+        Card first = hand.getCard(0);
+        Card second = hand.getCard(1);
+
+        hand.reset();
+        hand.add(first);
+        other.reset();
+        other.add(second);
+
+        boolean aces = first.getValue() == 11;
+        splitAces[i] = aces;
+        splitAces[handCount] = aces;
+        bets[handCount] = 1;
+        handCount++;
+
+        hand.add(deck.deal());
+    }
+
+    /**
+     * Compares every hand with the dealer's and records its outcome.
+     */
+    private void settle() {
+        int dealerTotal = dealer.getTotalValue();
+        for (int i = 0; i < handCount; i++) {
+            int total = hands[i].getTotalValue();
+            if (surrendered || total > 21 || dealerBlackjack) {
+                outcomes[i] = LOSS; // Only reached with a dealer natural when the dealer does not peek
+            } else if (dealerTotal > 21 || total > dealerTotal) {
+                outcomes[i] = WIN;
+            } else if (total < dealerTotal) {
+                outcomes[i] = LOSS;
+            } else {
+                outcomes[i] = PUSH;
+            }
+            record |= (long) (outcomes[i] + 1) << (8 + 2 * i);
+        }
+    }
+
+    /**
+     * Plays one complete round and returns what the player won or lost.
+     *
+     * @return the player's net profit in units of the original bet (e.g. 1.5 for a natural)
+     */
+    public double play() {
+        playRound();
+        return net();
+    }
+
+    /**
+     * Returns the player's net profit for the round just played, including insurance.
+     *
+     * @return the net profit in units of the original bet
+     */
+    public double net() {
+        double net = 0;
+        if (insured) {
+            net += dealerBlackjack ? INSURANCE_BET * INSURANCE_PAYS : -INSURANCE_BET;
+        }
+        if (surrendered) {
+            return net - 0.5; // Half the bet is given up
+        }
+        if (playerBlackjack && !dealerBlackjack) {
+            return net + rules.blackjackPays;
+        }
+        for (int i = 0; i < handCount; i++) {
+            net += outcomes[i] * bets[i];
+        }
+        return net;
+    }
+
+    /**
+     * Plays a round and reports which way it went.
+     *
+     * @param verbose whether or not to print the game state (not used here)
+     * @return 1 if the player came out ahead, -1 if behind, 0 if even
+     */
+    @Override
+    public int game(boolean verbose) {
+        return (int) Math.signum(play());
+    }
+
+    /** @return how many hands the player played this round */
+    public int getHandCount() {
+        return handCount;
+    }
+
+    /**
+     * Returns one of the player's hands.
+     *
+     * @param i the index of the hand (0 is the original hand)
+     * @return the hand
+     */
+    public Hand getHand(int i) {
+        return hands[i];
+    }
+
+    /**
+     * Returns the bet on a hand, in units of the original bet.
+     *
+     * @param i the index of the hand
+     * @return 1, or 2 if the hand was doubled
+     */
+    public int getBet(int i) {
+        return bets[i];
+    }
+
+    /**
+     * Returns how a hand ended.
+     *
+     * @param i the index of the hand
+     * @return LOSS, PUSH or WIN
+     */
+    public int getOutcome(int i) {
+        return outcomes[i];
+    }
+
+    /** @return the value of the dealer's upcard this round */
+    public int getUpcard() {
+        return upcard;
+    }
+
+    /** @return whether the player surrendered this round */
+    public boolean isSurrendered() {
+        return surrendered;
+    }
+
+    /** @return whether the player took insurance this round */
+    public boolean isInsured() {
+        return insured;
+    }
+
+    /** @return whether the player was dealt a natural */
+    public boolean isPlayerBlackjack() {
+        return playerBlackjack;
+    }
+
+    /** @return whether the dealer was dealt a natural */
+    public boolean isDealerBlackjack() {
+        return dealerBlackjack;
+    }
+
+    /**
+     * Returns the first seven bytes of the hand-history record of the round just played, in
+     * the layout HandRecorder writes, shifted up a byte to leave room for the true count.
+     *
+     * @return the record's bytes 0-6 in bits 8-63
+     */
+    long getRecord() {
+        return record;
+    }
+
+    /** @return where the first card of the round just played was in the shoe */
+    int getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Returns a formatted string of every player hand with its bet and outcome, and the dealer's hand.
+     */
+    @Override
+    public String toString() {
+        StringBuilder state = new StringBuilder();
+        for (int i = 0; i < handCount; i++) {
+            state.append("Player's Hand ").append(i + 1).append(": ").append(hands[i])
+                    .append(" (bet ").append(bets[i]).append(", ")
+                    .append(outcomes[i] == WIN ? "win" : outcomes[i] == LOSS ? "loss" : "push").append(")\n");
+        }
+        if (surrendered) {
+            state.append("Player surrendered\n");
+        }
+        if (insured) {
+            state.append("Player took insurance\n");
+        }
+        state.append("Dealer's Hand: ").append(dealer).append('\n');
+        return state.toString();
+    }
+}
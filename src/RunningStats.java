@@ -0,0 +1,166 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Keeps the count, mean, variance, skewness and kurtosis of a stream of
+ * numbers without storing the numbers themselves. Each value is folded in with Welford's update
+ * (extended to the third and fourth central moments by Terriberry), which stays accurate even
+ * over billions of values, and two RunningStats built on different threads can be merged into
+ * one (Chan et al.'s parallel formula, extended by Pébay).
+ */
+public class RunningStats {
+
+    /** How many values have been added */
+    private long count;
+
+    /** The mean of the values added so far */
+    private double mean;
+
+    /** The sum of squared differences from the mean (variance times count) */
+    private double m2;
+
+    /** The sum of cubed differences from the mean */
+    private double m3;
+
+    /** The sum of differences from the mean to the fourth power */
+    private double m4;
+
+    /**
+     * Constructor — starts with no values.
+     */
+    public RunningStats() {
+    }
+
+    /**
+     * Adds one value to the stream.
+     *
+     * @param x the value to add
+     */
+    public void add(double x) {
+        long n1 = count;
+        count++;
+        double delta = x - mean;
+        double deltaN = delta / count;
+        double deltaN2 = deltaN * deltaN;
+        double term = delta * deltaN * n1; // delta * (x - new mean), using the old and the new mean
+        mean += deltaN;
+        // The higher moments are updated from the lower ones, so they go first
+        m4 += term * deltaN2 * ((double) count * count - 3.0 * count + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+        m3 += term * deltaN * (count - 2) - 3 * deltaN * m2;
+        m2 += term;
+    }
+
+    /**
+     * Folds the values summarized by another RunningStats into this one.
+     *
+     * @param other the statistics to merge in
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            m3 = other.m3;
+            m4 = other.m4;
+            return;
+        }
+        double na = count;
+        double nb = other.count;
+        double n = na + nb;
+        double delta = other.mean - mean;
+        double delta2 = delta * delta;
+
+        // The higher moments are combined from the lower ones, so they go first
+        m4 += other.m4
+                + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (n * n * n)
+                + 6 * delta2 * (na * na * other.m2 + nb * nb * m2) / (n * n)
+                + 4 * delta * (na * other.m3 - nb * m3) / n;
+        m3 += other.m3
+                + delta2 * delta * na * nb * (na - nb) / (n * n)
+                + 3 * delta * (na * other.m2 - nb * m2) / n;
+        m2 += other.m2 + delta2 * (na * nb / n);
+        mean += delta * nb / n;
+        count += other.count;
+    }
+
+    /**
+     * Flips the sign of every value added so far: the mean changes sign, the variance stays.
+     *
+     * @return this RunningStats, for convenience
+     */
+    public RunningStats negate() {
+        mean = -mean;
+        m3 = -m3; // odd moments change sign too
+        return this;
+    }
+
+    /** @return how many values have been added */
+    public long getCount() {
+        return count;
+    }
+
+    /** @return the mean of the values, or 0 if there are none */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the sample variance of the values.
+     *
+     * @return the variance, or 0 if fewer than two values were added
+     */
+    public double variance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    /**
+     * Returns the skewness of the values: how lopsided they are around the mean.
+     * Positive means a long tail of large values (e.g. rare big wins).
+     *
+     * @return the skewness, or 0 if the values do not vary
+     */
+    public double skewness() {
+        return m2 == 0 ? 0 : Math.sqrt(count) * m3 / Math.pow(m2, 1.5);
+    }
+
+    /**
+     * Returns the excess kurtosis of the values: how heavy their tails are compared with a
+     * normal distribution (which has 0).
+     *
+     * @return the excess kurtosis, or 0 if the values do not vary
+     */
+    public double kurtosis() {
+        return m2 == 0 ? 0 : count * m4 / (m2 * m2) - 3;
+    }
+
+    /**
+     * Returns the standard error of the mean.
+     *
+     * @return the standard deviation divided by the square root of the count
+     */
+    public double standardError() {
+        return count < 2 ? Double.POSITIVE_INFINITY : Math.sqrt(variance() / count);
+    }
+
+    /**
+     * Returns the half-width of a normal confidence interval around the mean.
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return z times the standard error
+     */
+    public double halfWidth(double z) {
+        return z * standardError();
+    }
+
+    /**
+     * Returns a short summary of the statistics.
+     *
+     * @return a string representation of these statistics
+     */
+    @Override
+    public String toString() {
+        return "[n " + count + ", mean " + mean + ", variance " + variance()
+                + ", skewness " + skewness() + ", kurtosis " + kurtosis() + "]";
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the interface: One kind of sharded simulation work. ParallelSimulation.playShards()
+ * cuts a run into fixed-size shards, asks a ShardPlayer to play each shard with that shard's own
+ * seed, and merges the shard results in an order that depends only on the number of shards.
+ * Plain runs, strategy sweeps and true-count runs all share that code this way, so they are all
+ * repeatable for any number of threads.
+ *
+ * @param <R> the type of result a shard produces
+ */
+interface ShardPlayer<R> {
+
+    /**
+     * Plays one shard.
+     *
+     * @param games the number of rounds in the shard
+     * @param seed the seed for this shard's generator
+     * @return the result of the shard
+     */
+    R play(long games, long seed);
+
+    /**
+     * Returns a result with nothing recorded, for an empty range of shards.
+     *
+     * @return an empty result
+     */
+    R empty();
+
+    /**
+     * Merges one result into another.
+     *
+     * @param into the result to add to
+     * @param other the result to add
+     */
+    void merge(R into, R other);
+}
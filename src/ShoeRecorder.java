@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Captures shuffled shoes to a file so they can be dealt again later with
+ * ShoeReplay, e.g. to check a change to the game against the previous build on exactly the same
+ * cards. Attach it with Deck.setRecorder(); every full shoe the deck shuffles is then written.
+ *
+ * Each card is stored as its composition index in 4 bits, two cards to a byte, so a 6-deck
+ * shoe takes 156 bytes. The file starts with an 8-byte header (MAGIC, VERSION and the number
+ * of decks per shoe). Shoes are gathered in a buffer and written through a FileChannel.
+ */
+public class ShoeRecorder implements AutoCloseable {
+
+    /** The first four bytes of every shoe file ("BJSH") */
+    public static final int MAGIC = 0x424A5348;
+
+    /** The version of the file layout */
+    public static final short VERSION = 1;
+
+    /** The size of the file header in bytes */
+    public static final int HEADER_SIZE = 8;
+
+    /** The size of the write buffer in bytes */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** The file being written */
+    private final FileChannel channel;
+
+    /** The number of decks in every shoe of the file */
+    private final int numDecks;
+
+    /** Shoes waiting to be written */
+    private final ByteBuffer buffer;
+
+    /** How many shoes have been recorded */
+    private long shoes;
+
+    /**
+     * Constructor — creates (or truncates) the file and writes its header.
+     *
+     * @param file the file to write
+     * @param numDecks the number of decks in every shoe that will be recorded
+     * @throws IOException if the file cannot be opened or its header written
+     */
+    public ShoeRecorder(Path file, int numDecks) throws IOException {
+        this.numDecks = numDecks;
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, shoeBytes(numDecks)));
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) numDecks);
+    }
+
+    /**
+     * Returns how many bytes one packed shoe takes.
+     *
+     * @param numDecks the number of decks in the shoe
+     * @return half a byte per card
+     */
+    static int shoeBytes(int numDecks) {
+        return numDecks * Deck.CARDS_PER_DECK / 2;
+    }
+
+    /**
+     * Appends one shoe, in dealing order.
+     *
+     * @param cards every card of the shoe, the first card to deal first
+     * @throws IOException if the buffer could not be written out
+     */
+    void record(Card[] cards) throws IOException {
+        if (cards.length != numDecks * Deck.CARDS_PER_DECK) {
+            throw new IllegalArgumentException("expected a " + numDecks + "-deck shoe, got " + cards.length + " cards");
+        }
+        if (buffer.remaining() < cards.length / 2) {
+            flush();
+        }
+        for (int i = 0; i < cards.length; i += 2) {
+            buffer.put((byte) (Composition.index(cards[i].getValue()) << 4 | Composition.index(cards[i + 1].getValue())));
+        }
+        shoes++;
+    }
+
+    /**
+     * Writes out whatever is in the buffer.
+     *
+     * @throws IOException if the write fails
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** @return how many shoes have been recorded */
+    public long shoes() {
+        return shoes;
+    }
+
+    /** @return the number of decks in every shoe of the file */
+    public int getNumDecks() {
+        return numDecks;
+    }
+
+    /**
+     * Writes out the last shoes and closes the file.
+     *
+     * @throws IOException if the write fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
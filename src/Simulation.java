@@ -1,3 +1,8 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
 /**
  * Author: Azeem Gbolahan
  * 
@@ -11,56 +16,480 @@
  *
  * Each simulation runs a large number of rounds (e.g., 1000),
  * and it prints out win percentages for the player and dealer, plus draw rates.
+ * The rounds are played in parallel by ParallelSimulation, which uses every core
+ * and also reports the throughput in hands per second.
  */
 
  public class Simulation {
 
     /**
      * Main method — the entry point of the simulation.
-     * It runs a set number of Blackjack games and summarizes the outcomes.
+     * It runs a set number of Blackjack games on every core and summarizes the outcomes.
+     *
+     * Usage: java Simulation [numGames] [threads] [seed] [decks] [penetration]
+     *        java Simulation until halfWidth [threads] [seed] [maxGames] [decks] [penetration]
+     *        java Simulation sweep [numGames] [from] [to] [threads] [seed] [decks] [penetration]
+     *        java Simulation count [numGames] [hilo|ko|omega2] [threads] [seed] [decks] [penetration]
+     *        java Simulation bankroll [trajectories] [bankroll] [maxBet] [threads] [seed] [maxRounds]
+     *        java Simulation record file [numGames] [threads] [seed]
+     *        java Simulation query file total hard|soft upcard [minTrueCount] [threads]
+     *        java Simulation reduce [pairs] [decks] [threads] [seed]
+     *        java Simulation strata [numGames] [decks] [threads] [seed]
+     *        java Simulation rare [dealer|streak] [cards|length] [trials] [decks] [threads] [seed]
+     *        java Simulation exact [decks] [upcard] [card1] [card2] [threads]
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("until")) {
+            runUntilConverged(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("sweep")) {
+            runSweep(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("count")) {
+            runByCount(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("bankroll")) {
+            runBankroll(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("record")) {
+            runRecorded(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("query")) {
+            runQuery(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("reduce")) {
+            runReduced(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("strata")) {
+            runStratified(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("rare")) {
+            runRare(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("exact")) {
+            runExact(args);
+            return;
+        }
 
-        int[] simulationCounts = {1000}; // Define how many games to simulate — here, 1000
-        Blackjack game = new Blackjack(); // Create a single Blackjack game object to reuse
+        long[] simulationCounts = {1000, 1000000}; // Define how many games to simulate
+        if (args.length > 0) {
+            simulationCounts = new long[] {Long.parseLong(args[0])}; // Or take the count from the command line
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors(); // One worker per core unless told otherwise
+        Long seed = args.length > 2 && !args[2].equals("-") ? Long.parseLong(args[2]) : null; // Fixed seed to repeat a run
+        int decks = args.length > 3 ? Integer.parseInt(args[3]) : 1;                // Decks in the shoe
+        double penetration = args.length > 4 ? Double.parseDouble(args[4]) : 0.5;   // Share dealt before reshuffling
+        ParallelSimulation simulation = new ParallelSimulation(threads, decks, penetration);
 
         // Header for the output
-        System.out.println("BLACKJACK SIMULATION RESULTS");
+        System.out.println("BLACKJACK SIMULATION RESULTS (" + threads + " threads, "
+                + decks + "-deck shoe, " + Math.round(penetration * 100) + "% penetration)");
         System.out.println("------------------------------------------------");
 
         // Loop over each simulation count (can support more than one, if added to array)
-        for (int numGames : simulationCounts) {
-
-            // Initialize counters for each possible outcome
-            int playerWins = 0; // Track how many games the player wins
-            int dealerWins = 0; // Track how many games the dealer wins
-            int draws = 0;      // Track how many games end in a tie
-
-            // Simulate 'numGames' rounds of Blackjack
-            for (int i = 0; i < numGames; i++) {
-                int result = game.game(false); // Run a single round of Blackjack
-
-                // Update counters based on game result
-                if (result == 1) {
-                    playerWins++;   // Player won
-                } else if (result == -1) {
-                    dealerWins++;   // Dealer won
-                } else {
-                    draws++;        // Game was a draw
-                }
-            }
+        for (long numGames : simulationCounts) {
 
-            // Convert raw counts into percentages
-            double playerWinPercent = (double) playerWins / numGames * 100;
-            double dealerWinPercent = (double) dealerWins / numGames * 100;
-            double drawPercent = (double) draws / numGames * 100;
+            // Simulate 'numGames' rounds of Blackjack spread across the worker threads
+            SimulationResult result = seed != null ? simulation.run(numGames, seed) : simulation.run(numGames);
 
             // Display the results for this simulation set
             System.out.println("Simulation for " + numGames + " games:");
-            System.out.printf("  Player Wins:  %d (%.2f%%)%n", playerWins, playerWinPercent);
-            System.out.printf("  Dealer Wins:  %d (%.2f%%)%n", dealerWins, dealerWinPercent);
-            System.out.printf("  Draws:        %d (%.2f%%)%n", draws, drawPercent);
+            printResult(result);
+            System.out.println("------------------------------------------------");
+        }
+    }
+
+    /**
+     * Plays games until the 95% confidence interval around the player's expected profit per
+     * round is narrower than the half-width given on the command line (in bets, so 0.001 is
+     * +/-0.1% of house edge), then prints how many hands it took and the interval it reached.
+     *
+     * @param args "until", the target half-width, and optionally threads, seed, maxGames, decks and penetration
+     */
+    static void runUntilConverged(String[] args) {
+        double halfWidth = Double.parseDouble(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long maxGames = args.length > 4 && !args[4].equals("-") ? Long.parseLong(args[4]) : 10_000_000_000L;
+        int decks = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+        double penetration = args.length > 6 ? Double.parseDouble(args[6]) : 0.5;
+        ParallelSimulation simulation = new ParallelSimulation(threads, decks, penetration);
+        SimulationResult result = args.length > 3 && !args[3].equals("-")
+                ? simulation.runUntil(halfWidth, maxGames, Long.parseLong(args[3]))
+                : simulation.runUntil(halfWidth, maxGames);
+
+        System.out.println("BLACKJACK SIMULATION - RUN UNTIL +/-" + halfWidth + " (95%, "
+                + decks + "-deck shoe, " + Math.round(penetration * 100) + "% penetration)");
+        System.out.println("------------------------------------------------");
+        System.out.println("Hands needed: " + result.games());
+        printResult(result);
+        System.out.printf("  Profit:       %.5f +/- %.5f bets per hand (the interval targeted)%n",
+                result.expectedValue(), result.getProfit().halfWidth(ParallelSimulation.Z_95));
+        System.out.printf("  Win - Loss:   %.5f +/- %.5f per hand%n",
+                result.edge(), result.edgeHalfWidth(ParallelSimulation.Z_95));
+        System.out.printf("  Player Wins:  %.3f%% +/- %.3f%%%n",
+                result.playerWinPercent(), result.playerWinHalfWidth(ParallelSimulation.Z_95));
+        System.out.println("------------------------------------------------");
+    }
+
+    /**
+     * Compares every stand threshold in a range on the same cards and prints them from best
+     * to worst by expected profit per round (in bets), with each one's difference from the
+     * best and that difference's 95% interval.
+     * The last column shows how wide the interval would be from two separate runs instead.
+     *
+     * @param args "sweep", and optionally numGames, from, to, threads, seed, decks and penetration
+     */
+    static void runSweep(String[] args) {
+        long numGames = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        int from = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+        int to = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Long seed = args.length > 5 && !args[5].equals("-") ? Long.parseLong(args[5]) : null;
+        int decks = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+        double penetration = args.length > 7 ? Double.parseDouble(args[7]) : 0.5;
+
+        StrategySweep sweep = new StrategySweep(threads, decks, penetration, StrategySweep.thresholds(from, to));
+        SweepResult result = seed != null ? sweep.run(numGames, seed) : sweep.run(numGames);
+
+        System.out.println("BLACKJACK STRATEGY SWEEP (" + numGames + " hands per variant, "
+                + decks + "-deck shoe, " + Math.round(penetration * 100) + "% penetration)");
+        System.out.println("-------------------------------------------------------------------------");
+        System.out.printf("%-4s %-14s %10s %10s %20s %12s%n", "rank", "variant", "EV", "+/-", "vs best (paired)", "unpaired +/-");
+        int[] ranking = result.ranking();
+        int best = ranking[0];
+        double bestError = result.getResult(best).getProfit().standardError();
+        for (int r = 0; r < ranking.length; r++) {
+            int v = ranking[r];
+            SimulationResult variant = result.getResult(v);
+            RunningStats diff = result.difference(v, best);
+            double error = variant.getProfit().standardError();
+            double unpaired = ParallelSimulation.Z_95 * Math.sqrt(error * error + bestError * bestError);
+            System.out.printf("%-4d %-14s %10.5f %10.5f %10.5f +/- %.5f %12.5f%n", r + 1, result.getName(v),
+                    variant.expectedValue(), variant.getProfit().halfWidth(ParallelSimulation.Z_95),
+                    diff.getMean(), v == best ? 0 : diff.halfWidth(ParallelSimulation.Z_95), v == best ? 0 : unpaired);
+        }
+        System.out.println("-------------------------------------------------------------------------");
+        System.out.printf("  Time:         %.3f s%n", result.getElapsedNanos() / 1e9);
+        System.out.println("  Seed:         " + result.getSeed());
+    }
+
+    /**
+     * Plays basic strategy with a card counter running, and prints the player's expected value
+     * at every true count, so bets can be sized by count.
+     *
+     * @param args "count", and optionally numGames, system, threads, seed, decks and penetration
+     */
+    static void runByCount(String[] args) {
+        long numGames = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000;
+        String name = args.length > 2 ? args[2] : "hilo";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 && !args[4].equals("-") ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+        int decks = args.length > 5 ? Integer.parseInt(args[5]) : 6;
+        double penetration = args.length > 6 ? Double.parseDouble(args[6]) : 0.75;
+
+        CountingSystem system;
+        switch (name) {
+            case "hilo":
+                system = CountingSystem.HI_LO;
+                break;
+            case "ko":
+                system = CountingSystem.KO;
+                break;
+            case "omega2":
+                system = CountingSystem.OMEGA_II;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown counting system (use hilo, ko or omega2): " + name);
+        }
+        RuleTable rules = new Rules().setDecks(decks).setPenetration(penetration).compile();
+        TrueCountResult result = new ParallelSimulation(threads, rules, new BasicStrategy()).runByCount(numGames, seed, system);
+
+        System.out.println("BLACKJACK EV BY TRUE COUNT (" + system + ", " + rules + ")");
+        System.out.println("------------------------------------------------");
+        System.out.printf("%6s %8s %10s %10s%n", "count", "rounds", "EV", "+/-");
+        for (int tc = TrueCountResult.MIN_COUNT; tc <= TrueCountResult.MAX_COUNT; tc++) {
+            SimulationResult bucket = result.getBucket(tc);
+            if (bucket.games() == 0) {
+                continue;
+            }
+            System.out.printf("%6d %7.2f%% %+10.5f %10.5f%n", tc, 100.0 * bucket.games() / result.games(),
+                    bucket.expectedValue(), bucket.getProfit().halfWidth(ParallelSimulation.Z_95));
+        }
+        System.out.println("------------------------------------------------");
+        System.out.printf("  Time:         %.3f s%n", result.getElapsedNanos() / 1e9);
+        System.out.println("  Seed:         " + result.getSeed());
+    }
+
+    /**
+     * Follows bankroll trajectories with a flat bet and with a Hi-Lo bet spread, and prints
+     * the risk of ruin, the median time to double and the drawdowns of each.
+     *
+     * @param args the command-line arguments, starting with "bankroll"
+     */
+    static void runBankroll(String[] args) {
+        long trajectories = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+        double bankroll = args.length > 2 ? Double.parseDouble(args[2]) : 200;
+        double maxBet = args.length > 3 ? Double.parseDouble(args[3]) : 8;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 && !args[5].equals("-") ? Long.parseLong(args[5]) : new SplittableRandom().nextLong();
+        long maxRounds = args.length > 6 ? Long.parseLong(args[6]) : 1_000_000;
+
+        RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+        BetRamp[] ramps = {BetRamp.flat(1), BetRamp.spread(CountingSystem.HI_LO, 1, 2, maxBet)};
+
+        System.out.println("BLACKJACK BANKROLL SIMULATION (" + trajectories + " trajectories, bankroll " + bankroll
+                + ", goal " + 2 * bankroll + ", " + rules + ")");
+        System.out.println("------------------------------------------------");
+        for (BetRamp ramp : ramps) {
+            BankrollResult result = new BankrollSimulation(threads, rules, new BasicStrategy(), ramp)
+                    .run(trajectories, bankroll, 2 * bankroll, maxRounds, seed);
+            long median = result.medianTimeToDouble();
+            System.out.println("  Bet ramp:         " + ramp);
+            System.out.printf("  Risk of Ruin:     %.2f%% +/- %.2f%%%n", 100 * result.riskOfRuin(),
+                    100 * result.ruinHalfWidth(ParallelSimulation.Z_95));
+            System.out.printf("  Doubled:          %.2f%%%n", 100 * result.doubledFraction());
+            System.out.println("  Median to Double: " + (median < 0 ? "never (under half doubled)" : median + " rounds"));
+            System.out.printf("  Drawdown:         median %.1f, 90%% %.1f, 99%% %.1f units%n", result.drawdownPercentile(50),
+                    result.drawdownPercentile(90), result.drawdownPercentile(99));
+            System.out.printf("  Mean Rounds:      %.0f (%d unfinished)%n", result.getRounds().getMean(), result.getUnfinished());
+            System.out.printf("  Time:             %.3f s%n", result.getElapsedNanos() / 1e9);
             System.out.println("------------------------------------------------");
         }
+        System.out.println("  Seed:             " + seed);
+    }
+
+    /**
+     * Plays 6-deck basic-strategy rounds and writes every one of them to a hand-history file.
+     *
+     * @param args the command-line arguments, starting with "record"
+     */
+    static void runRecorded(String[] args) {
+        Path file = Paths.get(args[1]);
+        long numGames = args.length > 2 ? Long.parseLong(args[2]) : 10_000_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 && !args[4].equals("-") ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+
+        RuleTable rules = new Rules().setDecks(6).setPenetration(0.75).compile();
+        SimulationResult result;
+        try (HandRecorder recorder = new HandRecorder(file, threads, CountingSystem.HI_LO)) {
+            result = new ParallelSimulation(threads, rules, new BasicStrategy()).run(numGames, seed, recorder);
+        } catch (IOException e) {
+            System.out.println("Could not write " + file + ": " + e.getMessage());
+            return;
+        }
+        System.out.println("BLACKJACK HAND HISTORY (" + rules + ", " + numGames + " rounds to " + file + ")");
+        System.out.println("------------------------------------------------");
+        printResult(result);
+    }
+
+    /**
+     * Answers a question about a recorded hand history, e.g. "hard 16 against a 10 at +2 or more".
+     *
+     * @param args the command-line arguments, starting with "query"
+     */
+    static void runQuery(String[] args) {
+        Path file = Paths.get(args[1]);
+        int total = Integer.parseInt(args[2]);
+        boolean soft = args[3].equals("soft");
+        int upcard = Integer.parseInt(args[4]);
+        int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+        HistoryQuery query = new HistoryQuery().initialHand(total, soft).upcard(upcard);
+        if (args.length > 5) {
+            query.minTrueCount(Double.parseDouble(args[5]));
+        }
+        HandHistory history;
+        try {
+            history = new HandHistory(file);
+        } catch (IOException e) {
+            System.out.println("Could not read " + file + ": " + e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+        HistoryIndex index = new HistoryIndex(history);
+        long indexNanos = System.nanoTime() - start;
+        SimulationResult scanned = query.run(history, threads);
+        SimulationResult indexed = query.run(index, threads);
+
+        System.out.println("BLACKJACK HAND HISTORY QUERY (" + (soft ? "soft " : "hard ") + total + " vs " + upcard
+                + (args.length > 5 ? ", true count >= " + args[5] : "") + ", " + history.size() + " rounds)");
+        System.out.println("------------------------------------------------");
+        System.out.println("  Matching Rounds:  " + indexed.games());
+        System.out.printf("  Player Wins:      %.2f%%%n", indexed.playerWinPercent());
+        System.out.printf("  EV:               %+.4f +/- %.4f%n", indexed.expectedValue(),
+                indexed.getProfit().halfWidth(ParallelSimulation.Z_95));
+        System.out.printf("  Full Scan:        %.3f s%n", scanned.getElapsedNanos() / 1e9);
+        System.out.printf("  Index Build:      %.3f s%n", indexNanos / 1e9);
+        System.out.printf("  Indexed Query:    %.3f s%n", indexed.getElapsedNanos() / 1e9);
+    }
+
+    /**
+     * Plays the same shoes with each variance-reduction estimator switched on in turn, and prints
+     * the edge each one gives with the variance reduction factor it achieved.
+     *
+     * @param args the command-line arguments, starting with "reduce"
+     */
+    static void runReduced(String[] args) {
+        long pairs = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        int decks = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 && !args[4].equals("-") ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+
+        RuleTable rules = new Rules().setDecks(decks).setPenetration(decks == 1 ? 0.5 : 0.75).compile();
+        String[] names = {"plain", "antithetic", "control", "both"};
+
+        System.out.println("BLACKJACK VARIANCE REDUCTION (" + pairs + " pairs of shoes, " + rules + ")");
+        System.out.println("--------------------------------------------------------------");
+        System.out.printf("%-11s %10s %10s %10s %8s %9s%n", "estimator", "rounds", "EV", "+/-", "VRF", "time");
+        for (int i = 0; i < names.length; i++) {
+            VarianceReducedResult result = new VarianceReducedSimulation(threads, rules, new BasicStrategy())
+                    .setAntithetic((i & 1) != 0).setControlVariate((i & 2) != 0).run(pairs, seed);
+            System.out.printf("%-11s %10d %+10.5f %10.5f %8.3f %8.3fs%n", names[i], result.games(), result.expectedValue(),
+                    result.halfWidth(ParallelSimulation.Z_95), result.varianceReductionFactor(), result.getElapsedNanos() / 1e9);
+        }
+        System.out.println("--------------------------------------------------------------");
+        System.out.println("  Seed:         " + seed);
+    }
+
+    /**
+     * Estimates the edge off the top of a fresh shoe by stratified sampling over the initial deal,
+     * and prints it with its variance reduction factor, followed by the expected value of every
+     * starting pair against every upcard.
+     *
+     * @param args the command-line arguments, starting with "strata"
+     */
+    static void runStratified(String[] args) {
+        long numGames = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000;
+        int decks = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 && !args[4].equals("-") ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+
+        RuleTable rules = new Rules().setDecks(decks).compile();
+        StratifiedResult result = new StratifiedSimulation(threads, rules, new BasicStrategy()).run(numGames, seed);
+
+        System.out.println("BLACKJACK STRATIFIED SIMULATION (" + StratifiedSimulation.STRATA + " strata, " + rules + ")");
+        System.out.println("------------------------------------------------------------------------");
+        System.out.printf("%-6s", "pair");
+        for (int up = 2; up <= 11; up++) {
+            System.out.printf("%7s", up == 11 ? "A" : String.valueOf(up));
+        }
+        System.out.println();
+        for (int s = 0; s < StratifiedSimulation.STRATA; s += 10) { // One row per pair, upcards 2 to A across
+            int low = StratifiedSimulation.lowCard(s);
+            int high = StratifiedSimulation.highCard(s);
+            System.out.printf("%-6s", (low == 11 ? "A" : low) + "," + (high == 11 ? "A" : high));
+            for (int up = 0; up < 10; up++) {
+                System.out.printf("%+7.3f", result.getStratum(s + up).getMean());
+            }
+            System.out.println();
+        }
+        System.out.println("------------------------------------------------------------------------");
+        System.out.printf("  EV:           %+.5f +/- %.5f (95%%), %d rounds after the pilot%n", result.expectedValue(),
+                result.halfWidth(ParallelSimulation.Z_95), result.games());
+        System.out.printf("  Plain +/-:    %.5f for as many rounds (VRF %.3f)%n",
+                ParallelSimulation.Z_95 * result.plainStandardError(), result.varianceReductionFactor());
+        System.out.printf("  Time:         %.3f s%n", result.getElapsedNanos() / 1e9);
+        System.out.println("  Seed:         " + seed);
+    }
+
+    /**
+     * Estimates the probability of a rare event twice with the same number of trials, once
+     * plainly and once by importance sampling, and prints both with their effective sample sizes.
+     * "dealer n" is the dealer making 21 with n or more cards, tilted toward low dealer cards;
+     * "streak n" is losing the first n rounds of a shoe, tilted slightly toward dealer tens.
+     *
+     * @param args the command-line arguments, starting with "rare"
+     */
+    static void runRare(String[] args) {
+        boolean streak = args.length > 1 && args[1].equals("streak");
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : (streak ? 10 : 6);
+        long trials = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+        int decks = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 6 && !args[6].equals("-") ? Long.parseLong(args[6]) : new SplittableRandom().nextLong();
+
+        RuleTable rules = new Rules().setDecks(decks).compile();
+        RareEvent event = streak ? ImportanceSampler.losingStreak(n) : ImportanceSampler.dealerTwentyOne(n);
+        double theta = streak ? 0.05 : -0.3;
+        ImportanceResult plain = new ImportanceSampler(threads, rules, new BasicStrategy()).run(event, trials, seed);
+        ImportanceResult tilted = new ImportanceSampler(threads, rules, new BasicStrategy())
+                .setTilt(ImportanceSampler.pointTilt(theta)).setDealerOnly(true).run(event, trials, seed);
+
+        System.out.println("BLACKJACK RARE EVENT: " + event + " (" + trials + " trials, " + rules + ")");
+        System.out.println("------------------------------------------------------------------------------");
+        System.out.printf("%-8s %8s %12s %11s %10s %12s %8s%n", "sampler", "hits", "P", "+/-", "hit ESS", "plain equiv", "time");
+        ImportanceResult[] results = {plain, tilted};
+        String[] names = {"plain", "tilted"};
+        for (int i = 0; i < results.length; i++) {
+            ImportanceResult result = results[i];
+            System.out.printf("%-8s %8d %12.4e %11.2e %10.0f %12.0f %7.2fs%n", names[i], result.getHits(), result.probability(),
+                    result.halfWidth(ParallelSimulation.Z_95), result.effectiveHits(), result.equivalentPlainTrials(),
+                    result.getElapsedNanos() / 1e9);
+        }
+        System.out.println("------------------------------------------------------------------------------");
+        System.out.printf("  Tilt:         dealer's cards, theta %+.2f (ESS %.0f of %d, mean weight %.4f)%n", theta,
+                tilted.effectiveSampleSize(), trials, tilted.meanWeight());
+        System.out.println("  Seed:         " + seed);
+    }
+
+    /**
+     * Works out the exact value of every action for one starting hand against an upcard, drawing
+     * from a full shoe with those three cards taken out, and prints them with the best one.
+     *
+     * @param args the command-line arguments, starting with "exact"
+     */
+    static void runExact(String[] args) {
+        int decks = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int upcard = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int card1 = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int card2 = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        RuleTable rules = new Rules().setDecks(decks).compile();
+        ExactSolver solver = new ExactSolver(threads, rules, 1 << 16);
+        long start = System.nanoTime();
+        HandValues values = solver.solve(ExactSolver.afterDeal(decks, upcard, card1, card2), upcard, card1, card2);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("BLACKJACK EXACT VALUES: " + card1 + "," + card2 + " against " + upcard + " (" + rules + ")");
+        System.out.println("------------------------------------------------");
+        System.out.printf("  Stand:        %+.6f%n", values.getStand());
+        System.out.printf("  Hit:          %+.6f%n", values.getHit());
+        System.out.printf("  Double:       %+.6f%n", values.getDouble());
+        System.out.printf("  Split:        %+.6f%n", values.getSplit());
+        System.out.printf("  Surrender:    %+.6f%n", values.getSurrender());
+        System.out.println("------------------------------------------------");
+        System.out.printf("  Best:         %s (%+.6f)%n", HandValues.name(values.bestAction()), values.bestValue());
+        System.out.printf("  Time:         %.3f s, %d compositions in the memo%n", elapsed / 1e9, solver.cacheSize());
+    }
+
+    /**
+     * Prints the counters, percentages, house edge, profit moments and throughput of a finished simulation.
+     *
+     * @param result the merged result of a simulation run
+     */
+    static void printResult(SimulationResult result) {
+        System.out.printf("  Player Wins:  %d (%.2f%%)%n", result.getPlayerWins(), result.playerWinPercent());
+        System.out.printf("  Dealer Wins:  %d (%.2f%%)%n", result.getDealerWins(), result.dealerWinPercent());
+        System.out.printf("  Draws:        %d (%.2f%%)%n", result.getDraws(), result.drawPercent());
+        RunningStats profit = result.getProfit();
+        System.out.printf("  House Edge:   %.3f%% +/- %.3f%% (95%%)%n",
+                result.houseEdgePercent(), result.houseEdgeHalfWidth(ParallelSimulation.Z_95));
+        System.out.printf("  Per Round:    std dev %.4f, skewness %.4f, kurtosis %.4f%n",
+                Math.sqrt(profit.variance()), profit.skewness(), profit.kurtosis());
+        System.out.printf("  Throughput:   %.0f hands/sec (%.3f s)%n",
+                result.handsPerSecond(), result.getElapsedNanos() / 1e9);
+        System.out.println("  Seed:         " + result.getSeed());
     }
 }
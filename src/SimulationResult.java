@@ -0,0 +1,253 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: This class holds the outcome counters of a batch of Blackjack games.
+ * Each worker of the parallel simulation fills its own SimulationResult, and the
+ * results are merged together at the end to give the totals for the whole run.
+ *
+ * Besides the counters, the result of every game (+1, -1 or 0) is folded into a
+ * RunningStats, which gives the player's edge per hand with its confidence interval.
+ * A second RunningStats holds the player's net profit per round in units of the original
+ * bet (a natural pays 3:2, a doubled hand wins or loses 2, a surrender loses half), which
+ * gives the house edge with its standard error, skewness and kurtosis from a single pass.
+ */
+public class SimulationResult {
+
+    /** Number of games the player won */
+    private long playerWins;
+
+    /** Number of games the dealer won */
+    private long dealerWins;
+
+    /** Number of games that ended in a draw */
+    private long draws;
+
+    /** Wall-clock time the batch took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the run was played with */
+    private long seed;
+
+    /** Streaming mean and variance of the per-game results (+1, -1, 0) */
+    private final RunningStats outcomes = new RunningStats();
+
+    /** Streaming moments of the player's net profit per round, in units of the original bet */
+    private final RunningStats profit = new RunningStats();
+
+    /**
+     * Constructor — creates an empty result with every counter at zero.
+     */
+    public SimulationResult() {
+    }
+
+    /**
+     * Records the result of one game as returned by Blackjack.game().
+     *
+     * @param result 1 if the player won, -1 if the dealer won, 0 for a draw
+     */
+    public void record(int result) {
+        record(result, result); // Without payouts, the profit is the result itself
+    }
+
+    /**
+     * Records one round: whether the player came out ahead, and by how much.
+     *
+     * @param result 1 if the player came out ahead, -1 if behind, 0 if even
+     * @param net the player's net profit in units of the original bet
+     */
+    public void record(int result, double net) {
+        profit.add(net);
+        if (result == 1) {
+            playerWins++;   // Player won
+        } else if (result == -1) {
+            dealerWins++;   // Dealer won
+        } else {
+            draws++;        // Game was a draw
+        }
+        outcomes.add(result);
+    }
+
+    /**
+     * Adds the counters of another result into this one.
+     *
+     * @param other the result to merge into this one
+     */
+    public void merge(SimulationResult other) {
+        playerWins += other.playerWins;
+        dealerWins += other.dealerWins;
+        draws += other.draws;
+        outcomes.merge(other.outcomes);
+        profit.merge(other.profit);
+    }
+
+    /**
+     * Returns the total number of games recorded.
+     *
+     * @return the number of games
+     */
+    public long games() {
+        return playerWins + dealerWins + draws;
+    }
+
+    /** @return the number of games the player won */
+    public long getPlayerWins() {
+        return playerWins;
+    }
+
+    /** @return the number of games the dealer won */
+    public long getDealerWins() {
+        return dealerWins;
+    }
+
+    /** @return the number of games that ended in a draw */
+    public long getDraws() {
+        return draws;
+    }
+
+    /** @return the player win percentage (0 - 100) */
+    public double playerWinPercent() {
+        return percent(playerWins);
+    }
+
+    /** @return the dealer win percentage (0 - 100) */
+    public double dealerWinPercent() {
+        return percent(dealerWins);
+    }
+
+    /** @return the draw percentage (0 - 100) */
+    public double drawPercent() {
+        return percent(draws);
+    }
+
+    /**
+     * Returns the player's edge: the mean result per game (+1 for a win, -1 for a loss).
+     *
+     * @return the edge per hand, between -1 and 1
+     */
+    public double edge() {
+        return outcomes.getMean();
+    }
+
+    /**
+     * Returns the half-width of the confidence interval around the edge.
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return the half-width, in the same units as edge()
+     */
+    public double edgeHalfWidth(double z) {
+        return outcomes.halfWidth(z);
+    }
+
+    /**
+     * Returns the half-width of the confidence interval around the player win percentage.
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return the half-width in percentage points
+     */
+    public double playerWinHalfWidth(double z) {
+        long games = games();
+        if (games == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double p = (double) playerWins / games;
+        return z * Math.sqrt(p * (1 - p) / games) * 100;
+    }
+
+    /** @return the streaming statistics of the per-game results */
+    public RunningStats getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Returns the player's expected profit per round, in units of the original bet.
+     *
+     * @return the mean net profit per round
+     */
+    public double expectedValue() {
+        return profit.getMean();
+    }
+
+    /**
+     * Returns the house edge: the share of the original bet the player loses per round on average.
+     *
+     * @return the house edge in percent (negative if the player has the advantage)
+     */
+    public double houseEdgePercent() {
+        return -profit.getMean() * 100;
+    }
+
+    /**
+     * Returns the half-width of the confidence interval around the house edge.
+     *
+     * @param z the number of standard errors (1.96 for 95%)
+     * @return the half-width in percentage points
+     */
+    public double houseEdgeHalfWidth(double z) {
+        return profit.halfWidth(z) * 100;
+    }
+
+    /** @return the streaming moments of the net profit per round */
+    public RunningStats getProfit() {
+        return profit;
+    }
+
+    /**
+     * Sets how long the batch took to run.
+     *
+     * @param elapsedNanos the elapsed wall-clock time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Sets the master seed the run was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the run was played with */
+    public long getSeed() {
+        return seed;
+    }
+
+    /** @return the elapsed wall-clock time in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the throughput of the batch.
+     *
+     * @return the number of hands played per second, or 0 if no time was recorded
+     */
+    public double handsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return games() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Converts a counter into a percentage of all games.
+     *
+     * @param count the counter to convert
+     * @return the percentage, or 0 if no games were recorded
+     */
+    private double percent(long count) {
+        long games = games();
+        return games == 0 ? 0 : (double) count / games * 100;
+    }
+
+    /**
+     * Returns a short summary of the counters.
+     *
+     * @return a string representation of this result
+     */
+    @Override
+    public String toString() {
+        return "[player " + playerWins + ", dealer " + dealerWins + ", draws " + draws + "]";
+    }
+}
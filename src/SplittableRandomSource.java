@@ -0,0 +1,39 @@
+import java.util.SplittableRandom;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A RandomSource backed by java.util.SplittableRandom.
+ * It is not synchronized, it is fast, and it can be created from a seed so that
+ * a shuffle can be repeated exactly. This is the generator a Deck uses by default.
+ */
+public class SplittableRandomSource implements RandomSource {
+
+    /** The underlying generator */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor — creates a generator with a fresh, unpredictable seed.
+     */
+    public SplittableRandomSource() {
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Constructor that creates a generator from a fixed seed.
+     *
+     * @param seed the seed; the same seed always gives the same sequence
+     */
+    public SplittableRandomSource(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A Strategy compiled into dense lookup tables of actions, indexed by the
+ * player's total, the soft flag and the dealer's upcard (and by pair value for splits).
+ * Compiling asks the source strategy about every possible hand once; after that each decision
+ * is a single array load, whatever the original strategy was. The tables never change, so
+ * one instance can be shared by all threads.
+ */
+public final class StrategyTable implements Strategy {
+
+    /** The highest total the table covers (a hand over 21 has already bust) */
+    static final int MAX_TOTAL = 21;
+
+    /** The lowest total a two-card hand can have (2 + 2) */
+    static final int MIN_TOTAL = 4;
+
+    /** The action for each hand, at index (total * 32) + (soft * 16) + upcard */
+    private final byte[] actions = new byte[(MAX_TOTAL + 1) * 32];
+
+    /** The same actions reduced to HIT or STAND, for games without doubling or surrender */
+    private final byte[] hitStand = new byte[(MAX_TOTAL + 1) * 32];
+
+    /** Whether to split each pair, at index (pair value * 16) + upcard */
+    private final boolean[] splits = new boolean[(Card.MAX_VALUE + 1) * 16];
+
+    /** Whether to take insurance */
+    private final boolean insurance;
+
+    /** A short description of the strategy this table was compiled from */
+    private final String name;
+
+    /**
+     * Constructor — fills the tables by asking the source strategy about every hand.
+     *
+     * @param source the strategy to compile
+     */
+    private StrategyTable(Strategy source) {
+        this.name = source.toString();
+        this.insurance = source.insurance();
+        for (int up = Card.MIN_VALUE; up <= Card.MAX_VALUE; up++) {
+            for (int total = MIN_TOTAL; total <= MAX_TOTAL; total++) {
+                for (int soft = 0; soft <= 1; soft++) {
+                    if (soft == 1 && total < 12) {
+                        continue; // a soft hand is at least A + A = 12
+                    }
+                    int action = source.decide(total, soft == 1, up);
+                    actions[index(total, soft == 1, up)] = (byte) action;
+                    hitStand[index(total, soft == 1, up)] = fallback(action);
+                }
+            }
+            for (int pair = Card.MIN_VALUE; pair <= Card.MAX_VALUE; pair++) {
+                splits[(pair << 4) | up] = source.split(pair, up);
+            }
+        }
+    }
+
+    /**
+     * Compiles a strategy into lookup tables. A strategy that is already a table is returned as is.
+     *
+     * @param source the strategy to compile
+     * @return the compiled table
+     */
+    public static StrategyTable compile(Strategy source) {
+        if (source instanceof StrategyTable) {
+            return (StrategyTable) source;
+        }
+        return new StrategyTable(source);
+    }
+
+    /**
+     * Looks the action up in the table.
+     *
+     * @param total the player's current total (4 to 21)
+     * @param soft whether the hand is soft
+     * @param dealerUpcard the value of the dealer's upcard
+     * @return the compiled action
+     */
+    @Override
+    public int decide(int total, boolean soft, int dealerUpcard) {
+        return actions[index(total, soft, dealerUpcard)];
+    }
+
+    /**
+     * Looks up whether to hit when only hitting and standing are allowed.
+     *
+     * @param total the player's current total (4 to 21)
+     * @param soft whether the hand is soft
+     * @param dealerUpcard the value of the dealer's upcard
+     * @return true to hit, false to stand
+     */
+    public boolean hits(int total, boolean soft, int dealerUpcard) {
+        return hitStand[index(total, soft, dealerUpcard)] == HIT;
+    }
+
+    @Override
+    public boolean split(int pairValue, int dealerUpcard) {
+        return splits[(pairValue << 4) | dealerUpcard];
+    }
+
+    @Override
+    public boolean insurance() {
+        return insurance;
+    }
+
+    /**
+     * Returns what an action becomes when doubling and surrendering are not allowed.
+     *
+     * @param action one of the action constants
+     * @return HIT or STAND
+     */
+    static byte fallback(int action) {
+        return action == STAND || action == DOUBLE_OR_STAND ? STAND : HIT;
+    }
+
+    /**
+     * Returns the table position of a hand.
+     *
+     * @param total the player's total
+     * @param soft whether the hand is soft
+     * @param dealerUpcard the value of the dealer's upcard
+     * @return the index into the action tables
+     */
+    private static int index(int total, boolean soft, int dealerUpcard) {
+        return (total << 5) | (soft ? 16 : 0) | dealerUpcard;
+    }
+
+    /**
+     * Returns the name of the compiled strategy.
+     *
+     * @return a string representation of this table
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+file name:      StrategyTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea StrategyTests
+*/
+
+public class StrategyTests {
+
+    public static void strategyTests() {
+
+        // case 1: testing ThresholdStrategy
+        {
+            // set up
+            Strategy s = new ThresholdStrategy(17);
+
+            // verify
+            System.out.println(s + ": 16 -> " + s.decide(16, false, 10) + ", 17 -> " + s.decide(17, false, 10));
+
+            // test
+            assert s.decide(16, false, 10) == Strategy.HIT : "Error in ThresholdStrategy::decide()";
+            assert s.decide(17, false, 10) == Strategy.STAND : "Error in ThresholdStrategy::decide()";
+            assert s.decide(12, true, 2) == Strategy.HIT : "Error in ThresholdStrategy::decide()";
+        }
+
+        // case 2: testing that a compiled table agrees with its strategy on every hand
+        {
+            // set up
+            Strategy[] strategies = {new ThresholdStrategy(17), new ThresholdStrategy(13), new BasicStrategy()};
+
+            for (Strategy s : strategies) {
+                StrategyTable table = StrategyTable.compile(s);
+
+                // verify
+                System.out.println("compiled " + table);
+
+                // test
+                for (int total = 4; total <= 21; total++) {
+                    for (int up = 2; up <= 11; up++) {
+                        assert table.decide(total, false, up) == s.decide(total, false, up) : "Error in StrategyTable::decide() - hard " + total;
+                        if (total >= 12) {
+                            assert table.decide(total, true, up) == s.decide(total, true, up) : "Error in StrategyTable::decide() - soft " + total;
+                        }
+                    }
+                }
+                assert StrategyTable.compile(table) == table : "Error in StrategyTable::compile() - recompiled a table";
+            }
+        }
+
+        // case 3: testing BasicStrategy on well-known hands
+        {
+            // set up
+            Strategy s = new BasicStrategy();
+
+            // verify
+            System.out.println("hard 12 vs 4: " + s.decide(12, false, 4) + ", soft 18 vs 9: " + s.decide(18, true, 9));
+
+            // test
+            assert s.decide(12, false, 4) == Strategy.STAND : "Error in BasicStrategy::decide() - hard 12 vs 4";
+            assert s.decide(12, false, 2) == Strategy.HIT : "Error in BasicStrategy::decide() - hard 12 vs 2";
+            assert s.decide(13, false, 6) == Strategy.STAND : "Error in BasicStrategy::decide() - hard 13 vs 6";
+            assert s.decide(16, false, 10) == Strategy.SURRENDER : "Error in BasicStrategy::decide() - hard 16 vs 10";
+            assert s.decide(16, false, 7) == Strategy.HIT : "Error in BasicStrategy::decide() - hard 16 vs 7";
+            assert s.decide(17, false, 11) == Strategy.STAND : "Error in BasicStrategy::decide() - hard 17 vs A";
+            assert s.decide(11, false, 10) == Strategy.DOUBLE : "Error in BasicStrategy::decide() - hard 11 vs 10";
+            assert s.decide(17, true, 6) == Strategy.DOUBLE : "Error in BasicStrategy::decide() - soft 17 vs 6";
+            assert s.decide(18, true, 4) == Strategy.DOUBLE_OR_STAND : "Error in BasicStrategy::decide() - soft 18 vs 4";
+            assert s.decide(18, true, 8) == Strategy.STAND : "Error in BasicStrategy::decide() - soft 18 vs 8";
+            assert s.decide(18, true, 9) == Strategy.HIT : "Error in BasicStrategy::decide() - soft 18 vs 9";
+            assert s.decide(19, true, 10) == Strategy.STAND : "Error in BasicStrategy::decide() - soft 19 vs 10";
+            assert s.split(8, 10) && s.split(11, 11) : "Error in BasicStrategy::split() - 8s and Aces";
+            assert !s.split(10, 6) && !s.split(5, 6) : "Error in BasicStrategy::split() - 10s and 5s";
+            assert s.split(9, 9) && !s.split(9, 7) : "Error in BasicStrategy::split() - 9s";
+            assert !s.insurance() : "Error in BasicStrategy::insurance()";
+        }
+
+        // case 4: testing the compiled split table and the hit/stand fallbacks
+        {
+            // set up
+            Strategy s = new BasicStrategy();
+            StrategyTable table = StrategyTable.compile(s);
+
+            // verify
+            System.out.println("hard 11 vs 6 without doubling hits: " + table.hits(11, false, 6));
+
+            // test
+            for (int pair = 2; pair <= 11; pair++) {
+                for (int up = 2; up <= 11; up++) {
+                    assert table.split(pair, up) == s.split(pair, up) : "Error in StrategyTable::split()";
+                }
+            }
+            assert table.hits(11, false, 6) : "Error in StrategyTable::hits() - DOUBLE should fall back to HIT";
+            assert !table.hits(18, true, 4) : "Error in StrategyTable::hits() - DOUBLE_OR_STAND should fall back to STAND";
+            assert table.hits(16, false, 10) : "Error in StrategyTable::hits() - SURRENDER should fall back to HIT";
+            assert !table.hits(17, false, 10) : "Error in StrategyTable::hits()";
+            assert !table.insurance() : "Error in StrategyTable::insurance()";
+        }
+
+        // case 5: testing that the default strategy plays exactly like the old "hit on 16 or less" rule
+        {
+            // set up
+            Blackjack defaultGame = new Blackjack(new SplittableRandomSource(11));
+            Blackjack thresholdGame = new Blackjack(new SplittableRandomSource(11));
+            thresholdGame.setStrategy(new ThresholdStrategy(17));
+            boolean same = true;
+
+            // verify
+            for (int i = 0; i < 50000; i++) {
+                same &= defaultGame.game(false) == thresholdGame.game(false);
+            }
+            System.out.println("default == stand on 17: " + same);
+
+            // test
+            assert same : "Error in Blackjack::setStrategy()";
+        }
+
+        // case 6: testing that basic strategy beats the fixed threshold on the same shoes
+        {
+            // set up
+            long games = 20L * ParallelSimulation.SHARD_SIZE;
+            SimulationResult threshold = new ParallelSimulation(2, 6, 0.75, new ThresholdStrategy(17)).run(games, 5);
+            SimulationResult basic = new ParallelSimulation(2, 6, 0.75, new BasicStrategy()).run(games, 5);
+
+            // verify
+            System.out.println("EV: stand on 17 " + threshold.expectedValue() + ", basic " + basic.expectedValue());
+
+            // test
+            assert basic.expectedValue() > threshold.expectedValue() : "Error in BasicStrategy - no better than stand on 17";
+            assert basic.houseEdgePercent() > 0 && basic.houseEdgePercent() < 1.5 : "Error in BasicStrategy - house edge out of range";
+            assert basic.games() == games : "Error in ParallelSimulation::run() with a strategy";
+        }
+
+        System.out.println("*** Done testing Strategy! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        strategyTests();
+    }
+}
@@ -0,0 +1,296 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: StratifiedSimulation.java
+ *
+ * Purpose:
+ * This class estimates the player's edge on the first round dealt from a fresh shoe by
+ * stratified sampling over the initial deal, instead of dealing the first three cards at random.
+ * Which two cards the player gets and which upcard the dealer shows explain most of the spread
+ * of a round's result, so fixing them takes that spread out of the estimate.
+ *
+ * There are STRATA = 550 strata: the 55 unordered pairs of player cards times the 10 upcards.
+ * The exact probability of each one is worked out from the shoe's composition (probabilities()).
+ * A round in a stratum is dealt from a full shoe with the stratum's three cards placed where the
+ * player and the dealer receive them and the rest of the shoe shuffled, which is exactly the
+ * shoe a random deal would give conditioned on those three cards.
+ *
+ * The rounds are shared out in two phases:
+ * 1. a pilot of the same few rounds in every stratum measures the spread of each stratum, and
+ * 2. the rest of the budget is split in proportion to probability * standard deviation
+ *    (Neyman allocation), so the strata that move the answer most get the most rounds.
+ * Only the second phase's rounds go into the result. Its allocation is fixed before any of them
+ * are played, so the weighted sum of the strata means is exactly unbiased.
+ *
+ * Every stratum in a phase is played with its own generator, seeded from the master seed
+ * and the stratum's index. The strata are shared out over a ForkJoinPool, and the answer is
+ * the same on any number of threads.
+ */
+public class StratifiedSimulation {
+
+    /** The number of unordered pairs of player cards */
+    public static final int PAIRS = Composition.RANKS * (Composition.RANKS + 1) / 2;
+
+    /** The number of strata: every player pair against every upcard */
+    public static final int STRATA = PAIRS * Composition.RANKS;
+
+    /** The fewest pilot rounds played in every stratum */
+    static final int MIN_PILOT_ROUNDS = 20;
+
+    /** The composition index of the lower player card, the higher one and the upcard of each stratum */
+    private static final int[] LOW = new int[STRATA];
+    private static final int[] HIGH = new int[STRATA];
+    private static final int[] UP = new int[STRATA];
+
+    static {
+        for (int high = 0; high < Composition.RANKS; high++) {
+            for (int low = 0; low <= high; low++) {
+                for (int up = 0; up < Composition.RANKS; up++) {
+                    int s = (high * (high + 1) / 2 + low) * Composition.RANKS + up;
+                    LOW[s] = low;
+                    HIGH[s] = high;
+                    UP[s] = up;
+                }
+            }
+        }
+    }
+
+    /** The number of worker threads used to play the strata */
+    private final int threads;
+
+    /** The table rules every round is played by */
+    private final RuleTable rules;
+
+    /** The player's compiled strategy, shared by every stratum */
+    private final StrategyTable strategy;
+
+    /**
+     * Constructor — chooses the rules and the playing strategy.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules, including the shoe
+     * @param strategy the player's strategy (compiled once, here)
+     */
+    public StratifiedSimulation(int threads, RuleTable rules, Strategy strategy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.rules = rules;
+        this.strategy = StrategyTable.compile(strategy);
+    }
+
+    /**
+     * Returns the index of the stratum of a starting hand against an upcard.
+     *
+     * @param card1 the value of one of the player's cards (2 to 11)
+     * @param card2 the value of the player's other card (2 to 11)
+     * @param upcard the value of the dealer's upcard (2 to 11)
+     * @return the index, from 0 to STRATA - 1
+     */
+    public static int stratum(int card1, int card2, int upcard) {
+        int low = Composition.index(Math.min(card1, card2));
+        int high = Composition.index(Math.max(card1, card2));
+        return (high * (high + 1) / 2 + low) * Composition.RANKS + Composition.index(upcard);
+    }
+
+    /**
+     * @param stratum the index of a stratum
+     * @return the value of the player's lower card (2 to 11)
+     */
+    public static int lowCard(int stratum) {
+        return Composition.value(LOW[stratum]);
+    }
+
+    /**
+     * @param stratum the index of a stratum
+     * @return the value of the player's higher card (2 to 11)
+     */
+    public static int highCard(int stratum) {
+        return Composition.value(HIGH[stratum]);
+    }
+
+    /**
+     * @param stratum the index of a stratum
+     * @return the value of the dealer's upcard (2 to 11)
+     */
+    public static int upcard(int stratum) {
+        return Composition.value(UP[stratum]);
+    }
+
+    /**
+     * Works out the exact probability of every stratum on the first round of a fresh shoe.
+     * The player's first card, the upcard and the player's second card come off the top in
+     * that order, each drawn from what the earlier ones left.
+     *
+     * @param numDecks the number of 52-card decks in the shoe
+     * @return the probability of each stratum, adding up to 1
+     */
+    public static double[] probabilities(int numDecks) {
+        int[] counts = Composition.full(numDecks);
+        double cards = Composition.total(counts);
+        double[] probabilities = new double[STRATA];
+        for (int first = 0; first < Composition.RANKS; first++) {
+            double p1 = counts[first] / cards;
+            counts[first]--;
+            for (int up = 0; up < Composition.RANKS; up++) {
+                double p2 = counts[up] / (cards - 1);
+                counts[up]--;
+                for (int second = 0; second < Composition.RANKS; second++) {
+                    double p3 = counts[second] / (cards - 2);
+                    probabilities[stratum(Composition.value(first), Composition.value(second), Composition.value(up))] += p1 * p2 * p3;
+                }
+                counts[up]++;
+            }
+            counts[first]++;
+        }
+        return probabilities;
+    }
+
+    /**
+     * Plays the rounds with a fresh, random master seed (stored in the result).
+     *
+     * @param games the total number of rounds to play, pilot included
+     * @return the second phase's rounds, by stratum
+     */
+    public StratifiedResult run(long games) {
+        return run(games, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays a pilot in every stratum, shares the rest of the rounds out by Neyman allocation,
+     * and plays them.
+     *
+     * @param games the total number of rounds to play, pilot included
+     * @param seed the master seed every stratum's generator is derived from
+     * @return the second phase's rounds, by stratum
+     */
+    public StratifiedResult run(long games, long seed) {
+        int pilot = (int) Math.max(MIN_PILOT_ROUNDS, games / 10 / STRATA); // About a tenth of the budget
+        long remaining = games - (long) pilot * STRATA;
+        if (remaining < 2L * STRATA) {
+            throw new IllegalArgumentException("games must be at least " + ((long) (pilot + 2) * STRATA) + ": " + games);
+        }
+        double[] probabilities = probabilities(rules.decks);
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        StratifiedResult result = new StratifiedResult(probabilities);
+        try {
+            long[] rounds = new long[STRATA];
+            Arrays.fill(rounds, pilot);
+            StratifiedResult pilotResult = new StratifiedResult(probabilities);
+            pool.invoke(new StratumTask(pilotResult, rounds, seed, 0, 0, STRATA));
+
+            pool.invoke(new StratumTask(result, allocate(pilotResult, remaining), seed, STRATA, 0, STRATA));
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Shares rounds out over the strata in proportion to probability * standard deviation, as
+     * measured by the pilot. Every stratum gets at least two rounds, so its variance is known.
+     *
+     * @param pilot the pilot's rounds
+     * @param games the rounds to share out
+     * @return how many rounds each stratum gets
+     */
+    static long[] allocate(StratifiedResult pilot, long games) {
+        double[] weights = new double[STRATA];
+        double sum = 0;
+        for (int s = 0; s < STRATA; s++) {
+            weights[s] = pilot.probability(s) * Math.sqrt(pilot.getStratum(s).variance());
+            sum += weights[s];
+        }
+        long[] rounds = new long[STRATA];
+        long spare = games - 2L * STRATA; // Two rounds each are set aside first
+        for (int s = 0; s < STRATA; s++) {
+            double share = sum == 0 ? pilot.probability(s) : weights[s] / sum;
+            rounds[s] = 2 + (long) (spare * share);
+        }
+        return rounds;
+    }
+
+    /**
+     * Plays rounds of one stratum: each from a full shoe with the stratum's cards dealt first
+     * and the rest of the shoe shuffled. The shoe is only built once; before each round the
+     * cursor is put back and everything after the first three cards is shuffled again.
+     *
+     * @param stratum the index of the stratum
+     * @param rounds how many rounds to play
+     * @param seed the seed for this stratum's generator
+     * @param result where the rounds are recorded
+     */
+    void playStratum(int stratum, long rounds, long seed, StratifiedResult result) {
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        int low = lowCard(stratum);
+        int high = highCard(stratum);
+        int up = upcard(stratum);
+        game.deck.build();
+        game.deck.arrange(low, up, high); // Player, dealer, player: the hole card is the next one
+        for (long r = 0; r < rounds; r++) {
+            game.deck.seek(3);
+            game.deck.shuffle();          // Only the cards after the first three, which never move
+            game.deck.seek(0);
+            result.record(stratum, game.play());
+        }
+    }
+
+    /**
+     * A fork/join task that plays the strata in [from, to).
+     * Ranges of more than one stratum are split in half; every stratum writes only its own stats.
+     */
+    private class StratumTask extends RecursiveAction {
+
+        /** Declared because RecursiveAction is Serializable */
+        private static final long serialVersionUID = 1L;
+
+        /** Where the rounds are recorded */
+        private final StratifiedResult result;
+
+        /** How many rounds each stratum plays */
+        private final long[] rounds;
+
+        /** The master seed of the run */
+        private final long seed;
+
+        /** Added to a stratum's index to pick its generator, so each phase deals different cards */
+        private final int offset;
+
+        /** The first stratum covered by this task */
+        private final int from;
+
+        /** One past the last stratum covered by this task */
+        private final int to;
+
+        StratumTask(StratifiedResult result, long[] rounds, long seed, int offset, int from, int to) {
+            this.result = result;
+            this.rounds = rounds;
+            this.seed = seed;
+            this.offset = offset;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                playStratum(from, rounds[from], ParallelSimulation.shardSeed(seed, offset + from), result);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new StratumTask(result, rounds, seed, offset, from, mid),
+                    new StratumTask(result, rounds, seed, offset, mid, to));
+        }
+    }
+}
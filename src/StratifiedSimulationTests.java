@@ -0,0 +1,114 @@
+/*
+file name:      StratifiedSimulationTests.java
+Author:        Azeem Gbolahan
+last modified:  10/17/2026
+
+How to run:     java -ea StratifiedSimulationTests
+*/
+
+public class StratifiedSimulationTests {
+
+    public static void stratifiedSimulationTests() {
+
+        // case 1: testing the strata and their exact probabilities
+        {
+            // set up
+            double[] single = StratifiedSimulation.probabilities(1);
+            double[] six = StratifiedSimulation.probabilities(6);
+            int s = StratifiedSimulation.stratum(10, 11, 10);
+
+            // verify
+            System.out.println(StratifiedSimulation.STRATA + " strata, P(A,10 vs 10) = " + single[s]);
+
+            // test
+            assert StratifiedSimulation.STRATA == 550 : "Error in StratifiedSimulation - number of strata";
+            assert StratifiedSimulation.stratum(11, 10, 10) == s : "Error in StratifiedSimulation::stratum() - order of the player's cards";
+            assert StratifiedSimulation.lowCard(s) == 10 && StratifiedSimulation.highCard(s) == 11
+                    && StratifiedSimulation.upcard(s) == 10 : "Error in StratifiedSimulation - decoding a stratum";
+            // The Ace first (4/52, then a ten up 16/51, then a ten 15/50), or a ten first (16/52, 15/51, then an Ace 4/50)
+            assert Math.abs(single[s] - 2 * 4.0 * 16 * 15 / (52 * 51 * 50)) < 1e-15 : "Error in StratifiedSimulation::probabilities()";
+            double sumSingle = 0;
+            double sumSix = 0;
+            for (int i = 0; i < StratifiedSimulation.STRATA; i++) {
+                assert StratifiedSimulation.stratum(StratifiedSimulation.lowCard(i), StratifiedSimulation.highCard(i),
+                        StratifiedSimulation.upcard(i)) == i : "Error in StratifiedSimulation - stratum " + i;
+                assert single[i] > 0 : "Error in StratifiedSimulation::probabilities() - an empty stratum";
+                sumSingle += single[i];
+                sumSix += six[i];
+            }
+            assert Math.abs(sumSingle - 1) < 1e-12 && Math.abs(sumSix - 1) < 1e-12 : "Error in StratifiedSimulation::probabilities() - does not add up to 1";
+            // Pairs are harder to get from one deck than from six
+            assert single[StratifiedSimulation.stratum(8, 8, 6)] < six[StratifiedSimulation.stratum(8, 8, 6)] : "Error in StratifiedSimulation::probabilities() - removal";
+        }
+
+        // case 2: testing the Neyman allocation
+        {
+            // set up: every stratum equally likely; half of them never vary, the rest vary as 1 and 3
+            double[] probabilities = new double[StratifiedSimulation.STRATA];
+            java.util.Arrays.fill(probabilities, 1.0 / StratifiedSimulation.STRATA);
+            StratifiedResult pilot = new StratifiedResult(probabilities);
+            for (int s = 0; s < StratifiedSimulation.STRATA; s++) {
+                double spread = s % 2 == 0 ? 0 : (s % 4 == 1 ? 1 : 3);
+                pilot.record(s, -spread);
+                pilot.record(s, spread);
+            }
+
+            // verify
+            long[] rounds = StratifiedSimulation.allocate(pilot, 100 * StratifiedSimulation.STRATA);
+            System.out.println("rounds " + rounds[0] + ", " + rounds[1] + ", " + rounds[3]);
+
+            // test
+            long total = 0;
+            for (long n : rounds) {
+                total += n;
+            }
+            assert total <= 100 * StratifiedSimulation.STRATA && total > 99 * StratifiedSimulation.STRATA : "Error in StratifiedSimulation::allocate() - total";
+            assert rounds[0] == 2 : "Error in StratifiedSimulation::allocate() - a stratum that does not vary still gets two rounds";
+            assert Math.abs(rounds[3] - 2 - 3 * (rounds[1] - 2)) <= 3 : "Error in StratifiedSimulation::allocate() - not proportional to the spread";
+        }
+
+        // case 3: testing the stratified edge against plain rounds off the top of a fresh shoe
+        {
+            // set up
+            RuleTable rules = new Rules().setDecks(1).compile();
+            StratifiedResult one = new StratifiedSimulation(1, rules, new BasicStrategy()).run(300_000, 8);
+            StratifiedResult four = new StratifiedSimulation(4, rules, new BasicStrategy()).run(300_000, 8);
+
+            RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(8));
+            game.setStrategy(new BasicStrategy());
+            RunningStats plain = new RunningStats();
+            for (int i = 0; i < 300_000; i++) {
+                game.deck.build();
+                game.deck.shuffle();
+                plain.add(game.play());
+            }
+
+            // verify
+            System.out.println("stratified " + one);
+            System.out.println("plain " + plain.getMean() + " +/- " + plain.standardError());
+
+            // test
+            assert one.expectedValue() == four.expectedValue() && one.games() == four.games() : "Error in StratifiedSimulation - results depend on the number of threads";
+            assert one.games() > 265_000 && one.games() <= 271_000 : "Error in StratifiedSimulation - the pilot should take a tenth of the rounds";
+            double error = Math.hypot(one.standardError(), plain.standardError());
+            assert Math.abs(one.expectedValue() - plain.getMean()) < 4 * error : "Error in StratifiedSimulation - the edge is off";
+            assert one.varianceReductionFactor() > 1.25 : "Error in StratifiedSimulation - stratifying should cut the variance";
+            assert Math.abs(one.plainStandardError() - plain.standardError() * Math.sqrt(300_000.0 / one.games())) < 0.1 * plain.standardError()
+                    : "Error in StratifiedResult::plainStandardError()";
+
+            // The strata double as a decision table
+            assert one.getStratum(10, 10, 6).getMean() > 0.6 : "Error in StratifiedResult - 20 against a 6";
+            assert one.getStratum(10, 6, 10).getMean() < -0.4 : "Error in StratifiedResult - 16 against a 10";
+            RunningStats natural = one.getStratum(11, 10, 5);
+            assert natural.getMean() == 1.5 && natural.variance() == 0 : "Error in StratifiedSimulation - a natural against a 5 always pays 3:2";
+        }
+
+        System.out.println("*** Done testing StratifiedSimulation! ***\n");
+    }
+
+
+    public static void main(String[] args) {
+
+        stratifiedSimulationTests();
+    }
+}
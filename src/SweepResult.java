@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: Holds the results of a strategy sweep: one SimulationResult per
+ * variant, plus the per-hand difference in outcome between every pair of variants.
+ *
+ * Because every variant in a sweep plays the same cards, a hand that is good for one variant
+ * tends to be good for the others too. The difference between two variants therefore varies
+ * much less from hand to hand than either result on its own, and its standard error (kept
+ * here in a RunningStats per pair) is much smaller than the two separate errors combined.
+ * That is what makes it possible to rank close variants with relatively few hands.
+ */
+public class SweepResult {
+
+    /** The name of each variant, in sweep order */
+    private final String[] names;
+
+    /** The outcome counters of each variant */
+    private final SimulationResult[] results;
+
+    /** For i < j, the per-round net profit of variant i minus that of variant j */
+    private final RunningStats[][] differences;
+
+    /** Wall-clock time the sweep took, in nanoseconds */
+    private long elapsedNanos;
+
+    /** The master seed the sweep was played with */
+    private long seed;
+
+    /**
+     * Constructor — creates an empty result for the given variants.
+     *
+     * @param names the name of each variant
+     */
+    public SweepResult(String[] names) {
+        this.names = names;
+        this.results = new SimulationResult[names.length];
+        this.differences = new RunningStats[names.length][names.length];
+        for (int i = 0; i < names.length; i++) {
+            results[i] = new SimulationResult();
+            for (int j = i + 1; j < names.length; j++) {
+                differences[i][j] = new RunningStats();
+            }
+        }
+    }
+
+    /**
+     * Records one round that every variant played from the same cards.
+     *
+     * @param nets the player's net profit for each variant, in units of the original bet
+     */
+    public void record(double[] nets) {
+        for (int i = 0; i < nets.length; i++) {
+            results[i].record((int) Math.signum(nets[i]), nets[i]);
+            for (int j = i + 1; j < nets.length; j++) {
+                differences[i][j].add(nets[i] - nets[j]);
+            }
+        }
+    }
+
+    /**
+     * Adds the counters of another sweep over the same variants into this one.
+     *
+     * @param other the result to merge into this one
+     */
+    public void merge(SweepResult other) {
+        for (int i = 0; i < results.length; i++) {
+            results[i].merge(other.results[i]);
+            for (int j = i + 1; j < results.length; j++) {
+                differences[i][j].merge(other.differences[i][j]);
+            }
+        }
+    }
+
+    /** @return the number of variants */
+    public int variants() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a variant.
+     *
+     * @param i the index of the variant
+     * @return its name
+     */
+    public String getName(int i) {
+        return names[i];
+    }
+
+    /**
+     * Returns the outcome counters of a variant.
+     *
+     * @param i the index of the variant
+     * @return its result
+     */
+    public SimulationResult getResult(int i) {
+        return results[i];
+    }
+
+    /**
+     * Returns the paired difference between two variants: the mean of the per-round net profit
+     * of variant i minus that of variant j, with its variance.
+     *
+     * @param i the first variant
+     * @param j the second variant
+     * @return the statistics of the difference (i - j)
+     */
+    public RunningStats difference(int i, int j) {
+        if (i == j) {
+            return new RunningStats(); // no difference at all
+        }
+        if (i < j) {
+            return differences[i][j];
+        }
+        // Only i < j is stored; flip the sign of the stored difference
+        RunningStats flipped = new RunningStats();
+        flipped.merge(differences[j][i]);
+        return flipped.negate();
+    }
+
+    /**
+     * Returns the variants ordered from the highest expected value to the lowest.
+     *
+     * @return the variant indices, best first
+     */
+    public int[] ranking() {
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(results[b].expectedValue(), results[a].expectedValue()));
+        int[] ranks = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranks[i] = order[i];
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the number of hands each variant played.
+     *
+     * @return the number of hands
+     */
+    public long games() {
+        return results.length == 0 ? 0 : results[0].games();
+    }
+
+    /**
+     * Sets the wall-clock time the sweep took.
+     *
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the wall-clock time the sweep took, in nanoseconds */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Records the master seed the sweep was played with.
+     *
+     * @param seed the master seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the master seed the sweep was played with */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,20 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A RandomSource backed by java.util.concurrent.ThreadLocalRandom.
+ * Every thread uses its own generator, so no state is shared between workers,
+ * but the generator cannot be seeded and its shuffles cannot be repeated.
+ */
+public class ThreadLocalRandomSource implements RandomSource {
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: The simplest playing strategy: keep hitting until the total reaches a
+ * fixed number, then stand, ignoring the dealer's upcard. A threshold of 17 is the rule the
+ * simulation has always used ("hit while the total is 16 or less").
+ */
+public class ThresholdStrategy implements Strategy {
+
+    /** The total at which the player stops hitting */
+    private final int standAt;
+
+    /**
+     * Constructor — creates a strategy that stands on the given total or more.
+     *
+     * @param standAt the lowest total the player stands on
+     */
+    public ThresholdStrategy(int standAt) {
+        this.standAt = standAt;
+    }
+
+    @Override
+    public int decide(int total, boolean soft, int dealerUpcard) {
+        return total < standAt ? HIT : STAND;
+    }
+
+    /** @return the lowest total the player stands on */
+    public int getStandAt() {
+        return standAt;
+    }
+
+    @Override
+    public String toString() {
+        return "stand on " + standAt;
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Author: Azeem Gbolahan
+ *
+ * File: VarianceReducedSimulation.java
+ *
+ * Purpose:
+ * This class estimates the player's edge like ParallelSimulation, but with opt-in Monte Carlo
+ * variance reduction, so the same precision takes fewer rounds. Two estimators are offered,
+ * switched on with chainable setters like the ones in Rules:
+ *
+ * - Antithetic shoes: shoes are played in pairs, and the second shoe of a pair is the first one
+ *   with every card swapped for its mirror (2 for Ace, 3 for 9, ... see Composition.mirror()),
+ *   in the same order. The mirror of a shuffled shoe is just as likely as the shoe itself, so
+ *   each shoe is still a fair sample; but where one shoe runs rich in high cards its partner
+ *   runs rich in low ones, and the pair's average wobbles less than two independent shoes'.
+ *
+ * - A dealer-bust control variate: whenever the dealer draws, the round adds
+ *   (1 if the dealer busted, else 0) minus the chance of busting on each card the dealer drew,
+ *   worked out from the dealer's total and the exact cards left in the shoe before that card.
+ *   Each chance is the expected value of busting on that draw given everything dealt so far,
+ *   so the control has a mean of exactly zero on any shoe, and it costs one pass over the
+ *   composition per dealer hit. The player's profit moves strongly with the dealer's luck, so
+ *   subtracting a fitted multiple of the control takes out part of the round-to-round spread
+ *   without moving the estimate.
+ *
+ * Every shoe is played from a fresh shuffle until its cut card comes out (or a round runs it
+ * dry and has to finish from the reshuffled discards), and the results are
+ * kept per shoe and per pair (see VarianceReducedResult), so each run also reports the plain
+ * estimate and the variance reduction factor each estimator achieved on the same rounds.
+ * Pairs of shoes are cut into shards of PAIRS_PER_SHARD and played like ParallelSimulation's
+ * shards, so a seed gives the same answer on any number of threads.
+ */
+public class VarianceReducedSimulation {
+
+    /** How many pairs of shoes one shard plays */
+    static final int PAIRS_PER_SHARD = 256;
+
+    /** The number of worker threads used to play the shards */
+    private final int threads;
+
+    /** The table rules every shoe is played by */
+    private final RuleTable rules;
+
+    /** The player's compiled strategy, shared by every shard */
+    private final StrategyTable strategy;
+
+    /** Whether the second shoe of each pair mirrors the first */
+    private boolean antithetic;
+
+    /** Whether the dealer-bust control variate is kept */
+    private boolean controlVariate;
+
+    /**
+     * Constructor — chooses the rules and the playing strategy. Both estimators start off.
+     *
+     * @param threads the number of worker threads (at least 1)
+     * @param rules the compiled table rules, including the shoe
+     * @param strategy the player's strategy (compiled once, here)
+     */
+    public VarianceReducedSimulation(int threads, RuleTable rules, Strategy strategy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.rules = rules;
+        this.strategy = StrategyTable.compile(strategy);
+    }
+
+    /**
+     * Turns antithetic shoe pairs on or off.
+     *
+     * @param antithetic true to mirror the second shoe of each pair, false to shuffle it afresh
+     * @return this simulation, for chaining
+     */
+    public VarianceReducedSimulation setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+        return this;
+    }
+
+    /**
+     * Turns the dealer-bust control variate on or off.
+     *
+     * @param controlVariate true to keep the control and correct the estimate with it
+     * @return this simulation, for chaining
+     */
+    public VarianceReducedSimulation setControlVariate(boolean controlVariate) {
+        this.controlVariate = controlVariate;
+        return this;
+    }
+
+    /** @return the table rules every shoe is played by */
+    public RuleTable getRules() {
+        return rules;
+    }
+
+    /**
+     * Plays pairs of shoes with a fresh, random master seed (stored in the result).
+     *
+     * @param pairs the number of pairs of shoes to play
+     * @return the merged result of every shoe
+     */
+    public VarianceReducedResult run(long pairs) {
+        return run(pairs, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Plays pairs of shoes across all worker threads and merges their results.
+     *
+     * @param pairs the number of pairs of shoes to play
+     * @param seed the master seed every shard's generator is derived from
+     * @return the merged result of every shoe
+     */
+    public VarianceReducedResult run(long pairs, long seed) {
+        if (pairs < 0) {
+            throw new IllegalArgumentException("pairs must not be negative: " + pairs);
+        }
+        boolean mirror = antithetic;
+        boolean control = controlVariate;
+        ShardPlayer<VarianceReducedResult> player = new ShardPlayer<VarianceReducedResult>() {
+            @Override
+            public VarianceReducedResult play(long count, long shardSeed) {
+                return playShard(count, shardSeed, mirror, control);
+            }
+
+            @Override
+            public VarianceReducedResult empty() {
+                return new VarianceReducedResult(mirror, control);
+            }
+
+            @Override
+            public void merge(VarianceReducedResult into, VarianceReducedResult other) {
+                into.merge(other);
+            }
+        };
+
+        long shards = (pairs + PAIRS_PER_SHARD - 1) / PAIRS_PER_SHARD;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        VarianceReducedResult result;
+        try {
+            result = ParallelSimulation.playShards(pool, player, PAIRS_PER_SHARD, pairs, seed, 0, shards);
+        } finally {
+            pool.shutdown();
+        }
+        result.setElapsedNanos(System.nanoTime() - start);
+        result.setSeed(seed);
+        return result;
+    }
+
+    /**
+     * Plays one shard of shoe pairs on a single RoundEngine.
+     *
+     * @param count the number of pairs in the shard
+     * @param seed the seed for this shard's generator
+     * @param mirror whether the second shoe of each pair mirrors the first
+     * @param control whether to keep the dealer-bust control variate
+     * @return the results of this shard's shoes
+     */
+    VarianceReducedResult playShard(long count, long seed, boolean mirror, boolean control) {
+        RoundEngine game = new RoundEngine(rules, new SplittableRandomSource(seed));
+        game.setStrategy(strategy);
+        ShoePlayer shoe = new ShoePlayer(game, control);
+        VarianceReducedResult result = new VarianceReducedResult(mirror, control);
+        Card[] shuffled = mirror ? new Card[rules.decks * Deck.CARDS_PER_DECK] : null; // The first shoe of each pair, as shuffled
+
+        for (long p = 0; p < count; p++) {
+            game.deck.build();
+            game.deck.shuffle();
+            if (mirror) {
+                game.deck.save(shuffled);
+            }
+            shoe.play();
+            double profit1 = shoe.profit;
+            long rounds1 = shoe.rounds;
+            double control1 = shoe.control;
+
+            if (mirror) {
+                game.deck.restore(shuffled, 0); // The shoe as shuffled, even if a round reshuffled the discards
+                game.deck.mirror();
+            } else {
+                game.deck.build();
+                game.deck.shuffle();
+            }
+            shoe.play();
+            result.record(profit1, rounds1, control1, shoe.profit, shoe.rounds, shoe.control);
+        }
+        return result;
+    }
+
+    /**
+     * Plays every round of one shoe and adds up its profit, its rounds and its control.
+     */
+    static class ShoePlayer {
+
+        /** The engine that plays the rounds */
+        private final RoundEngine game;
+
+        /** Whether the dealer-bust control is kept */
+        private final boolean keepControl;
+
+        /** Scratch space for the shoe's composition */
+        private final int[] counts = new int[Composition.RANKS];
+
+        /** The player's net profit over the last shoe played */
+        double profit;
+
+        /** How many rounds the last shoe dealt */
+        long rounds;
+
+        /** The sum of the last shoe's dealer-bust controls */
+        double control;
+
+        ShoePlayer(RoundEngine game, boolean keepControl) {
+            this.game = game;
+            this.keepControl = keepControl;
+        }
+
+        /**
+         * Plays rounds from the engine's shoe until its cut card has come out, or until a round
+         * runs it dry. The shoe must have just been shuffled (or mirrored).
+         */
+        void play() {
+            profit = 0;
+            rounds = 0;
+            control = 0;
+            do {
+                profit += game.play();
+                rounds++;
+                if (keepControl) {
+                    control += bustControl();
+                }
+            } while (!game.deck.needsShuffle() && !game.deck.reshuffledThisRound());
+        }
+
+        /**
+         * Returns the control for the round just played: whether the dealer busted, minus the
+         * chance of busting on each card the dealer drew, worked out from the dealer's total and
+         * the exact cards left in the shoe just before that card. Each of those chances is the
+         * expected value of busting on that draw given everything dealt so far, so the control
+         * has a mean of exactly zero.
+         *
+         * If the shoe ran dry while the dealer was drawing, the hits before that came from the
+         * end of the old shoe, which held exactly those hits and nothing else; the hits after it
+         * came from the reshuffled discards, which the deck's composition describes.
+         *
+         * @return the control, or 0 if the dealer did not draw this round
+         */
+        double bustControl() {
+            Hand hand = game.dealer;
+            if (hand.size() < 3) {
+                return 0; // Either the dealer never played, or stood on two cards and could not bust
+            }
+            // The first hit dealt from the shoe the deck holds now: later than the dealer's first
+            // hit only if the old shoe ran out while the dealer was drawing
+            int firstFresh = game.deck.reshuffledThisRound()
+                    ? Math.max(2, hand.size() - game.deck.dealtSinceReshuffle()) : 2;
+            int left = shoeBefore(2, firstFresh);
+
+            // Replay the dealer's hits, adding up the chance that each one busts
+            int total = hand.getCard(0).getValue() + hand.getCard(1).getValue();
+            int softAces = (hand.getCard(0).getValue() == 11 ? 1 : 0) + (hand.getCard(1).getValue() == 11 ? 1 : 0);
+            if (total > 21) {
+                total -= 10; // Two Aces are a soft 12
+                softAces--;
+            }
+            double expected = 0;
+            for (int k = 2; k < hand.size(); k++) {
+                if (k == firstFresh && k > 2) {
+                    left = shoeBefore(k, k); // The old shoe is out: this hit came from the reshuffled discards
+                }
+                int busting = 0;
+                if (softAces == 0) { // A soft hand cannot bust on one card
+                    for (int i = Math.max(0, 22 - total - Card.MIN_VALUE); i < Composition.RANKS - 1; i++) {
+                        busting += counts[i]; // Every value from 22 - total up to 10 busts (an Ace counts 1)
+                    }
+                }
+                expected += (double) busting / left;
+
+                int value = hand.getCard(k).getValue();
+                counts[value - Card.MIN_VALUE]--;
+                left--;
+                total += value;
+                softAces += value == 11 ? 1 : 0;
+                if (total > 21 && softAces > 0) {
+                    total -= 10;
+                    softAces--;
+                }
+            }
+            return (hand.getTotalValue() > 21 ? 1 : 0) - expected;
+        }
+
+        /**
+         * Fills counts with the shoe as it was just before one of the dealer's hits.
+         *
+         * @param k the position of the hit in the dealer's hand
+         * @param firstFresh the position of the first hit from the shoe the deck holds now
+         * @return the number of cards in that shoe
+         */
+        private int shoeBefore(int k, int firstFresh) {
+            Hand hand = game.dealer;
+            int end = hand.size();
+            if (k < firstFresh) {
+                Arrays.fill(counts, 0); // The end of the old shoe: only the hits up to the one that emptied it
+                end = firstFresh;
+            } else {
+                game.deck.composition(counts); // The cards left plus those the dealer drew from here on
+            }
+            for (int j = k; j < end; j++) {
+                counts[hand.getCard(j).getValue() - Card.MIN_VALUE]++;
+            }
+            return Composition.total(counts);
+        }
+    }
+}
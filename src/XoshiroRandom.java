@@ -0,0 +1,82 @@
+/**
+ * Author: Azeem Gbolahan
+ * Purpose of the class: A RandomSource that implements the xoshiro256** generator
+ * (Blackman and Vigna). It keeps 256 bits of state in four longs and produces
+ * each value with a handful of shifts, rotations and xors.
+ *
+ * Bounded values use Lemire's multiply-and-shift method, which only needs a
+ * division in the rare case where a value has to be rejected to stay unbiased.
+ */
+public class XoshiroRandom implements RandomSource {
+
+    /** The four words of generator state (never all zero) */
+    private long s0, s1, s2, s3;
+
+    /**
+     * Constructor — creates a generator with a fresh, unpredictable seed.
+     */
+    public XoshiroRandom() {
+        this(System.nanoTime() ^ Thread.currentThread().getId() * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Constructor that creates a generator from a fixed seed.
+     * The seed is expanded into the four state words with splitmix64, as recommended
+     * by the authors of xoshiro, so that similar seeds still give unrelated sequences.
+     *
+     * @param seed the seed; the same seed always gives the same sequence
+     */
+    public XoshiroRandom(long seed) {
+        s0 = splitMix(seed += 0x9E3779B97F4A7C15L);
+        s1 = splitMix(seed += 0x9E3779B97F4A7C15L);
+        s2 = splitMix(seed += 0x9E3779B97F4A7C15L);
+        s3 = splitMix(seed + 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+
+        // Multiply a random 32-bit value by the bound; the high half is the result
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            // Only values in the short "leftover" range need to be rejected to avoid bias
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * One step of the splitmix64 mixing function.
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}